@@ -0,0 +1,102 @@
+package org.apache.maven.scm.provider.svn.svnjava.benchmarks;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.scm.ScmFile;
+import org.apache.maven.scm.ScmFileStatus;
+import org.apache.maven.scm.provider.svn.svnjava.util.CompactScmFileList;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Heap retained by the file list of a command result, in bytes per entry: the plain {@link ArrayList} of
+ * {@link ScmFile} the handlers used to build, against the {@link CompactScmFileList} they build now. The paths
+ * are those of a {@link SyntheticRepository} checkout, each one a new string as when they come from svn events.
+ * <p>
+ * Run with <code>java -cp target/benchmarks.jar
+ * org.apache.maven.scm.provider.svn.svnjava.benchmarks.ScmFileListFootprint [files] [depth]</code>, by default
+ * 500000 files 4 directories deep.
+ * </p>
+ */
+public final class ScmFileListFootprint
+{
+    private static final int ROUNDS = 3;
+
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+
+    private ScmFileListFootprint()
+    {
+        // no op
+    }
+
+    public static void main( String[] args )
+    {
+        int files = args.length > 0 ? Integer.parseInt( args[0] ) : 500000;
+        int depth = args.length > 1 ? Integer.parseInt( args[1] ) : 4;
+        SyntheticRepository tree = new SyntheticRepository( null, files, depth, 0 );
+
+        System.out.println( files + " files, " + depth + " directories deep, e.g. " + tree.getPath( files - 1 ) );
+        for ( int round = 1; round <= ROUNDS; round++ )
+        {
+            long arrayList = measure( new ArrayList<ScmFile>(), tree, files );
+            long compact = measure( new CompactScmFileList(), tree, files );
+            System.out.printf( "round %d: ArrayList<ScmFile> %6.1f bytes/entry, CompactScmFileList %6.1f bytes/entry%n",
+                               round, (double) arrayList / files, (double) compact / files );
+        }
+    }
+
+    /**
+     * @return the heap retained by the list once filled
+     */
+    private static long measure( List<ScmFile> list, SyntheticRepository tree, int files )
+    {
+        long before = usedHeap();
+        for ( int i = 0; i < files; i++ )
+        {
+            list.add( new ScmFile( tree.getPath( i ), ScmFileStatus.CHECKED_OUT ) );
+        }
+        if ( list instanceof ArrayList )
+        {
+            ( (ArrayList<ScmFile>) list ).trimToSize();
+        }
+        else
+        {
+            ( (CompactScmFileList) list ).trimToSize();
+        }
+        long retained = usedHeap() - before;
+        if ( list.size() != files )
+        {
+            throw new IllegalStateException( "lost entries" );
+        }
+        return retained;
+    }
+
+    private static long usedHeap()
+    {
+        for ( int i = 0; i < 4; i++ )
+        {
+            System.gc();
+        }
+        return MEMORY.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,49 @@
+package org.apache.maven.scm.provider.svn.svnjava.benchmarks;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of <code>benchmarks.jar</code>: the regular JMH command line, with the gc profiler always on so
+ * that allocation rates are reported next to the throughput.
+ */
+public final class SvnJavaBenchmarks
+{
+    private SvnJavaBenchmarks()
+    {
+        // no op
+    }
+
+    public static void main( String[] args )
+        throws Exception
+    {
+        CommandLineOptions commandLine = new CommandLineOptions( args );
+        if ( commandLine.shouldHelp() || commandLine.shouldList() || commandLine.shouldListProfilers() )
+        {
+            org.openjdk.jmh.Main.main( args );
+            return;
+        }
+        new Runner( new OptionsBuilder().parent( commandLine ).addProfiler( GCProfiler.class ).build() ).run();
+    }
+}
@@ -0,0 +1,244 @@
+package org.apache.maven.scm.provider.svn.svnjava.benchmarks;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.scm.ScmBranch;
+import org.apache.maven.scm.ScmException;
+import org.apache.maven.scm.ScmFileSet;
+import org.apache.maven.scm.ScmResult;
+import org.apache.maven.scm.ScmRevision;
+import org.apache.maven.scm.command.blame.BlameScmResult;
+import org.apache.maven.scm.command.changelog.ChangeLogScmResult;
+import org.apache.maven.scm.command.checkout.CheckOutScmResult;
+import org.apache.maven.scm.command.diff.DiffScmResult;
+import org.apache.maven.scm.command.status.StatusScmResult;
+import org.apache.maven.scm.command.update.UpdateScmResult;
+import org.apache.maven.scm.provider.svn.svnjava.SvnJavaScmProvider;
+import org.apache.maven.scm.repository.ScmRepository;
+import org.codehaus.plexus.util.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the main commands of the provider on a {@link SyntheticRepository}.
+ */
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+@Warmup( iterations = 3, time = 5 )
+@Measurement( iterations = 5, time = 5 )
+@Fork( 1 )
+public class SvnJavaCommandBenchmarks
+{
+    /**
+     * The repository, shared by all the benchmarks of a trial.
+     */
+    @State( Scope.Benchmark )
+    public static class Repository
+    {
+        @Param( { "500" } )
+        public int files;
+
+        @Param( { "3" } )
+        public int depth;
+
+        @Param( { "20" } )
+        public int revisions;
+
+        SyntheticRepository repository;
+
+        SvnJavaScmProvider provider;
+
+        ScmRepository scmRepository;
+
+        File baseDirectory;
+
+        @Setup( Level.Trial )
+        public void setUp()
+            throws Exception
+        {
+            baseDirectory = Files.createTempDirectory( "svnjava-benchmarks" ).toFile();
+            repository = new SyntheticRepository( new File( baseDirectory, "repository" ), files, depth, revisions );
+            repository.create();
+
+            provider = new SvnJavaScmProvider();
+            scmRepository = new ScmRepository( "javasvn", provider.makeProviderScmRepository(
+                repository.getTrunkUrl().toString(), ':' ) );
+        }
+
+        @TearDown( Level.Trial )
+        public void tearDown()
+            throws IOException
+        {
+            FileUtils.deleteDirectory( baseDirectory );
+        }
+
+        File newDirectory( String prefix )
+            throws IOException
+        {
+            return Files.createTempDirectory( baseDirectory.toPath(), prefix ).toFile();
+        }
+
+        ScmFileSet checkOut( File directory )
+            throws ScmException
+        {
+            ScmFileSet fileSet = new ScmFileSet( directory );
+            check( provider.checkOut( scmRepository, fileSet ) );
+            return fileSet;
+        }
+    }
+
+    /**
+     * A working copy at HEAD with one file out of fifty modified, for status and diff.
+     */
+    @State( Scope.Thread )
+    public static class ModifiedWorkingCopy
+    {
+        ScmFileSet fileSet;
+
+        @Setup( Level.Trial )
+        public void setUp( Repository repository )
+            throws Exception
+        {
+            fileSet = repository.checkOut( repository.newDirectory( "modified" ) );
+            for ( String path : repository.repository.getFiles( 50 ) )
+            {
+                Files.write( new File( fileSet.getBasedir(), path ).toPath(), "local change\n".getBytes( "UTF-8" ),
+                             StandardOpenOption.APPEND );
+            }
+        }
+    }
+
+    /**
+     * A clean working copy moved back and forth between the last two revisions.
+     */
+    @State( Scope.Thread )
+    public static class UpdatedWorkingCopy
+    {
+        ScmFileSet fileSet;
+
+        boolean backwards;
+
+        @Setup( Level.Trial )
+        public void setUp( Repository repository )
+            throws Exception
+        {
+            fileSet = repository.checkOut( repository.newDirectory( "updated" ) );
+        }
+    }
+
+    /**
+     * An empty directory for each checkout.
+     */
+    @State( Scope.Thread )
+    public static class CheckOutDirectory
+    {
+        File directory;
+
+        @Setup( Level.Invocation )
+        public void setUp( Repository repository )
+            throws IOException
+        {
+            directory = repository.newDirectory( "checkout" );
+        }
+
+        @TearDown( Level.Invocation )
+        public void tearDown()
+            throws IOException
+        {
+            FileUtils.deleteDirectory( directory );
+        }
+    }
+
+    @Benchmark
+    public CheckOutScmResult checkOut( Repository repository, CheckOutDirectory target )
+        throws ScmException
+    {
+        return check( repository.provider.checkOut( repository.scmRepository, new ScmFileSet( target.directory ) ) );
+    }
+
+    @Benchmark
+    public UpdateScmResult update( Repository repository, UpdatedWorkingCopy workingCopy )
+        throws ScmException
+    {
+        int head = repository.repository.getRevisions();
+        workingCopy.backwards = !workingCopy.backwards;
+        ScmRevision revision = new ScmRevision( Integer.toString( workingCopy.backwards ? head - 1 : head ) );
+        // the changelog computed after an update needs versions, which the provider does not support
+        return check( repository.provider.update( repository.scmRepository, workingCopy.fileSet, revision, false ) );
+    }
+
+    @Benchmark
+    public StatusScmResult status( Repository repository, ModifiedWorkingCopy workingCopy )
+        throws ScmException
+    {
+        return check( repository.provider.status( repository.scmRepository, workingCopy.fileSet ) );
+    }
+
+    @Benchmark
+    public DiffScmResult diff( Repository repository, ModifiedWorkingCopy workingCopy )
+        throws ScmException
+    {
+        return check( repository.provider.diff( repository.scmRepository, workingCopy.fileSet, (ScmRevision) null,
+                                                (ScmRevision) null ) );
+    }
+
+    @Benchmark
+    public ChangeLogScmResult changeLog( Repository repository, ModifiedWorkingCopy workingCopy )
+        throws ScmException
+    {
+        return check( repository.provider.changeLog( repository.scmRepository, workingCopy.fileSet,
+                                                     repository.repository.getTrunkCreationDate(), null, 0,
+                                                     (ScmBranch) null ) );
+    }
+
+    @Benchmark
+    public BlameScmResult blame( Repository repository, ModifiedWorkingCopy workingCopy )
+        throws ScmException
+    {
+        return check( repository.provider.blame( repository.scmRepository, workingCopy.fileSet,
+                                                 repository.repository.getHotFile() ) );
+    }
+
+    static <T extends ScmResult> T check( T result )
+    {
+        if ( !result.isSuccess() )
+        {
+            throw new IllegalStateException( result.getProviderMessage() + ": " + result.getCommandOutput() );
+        }
+        return result;
+    }
+}
@@ -0,0 +1,115 @@
+package org.apache.maven.scm.provider.svn.svnjava.benchmarks;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.scm.provider.ScmProviderRepository;
+import org.apache.maven.scm.provider.svn.svnjava.SvnJavaScmProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Startup cost of the provider, as paid by a short lived command line invocation: the first
+ * {@link SvnJavaScmProvider#makeProviderScmRepository(String, char)} in a fresh JVM, class loading and svnkit
+ * repository factory setup included. Each measurement runs in its own fork, so the scores are cold times;
+ * {@link #makeRepositoryAgain(Provider)} shows the cost once everything is loaded and the url parsed.
+ */
+@BenchmarkMode( Mode.SingleShotTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 0 )
+@Measurement( iterations = 1 )
+@Fork( 20 )
+public class SvnJavaStartupBenchmarks
+{
+    /**
+     * A scm url of each protocol, the file one pointing at an existing directory.
+     */
+    @State( Scope.Benchmark )
+    public static class Url
+    {
+        @Param( { "file", "svn", "https" } )
+        public String protocol;
+
+        String url;
+
+        @Setup
+        public void setUp()
+        {
+            if ( "file".equals( protocol ) )
+            {
+                url = new File( System.getProperty( "java.io.tmpdir" ) ).toURI().toString();
+            }
+            else
+            {
+                url = protocol + "://svn.example.org/repos/project/trunk";
+            }
+        }
+    }
+
+    /**
+     * A provider which already made a repository for the url.
+     */
+    @State( Scope.Benchmark )
+    public static class Provider
+    {
+        SvnJavaScmProvider provider;
+
+        String url;
+
+        @Setup
+        public void setUp( Url url )
+            throws Exception
+        {
+            this.url = url.url;
+            provider = new SvnJavaScmProvider();
+            provider.makeProviderScmRepository( this.url, ':' );
+        }
+    }
+
+    @Benchmark
+    public ScmProviderRepository makeFirstRepository( Url url )
+        throws Exception
+    {
+        return new SvnJavaScmProvider().makeProviderScmRepository( url.url, ':' );
+    }
+
+    @Benchmark
+    @BenchmarkMode( Mode.AverageTime )
+    @OutputTimeUnit( TimeUnit.MICROSECONDS )
+    @Warmup( iterations = 3, time = 2 )
+    @Measurement( iterations = 5, time = 2 )
+    @Fork( 1 )
+    public ScmProviderRepository makeRepositoryAgain( Provider provider )
+        throws Exception
+    {
+        return provider.provider.makeProviderScmRepository( provider.url, ':' );
+    }
+}
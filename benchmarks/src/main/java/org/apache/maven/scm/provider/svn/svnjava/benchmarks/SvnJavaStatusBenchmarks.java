@@ -0,0 +1,140 @@
+package org.apache.maven.scm.provider.svn.svnjava.benchmarks;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.scm.ScmFileSet;
+import org.apache.maven.scm.command.status.StatusScmResult;
+import org.apache.maven.scm.provider.svn.svnjava.SvnJavaScmProvider;
+import org.apache.maven.scm.provider.svn.svnjava.util.SvnJavaCommandParameters;
+import org.apache.maven.scm.repository.ScmRepository;
+import org.codehaus.plexus.util.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of the status of a large working copy, 100k files by default, read locally only, on one thread or
+ * split by top level directory on all the cores, or with the out of date information of the repository. The repository is a local {@link SyntheticRepository}, reached through
+ * <code>file://</code>: against a server, each remote status also pays the network round trips and the
+ * transfer of the report, so the gap only widens.
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 2 )
+@Measurement( iterations = 5 )
+@Fork( 1 )
+public class SvnJavaStatusBenchmarks
+{
+    /**
+     * A working copy of the whole repository, with one file out of a thousand modified.
+     */
+    @State( Scope.Benchmark )
+    public static class WorkingCopy
+    {
+        @Param( { "100000" } )
+        public int files;
+
+        @Param( { "5" } )
+        public int depth;
+
+        SvnJavaScmProvider provider;
+
+        ScmRepository scmRepository;
+
+        ScmFileSet fileSet;
+
+        File baseDirectory;
+
+        @Setup( Level.Trial )
+        public void setUp()
+            throws Exception
+        {
+            baseDirectory = Files.createTempDirectory( "svnjava-status-benchmarks" ).toFile();
+            SyntheticRepository repository =
+                new SyntheticRepository( new File( baseDirectory, "repository" ), files, depth, 2 );
+            repository.create();
+
+            provider = new SvnJavaScmProvider();
+            scmRepository = new ScmRepository( "javasvn", provider.makeProviderScmRepository(
+                repository.getTrunkUrl().toString(), ':' ) );
+            fileSet = new ScmFileSet( new File( baseDirectory, "working-copy" ) );
+            SvnJavaCommandBenchmarks.check( provider.checkOut( scmRepository, fileSet ) );
+            for ( String path : repository.getFiles( 1000 ) )
+            {
+                Files.write( new File( fileSet.getBasedir(), path ).toPath(), "local change\n".getBytes( "UTF-8" ),
+                             StandardOpenOption.APPEND );
+            }
+        }
+
+        @TearDown( Level.Trial )
+        public void tearDown()
+            throws IOException
+        {
+            FileUtils.deleteDirectory( baseDirectory );
+        }
+
+        StatusScmResult status( boolean remote, int parallelism )
+            throws Exception
+        {
+            SvnJavaCommandParameters parameters = new SvnJavaCommandParameters();
+            parameters.setRemoteStatus( remote );
+            parameters.setParallelism( parallelism );
+            return SvnJavaCommandBenchmarks.check(
+                provider.status( scmRepository.getProviderRepository(), fileSet, parameters ) );
+        }
+    }
+
+    @Benchmark
+    public StatusScmResult localStatus( WorkingCopy workingCopy )
+        throws Exception
+    {
+        return workingCopy.status( false, 1 );
+    }
+
+    @Benchmark
+    public StatusScmResult parallelLocalStatus( WorkingCopy workingCopy )
+        throws Exception
+    {
+        return workingCopy.status( false, Runtime.getRuntime().availableProcessors() );
+    }
+
+    @Benchmark
+    public StatusScmResult remoteStatus( WorkingCopy workingCopy )
+        throws Exception
+    {
+        return workingCopy.status( true, 1 );
+    }
+}
@@ -0,0 +1,283 @@
+package org.apache.maven.scm.provider.svn.svnjava.benchmarks;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.tmatesoft.svn.core.SVNException;
+import org.tmatesoft.svn.core.SVNURL;
+import org.tmatesoft.svn.core.internal.io.fs.FSRepositoryFactory;
+import org.tmatesoft.svn.core.io.ISVNEditor;
+import org.tmatesoft.svn.core.io.SVNRepository;
+import org.tmatesoft.svn.core.io.SVNRepositoryFactory;
+import org.tmatesoft.svn.core.io.diff.SVNDeltaGenerator;
+import org.tmatesoft.svn.core.wc.SVNClientManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Local FSFS repository with a generated <code>trunk</code>: <code>files</code> text files spread over a
+ * directory tree <code>depth</code> levels deep, and <code>revisions</code> revisions. Revision 1 adds the whole
+ * tree, each following revision changes one file out of ten, and always changes {@link #getHotFile()}, so
+ * that blame and changelog have some history to walk.
+ */
+public class SyntheticRepository
+{
+    private static final int FANOUT = 4;
+
+    private static final int LINES = 40;
+
+    private final File root;
+
+    private final int files;
+
+    private final int depth;
+
+    private final int revisions;
+
+    private SVNURL url;
+
+    private Date trunkCreationDate;
+
+    public SyntheticRepository( File root, int files, int depth, int revisions )
+    {
+        this.root = root;
+        this.files = files;
+        this.depth = depth;
+        this.revisions = revisions;
+    }
+
+    /**
+     * Creates the repository and commits all its revisions.
+     */
+    public void create()
+        throws SVNException
+    {
+        FSRepositoryFactory.setup();
+
+        SVNClientManager clientManager = SVNClientManager.newInstance();
+        try
+        {
+            url = clientManager.getAdminClient().doCreateRepository( root, null, true, true );
+        }
+        finally
+        {
+            clientManager.dispose();
+        }
+
+        SVNRepository repository = SVNRepositoryFactory.create( url );
+        try
+        {
+            Node tree = new Node();
+            for ( int i = 0; i < files; i++ )
+            {
+                tree.add( getPath( i ), i );
+            }
+
+            ISVNEditor editor = repository.getCommitEditor( "synthetic import", null );
+            editor.openRoot( -1 );
+            editor.addDir( "trunk", null, -1 );
+            add( editor, "trunk", tree );
+            editor.closeDir();
+            editor.closeDir();
+            trunkCreationDate = editor.closeEdit().getDate();
+
+            for ( int revision = 2; revision <= revisions; revision++ )
+            {
+                Node changed = new Node();
+                for ( int i = 0; i < files; i++ )
+                {
+                    if ( i == 0 || i % 10 == revision % 10 )
+                    {
+                        changed.add( getPath( i ), i );
+                    }
+                }
+
+                editor = repository.getCommitEditor( "synthetic change " + revision, null );
+                editor.openRoot( -1 );
+                editor.openDir( "trunk", -1 );
+                modify( editor, "trunk", changed, revision );
+                editor.closeDir();
+                editor.closeDir();
+                editor.closeEdit();
+            }
+        }
+        finally
+        {
+            repository.closeSession();
+        }
+    }
+
+    public SVNURL getUrl()
+    {
+        return url;
+    }
+
+    public SVNURL getTrunkUrl()
+        throws SVNException
+    {
+        return url.appendPath( "trunk", false );
+    }
+
+    /**
+     * @return the date of revision 1, from which on the history of <code>trunk</code> can be queried
+     */
+    public Date getTrunkCreationDate()
+    {
+        return trunkCreationDate;
+    }
+
+    /**
+     * @return the file changed in every revision, relative to <code>trunk</code>
+     */
+    public String getHotFile()
+    {
+        return getPath( 0 );
+    }
+
+    /**
+     * @return the relative path of some files, one out of <code>step</code>
+     */
+    public List<String> getFiles( int step )
+    {
+        List<String> result = new ArrayList<>();
+        for ( int i = 0; i < files; i += step )
+        {
+            result.add( getPath( i ) );
+        }
+        return result;
+    }
+
+    public int getRevisions()
+    {
+        return revisions;
+    }
+
+    /**
+     * @return the path of the file <code>index</code>, relative to <code>trunk</code>
+     */
+    public String getPath( int index )
+    {
+        StringBuilder path = new StringBuilder();
+        int n = index;
+        for ( int level = 0; level < depth; level++ )
+        {
+            path.append( "dir" ).append( n % FANOUT ).append( '/' );
+            n /= FANOUT;
+        }
+        return path.append( "file" ).append( index ).append( ".txt" ).toString();
+    }
+
+    static byte[] getContent( int index, int revision )
+    {
+        StringBuilder content = new StringBuilder();
+        for ( int line = 0; line < LINES; line++ )
+        {
+            if ( revision > 1 && line == revision % LINES )
+            {
+                content.append( "line " ).append( line ).append( " changed in revision " ).append( revision );
+            }
+            else
+            {
+                content.append( "line " ).append( line ).append( " of file " ).append( index );
+            }
+            content.append( '\n' );
+        }
+        return content.toString().getBytes( StandardCharsets.UTF_8 );
+    }
+
+    private void add( ISVNEditor editor, String path, Node node )
+        throws SVNException
+    {
+        for ( Map.Entry<String, Node> dir : node.dirs.entrySet() )
+        {
+            String dirPath = path + "/" + dir.getKey();
+            editor.addDir( dirPath, null, -1 );
+            add( editor, dirPath, dir.getValue() );
+            editor.closeDir();
+        }
+        for ( Map.Entry<String, Integer> file : node.files.entrySet() )
+        {
+            String filePath = path + "/" + file.getKey();
+            editor.addFile( filePath, null, -1 );
+            sendContent( editor, filePath, getContent( file.getValue(), 1 ) );
+        }
+    }
+
+    private void modify( ISVNEditor editor, String path, Node node, int revision )
+        throws SVNException
+    {
+        for ( Map.Entry<String, Node> dir : node.dirs.entrySet() )
+        {
+            String dirPath = path + "/" + dir.getKey();
+            editor.openDir( dirPath, -1 );
+            modify( editor, dirPath, dir.getValue(), revision );
+            editor.closeDir();
+        }
+        for ( Map.Entry<String, Integer> file : node.files.entrySet() )
+        {
+            String filePath = path + "/" + file.getKey();
+            editor.openFile( filePath, -1 );
+            sendContent( editor, filePath, getContent( file.getValue(), revision ) );
+        }
+    }
+
+    private void sendContent( ISVNEditor editor, String path, byte[] content )
+        throws SVNException
+    {
+        editor.applyTextDelta( path, null );
+        String checksum =
+            new SVNDeltaGenerator().sendDelta( path, new ByteArrayInputStream( content ), editor, true );
+        editor.closeFile( path, checksum );
+    }
+
+    /**
+     * Directory of the generated tree.
+     */
+    private static final class Node
+    {
+        private final Map<String, Node> dirs = new TreeMap<>();
+
+        private final Map<String, Integer> files = new TreeMap<>();
+
+        private void add( String path, int index )
+        {
+            int slash = path.indexOf( '/' );
+            if ( slash < 0 )
+            {
+                files.put( path, index );
+                return;
+            }
+            String name = path.substring( 0, slash );
+            Node dir = dirs.get( name );
+            if ( dir == null )
+            {
+                dir = new Node();
+                dirs.put( name, dir );
+            }
+            dir.add( path.substring( slash + 1 ), index );
+        }
+    }
+}
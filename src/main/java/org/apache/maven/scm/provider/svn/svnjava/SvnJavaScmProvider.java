@@ -22,7 +22,11 @@ package org.apache.maven.scm.provider.svn.svnjava;
 import org.apache.maven.scm.CommandParameters;
 import org.apache.maven.scm.ScmException;
 import org.apache.maven.scm.ScmFileSet;
+import org.apache.maven.scm.ScmResult;
+import org.apache.maven.scm.ScmVersion;
+import org.apache.maven.scm.command.export.ExportScmResult;
 import org.apache.maven.scm.command.remoteinfo.RemoteInfoScmResult;
+import org.apache.maven.scm.command.status.StatusScmResult;
 import org.apache.maven.scm.provider.ScmProviderRepository;
 import org.apache.maven.scm.provider.svn.AbstractSvnScmProvider;
 import org.apache.maven.scm.provider.svn.command.SvnCommand;
@@ -33,6 +37,8 @@ import org.apache.maven.scm.provider.svn.svnjava.command.changelog.SvnJavaChange
 import org.apache.maven.scm.provider.svn.svnjava.command.checkin.SvnJavaCheckInCommand;
 import org.apache.maven.scm.provider.svn.svnjava.command.checkout.SvnJavaCheckOutCommand;
 import org.apache.maven.scm.provider.svn.svnjava.command.diff.SvnJavaDiffCommand;
+import org.apache.maven.scm.provider.svn.svnjava.command.export.SvnArchiveFormat;
+import org.apache.maven.scm.provider.svn.svnjava.command.export.SvnJavaExportArchiveCommand;
 import org.apache.maven.scm.provider.svn.svnjava.command.export.SvnJavaExportCommand;
 import org.apache.maven.scm.provider.svn.svnjava.command.info.SvnJavaInfoCommand;
 import org.apache.maven.scm.provider.svn.svnjava.command.list.SvnJavaListCommand;
@@ -40,20 +46,37 @@ import org.apache.maven.scm.provider.svn.svnjava.command.mkdir.SvnJavaMkdirComma
 import org.apache.maven.scm.provider.svn.svnjava.command.remoteinfo.SvnJavaRemoteInfoCommand;
 import org.apache.maven.scm.provider.svn.svnjava.command.remove.SvnJavaRemoveCommand;
 import org.apache.maven.scm.provider.svn.svnjava.command.status.SvnJavaStatusCommand;
+import org.apache.maven.scm.provider.svn.svnjava.command.status.SvnStatusService;
 import org.apache.maven.scm.provider.svn.svnjava.command.tag.SvnTagCommand;
 import org.apache.maven.scm.provider.svn.svnjava.command.update.SvnJavaUpdateCommand;
+import org.apache.maven.scm.provider.svn.svnjava.metrics.MeteredSvnCommand;
+import org.apache.maven.scm.provider.svn.svnjava.metrics.NoOpSvnCommandMetricsListener;
+import org.apache.maven.scm.provider.svn.svnjava.metrics.SvnCommandMetricsListener;
 import org.apache.maven.scm.provider.svn.svnjava.repository.SvnJavaScmProviderRepository;
+import org.apache.maven.scm.provider.svn.svnjava.repository.SvnMirror;
+import org.apache.maven.scm.provider.svn.svnjava.repository.SvnRepositoryFactories;
+import org.apache.maven.scm.provider.svn.svnjava.repository.SvnRevisionCache;
+import org.apache.maven.scm.provider.svn.svnjava.util.ScmResultListener;
+import org.apache.maven.scm.provider.svn.svnjava.util.ScmResultListeners;
+import org.apache.maven.scm.provider.svn.svnjava.util.SvnJavaCancellationToken;
+import org.apache.maven.scm.provider.svn.svnjava.util.SvnJavaCommandExecutor;
+import org.apache.maven.scm.provider.svn.svnjava.util.SvnJavaCommandParameters;
+import org.apache.maven.scm.provider.svn.svnjava.util.SvnExternalsCache;
+import org.apache.maven.scm.provider.svn.svnjava.util.SvnWorkingCopyCache;
 import org.apache.maven.scm.repository.ScmRepositoryException;
 import org.codehaus.plexus.util.StringUtils;
 import org.tmatesoft.svn.core.SVNException;
 import org.tmatesoft.svn.core.SVNURL;
-import org.tmatesoft.svn.core.internal.io.dav.DAVRepositoryFactory;
-import org.tmatesoft.svn.core.internal.io.fs.FSRepositoryFactory;
-import org.tmatesoft.svn.core.internal.io.svn.SVNRepositoryFactoryImpl;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.net.URI;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author <a href="mailto:dh-maven@famhq.com">David Hawkins</a>
@@ -65,7 +88,25 @@ public class SvnJavaScmProvider
 {
     public static final String COMMAND_LINE = "JavaSVN Library";
 
-    private static boolean initialized = false;
+    private static final int MAX_PARSED_URLS = 256;
+
+    /**
+     * urls already parsed by {@link #makeProviderScmRepository(String, char)}, by scm specific url. Emptied when
+     * full, as a handful of urls is the common case.
+     */
+    private static final Map<String, ParsedUrl> PARSED_URLS = new ConcurrentHashMap<>();
+
+    private volatile SvnCommandMetricsListener metricsListener = NoOpSvnCommandMetricsListener.INSTANCE;
+
+    private volatile File mirrorsDirectory;
+
+    private volatile File workingCopyCacheDirectory;
+
+    private volatile long workingCopyCacheMaxRevisionDistance = Long.MAX_VALUE;
+
+    private volatile SvnRevisionCache revisionCache;
+
+    private volatile File externalsCacheDirectory;
 
     /**
      * {@inheritDoc}
@@ -73,9 +114,70 @@ public class SvnJavaScmProvider
     public ScmProviderRepository makeProviderScmRepository( String scmSpecificUrl, char delimiter )
         throws ScmRepositoryException
     {
-        initialize();
+        ParsedUrl parsed = PARSED_URLS.get( scmSpecificUrl );
+        if ( parsed == null )
+        {
+            try
+            {
+                parsed = parseUrl( scmSpecificUrl );
+            }
+            catch ( SVNException e )
+            {
+                throw new ScmRepositoryException( "The scm url is invalid: " + e.getMessage(),
+                                                  Collections.singletonList( e.getMessage() ) );
+            }
+            if ( parsed.cacheable )
+            {
+                if ( PARSED_URLS.size() >= MAX_PARSED_URLS )
+                {
+                    PARSED_URLS.clear();
+                }
+                PARSED_URLS.put( scmSpecificUrl, parsed );
+            }
+        }
 
-        try
+        SvnRepositoryFactories.setup( parsed.url.getProtocol() );
+
+        // the repository holds the credentials of the caller, it is never shared
+        SvnJavaScmProviderRepository repository = new SvnJavaScmProviderRepository( parsed.url, parsed.strUrl );
+        File donors = workingCopyCacheDirectory;
+        if ( donors != null )
+        {
+            repository.setWorkingCopyCache( new SvnWorkingCopyCache( donors, workingCopyCacheMaxRevisionDistance ) );
+        }
+        repository.setRevisionCache( revisionCache );
+        File externals = externalsCacheDirectory;
+        if ( externals != null )
+        {
+            repository.setExternalsCache( new SvnExternalsCache( externals ) );
+        }
+        File mirrors = mirrorsDirectory;
+        if ( mirrors != null )
+        {
+            try
+            {
+                repository.setMirror( SvnMirror.getInstance( mirrors, parsed.url ) );
+            }
+            catch ( SVNException e )
+            {
+                throw new ScmRepositoryException( "The mirror cannot be set up: " + e.getMessage(),
+                                                  Collections.singletonList( e.getMessage() ) );
+            }
+        }
+        return repository;
+    }
+
+    private static ParsedUrl parseUrl( String scmSpecificUrl )
+        throws SVNException
+    {
+        SVNURL url;
+        // a local path is parsed again until it exists
+        boolean cacheable = true;
+        if ( isRemoteUrl( scmSpecificUrl ) )
+        {
+            url = SVNURL.parseURIEncoded( scmSpecificUrl );
+        }
+        else
         {
             File f;
             if ( scmSpecificUrl.trim().startsWith( "file" ) )
@@ -95,7 +197,6 @@ public class SvnJavaScmProvider
                 f = new File( scmSpecificUrl );
             }
 
-            SVNURL url;
             if ( f.exists() )
             {
                 url = SVNURL.fromFile( f );
@@ -103,22 +204,231 @@ public class SvnJavaScmProvider
             else
             {
                 url = SVNURL.parseURIEncoded( scmSpecificUrl );
+                cacheable = false;
             }
+        }
+
+        // The existing svn provider pattern is to strip the username (if any)
+        // from the url.
+        String strUrl = url.toString();
+        if ( url.getUserInfo() != null )
+        {
+            strUrl = StringUtils.replace( strUrl, url.getUserInfo() + "@", "" );
+        }
+
+        return new ParsedUrl( url, strUrl, cacheable );
+    }
+
+    /**
+     * @return true for the http(s) and svn(+ssh) urls, which cannot be local paths
+     */
+    private static boolean isRemoteUrl( String scmSpecificUrl )
+    {
+        int colon = scmSpecificUrl.indexOf( "://" );
+        if ( colon < 0 )
+        {
+            return false;
+        }
+        String protocol = scmSpecificUrl.substring( 0, colon ).trim();
+        return "http".equals( protocol ) || "https".equals( protocol ) || "svn".equals( protocol )
+            || protocol.startsWith( "svn+" );
+    }
+
+    /**
+     * Registers the listener receiving the metrics of each command returned by the <code>get*Command()</code>
+     * methods. Metrics are disabled by default, and with {@link NoOpSvnCommandMetricsListener}.
+     *
+     * @param metricsListener the listener, null to disable metrics
+     * @since 2.2.2
+     */
+    public void setMetricsListener( SvnCommandMetricsListener metricsListener )
+    {
+        this.metricsListener = metricsListener == null ? NoOpSvnCommandMetricsListener.INSTANCE : metricsListener;
+    }
 
-            // The existing svn provider pattern is to strip the username (if any)
-            // from the url.
-            String strUrl = url.toString();
-            if ( url.getUserInfo() != null )
+    /**
+     * @since 2.2.2
+     */
+    public SvnCommandMetricsListener getMetricsListener()
+    {
+        return metricsListener;
+    }
+
+    /**
+     * Gives each repository created from now on a {@link SvnMirror} of its url, kept in a directory of
+     * <code>mirrorsDirectory</code>. Mirrors are disabled by default.
+     *
+     * @param mirrorsDirectory the directory of the local replicas, null to disable mirrors
+     * @since 2.2.2
+     */
+    public void setMirrorsDirectory( File mirrorsDirectory )
+    {
+        this.mirrorsDirectory = mirrorsDirectory;
+    }
+
+    /**
+     * @since 2.2.2
+     */
+    public File getMirrorsDirectory()
+    {
+        return mirrorsDirectory;
+    }
+
+    /**
+     * Gives each repository created from now on a {@link SvnWorkingCopyCache}: full checkouts are seeded from the
+     * working copies found in <code>workingCopyCacheDirectory</code>. Disabled by default.
+     *
+     * @param workingCopyCacheDirectory the directory of the donor working copies, null to disable seeding
+     * @since 2.2.2
+     */
+    public void setWorkingCopyCacheDirectory( File workingCopyCacheDirectory )
+    {
+        this.workingCopyCacheDirectory = workingCopyCacheDirectory;
+    }
+
+    /**
+     * @since 2.2.2
+     */
+    public File getWorkingCopyCacheDirectory()
+    {
+        return workingCopyCacheDirectory;
+    }
+
+    /**
+     * Sets how many revisions a donor of the {@link SvnWorkingCopyCache} of the repositories created from now on
+     * may be away from the checked out revision, a donor further away is not worth cloning. Unbounded by default.
+     *
+     * @see SvnWorkingCopyCache#SvnWorkingCopyCache(File, long)
+     * @since 2.2.2
+     */
+    public void setWorkingCopyCacheMaxRevisionDistance( long maxRevisionDistance )
+    {
+        this.workingCopyCacheMaxRevisionDistance = maxRevisionDistance;
+    }
+
+    /**
+     * @since 2.2.2
+     */
+    public long getWorkingCopyCacheMaxRevisionDistance()
+    {
+        return workingCopyCacheMaxRevisionDistance;
+    }
+
+    /**
+     * Lets the updates to HEAD of the repositories created from now on skip the working copy report when the url
+     * of the working copy did not change since its oldest revision. The last changed revision of each url is
+     * shared by all these repositories for <code>ttl</code>, so a commit made elsewhere may go unnoticed for that
+     * long. Disabled by default.
+     *
+     * @param ttl how long the last changed revision of a url is kept, 0 to query it on each update, negative to
+     *            always update
+     * @see SvnRevisionCache
+     * @since 2.2.2
+     */
+    public void setUpToDateCheckTtl( long ttl, TimeUnit unit )
+    {
+        this.revisionCache = ttl < 0 ? null : new SvnRevisionCache( ttl, unit );
+    }
+
+    /**
+     * @return the cache of the up to date checks, null if they are disabled
+     * @since 2.2.2
+     */
+    public SvnRevisionCache getRevisionCache()
+    {
+        return revisionCache;
+    }
+
+    /**
+     * Gives each repository created from now on a {@link SvnExternalsCache}: the externals pinned to a revision
+     * are checked out once in <code>externalsCacheDirectory</code>, then cloned into each working copy needing
+     * them. Disabled by default.
+     *
+     * @param externalsCacheDirectory the directory of the cached externals, null to disable the cache
+     * @since 2.2.2
+     */
+    public void setExternalsCacheDirectory( File externalsCacheDirectory )
+    {
+        this.externalsCacheDirectory = externalsCacheDirectory;
+    }
+
+    /**
+     * @since 2.2.2
+     */
+    public File getExternalsCacheDirectory()
+    {
+        return externalsCacheDirectory;
+    }
+
+    /**
+     * Wraps the command with a {@link MeteredSvnCommand}, unless metrics are disabled.
+     */
+    private SvnCommand metered( String name, SvnCommand command )
+    {
+        SvnCommandMetricsListener listener = metricsListener;
+        if ( listener == NoOpSvnCommandMetricsListener.INSTANCE )
+        {
+            return command;
+        }
+        return new MeteredSvnCommand( name, command, listener );
+    }
+
+    /**
+     * Binds the cancellation token and the result listener of the parameters, if any, to the thread while the
+     * command runs.
+     *
+     * @see SvnJavaCommandParameters
+     */
+    @Override
+    protected ScmResult executeCommand( SvnCommand command, ScmProviderRepository repository, ScmFileSet fileSet,
+                                        CommandParameters parameters )
+        throws ScmException
+    {
+        SvnJavaCancellationToken token = SvnJavaCommandParameters.getCancellationToken( parameters );
+        ScmResultListener listener = SvnJavaCommandParameters.getResultListener( parameters );
+        if ( token == null && listener == null )
+        {
+            return super.executeCommand( command, repository, fileSet, parameters );
+        }
+        SvnJavaCancellationToken previousToken = token == null ? null : token.bind();
+        ScmResultListener previousListener = listener == null ? null : ScmResultListeners.bind( listener );
+        try
+        {
+            return super.executeCommand( command, repository, fileSet, parameters );
+        }
+        finally
+        {
+            if ( listener != null )
             {
-                strUrl = StringUtils.replace( strUrl, url.getUserInfo() + "@", "" );
+                ScmResultListeners.restore( previousListener );
             }
+            if ( token != null )
+            {
+                SvnJavaCancellationToken.restore( previousToken );
+            }
+        }
+    }
 
-            return new SvnJavaScmProviderRepository( url, strUrl );
+    /**
+     * Runs an operation of this provider, for instance <code>provider.checkOut( repository, fileSet )</code>,
+     * with its records streamed to the listener instead of collected in the result. This is the way to stream the
+     * records of the methods which do not take {@link CommandParameters}.
+     *
+     * @see ScmResultListener
+     * @since 2.2.2
+     */
+    public <T extends ScmResult> T executeStreaming( ScmResultListener listener,
+                                                     SvnJavaCommandExecutor.ScmOperation<T> operation )
+        throws ScmException
+    {
+        ScmResultListener previous = ScmResultListeners.bind( listener );
+        try
+        {
+            return operation.execute();
         }
-        catch ( SVNException e )
+        finally
         {
-            throw new ScmRepositoryException( "The scm url is invalid: " + e.getMessage(),
-                                              Collections.singletonList( e.getMessage() ) );
+            ScmResultListeners.restore( previous );
         }
     }
 
@@ -127,7 +437,7 @@ public class SvnJavaScmProvider
      */
     protected SvnCommand getAddCommand()
     {
-        return new SvnJavaAddCommand();
+        return metered( "add", new SvnJavaAddCommand() );
     }
 
     /**
@@ -135,7 +445,7 @@ public class SvnJavaScmProvider
      */
     protected SvnCommand getChangeLogCommand()
     {
-        return new SvnJavaChangeLogCommand();
+        return metered( "changelog", new SvnJavaChangeLogCommand() );
     }
 
     /**
@@ -143,7 +453,7 @@ public class SvnJavaScmProvider
      */
     protected SvnCommand getCheckInCommand()
     {
-        return new SvnJavaCheckInCommand();
+        return metered( "checkin", new SvnJavaCheckInCommand() );
     }
 
     /**
@@ -151,7 +461,7 @@ public class SvnJavaScmProvider
      */
     protected SvnCommand getCheckOutCommand()
     {
-        return new SvnJavaCheckOutCommand();
+        return metered( "checkout", new SvnJavaCheckOutCommand() );
     }
 
     /**
@@ -159,7 +469,7 @@ public class SvnJavaScmProvider
      */
     protected SvnCommand getDiffCommand()
     {
-        return new SvnJavaDiffCommand();
+        return metered( "diff", new SvnJavaDiffCommand() );
     }
 
     /**
@@ -167,7 +477,7 @@ public class SvnJavaScmProvider
      */
     protected SvnCommand getRemoveCommand()
     {
-        return new SvnJavaRemoveCommand();
+        return metered( "remove", new SvnJavaRemoveCommand() );
     }
 
     /**
@@ -175,7 +485,7 @@ public class SvnJavaScmProvider
      */
     protected SvnCommand getStatusCommand()
     {
-        return new SvnJavaStatusCommand();
+        return metered( "status", new SvnJavaStatusCommand() );
     }
 
     /**
@@ -183,7 +493,7 @@ public class SvnJavaScmProvider
      */
     protected SvnCommand getTagCommand()
     {
-        return new SvnTagCommand();
+        return metered( "tag", new SvnTagCommand() );
     }
 
     @Override
@@ -196,7 +506,7 @@ public class SvnJavaScmProvider
      */
     protected SvnCommand getUpdateCommand()
     {
-        return new SvnJavaUpdateCommand();
+        return metered( "update", new SvnJavaUpdateCommand() );
     }
 
     /**
@@ -204,7 +514,7 @@ public class SvnJavaScmProvider
      */
     protected SvnCommand getBranchCommand()
     {
-        return new SvnJavaBranchCommand();
+        return metered( "branch", new SvnJavaBranchCommand() );
     }
 
     /**
@@ -212,7 +522,7 @@ public class SvnJavaScmProvider
      */
     protected SvnCommand getExportCommand()
     {
-        return new SvnJavaExportCommand();
+        return metered( "export", new SvnJavaExportCommand() );
     }
 
     /**
@@ -220,7 +530,7 @@ public class SvnJavaScmProvider
      */
     protected SvnCommand getInfoCommand()
     {
-        return new SvnJavaInfoCommand();
+        return metered( "info", new SvnJavaInfoCommand() );
     }
 
     /**
@@ -229,13 +539,13 @@ public class SvnJavaScmProvider
      */
     protected SvnCommand getListCommand()
     {
-        return new SvnJavaListCommand();
+        return metered( "list", new SvnJavaListCommand() );
     }
 
     @Override
     protected SvnCommand getBlameCommand()
     {
-        return new SvnJavaBlameCommand();
+        return metered( "blame", new SvnJavaBlameCommand() );
     }
 
     /**
@@ -254,40 +564,67 @@ public class SvnJavaScmProvider
         }
     }
 
-    /**
-     * Initializes the library to work with a repository either via svn:// (and
-     * svn+ssh://) or via http:// (and https://)
-     */
-    private static void initialize()
+    @Override
+    protected SvnCommand getMkdirCommand()
     {
-        if ( initialized )
-        {
-            return;
-        }
-
-        /*
-         * for DAV (over http and https)
-         */
-        DAVRepositoryFactory.setup();
+        return metered( "mkdir", new SvnJavaMkdirCommand() );
+    }
 
-        /*
-        * for svn (over svn and svn+ssh)
-        */
-        SVNRepositoryFactoryImpl.setup();
 
-        /*
-         * for file
-         */
-        FSRepositoryFactory.setup();
-        initialized = true;
+    /**
+     * Public, so that the export can be given {@link SvnJavaCommandParameters}, such as its parallelism.
+     *
+     * @since 2.2.2
+     */
+    @Override
+    public ExportScmResult export( ScmProviderRepository repository, ScmFileSet fileSet, CommandParameters parameters )
+        throws ScmException
+    {
+        return super.export( repository, fileSet, parameters );
     }
 
+    /**
+     * Public, so that the status can be given {@link SvnJavaCommandParameters}, such as its remote mode.
+     *
+     * @since 2.2.2
+     */
     @Override
-    protected SvnCommand getMkdirCommand()
+    public StatusScmResult status( ScmProviderRepository repository, ScmFileSet fileSet, CommandParameters parameters )
+        throws ScmException
+    {
+        return super.status( repository, fileSet, parameters );
+    }
+
+    /**
+     * Opens a long-lived status of the working copy, kept up to date from the changes seen on the file system, for
+     * the tools asking for the status of the same working copy again and again. It must be closed once no longer
+     * used.
+     *
+     * @see SvnStatusService
+     * @since 2.2.2
+     */
+    public SvnStatusService openStatusService( ScmProviderRepository repository, File workingCopy )
+        throws IOException
     {
-        return new SvnJavaMkdirCommand();
+        return new SvnStatusService( (SvnJavaScmProviderRepository) repository, workingCopy );
     }
 
+    /**
+     * Exports the tag, branch or revision given as <code>version</code>, HEAD otherwise, straight into a zip or
+     * tar stream, without writing to disk.
+     *
+     * @param prefix the directory in which the tree is put in the archive, null for the root of the archive
+     * @param out the stream receiving the archive, neither buffered nor closed
+     * @see SvnJavaExportArchiveCommand
+     * @since 2.2.2
+     */
+    public ExportScmResult exportArchive( ScmProviderRepository repository, ScmVersion version,
+                                          SvnArchiveFormat format, String prefix, OutputStream out )
+        throws ScmException
+    {
+        return new SvnJavaExportArchiveCommand().executeExportArchiveCommand( repository, version, format, prefix,
+                                                                             out );
+    }
 
     @Override
     public RemoteInfoScmResult remoteInfo( ScmProviderRepository repository, ScmFileSet fileSet,
@@ -297,6 +634,22 @@ public class SvnJavaScmProvider
         return new SvnJavaRemoteInfoCommand().executeRemoteInfoCommand( repository, fileSet, parameters );
     }
 
+    /**
+     * Runs a batch of operations, usually on many repositories, with at most <code>maxParallelism</code> of them
+     * at the same time. The provider and its commands can be used concurrently as long as each operation works
+     * on its own working copy.
+     *
+     * @return the results, in the order of the operations
+     * @see SvnJavaCommandExecutor
+     * @since 2.2.2
+     */
+    public <T extends ScmResult> List<T> executeBatch(
+        List<? extends SvnJavaCommandExecutor.ScmOperation<T>> operations, int maxParallelism )
+        throws ScmException
+    {
+        return new SvnJavaCommandExecutor( maxParallelism ).executeAll( operations );
+    }
+
     @Override
     public boolean remoteUrlExist( ScmProviderRepository repository, CommandParameters parameters )
         throws ScmException
@@ -304,5 +657,22 @@ public class SvnJavaScmProvider
         return new SvnJavaRemoteInfoCommand().remoteUrlExist( repository, parameters );
     }
 
+    /**
+     * Immutable result of the parsing of a scm specific url.
+     */
+    private static final class ParsedUrl
+    {
+        private final SVNURL url;
 
+        private final String strUrl;
+
+        private final boolean cacheable;
+
+        private ParsedUrl( SVNURL url, String strUrl, boolean cacheable )
+        {
+            this.url = url;
+            this.strUrl = strUrl;
+            this.cacheable = cacheable;
+        }
+    }
 }
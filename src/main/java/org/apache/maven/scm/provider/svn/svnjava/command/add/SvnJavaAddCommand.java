@@ -32,6 +32,9 @@ import org.apache.maven.scm.provider.ScmProviderRepository;
 import org.apache.maven.scm.provider.svn.command.SvnCommand;
 import org.apache.maven.scm.provider.svn.svnjava.SvnJavaScmProvider;
 import org.apache.maven.scm.provider.svn.svnjava.repository.SvnJavaScmProviderRepository;
+import org.apache.maven.scm.provider.svn.svnjava.util.ScmResultListener;
+import org.apache.maven.scm.provider.svn.svnjava.util.ScmResultListeners;
+import org.apache.maven.scm.provider.svn.svnjava.util.SvnJavaCancellationToken;
 import org.apache.maven.scm.provider.svn.svnjava.util.SvnJavaUtil;
 import org.tmatesoft.svn.core.SVNCancelException;
 import org.tmatesoft.svn.core.SVNException;
@@ -41,8 +44,6 @@ import org.tmatesoft.svn.core.wc.SVNEvent;
 import org.tmatesoft.svn.core.wc.SVNEventAction;
 
 import java.io.File;
-import java.util.ArrayList;
-import java.util.List;
 
 /**
  * @author <a href="mailto:brett@apache.org">Brett Porter</a>
@@ -64,11 +65,13 @@ public class SvnJavaAddCommand
             throw new ScmException( "You must provide at least one file/directory to add" );
         }
 
-        final List<ScmFile> filesAdded = new ArrayList<>();
+        final ScmResultListener listener = ScmResultListeners.currentOrCollecting();
 
         SvnJavaScmProviderRepository javaRepo = (SvnJavaScmProviderRepository) repository;
 
-        SVNClientManager clientManager = javaRepo.getClientManager();
+        final SvnJavaCancellationToken cancellationToken = SvnJavaCancellationToken.current();
+
+        SVNClientManager clientManager = javaRepo.leaseClientManager();
 
         try
         {
@@ -79,14 +82,14 @@ public class SvnJavaAddCommand
                 {
                     if ( event.getAction() == SVNEventAction.ADD )
                     {
-                        filesAdded.add( new ScmFile( event.getFile().getPath(), ScmFileStatus.ADDED ) );
+                        listener.onScmFile( new ScmFile( event.getFile().getPath(), ScmFileStatus.ADDED ) );
                     }
                 }
 
                 public void checkCancelled()
                     throws SVNCancelException
                 {
-                    // null
+                    SvnJavaCancellationToken.checkCancelled( cancellationToken );
                 }
             } );
 
@@ -103,17 +106,25 @@ public class SvnJavaAddCommand
                 SvnJavaUtil.add( clientManager, fileToAdd, false, forceAdd );
             }
         }
+        catch ( SVNCancelException e )
+        {
+            SvnJavaUtil.cleanupAfterCancel( javaRepo, clientManager, fileSet.getBasedir(), logger );
+            return new AddScmResult( ScmResultListeners.getFiles( listener ),
+                                     new ScmResult( SvnJavaScmProvider.COMMAND_LINE,
+                                                    "The svn operation was cancelled.", e.getMessage(), false ) );
+        }
         catch ( SVNException e )
         {
+            javaRepo.discardSessions( clientManager );
             return new AddScmResult( SvnJavaScmProvider.COMMAND_LINE, "The svn operation failed.", e.getMessage(),
                                      false );
         }
         finally
         {
-            clientManager.getWCClient().setEventHandler( null );
+            javaRepo.releaseClientManager( clientManager );
         }
 
-        return new AddScmResult( null, filesAdded );
+        return new AddScmResult( null, ScmResultListeners.getFiles( listener ) );
     }
 
     /**
@@ -26,14 +26,17 @@ import org.apache.maven.scm.command.blame.BlameScmResult;
 import org.apache.maven.scm.provider.ScmProviderRepository;
 import org.apache.maven.scm.provider.svn.command.SvnCommand;
 import org.apache.maven.scm.provider.svn.svnjava.repository.SvnJavaScmProviderRepository;
+import org.apache.maven.scm.provider.svn.svnjava.util.ScmResultListener;
+import org.apache.maven.scm.provider.svn.svnjava.util.ScmResultListeners;
 import org.apache.maven.scm.provider.svn.svnjava.util.SvnJavaUtil;
 import org.tmatesoft.svn.core.SVNException;
 import org.tmatesoft.svn.core.wc.ISVNAnnotateHandler;
+import org.tmatesoft.svn.core.wc.SVNClientManager;
+import org.tmatesoft.svn.core.wc.SVNInfo;
+import org.tmatesoft.svn.core.wc.SVNRevision;
 
 import java.io.File;
-import java.util.ArrayList;
 import java.util.Date;
-import java.util.List;
 
 /**
  * @author <a href="mailto:olamy@apache.org">olamy</a>
@@ -54,26 +57,44 @@ public class SvnJavaBlameCommand
                                                String filename )
         throws ScmException
     {
+        SvnJavaScmProviderRepository javaRepo = (SvnJavaScmProviderRepository) repo;
+        SVNClientManager clientManager = javaRepo.leaseClientManager();
         try
         {
-            SvnJavaScmProviderRepository javaRepo = (SvnJavaScmProviderRepository) repo;
-            javaRepo.getClientManager();
             AnnotationHandler handler = new AnnotationHandler();
-            SvnJavaUtil.blame( javaRepo.getClientManager(), new File( workingDirectory.getBasedir(), filename ),
-                               handler );
-            return new BlameScmResult( "", handler.lines );
+            File file = new File( workingDirectory.getBasedir(), filename );
+            if ( javaRepo.getMirror() == null )
+            {
+                SvnJavaUtil.blame( clientManager, file, handler );
+            }
+            else
+            {
+                // the history of the file is read from the mirror, at the revision of the working copy
+                SVNInfo info = clientManager.getWCClient().doInfo( file, SVNRevision.UNDEFINED );
+                SvnJavaUtil.blame( clientManager, javaRepo.getReadUrl( clientManager, info.getURL() ),
+                                   info.getRevision(), handler );
+            }
+            return new BlameScmResult( "", ScmResultListeners.getBlameLines( handler.listener ) );
         }
         catch ( SVNException e )
         {
+            javaRepo.discardSessions( clientManager );
             throw new ScmException( e.getMessage(), e );
         }
+        finally
+        {
+            javaRepo.releaseClientManager( clientManager );
+        }
     }
 
     private static class AnnotationHandler
         implements ISVNAnnotateHandler
     {
 
-        private List<BlameLine> lines = new ArrayList<>();
+        /**
+         * receives the lines, collects them unless the caller registered its own listener.
+         */
+        private final ScmResultListener listener = ScmResultListeners.currentOrCollecting();
 
         public void handleEOF()
         {
@@ -93,21 +114,15 @@ public class SvnJavaBlameCommand
                                 long mergedRevision, String mergedAuthor, String mergedPath, int lineNumber )
             throws SVNException
         {
-            BlameLine blameLine = new BlameLine( date, Long.toString( revision ), author );
-            if ( lines.size() > lineNumber )
-            {
-                lines.set( lineNumber, blameLine );
-            }
-            else
-            {
-                lines.add( blameLine );
-            }
+            // only the final annotation is reported, each line once and in order, see handleRevision
+            listener.onBlameLine( new BlameLine( date, Long.toString( revision ), author ) );
         }
 
         public boolean handleRevision( Date arg0, long arg1, String arg2, File arg3 )
             throws SVNException
         {
-            return true;
+            // otherwise svnkit reports the whole file again after each revision
+            return false;
         }
 
     }
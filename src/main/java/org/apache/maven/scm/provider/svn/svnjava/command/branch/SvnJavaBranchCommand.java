@@ -22,6 +22,7 @@ import org.codehaus.plexus.util.StringUtils;
 import org.tmatesoft.svn.core.SVNCommitInfo;
 import org.tmatesoft.svn.core.SVNException;
 import org.tmatesoft.svn.core.SVNURL;
+import org.tmatesoft.svn.core.wc.SVNClientManager;
 
 import java.io.File;
 import java.io.IOException;
@@ -74,6 +75,7 @@ public class SvnJavaBranchCommand
         SvnScmProviderRepository repository = (SvnScmProviderRepository) repo;
 
         SvnJavaScmProviderRepository javaRepo = (SvnJavaScmProviderRepository) repo;
+        SVNClientManager clientManager = javaRepo.leaseClientManager();
         try
         {
 
@@ -89,13 +91,11 @@ public class SvnJavaBranchCommand
             SVNCommitInfo info;
             if ( scmBranchParameters != null && scmBranchParameters.isRemoteBranching() )
             {
-                info = SvnJavaUtil.copy( javaRepo.getClientManager(), javaRepo.getSvnUrl(), destURL, false, message,
-                                         null );
+                info = SvnJavaUtil.copy( clientManager, javaRepo.getSvnUrl(), destURL, false, message, null );
             }
             else
             {
-                info = SvnJavaUtil.copy( javaRepo.getClientManager(), fileSet.getBasedir(), destURL, false, message,
-                                         null );
+                info = SvnJavaUtil.copy( clientManager, fileSet.getBasedir(), destURL, false, message, null );
             }
 
             if ( info.getErrorMessage() != null )
@@ -124,8 +124,13 @@ public class SvnJavaBranchCommand
         }
         catch ( SVNException e )
         {
+            javaRepo.discardSessions( clientManager );
             return new BranchScmResult( SvnJavaScmProvider.COMMAND_LINE, "SVN tag failed.", e.getMessage(), false );
         }
+        finally
+        {
+            javaRepo.releaseClientManager( clientManager );
+        }
     }
 
     /**
@@ -34,14 +34,16 @@ import org.apache.maven.scm.provider.svn.SvnTagBranchUtils;
 import org.apache.maven.scm.provider.svn.command.SvnCommand;
 import org.apache.maven.scm.provider.svn.svnjava.SvnJavaScmProvider;
 import org.apache.maven.scm.provider.svn.svnjava.repository.SvnJavaScmProviderRepository;
+import org.apache.maven.scm.provider.svn.svnjava.util.ScmResultListener;
+import org.apache.maven.scm.provider.svn.svnjava.util.ScmResultListeners;
 import org.apache.maven.scm.provider.svn.svnjava.util.SvnJavaUtil;
 import org.tmatesoft.svn.core.ISVNLogEntryHandler;
 import org.tmatesoft.svn.core.SVNException;
 import org.tmatesoft.svn.core.SVNLogEntry;
 import org.tmatesoft.svn.core.SVNURL;
+import org.tmatesoft.svn.core.wc.SVNClientManager;
 import org.tmatesoft.svn.core.wc.SVNRevision;
 
-import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -81,6 +83,7 @@ public class SvnJavaChangeLogCommand
         SVNRevision startRevision = ( startDate != null ) ? SVNRevision.create( startDate ) : SVNRevision.UNDEFINED;
         SVNRevision endRevision = ( endDate != null ) ? SVNRevision.create( endDate ) : SVNRevision.HEAD;
 
+        SVNClientManager clientManager = javaRepo.leaseClientManager();
         try
         {
             SVNURL url = javaRepo.getSvnUrl();
@@ -89,10 +92,11 @@ public class SvnJavaChangeLogCommand
             {
                 url = SVNURL.parseURIEncoded( SvnTagBranchUtils.resolveBranchUrl( javaRepo, branch ) );
             }
+            url = javaRepo.getReadUrl( clientManager, url );
 
             ChangeLogHandler handler = new ChangeLogHandler( startDate, endDate );
 
-            SvnJavaUtil.changelog( javaRepo.getClientManager(), url, startRevision, endRevision, true, // stopOnCopy
+            SvnJavaUtil.changelog( clientManager, url, startRevision, endRevision, true, // stopOnCopy
                                    true, // reportPaths
                                    handler );
 
@@ -100,9 +104,14 @@ public class SvnJavaChangeLogCommand
         }
         catch ( SVNException e )
         {
+            javaRepo.discardSessions( clientManager );
             return new ChangeLogScmResult( SvnJavaScmProvider.COMMAND_LINE, "SVN Changelog failed.", e.getMessage(),
                                            false );
         }
+        finally
+        {
+            javaRepo.releaseClientManager( clientManager );
+        }
     }
 
     // ----------------------------------------------------------------------
@@ -114,7 +123,10 @@ public class SvnJavaChangeLogCommand
     {
         private ChangeLogSet changeLogSet;
 
-        private List<ChangeSet> changeSets = new ArrayList<>();
+        /**
+         * receives the change sets, collects them unless the caller registered its own listener.
+         */
+        private final ScmResultListener listener = ScmResultListeners.currentOrCollecting();
 
         public ChangeLogHandler( Date startDate, Date endDate )
         {
@@ -132,12 +144,12 @@ public class SvnJavaChangeLogCommand
             SvnChangeSet changeSet =
                 new SvnChangeSet( logEntry.getDate(), logEntry.getMessage(), logEntry.getAuthor(), changedFiles );
             changeSet.setRevision( Long.toString( logEntry.getRevision() ) );
-            changeSets.add( changeSet );
+            listener.onChangeSet( changeSet );
         }
 
         public ChangeLogSet getChangeSets()
         {
-            changeLogSet.setChangeSets( changeSets );
+            changeLogSet.setChangeSets( ScmResultListeners.getChangeSets( listener ) );
 
             return changeLogSet;
         }
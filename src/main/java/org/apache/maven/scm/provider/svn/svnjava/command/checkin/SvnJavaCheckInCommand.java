@@ -32,11 +32,14 @@ import org.apache.maven.scm.provider.ScmProviderRepository;
 import org.apache.maven.scm.provider.svn.command.SvnCommand;
 import org.apache.maven.scm.provider.svn.svnjava.SvnJavaScmProvider;
 import org.apache.maven.scm.provider.svn.svnjava.repository.SvnJavaScmProviderRepository;
+import org.apache.maven.scm.provider.svn.svnjava.repository.SvnRevisionCache;
 import org.apache.maven.scm.provider.svn.svnjava.util.SvnJavaUtil;
+import org.tmatesoft.svn.core.SVNCancelException;
 import org.tmatesoft.svn.core.SVNCommitInfo;
 import org.tmatesoft.svn.core.SVNException;
 import org.tmatesoft.svn.core.SVNProperties;
 import org.tmatesoft.svn.core.wc.ISVNCommitHandler;
+import org.tmatesoft.svn.core.wc.SVNClientManager;
 import org.tmatesoft.svn.core.wc.SVNCommitClient;
 import org.tmatesoft.svn.core.wc.SVNCommitItem;
 
@@ -69,7 +72,9 @@ public class SvnJavaCheckInCommand
 
         CommitHandler handler = new CommitHandler( fileSet.getBasedir().getAbsolutePath() );
 
-        SVNCommitClient svnCommitClient = javaRepo.getClientManager().getCommitClient();
+        SVNClientManager clientManager = javaRepo.leaseClientManager();
+
+        SVNCommitClient svnCommitClient = clientManager.getCommitClient();
 
         svnCommitClient.setCommitHandler( handler );
 
@@ -101,6 +106,14 @@ public class SvnJavaCheckInCommand
             SVNCommitInfo svnCommitInfo =
                 SvnJavaUtil.commit( svnCommitClient, paths.toArray(new File[0]), false, message, true );
 
+            // the commit went to the origin, the mirror catches up
+            javaRepo.synchronizeMirror( clientManager );
+            SvnRevisionCache revisionCache = javaRepo.getRevisionCache();
+            if ( revisionCache != null )
+            {
+                revisionCache.clear();
+            }
+
             List<ScmFile> files = new ArrayList<>();
             for ( String filePath : handler.getFiles() )
             {
@@ -110,13 +123,21 @@ public class SvnJavaCheckInCommand
             return new CheckInScmResult( SvnJavaScmProvider.COMMAND_LINE, files,
                                          Long.toString( svnCommitInfo.getNewRevision() ) );
         }
+        catch ( SVNCancelException e )
+        {
+            // the commit transaction is aborted, nothing was committed
+            SvnJavaUtil.cleanupAfterCancel( javaRepo, clientManager, fileSet.getBasedir(), logger );
+            return new CheckInScmResult( SvnJavaScmProvider.COMMAND_LINE, "SVN commit cancelled.", e.getMessage(),
+                                         false );
+        }
         catch ( SVNException e )
         {
+            javaRepo.discardSessions( clientManager );
             return new CheckInScmResult( SvnJavaScmProvider.COMMAND_LINE, "SVN commit failed.", e.getMessage(), false );
         }
         finally
         {
-            javaRepo.getClientManager().getCommitClient().setEventHandler( null );
+            javaRepo.releaseClientManager( clientManager );
         }
     }
 
@@ -19,9 +19,11 @@ package org.apache.maven.scm.provider.svn.svnjava.command.checkout;
  * under the License.
  */
 
+import org.apache.maven.scm.CommandParameters;
 import org.apache.maven.scm.ScmBranch;
 import org.apache.maven.scm.ScmException;
 import org.apache.maven.scm.ScmFileSet;
+import org.apache.maven.scm.ScmResult;
 import org.apache.maven.scm.ScmRevision;
 import org.apache.maven.scm.ScmTag;
 import org.apache.maven.scm.ScmVersion;
@@ -34,14 +36,24 @@ import org.apache.maven.scm.provider.svn.command.SvnCommand;
 import org.apache.maven.scm.provider.svn.repository.SvnScmProviderRepository;
 import org.apache.maven.scm.provider.svn.svnjava.SvnJavaScmProvider;
 import org.apache.maven.scm.provider.svn.svnjava.repository.SvnJavaScmProviderRepository;
+import org.apache.maven.scm.ScmFile;
 import org.apache.maven.scm.provider.svn.svnjava.util.ScmFileEventHandler;
+import org.apache.maven.scm.provider.svn.svnjava.util.SvnExternalsFetcher;
+import org.apache.maven.scm.provider.svn.svnjava.util.SvnJavaCommandParameters;
 import org.apache.maven.scm.provider.svn.svnjava.util.SvnJavaUtil;
+import org.apache.maven.scm.provider.svn.svnjava.util.SvnWorkingCopyCache;
 import org.codehaus.plexus.util.StringUtils;
+import org.tmatesoft.svn.core.SVNCancelException;
+import org.tmatesoft.svn.core.SVNDepth;
 import org.tmatesoft.svn.core.SVNException;
 import org.tmatesoft.svn.core.SVNURL;
+import org.tmatesoft.svn.core.wc.SVNClientManager;
 import org.tmatesoft.svn.core.wc.SVNRevision;
 import org.tmatesoft.svn.core.wc.SVNUpdateClient;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * @author <a href="mailto:evenisse@apache.org">Emmanuel Venisse</a>
  * @author Olivier Lamy
@@ -51,11 +63,61 @@ public class SvnJavaCheckOutCommand
     extends AbstractCheckOutCommand
     implements SvnCommand
 {
+    /**
+     * depth given in the command parameters, null if none.
+     */
+    private SVNDepth depth;
+
+    /**
+     * parallelism given in the command parameters, 1 if none.
+     */
+    private int parallelism;
 
+    /**
+     * resume mode and retries given in the command parameters, false and 0 if none.
+     */
+    private boolean resume;
+
+    private int retries;
+
+    private long retryBackoff;
+
+    /**
+     * Reads the depth, the parallelism and the retry settings of the {@link SvnJavaCommandParameters}, if any,
+     * before running the checkout.
+     */
+    @Override
+    public ScmResult executeCommand( ScmProviderRepository repository, ScmFileSet fileSet,
+                                     CommandParameters parameters )
+        throws ScmException
+    {
+        depth = SvnJavaCommandParameters.getDepth( parameters );
+        parallelism = SvnJavaCommandParameters.getParallelism( parameters );
+        resume = SvnJavaCommandParameters.isResume( parameters );
+        retries = SvnJavaCommandParameters.getRetries( parameters );
+        retryBackoff = SvnJavaCommandParameters.getRetryBackoff( parameters );
+        return super.executeCommand( repository, fileSet, parameters );
+    }
+
+    /**
+     * Checks out down to the depth of the command parameters if given, else {@link SVNDepth#IMMEDIATES} for a
+     * shallow checkout, the top level files and empty directories, {@link SVNDepth#INFINITY} for a recursive one
+     * and {@link SVNDepth#FILES} otherwise. When the file set has includes or excludes, only the matching files
+     * are checked out, whatever the depth. A full checkout is seeded from a donor of the
+     * {@link SvnWorkingCopyCache} of the repository, if any. The externals of a plain checkout are fetched by a
+     * {@link SvnExternalsFetcher} when the command runs in parallel or the repository has a
+     * {@link org.apache.maven.scm.provider.svn.svnjava.util.SvnExternalsCache}. In resume mode or with retries,
+     * a plain checkout goes through {@link SvnJavaResumableCheckOut}, and the result tells how it went.
+     */
     @Override
     protected CheckOutScmResult executeCheckOutCommand(ScmProviderRepository scmProviderRepository, ScmFileSet scmFileSet,
                                                        ScmVersion scmVersion, boolean recursive, boolean shallow) throws ScmException {
-        return executeCheckOutCommand(scmProviderRepository, scmFileSet, scmVersion, recursive);
+        SVNDepth checkoutDepth = depth;
+        if ( checkoutDepth == null )
+        {
+            checkoutDepth = shallow ? SVNDepth.IMMEDIATES : SVNDepth.fromRecurse( recursive );
+        }
+        return executeCheckOutCommand( scmProviderRepository, scmFileSet, scmVersion, checkoutDepth );
     }
 
     /**
@@ -64,6 +126,13 @@ public class SvnJavaCheckOutCommand
     protected CheckOutScmResult executeCheckOutCommand( ScmProviderRepository repo, ScmFileSet fileSet,
                                                         ScmVersion version, boolean recursive )
         throws ScmException
+    {
+        return executeCheckOutCommand( repo, fileSet, version, SVNDepth.fromRecurse( recursive ) );
+    }
+
+    private CheckOutScmResult executeCheckOutCommand( ScmProviderRepository repo, ScmFileSet fileSet,
+                                                      ScmVersion version, SVNDepth depth )
+        throws ScmException
     {
         if ( logger.isInfoEnabled() )
         {
@@ -106,24 +175,84 @@ public class SvnJavaCheckOutCommand
         SvnJavaScmProviderRepository javaRepo = (SvnJavaScmProviderRepository) repo;
 
         ScmFileEventHandler handler = new ScmFileEventHandler( logger, fileSet.getBasedir() );
-        SVNUpdateClient updateClient = javaRepo.getClientManager().getUpdateClient();
-        updateClient.setEventHandler( handler );
+        SVNClientManager clientManager = javaRepo.leaseClientManager();
+        SvnJavaResumableCheckOut resumable =
+            resume || retries > 0 ? new SvnJavaResumableCheckOut( logger, resume, retries, retryBackoff ) : null;
 
         try
         {
-            SvnJavaUtil.checkout( updateClient, SVNURL.parseURIEncoded( url ), revision, fileSet.getBasedir(), recursive );
+            SVNUpdateClient updateClient = clientManager.getUpdateClient();
+            updateClient.setEventHandler( handler );
 
-            return new CheckOutScmResult( SvnJavaScmProvider.COMMAND_LINE, handler.getFiles() );
+            SVNURL originUrl = SVNURL.parseURIEncoded( url );
+            SVNURL checkoutUrl = javaRepo.getReadUrl( clientManager, originUrl );
+            SvnWorkingCopyCache donors = depth == SVNDepth.INFINITY ? javaRepo.getWorkingCopyCache() : null;
+            long checkedOutRevision = -1;
+            if ( SvnJavaSparseCheckOut.isSparse( fileSet ) )
+            {
+                SvnJavaSparseCheckOut sparseCheckOut = new SvnJavaSparseCheckOut(
+                    logger, fileSet.getIncludes(), SvnJavaSparseCheckOut.getUserExcludes( fileSet ) );
+                sparseCheckOut.checkOut( clientManager, checkoutUrl, revision, fileSet.getBasedir() );
+            }
+            else if ( donors == null || donors.checkOut( clientManager, originUrl, checkoutUrl, revision,
+                                                         fileSet.getBasedir(), handler ) < 0 )
+            {
+                boolean ignoreExternals = SvnExternalsFetcher.isEnabled( javaRepo, parallelism );
+                if ( resumable != null )
+                {
+                    checkedOutRevision = resumable.checkOut( clientManager, checkoutUrl, originUrl, revision,
+                                                             fileSet.getBasedir(), depth, ignoreExternals );
+                }
+                else
+                {
+                    checkedOutRevision = SvnJavaUtil.checkout( updateClient, checkoutUrl, revision,
+                                                               fileSet.getBasedir(), depth, ignoreExternals );
+                }
+            }
+            if ( !checkoutUrl.equals( originUrl ) )
+            {
+                // checked out from the mirror, commits must go to the origin
+                SvnJavaUtil.relocate( updateClient, fileSet.getBasedir(), checkoutUrl, originUrl );
+                SvnJavaUtil.translateKeywords( clientManager, fileSet.getBasedir() );
+            }
+
+            List<ScmFile> files = new ArrayList<>( handler.getFiles() );
+            if ( checkedOutRevision >= 0 && SvnExternalsFetcher.isEnabled( javaRepo, parallelism ) )
+            {
+                files.addAll( new SvnExternalsFetcher( javaRepo, logger, parallelism )
+                                  .fetch( clientManager, fileSet.getBasedir(), checkedOutRevision,
+                                          fileSet.getBasedir() ) );
+            }
+            return new SvnJavaCheckOutScmResult( SvnJavaScmProvider.COMMAND_LINE, files, getAttempts( resumable ),
+                                                 getBytesSaved( resumable ) );
+        }
+        catch ( SVNCancelException e )
+        {
+            SvnJavaUtil.cleanupAfterCancel( javaRepo, clientManager, fileSet.getBasedir(), logger );
+            return new CheckOutScmResult( handler.getFiles(),
+                                          new ScmResult( SvnJavaScmProvider.COMMAND_LINE, "SVN checkout cancelled.",
+                                                         e.getMessage(), false ) );
         }
         catch ( SVNException e )
         {
-            return new CheckOutScmResult( SvnJavaScmProvider.COMMAND_LINE, "SVN checkout failed.", e.getMessage(),
-                                          false );
+            javaRepo.discardSessions( clientManager );
+            return new SvnJavaCheckOutScmResult( SvnJavaScmProvider.COMMAND_LINE, "SVN checkout failed.",
+                                                 e.getMessage(), getAttempts( resumable ),
+                                                 getBytesSaved( resumable ) );
         }
         finally
         {
-            javaRepo.getClientManager().getUpdateClient().setEventHandler( null );
+            javaRepo.releaseClientManager( clientManager );
         }
     }
 
+    private static int getAttempts( SvnJavaResumableCheckOut resumable )
+    {
+        return resumable == null ? 1 : Math.max( 1, resumable.getAttempts() );
+    }
+
+    private static long getBytesSaved( SvnJavaResumableCheckOut resumable )
+    {
+        return resumable == null ? 0 : resumable.getBytesSaved();
+    }
 }
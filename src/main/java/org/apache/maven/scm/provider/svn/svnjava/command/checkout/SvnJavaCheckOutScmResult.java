@@ -0,0 +1,73 @@
+package org.apache.maven.scm.provider.svn.svnjava.command.checkout;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.scm.ScmFile;
+import org.apache.maven.scm.command.checkout.CheckOutScmResult;
+
+import java.util.List;
+
+/**
+ * {@link CheckOutScmResult} telling how a resumable checkout went: how many attempts it took and how much of the
+ * content was already in the working copy left by the previous ones.
+ *
+ * @since 2.2.2
+ */
+public class SvnJavaCheckOutScmResult
+    extends CheckOutScmResult
+{
+    private static final long serialVersionUID = 1L;
+
+    private final int attempts;
+
+    private final long bytesSaved;
+
+    public SvnJavaCheckOutScmResult( String commandLine, List<ScmFile> checkedOutFiles, int attempts,
+                                     long bytesSaved )
+    {
+        super( commandLine, checkedOutFiles );
+        this.attempts = attempts;
+        this.bytesSaved = bytesSaved;
+    }
+
+    public SvnJavaCheckOutScmResult( String commandLine, String providerMessage, String commandOutput,
+                                     int attempts, long bytesSaved )
+    {
+        super( commandLine, providerMessage, commandOutput, false );
+        this.attempts = attempts;
+        this.bytesSaved = bytesSaved;
+    }
+
+    /**
+     * @return the number of checkout attempts, 1 unless the checkout was retried
+     */
+    public int getAttempts()
+    {
+        return attempts;
+    }
+
+    /**
+     * @return the size of the content found in the working copy when resuming, not transferred again
+     */
+    public long getBytesSaved()
+    {
+        return bytesSaved;
+    }
+}
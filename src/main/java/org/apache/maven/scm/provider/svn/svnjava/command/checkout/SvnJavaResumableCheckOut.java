@@ -0,0 +1,242 @@
+package org.apache.maven.scm.provider.svn.svnjava.command.checkout;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.scm.provider.svn.svnjava.util.SvnJavaCancellationToken;
+import org.apache.maven.scm.provider.svn.svnjava.util.SvnJavaUtil;
+import org.slf4j.Logger;
+import org.tmatesoft.svn.core.SVNCancelException;
+import org.tmatesoft.svn.core.SVNDepth;
+import org.tmatesoft.svn.core.SVNErrorCode;
+import org.tmatesoft.svn.core.SVNException;
+import org.tmatesoft.svn.core.SVNURL;
+import org.tmatesoft.svn.core.wc.SVNClientManager;
+import org.tmatesoft.svn.core.wc.SVNInfo;
+import org.tmatesoft.svn.core.wc.SVNRevision;
+import org.tmatesoft.svn.core.wc.SVNUpdateClient;
+import org.tmatesoft.svn.core.wc.SVNWCUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Checkout which survives network failures. The revision is pinned first, so that every attempt targets the
+ * same tree: when an attempt fails on a network error, the partial working copy is cleaned up and updated to
+ * that revision, which only transfers what is still missing. The retries wait a delay doubled each time.
+ * <p>
+ * In resume mode, a working copy of the same url already at the destination, left by an interrupted checkout,
+ * is completed the same way, to the revision it was pinned to unless another one is asked for.
+ * </p>
+ *
+ * @since 2.2.2
+ */
+class SvnJavaResumableCheckOut
+{
+    /**
+     * longest time the wait before a retry goes without checking the cancellation token.
+     */
+    static final long SLEEP_SLICE = 100;
+
+    private final Logger logger;
+
+    private final boolean resume;
+
+    private final int retries;
+
+    private final long retryBackoff;
+
+    private final SvnJavaCancellationToken cancellationToken = SvnJavaCancellationToken.current();
+
+    private int attempts;
+
+    private long bytesSaved;
+
+    SvnJavaResumableCheckOut( Logger logger, boolean resume, int retries, long retryBackoff )
+    {
+        this.logger = logger;
+        this.resume = resume;
+        this.retries = retries;
+        this.retryBackoff = retryBackoff;
+    }
+
+    /**
+     * @param clientManager the client manager of the command, its update client reporting to the handler of the
+     *            command
+     * @param url the url to check out
+     * @param originUrl the url the working copy records once complete, <code>url</code> or the origin of the
+     *            mirror <code>url</code> belongs to
+     * @return the revision checked out
+     */
+    long checkOut( SVNClientManager clientManager, SVNURL url, SVNURL originUrl, SVNRevision revision, File baseDir,
+                   SVNDepth depth, boolean ignoreExternals )
+        throws SVNException
+    {
+        SVNUpdateClient updateClient = clientManager.getUpdateClient();
+        SVNRevision pinned = null;
+        boolean resuming = false;
+        if ( resume && SVNWCUtil.isVersionedDirectory( baseDir ) )
+        {
+            SVNInfo info = clientManager.getWCClient().doInfo( baseDir, SVNRevision.UNDEFINED );
+            if ( info.getURL().equals( url ) || info.getURL().equals( originUrl ) )
+            {
+                resuming = true;
+                if ( !info.getURL().equals( url ) )
+                {
+                    SvnJavaUtil.relocate( updateClient, baseDir, originUrl, url );
+                }
+                if ( revision.getNumber() < 0 && info.getRevision().getNumber() >= 0 )
+                {
+                    pinned = info.getRevision();
+                }
+            }
+        }
+        if ( pinned == null )
+        {
+            pinned = SVNRevision.create(
+                clientManager.getWCClient().doInfo( url, SVNRevision.UNDEFINED, revision ).getRevision().getNumber() );
+        }
+
+        long backoff = retryBackoff;
+        for ( attempts = 1; ; attempts++ )
+        {
+            try
+            {
+                if ( resuming )
+                {
+                    return resume( clientManager, pinned, baseDir, depth, ignoreExternals );
+                }
+                return SvnJavaUtil.checkout( updateClient, url, pinned, baseDir, depth, ignoreExternals );
+            }
+            catch ( SVNCancelException e )
+            {
+                throw e;
+            }
+            catch ( SVNException e )
+            {
+                if ( attempts > retries || !isTransient( e ) )
+                {
+                    throw e;
+                }
+                logger.warn( "SVN checkout of " + url + " failed: " + e.getMessage() + ", retrying in " + backoff
+                                 + " ms (" + attempts + "/" + retries + ")" );
+                sleep( backoff );
+                backoff *= 2;
+                resuming = SVNWCUtil.isVersionedDirectory( baseDir );
+            }
+        }
+    }
+
+    /**
+     * @return the number of attempts of the last checkout
+     */
+    int getAttempts()
+    {
+        return attempts;
+    }
+
+    /**
+     * @return the size of the pristine content found in the working copy each time the checkout was resumed
+     */
+    long getBytesSaved()
+    {
+        return bytesSaved;
+    }
+
+    private long resume( SVNClientManager clientManager, SVNRevision revision, File baseDir, SVNDepth depth,
+                         boolean ignoreExternals )
+        throws SVNException
+    {
+        long present = getPristineSize( baseDir );
+        if ( logger.isInfoEnabled() )
+        {
+            logger.info( "Resuming the checkout of " + baseDir + " at revision " + revision + ", " + present
+                             + " bytes already there" );
+        }
+        clientManager.getWCClient().doCleanup( baseDir, true );
+        SVNUpdateClient updateClient = clientManager.getUpdateClient();
+        updateClient.setIgnoreExternals( ignoreExternals );
+        long result = updateClient.doUpdate( baseDir, revision, depth, true, false );
+        bytesSaved += present;
+        return result;
+    }
+
+    /**
+     * @return true for the errors a new attempt may not run into, those of the network
+     */
+    static boolean isTransient( SVNException e )
+    {
+        SVNErrorCode code = e.getErrorMessage().getErrorCode();
+        if ( code.isAuthentication() || code == SVNErrorCode.RA_ILLEGAL_URL || code == SVNErrorCode.RA_NOT_AUTHORIZED )
+        {
+            return false;
+        }
+        int category = code.getCategory();
+        return code == SVNErrorCode.IO_ERROR || category == SVNErrorCode.RA_CATEGORY
+            || category == SVNErrorCode.RA_DAV_CATEGORY || category == SVNErrorCode.RA_SVN_CATEGORY
+            || category == SVNErrorCode.RA_SERF_CATEGORY;
+    }
+
+    private static long getPristineSize( File baseDir )
+    {
+        Path pristine = new File( baseDir, ".svn/pristine" ).toPath();
+        if ( !Files.isDirectory( pristine ) )
+        {
+            return 0;
+        }
+        try ( Stream<Path> files = Files.walk( pristine ) )
+        {
+            return files.filter( Files::isRegularFile ).mapToLong( file -> file.toFile().length() ).sum();
+        }
+        catch ( IOException | UncheckedIOException e )
+        {
+            return 0;
+        }
+    }
+
+    /**
+     * Waits before a retry, checking the cancellation token of the command every {@link #SLEEP_SLICE} ms, so that a
+     * cancelled checkout, or one past its deadline, stops waiting instead of retrying.
+     */
+    void sleep( long millis )
+        throws SVNCancelException
+    {
+        long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos( millis );
+        try
+        {
+            SvnJavaCancellationToken.checkCancelled( cancellationToken );
+            for ( long remaining = millis; remaining > 0;
+                  remaining = TimeUnit.NANOSECONDS.toMillis( end - System.nanoTime() ) )
+            {
+                Thread.sleep( Math.min( remaining, SLEEP_SLICE ) );
+                SvnJavaCancellationToken.checkCancelled( cancellationToken );
+            }
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new SVNCancelException();
+        }
+    }
+}
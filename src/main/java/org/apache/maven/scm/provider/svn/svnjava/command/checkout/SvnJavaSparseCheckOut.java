@@ -0,0 +1,282 @@
+package org.apache.maven.scm.provider.svn.svnjava.command.checkout;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.scm.ScmFileSet;
+import org.apache.maven.scm.provider.svn.svnjava.util.SvnJavaUtil;
+import org.codehaus.plexus.util.DirectoryScanner;
+import org.codehaus.plexus.util.SelectorUtils;
+import org.codehaus.plexus.util.StringUtils;
+import org.slf4j.Logger;
+import org.tmatesoft.svn.core.SVNDepth;
+import org.tmatesoft.svn.core.SVNDirEntry;
+import org.tmatesoft.svn.core.SVNException;
+import org.tmatesoft.svn.core.SVNNodeKind;
+import org.tmatesoft.svn.core.SVNURL;
+import org.tmatesoft.svn.core.wc.SVNClientManager;
+import org.tmatesoft.svn.core.wc.SVNRevision;
+import org.tmatesoft.svn.core.wc.SVNUpdateClient;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Checkout of the files matching the includes and excludes of a {@link ScmFileSet}.
+ * <p>
+ * The tree is listed remotely first, at a pinned revision, and the patterns are turned into a per-directory
+ * depth plan: a directory whose files all match is fetched whole with {@link SVNDepth#INFINITY}, the other
+ * matching files one by one, and the directories leading to them with {@link SVNDepth#EMPTY}. Nothing else is
+ * transferred. The depths are recorded in the working copy, so later updates keep it sparse.
+ * </p>
+ * <p>
+ * The patterns are those of {@link org.codehaus.plexus.util.DirectoryScanner}, relative to the checkout url,
+ * comma separated. The default excludes of the file set only concern local files and are ignored.
+ * </p>
+ *
+ * @since 2.2.2
+ */
+class SvnJavaSparseCheckOut
+{
+    /**
+     * excludes {@link ScmFileSet} appends to the user ones.
+     */
+    private static final String DEFAULT_EXCLUDES = StringUtils.join( DirectoryScanner.DEFAULTEXCLUDES, "," );
+
+    private final Logger logger;
+
+    private final String[] includes;
+
+    private final String[] excludes;
+
+    SvnJavaSparseCheckOut( Logger logger, String includes, String excludes )
+    {
+        this.logger = logger;
+        this.includes = StringUtils.isEmpty( includes ) ? new String[]{ "**" } : toPatterns( includes );
+        this.excludes = StringUtils.isEmpty( excludes ) ? new String[0] : toPatterns( excludes );
+    }
+
+    /**
+     * @return true if the file set selects some files only, with user includes or excludes
+     */
+    static boolean isSparse( ScmFileSet fileSet )
+    {
+        String excludes = fileSet.getExcludes();
+        return fileSet.getIncludes() != null
+            || ( excludes != null && !excludes.equals( DEFAULT_EXCLUDES ) );
+    }
+
+    /**
+     * @return the user excludes of the file set, without the default excludes appended by {@link ScmFileSet}
+     */
+    static String getUserExcludes( ScmFileSet fileSet )
+    {
+        String excludes = fileSet.getExcludes();
+        if ( excludes == null )
+        {
+            return null;
+        }
+        if ( excludes.endsWith( DEFAULT_EXCLUDES ) )
+        {
+            excludes = excludes.substring( 0, excludes.length() - DEFAULT_EXCLUDES.length() );
+        }
+        return excludes.endsWith( "," ) ? excludes.substring( 0, excludes.length() - 1 ) : excludes;
+    }
+
+    /**
+     * @param clientManager the client manager of the command, its update client reporting to the handler of the
+     *            command
+     * @return the revision checked out
+     */
+    long checkOut( SVNClientManager clientManager, SVNURL url, SVNRevision revision, File baseDir )
+        throws SVNException
+    {
+        SVNRevision pinned = SVNRevision.create(
+            clientManager.getWCClient().doInfo( url, SVNRevision.UNDEFINED, revision ).getRevision().getNumber() );
+
+        Directory root = new Directory();
+        // svnkit does not descend into the directories when the kind is the only field asked for
+        int fields = SVNDirEntry.DIRENT_KIND | SVNDirEntry.DIRENT_CREATED_REVISION;
+        clientManager.getLogClient().doList( url, pinned, pinned, false, SVNDepth.INFINITY, fields,
+                                             ( SVNDirEntry entry ) -> {
+                String path = entry.getRelativePath();
+                if ( entry.getKind() == SVNNodeKind.FILE )
+                {
+                    root.addFile( path, isSelected( path ) );
+                }
+                else if ( entry.getKind() == SVNNodeKind.DIR && path.length() > 0 )
+                {
+                    root.getDirectory( path );
+                }
+            } );
+
+        List<File> directories = new ArrayList<>();
+        List<File> subtrees = new ArrayList<>();
+        List<File> files = new ArrayList<>();
+        root.plan( baseDir, directories, subtrees, files );
+        if ( logger.isDebugEnabled() )
+        {
+            logger.debug( "Sparse checkout of " + root.selected + " files out of " + root.total + " at revision "
+                              + pinned + ": " + subtrees.size() + " whole directories and " + files.size()
+                              + " single files" );
+        }
+
+        SVNUpdateClient updateClient = clientManager.getUpdateClient();
+        if ( root.isWhole() )
+        {
+            return SvnJavaUtil.checkout( updateClient, url, pinned, baseDir, SVNDepth.INFINITY );
+        }
+        long result = SvnJavaUtil.checkout( updateClient, url, pinned, baseDir, SVNDepth.EMPTY );
+        // parents come before their children, so that each path has a versioned parent when it is updated
+        if ( !directories.isEmpty() )
+        {
+            SvnJavaUtil.update( updateClient, directories.toArray( new File[0] ), pinned, SVNDepth.EMPTY, true );
+        }
+        if ( !subtrees.isEmpty() )
+        {
+            SvnJavaUtil.update( updateClient, subtrees.toArray( new File[0] ), pinned, SVNDepth.INFINITY, true );
+        }
+        if ( !files.isEmpty() )
+        {
+            SvnJavaUtil.update( updateClient, files.toArray( new File[0] ), pinned, SVNDepth.EMPTY, true );
+        }
+        return result;
+    }
+
+    private boolean isSelected( String path )
+    {
+        return matches( includes, path ) && !matches( excludes, path );
+    }
+
+    private static boolean matches( String[] patterns, String path )
+    {
+        for ( String pattern : patterns )
+        {
+            if ( SelectorUtils.matchPath( pattern, path, "/", true ) )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String[] toPatterns( String patterns )
+    {
+        String[] result = StringUtils.split( patterns, "," );
+        for ( int i = 0; i < result.length; i++ )
+        {
+            String pattern = result[i].trim().replace( '\\', '/' );
+            // same as DirectoryScanner, "dir/" stands for everything under dir
+            result[i] = pattern.endsWith( "/" ) ? pattern + "**" : pattern;
+        }
+        return result;
+    }
+
+    /**
+     * Directory of the remote tree, with the files it holds and how many of them are selected.
+     */
+    private static final class Directory
+    {
+        private final Map<String, Directory> directories = new TreeMap<>();
+
+        private final Map<String, Boolean> files = new TreeMap<>();
+
+        private int total;
+
+        private int selected;
+
+        private Directory getDirectory( String path )
+        {
+            Directory directory = this;
+            for ( String name : StringUtils.split( path, "/" ) )
+            {
+                Directory child = directory.directories.get( name );
+                if ( child == null )
+                {
+                    child = new Directory();
+                    directory.directories.put( name, child );
+                }
+                directory = child;
+            }
+            return directory;
+        }
+
+        private void addFile( String path, boolean isSelected )
+        {
+            int slash = path.lastIndexOf( '/' );
+            Directory directory = this;
+            for ( String name : StringUtils.split( slash < 0 ? "" : path.substring( 0, slash ), "/" ) )
+            {
+                directory.count( isSelected );
+                directory = directory.getDirectory( name );
+            }
+            directory.count( isSelected );
+            directory.files.put( path.substring( slash + 1 ), isSelected );
+        }
+
+        private void count( boolean isSelected )
+        {
+            total++;
+            if ( isSelected )
+            {
+                selected++;
+            }
+        }
+
+        /**
+         * @return true if all the files under this directory are selected
+         */
+        private boolean isWhole()
+        {
+            return selected > 0 && selected == total;
+        }
+
+        /**
+         * Adds the directories to fetch empty, parents first, the directories to fetch whole and the single files
+         * to fetch.
+         */
+        private void plan( File path, List<File> emptyDirectories, List<File> subtrees, List<File> singleFiles )
+        {
+            for ( Map.Entry<String, Boolean> file : files.entrySet() )
+            {
+                if ( file.getValue() )
+                {
+                    singleFiles.add( new File( path, file.getKey() ) );
+                }
+            }
+            for ( Map.Entry<String, Directory> entry : directories.entrySet() )
+            {
+                Directory directory = entry.getValue();
+                File directoryPath = new File( path, entry.getKey() );
+                if ( directory.isWhole() )
+                {
+                    subtrees.add( directoryPath );
+                }
+                else if ( directory.selected > 0 )
+                {
+                    emptyDirectories.add( directoryPath );
+                    directory.plan( directoryPath, emptyDirectories, subtrees, singleFiles );
+                }
+            }
+        }
+    }
+}
@@ -35,6 +35,7 @@ import org.apache.maven.scm.provider.svn.svnjava.util.SvnJavaUtil;
 import org.apache.commons.lang.StringUtils;
 import org.tmatesoft.svn.core.SVNDepth;
 import org.tmatesoft.svn.core.SVNException;
+import org.tmatesoft.svn.core.wc.SVNClientManager;
 import org.tmatesoft.svn.core.wc.SVNDiffClient;
 import org.tmatesoft.svn.core.wc.SVNRevision;
 
@@ -80,9 +81,10 @@ public class SvnJavaDiffCommand
 
         ScmFileEventHandler handler = new ScmFileEventHandler( logger, fileSet.getBasedir() );
 
-        SVNDiffClient diffClient = javaRepo.getClientManager().getDiffClient();
+        SVNClientManager clientManager = javaRepo.leaseClientManager();
+        SVNDiffClient diffClient = clientManager.getDiffClient();
         diffClient.setEventHandler( handler );
-        
+
         try (ByteArrayOutputStream out =
                      SvnJavaUtil.diff(diffClient, fileSet.getBasedir(), start, end, SVNDepth.INFINITY, changeLists);
              ByteArrayInputStream bis = new ByteArrayInputStream( out.toByteArray() );
@@ -126,9 +128,18 @@ public class SvnJavaDiffCommand
             return new DiffScmResult( SvnJavaScmProvider.COMMAND_LINE, consumer.getChangedFiles(),
                                       consumer.getDifferences(), consumer.getPatch() );
         }
-        catch ( IOException | SVNException e )
+        catch ( SVNException e )
+        {
+            javaRepo.discardSessions( clientManager );
+            return new DiffScmResult( SvnJavaScmProvider.COMMAND_LINE, "SVN diff failed.", e.getMessage(), false );
+        }
+        catch ( IOException e )
         {
             return new DiffScmResult( SvnJavaScmProvider.COMMAND_LINE, "SVN diff failed.", e.getMessage(), false );
         }
+        finally
+        {
+            javaRepo.releaseClientManager( clientManager );
+        }
     }
 }
@@ -0,0 +1,97 @@
+package org.apache.maven.scm.provider.svn.svnjava.command.export;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Date;
+
+/**
+ * Writes the entries of an archive, one after the other, to a stream owned by the caller: the stream is neither
+ * buffered nor closed.
+ *
+ * @since 2.2.2
+ */
+abstract class ArchiveWriter
+{
+    static ArchiveWriter create( SvnArchiveFormat format, OutputStream out )
+    {
+        return format == SvnArchiveFormat.TAR ? new TarArchiveWriter( out ) : new ZipArchiveWriter( out );
+    }
+
+    /**
+     * @return true if the size of a file must be given before its content
+     */
+    abstract boolean requiresSize();
+
+    /**
+     * @param path the path of the directory in the archive, without trailing slash
+     */
+    abstract void putDirectory( String path, Date date )
+        throws IOException;
+
+    /**
+     * Starts a file, whose content is written to the returned stream before {@link #closeEntry()}. Closing the
+     * returned stream does not close the archive.
+     *
+     * @param size the exact size of the content, -1 if unknown and {@link #requiresSize()} is false
+     */
+    abstract OutputStream putFile( String path, long size, boolean executable, Date date )
+        throws IOException;
+
+    abstract void closeEntry()
+        throws IOException;
+
+    abstract void putSymbolicLink( String path, String target, Date date )
+        throws IOException;
+
+    /**
+     * Writes the end of the archive and flushes it.
+     */
+    abstract void finish()
+        throws IOException;
+
+    /**
+     * Stream of one entry, which does not close the archive.
+     */
+    static class EntryOutputStream
+        extends FilterOutputStream
+    {
+        EntryOutputStream( OutputStream out )
+        {
+            super( out );
+        }
+
+        @Override
+        public void write( byte[] b, int off, int len )
+            throws IOException
+        {
+            out.write( b, off, len );
+        }
+
+        @Override
+        public void close()
+            throws IOException
+        {
+            flush();
+        }
+    }
+}
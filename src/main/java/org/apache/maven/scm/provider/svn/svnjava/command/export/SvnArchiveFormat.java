@@ -0,0 +1,39 @@
+package org.apache.maven.scm.provider.svn.svnjava.command.export;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+/**
+ * Archive formats of {@link SvnJavaExportArchiveCommand}.
+ *
+ * @since 2.2.2
+ */
+public enum SvnArchiveFormat
+{
+    /**
+     * zip archive, with UTF-8 entry names.
+     */
+    ZIP,
+
+    /**
+     * POSIX tar archive, using pax headers for the names too long or not ASCII. Not compressed, wrap the stream
+     * in a {@link java.util.zip.GZIPOutputStream} for a <code>.tar.gz</code>.
+     */
+    TAR
+}
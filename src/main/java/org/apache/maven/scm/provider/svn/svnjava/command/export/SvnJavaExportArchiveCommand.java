@@ -0,0 +1,383 @@
+package org.apache.maven.scm.provider.svn.svnjava.command.export;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.scm.ScmException;
+import org.apache.maven.scm.ScmFile;
+import org.apache.maven.scm.ScmFileStatus;
+import org.apache.maven.scm.ScmVersion;
+import org.apache.maven.scm.command.export.ExportScmResult;
+import org.apache.maven.scm.provider.ScmProviderRepository;
+import org.apache.maven.scm.provider.svn.svnjava.SvnJavaScmProvider;
+import org.apache.maven.scm.provider.svn.svnjava.metrics.SvnCommandMetricsRecorder;
+import org.apache.maven.scm.provider.svn.svnjava.repository.SvnJavaScmProviderRepository;
+import org.apache.maven.scm.provider.svn.svnjava.util.ScmResultListener;
+import org.apache.maven.scm.provider.svn.svnjava.util.ScmResultListeners;
+import org.apache.maven.scm.provider.svn.svnjava.util.SvnJavaCancellationToken;
+import org.codehaus.plexus.util.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.tmatesoft.svn.core.SVNDirEntry;
+import org.tmatesoft.svn.core.SVNException;
+import org.tmatesoft.svn.core.SVNNodeKind;
+import org.tmatesoft.svn.core.SVNProperties;
+import org.tmatesoft.svn.core.SVNProperty;
+import org.tmatesoft.svn.core.SVNURL;
+import org.tmatesoft.svn.core.internal.util.SVNDate;
+import org.tmatesoft.svn.core.internal.util.SVNPathUtil;
+import org.tmatesoft.svn.core.internal.wc.admin.SVNTranslator;
+import org.tmatesoft.svn.core.io.SVNRepository;
+import org.tmatesoft.svn.core.wc.ISVNOptions;
+import org.tmatesoft.svn.core.wc.SVNClientManager;
+import org.tmatesoft.svn.core.wc.SVNRevision;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exports a tree of the repository straight into a zip or tar stream, without writing anything to disk.
+ * <p>
+ * The tree is walked one directory at a time and the content of each file is streamed from the repository into
+ * the archive, translated as by {@link org.apache.maven.scm.provider.svn.svnjava.util.SvnJavaUtil#export}: the
+ * end of lines follow <code>svn:eol-style</code>, native ones being those of the platform, and the keywords are
+ * expanded, with the origin url even when reading from a mirror, unless the update client of the repository was
+ * told not to expand them in exports. The memory used does not grow with the size of the tree: tar needs the size
+ * of a file before its content, so a translated file is buffered up to {@link #BUFFER_SIZE} bytes, and fetched a
+ * second time if larger. The exported files are reported as by the other commands; bind a streaming
+ * {@link ScmResultListener} to keep the result from growing with the tree as well.
+ * </p>
+ * <p>
+ * <code>svn:externals</code> are not followed.
+ * </p>
+ *
+ * @since 2.2.2
+ */
+public class SvnJavaExportArchiveCommand
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger( SvnJavaExportArchiveCommand.class );
+
+    /**
+     * size up to which a translated file is buffered for a tar archive.
+     */
+    static final int BUFFER_SIZE = 1024 * 1024;
+
+    /**
+     * Writes the archive of the tag or branch given as <code>version</code>, or of the repository url at the
+     * revision given as <code>version</code>, HEAD otherwise, into <code>out</code>. The stream is neither
+     * buffered nor closed.
+     *
+     * @param prefix the directory in which the tree is put in the archive, e.g. <code>project-1.0</code>; null
+     *            to put it at the root of the archive
+     */
+    public ExportScmResult executeExportArchiveCommand( ScmProviderRepository repository, ScmVersion version,
+                                                        SvnArchiveFormat format, String prefix, OutputStream out )
+        throws ScmException
+    {
+        SvnJavaScmProviderRepository javaRepo = (SvnJavaScmProviderRepository) repository;
+
+        String url = SvnJavaExportCommand.getUrl( javaRepo, version );
+
+        SVNRevision revision = SvnJavaExportCommand.getRevision( version );
+        if ( revision == null )
+        {
+            return new ExportScmResult( SvnJavaScmProvider.COMMAND_LINE,
+                                        "SVN export failed. Wrong format of revision number.", null, false );
+        }
+
+        SVNClientManager clientManager = javaRepo.leaseClientManager();
+        try
+        {
+            SVNURL originUrl = SVNURL.parseURIEncoded( url );
+            SVNURL exportUrl = javaRepo.getReadUrl( clientManager, originUrl );
+            SVNRepository svnRepository = clientManager.createRepository( exportUrl, true );
+            long pinned = revision.getNumber() < 0 ? svnRepository.getLatestRevision() : revision.getNumber();
+
+            Walk walk = new Walk( svnRepository, pinned, ArchiveWriter.create( format, out ),
+                                  clientManager.getOptions(), clientManager.getUpdateClient().isExportExpandsKeywords(),
+                                  originUrl,
+                                  getOriginRootUrl( originUrl, exportUrl, svnRepository.getRepositoryRoot( true ) ) );
+
+            String root = StringUtils.isEmpty( prefix ) ? "" : StringUtils.stripEnd( prefix, "/" );
+            SVNNodeKind kind = svnRepository.checkPath( "", pinned );
+            if ( kind == SVNNodeKind.DIR )
+            {
+                if ( root.length() > 0 )
+                {
+                    walk.writer.putDirectory( root, svnRepository.info( "", pinned ).getDate() );
+                }
+                walk.exportDirectory( "", root );
+            }
+            else if ( kind == SVNNodeKind.FILE )
+            {
+                // the path of a file is relative to its parent
+                String name = SVNPathUtil.tail( exportUrl.getPath() );
+                svnRepository.setLocation( exportUrl.removePathTail(), false );
+                walk.exportFile( name, root.length() > 0 ? root + "/" + name : name,
+                                 svnRepository.info( name, pinned ) );
+            }
+            else
+            {
+                return new ExportScmResult( SvnJavaScmProvider.COMMAND_LINE, "SVN export failed.",
+                                            url + " does not exist in revision " + pinned, false );
+            }
+            walk.writer.finish();
+
+            return new ExportScmResult( SvnJavaScmProvider.COMMAND_LINE, ScmResultListeners.getFiles( walk.listener ) );
+        }
+        catch ( SVNException e )
+        {
+            javaRepo.discardSessions( clientManager );
+            return new ExportScmResult( SvnJavaScmProvider.COMMAND_LINE, "SVN export failed.", e.getMessage(),
+                                        false );
+        }
+        catch ( IOException e )
+        {
+            return new ExportScmResult( SvnJavaScmProvider.COMMAND_LINE, "SVN export failed.",
+                                        "Cannot write the archive: " + e.getMessage(), false );
+        }
+        finally
+        {
+            javaRepo.releaseClientManager( clientManager );
+        }
+    }
+
+    /**
+     * @return the root of the repository of <code>originUrl</code>, from the root of the repository of
+     *         <code>exportUrl</code>, a mirror keeping the same paths
+     */
+    private static String getOriginRootUrl( SVNURL originUrl, SVNURL exportUrl, SVNURL exportRootUrl )
+    {
+        if ( originUrl.equals( exportUrl ) )
+        {
+            return exportRootUrl.toString();
+        }
+        String path = exportUrl.getPath().substring( exportRootUrl.getPath().length() );
+        String origin = originUrl.toString();
+        return origin.endsWith( path ) ? origin.substring( 0, origin.length() - path.length() ) : origin;
+    }
+
+    /**
+     * State of one export.
+     */
+    private static final class Walk
+    {
+        private final SVNRepository svnRepository;
+
+        private final long revision;
+
+        private final ArchiveWriter writer;
+
+        private final ISVNOptions options;
+
+        private final boolean expandKeywords;
+
+        private final SVNURL url;
+
+        private final String rootUrl;
+
+        private final ScmResultListener listener = ScmResultListeners.currentOrCollecting();
+
+        private final SvnCommandMetricsRecorder metrics = SvnCommandMetricsRecorder.current();
+
+        private final SvnJavaCancellationToken cancellationToken = SvnJavaCancellationToken.current();
+
+        private Walk( SVNRepository svnRepository, long revision, ArchiveWriter writer, ISVNOptions options,
+                      boolean expandKeywords, SVNURL url, String rootUrl )
+        {
+            this.svnRepository = svnRepository;
+            this.revision = revision;
+            this.writer = writer;
+            this.options = options;
+            this.expandKeywords = expandKeywords;
+            this.url = url;
+            this.rootUrl = rootUrl;
+        }
+
+        /**
+         * @param path the path of the directory, relative to the exported url
+         * @param entryPath the path of the directory in the archive
+         */
+        private void exportDirectory( String path, String entryPath )
+            throws SVNException, IOException
+        {
+            List<SVNDirEntry> entries = new ArrayList<>();
+            svnRepository.getDir( path, revision, null, SVNDirEntry.DIRENT_ALL, entries );
+            entries.sort( Comparator.comparing( SVNDirEntry::getName ) );
+
+            for ( SVNDirEntry entry : entries )
+            {
+                SvnJavaCancellationToken.checkCancelled( cancellationToken );
+
+                String childPath = path.isEmpty() ? entry.getName() : path + "/" + entry.getName();
+                String childEntryPath = entryPath.isEmpty() ? entry.getName() : entryPath + "/" + entry.getName();
+                if ( entry.getKind() == SVNNodeKind.DIR )
+                {
+                    writer.putDirectory( childEntryPath, entry.getDate() );
+                    exportDirectory( childPath, childEntryPath );
+                }
+                else
+                {
+                    exportFile( childPath, childEntryPath, entry );
+                }
+            }
+        }
+
+        private void exportFile( String path, String entryPath, SVNDirEntry entry )
+            throws SVNException, IOException
+        {
+            SVNProperties properties = new SVNProperties();
+            if ( entry.hasProperties() )
+            {
+                svnRepository.getFile( path, revision, properties, null );
+            }
+
+            if ( properties.getStringValue( SVNProperty.SPECIAL ) != null )
+            {
+                // the content of a link is "link <target>"
+                ByteArrayOutputStream content = new ByteArrayOutputStream();
+                svnRepository.getFile( path, revision, null, content );
+                String target = new String( content.toByteArray(), StandardCharsets.UTF_8 );
+                writer.putSymbolicLink( entryPath, StringUtils.replaceOnce( target, "link ", "" ), entry.getDate() );
+                onFile( path );
+                return;
+            }
+
+            boolean executable = properties.getStringValue( SVNProperty.EXECUTABLE ) != null;
+
+            Map<String, byte[]> keywords = null;
+            String keywordsValue = properties.getStringValue( SVNProperty.KEYWORDS );
+            if ( keywordsValue != null && expandKeywords )
+            {
+                keywords = SVNTranslator.computeKeywords( keywordsValue, url.appendPath( path, false ).toString(),
+                                                          rootUrl, entry.getAuthor(),
+                                                          SVNDate.formatDate( entry.getDate() ),
+                                                          String.valueOf( entry.getRevision() ), options );
+            }
+            String eolStyle = properties.getStringValue( SVNProperty.EOL_STYLE );
+            byte[] eol = eolStyle == null ? null : SVNTranslator.getEOL( eolStyle, options );
+
+            if ( keywords == null && eol == null )
+            {
+                OutputStream content = writer.putFile( entryPath, entry.getSize(), executable, entry.getDate() );
+                svnRepository.getFile( path, revision, null, content );
+                writer.closeEntry();
+                onFile( path );
+                return;
+            }
+
+            String charset = SVNTranslator.getCharset( properties.getStringValue( SVNProperty.CHARSET ),
+                                                       properties.getStringValue( SVNProperty.MIME_TYPE ), path,
+                                                       options );
+            if ( !writer.requiresSize() )
+            {
+                OutputStream content = writer.putFile( entryPath, -1, executable, entry.getDate() );
+                getTranslatedFile( path, content, charset, eol, keywords );
+                writer.closeEntry();
+                onFile( path );
+                return;
+            }
+
+            BoundedBuffer buffer = new BoundedBuffer();
+            getTranslatedFile( path, buffer, charset, eol, keywords );
+            OutputStream content = writer.putFile( entryPath, buffer.size, executable, entry.getDate() );
+            if ( buffer.size <= BUFFER_SIZE )
+            {
+                buffer.writeTo( content );
+            }
+            else
+            {
+                if ( LOGGER.isDebugEnabled() )
+                {
+                    LOGGER.debug( "Fetching " + path + " again, " + buffer.size + " bytes once translated" );
+                }
+                getTranslatedFile( path, content, charset, eol, keywords );
+            }
+            writer.closeEntry();
+            onFile( path );
+        }
+
+        private void getTranslatedFile( String path, OutputStream out, String charset, byte[] eol,
+                                        Map<String, byte[]> keywords )
+            throws SVNException, IOException
+        {
+            OutputStream translated = SVNTranslator.getTranslatingOutputStream( out, charset, eol, true, keywords,
+                                                                                true );
+            svnRepository.getFile( path, revision, null, translated );
+            // flushes the translation, the stream of the entry stays open
+            translated.close();
+        }
+
+        private void onFile( String path )
+        {
+            listener.onScmFile( new ScmFile( path, ScmFileStatus.ADDED ) );
+            if ( metrics != null )
+            {
+                metrics.fileTouched();
+            }
+        }
+    }
+
+    /**
+     * Keeps the first {@link #BUFFER_SIZE} bytes written, and counts all of them.
+     */
+    private static final class BoundedBuffer
+        extends OutputStream
+    {
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+        private long size;
+
+        @Override
+        public void write( int b )
+        {
+            if ( ++size <= BUFFER_SIZE )
+            {
+                buffer.write( b );
+            }
+        }
+
+        @Override
+        public void write( byte[] b, int off, int len )
+        {
+            if ( size + len <= BUFFER_SIZE )
+            {
+                buffer.write( b, off, len );
+            }
+            else if ( size < BUFFER_SIZE )
+            {
+                // over the limit, the content will be fetched again
+                buffer.reset();
+            }
+            size += len;
+        }
+
+        private void writeTo( OutputStream out )
+            throws IOException
+        {
+            buffer.writeTo( out );
+        }
+    }
+}
@@ -1,8 +1,12 @@
 package org.apache.maven.scm.provider.svn.svnjava.command.export;
 
+import org.apache.maven.scm.CommandParameters;
 import org.apache.maven.scm.ScmBranch;
 import org.apache.maven.scm.ScmException;
+import org.apache.maven.scm.ScmFile;
 import org.apache.maven.scm.ScmFileSet;
+import org.apache.maven.scm.ScmResult;
+import org.apache.maven.scm.ScmRevision;
 import org.apache.maven.scm.ScmTag;
 import org.apache.maven.scm.ScmVersion;
 import org.apache.maven.scm.command.export.AbstractExportCommand;
@@ -14,12 +18,18 @@ import org.apache.maven.scm.provider.svn.command.SvnCommand;
 import org.apache.maven.scm.provider.svn.svnjava.SvnJavaScmProvider;
 import org.apache.maven.scm.provider.svn.svnjava.repository.SvnJavaScmProviderRepository;
 import org.apache.maven.scm.provider.svn.svnjava.util.ScmFileEventHandler;
+import org.apache.maven.scm.provider.svn.svnjava.util.SvnJavaCommandParameters;
 import org.apache.maven.scm.provider.svn.svnjava.util.SvnJavaUtil;
 import org.codehaus.plexus.util.StringUtils;
 import org.tmatesoft.svn.core.SVNException;
 import org.tmatesoft.svn.core.SVNURL;
+import org.tmatesoft.svn.core.wc.SVNClientManager;
+import org.tmatesoft.svn.core.wc.SVNInfo;
 import org.tmatesoft.svn.core.wc.SVNRevision;
 
+import java.io.File;
+import java.util.List;
+
 /*
  * Licensed to the Apache Software Foundation (ASF) under one
  * or more contributor license agreements.  See the NOTICE file
@@ -46,8 +56,28 @@ public class SvnJavaExportCommand
     extends AbstractExportCommand
     implements SvnCommand
 {
+    /**
+     * parallelism given in the command parameters.
+     */
+    private int parallelism = 1;
+
+    /**
+     * Reads the parallelism of the {@link SvnJavaCommandParameters}, if any, before running the export.
+     */
+    @Override
+    protected ScmResult executeCommand( ScmProviderRepository repository, ScmFileSet fileSet,
+                                        CommandParameters parameters )
+        throws ScmException
+    {
+        parallelism = SvnJavaCommandParameters.getParallelism( parameters );
+        return super.executeCommand( repository, fileSet, parameters );
+    }
 
     /**
+     * Exports the revision given as a {@link ScmRevision}, HEAD otherwise, into the output directory if any, the
+     * base directory of the file set otherwise. With a parallelism above 1 the top level directories are exported
+     * concurrently. An export read from a mirror has its keywords expanded against the origin afterwards.
+     *
      * @see org.apache.maven.scm.command.export.AbstractExportCommand#executeExportCommand(org.apache.maven.scm.provider.ScmProviderRepository, org.apache.maven.scm.ScmFileSet, org.apache.maven.scm.ScmVersion, java.lang.String)
      */
     protected ExportScmResult executeExportCommand( ScmProviderRepository repo, ScmFileSet fileSet, ScmVersion version,
@@ -56,9 +86,69 @@ public class SvnJavaExportCommand
     {
         SvnJavaScmProviderRepository javaRepo = (SvnJavaScmProviderRepository) repo;
 
-        ScmFileEventHandler handler = new ScmFileEventHandler(logger, fileSet.getBasedir() );
+        File destination = StringUtils.isEmpty( outputDirectory ) ? fileSet.getBasedir() : new File( outputDirectory );
+
+        String url = getUrl( javaRepo, version );
+
+        SVNRevision revision = getRevision( version );
+        if ( revision == null )
+        {
+            return new ExportScmResult( SvnJavaScmProvider.COMMAND_LINE,
+                                        "SVN export failed. Wrong format of revision number.", null, false );
+        }
+
+        SVNClientManager clientManager = javaRepo.leaseClientManager();
+        try
+        {
+            SVNURL originUrl = SVNURL.parseURIEncoded( url );
+            SVNURL exportUrl = javaRepo.getReadUrl( clientManager, originUrl );
+            boolean mirrored = !exportUrl.equals( originUrl );
+            if ( mirrored )
+            {
+                // pinned, the keywords are expanded against the origin once exported
+                SVNInfo info = clientManager.getWCClient().doInfo( exportUrl, SVNRevision.UNDEFINED, revision );
+                revision = SVNRevision.create( info.getRevision().getNumber() );
+            }
+
+            List<ScmFile> files;
+            if ( parallelism > 1 )
+            {
+                files = new SvnJavaParallelExport( javaRepo, logger, parallelism )
+                    .export( clientManager, exportUrl, revision, destination );
+            }
+            else
+            {
+                ScmFileEventHandler handler = new ScmFileEventHandler( logger, destination );
+                clientManager.getUpdateClient().setEventHandler( handler );
+                SvnJavaUtil.export( clientManager, exportUrl, revision, destination, true );
+                files = handler.getFiles();
+            }
+            if ( mirrored && clientManager.getUpdateClient().isExportExpandsKeywords() )
+            {
+                SvnJavaUtil.translateKeywords( clientManager, exportUrl, revision.getNumber(), destination, originUrl,
+                                               javaRepo.getMirror().getOriginRootUrl() );
+            }
+
+            return new ExportScmResult( SvnJavaScmProvider.COMMAND_LINE, files );
+        }
+        catch ( SVNException e )
+        {
+            javaRepo.discardSessions( clientManager );
+            return new ExportScmResult( SvnJavaScmProvider.COMMAND_LINE, "SVN export failed.", e.getMessage(),
+                                        false );
+        }
+        finally
+        {
+            javaRepo.releaseClientManager( clientManager );
+        }
+
+    }
 
-        javaRepo.getClientManager().getUpdateClient().setEventHandler( handler );
+    /**
+     * @return the url of the tag or branch given as <code>version</code>, the url of the repository otherwise
+     */
+    static String getUrl( SvnJavaScmProviderRepository javaRepo, ScmVersion version )
+    {
         String url = javaRepo.getUrl();
 
         if ( version != null && StringUtils.isNotEmpty( version.getName() ) )
@@ -73,24 +163,26 @@ public class SvnJavaExportCommand
             }
         }
 
-        url = SvnCommandUtils.fixUrl( url, javaRepo.getUser() );
-        try
-        {
-            SvnJavaUtil.export( javaRepo.getClientManager(), SVNURL.parseURIEncoded( url ), SVNRevision.HEAD,
-                                fileSet.getBasedir(), true );
+        return SvnCommandUtils.fixUrl( url, javaRepo.getUser() );
+    }
 
-            return new ExportScmResult( SvnJavaScmProvider.COMMAND_LINE, handler.getFiles() );
-        }
-        catch ( SVNException e )
-        {
-            return new ExportScmResult( SvnJavaScmProvider.COMMAND_LINE, "SVN checkout failed.", e.getMessage(),
-                                        false );
-        }
-        finally
+    /**
+     * @return the revision given as <code>version</code>, HEAD otherwise, null if it is not a revision number
+     */
+    static SVNRevision getRevision( ScmVersion version )
+    {
+        if ( version instanceof ScmRevision && StringUtils.isNotEmpty( version.getName() ) )
         {
-            javaRepo.getClientManager().getUpdateClient().setEventHandler( null );
+            try
+            {
+                return SVNRevision.create( Long.parseLong( version.getName() ) );
+            }
+            catch ( NumberFormatException exc )
+            {
+                return null;
+            }
         }
-
+        return SVNRevision.HEAD;
     }
 
 }
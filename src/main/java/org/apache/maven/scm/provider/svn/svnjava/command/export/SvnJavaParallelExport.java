@@ -0,0 +1,168 @@
+package org.apache.maven.scm.provider.svn.svnjava.command.export;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+import org.apache.maven.scm.ScmException;
+import org.apache.maven.scm.ScmFile;
+import org.apache.maven.scm.command.export.ExportScmResult;
+import org.apache.maven.scm.provider.svn.svnjava.SvnJavaScmProvider;
+import org.apache.maven.scm.provider.svn.svnjava.repository.SvnJavaScmProviderRepository;
+import org.apache.maven.scm.provider.svn.svnjava.util.ScmFileEventHandler;
+import org.apache.maven.scm.provider.svn.svnjava.util.ScmResultListener;
+import org.apache.maven.scm.provider.svn.svnjava.util.ScmResultListeners;
+import org.apache.maven.scm.provider.svn.svnjava.util.SvnJavaCommandContext;
+import org.apache.maven.scm.provider.svn.svnjava.util.SvnJavaCommandExecutor;
+import org.apache.maven.scm.provider.svn.svnjava.util.SvnJavaUtil;
+import org.slf4j.Logger;
+import org.tmatesoft.svn.core.SVNDepth;
+import org.tmatesoft.svn.core.SVNDirEntry;
+import org.tmatesoft.svn.core.SVNException;
+import org.tmatesoft.svn.core.SVNNodeKind;
+import org.tmatesoft.svn.core.SVNProperty;
+import org.tmatesoft.svn.core.SVNURL;
+import org.tmatesoft.svn.core.wc.SVNClientManager;
+import org.tmatesoft.svn.core.wc.SVNRevision;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Export of a tree split by top level directory, each of them exported on its own thread and its own client
+ * manager, straight into the output directory. All of them are pinned to the same revision, the files of the
+ * root directory being exported as one more part.
+ * <p>
+ * The command context is bound to the worker threads: a streaming {@link ScmResultListener} receives the files
+ * as they are written, from several threads, otherwise the files of each part are collected and returned in
+ * the order of the parts. A root directory with <code>svn:externals</code> is exported as a whole, as the
+ * externals are only resolved by a full export.
+ * </p>
+ *
+ * @since 2.2.2
+ */
+class SvnJavaParallelExport
+{
+    private final SvnJavaScmProviderRepository repository;
+
+    private final Logger logger;
+
+    private final int parallelism;
+
+    SvnJavaParallelExport( SvnJavaScmProviderRepository repository, Logger logger, int parallelism )
+    {
+        this.repository = repository;
+        this.logger = logger;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * @param clientManager the client manager of the command, used to list the tree
+     * @return the exported files, relative to <code>destination</code>, empty if they were streamed
+     */
+    List<ScmFile> export( SVNClientManager clientManager, SVNURL url, SVNRevision revision, File destination )
+        throws SVNException
+    {
+        SVNRevision pinned = SVNRevision.create(
+            clientManager.getWCClient().doInfo( url, SVNRevision.UNDEFINED, revision ).getRevision().getNumber() );
+
+        List<String> directories = new ArrayList<>();
+        boolean hasExternals =
+            clientManager.getWCClient().doGetProperty( url, SVNProperty.EXTERNALS, pinned, pinned ) != null;
+        if ( !hasExternals )
+        {
+            clientManager.getLogClient().doList( url, pinned, pinned, false, SVNDepth.IMMEDIATES,
+                                                 SVNDirEntry.DIRENT_KIND, ( SVNDirEntry entry ) -> {
+                    if ( entry.getKind() == SVNNodeKind.DIR && entry.getRelativePath().length() > 0 )
+                    {
+                        directories.add( entry.getRelativePath() );
+                    }
+                } );
+        }
+        if ( logger.isDebugEnabled() )
+        {
+            logger.debug( "Exporting " + url + " at revision " + pinned + " in " + ( directories.size() + 1 )
+                              + " parts" );
+        }
+
+        // the parts write below it concurrently
+        destination.mkdirs();
+
+        SvnJavaCommandContext context = SvnJavaCommandContext.capture();
+        ScmResultListener listener = context.getResultListener() == null ? null
+            : ScmResultListeners.synchronizedListener( context.getResultListener() );
+
+        List<SvnJavaCommandExecutor.ScmOperation<ExportScmResult>> parts = new ArrayList<>();
+        SVNDepth rootDepth = hasExternals ? SVNDepth.INFINITY : SVNDepth.FILES;
+        parts.add( () -> exportPart( context, listener, url, pinned, destination, rootDepth, destination ) );
+        for ( String directory : directories )
+        {
+            SVNURL directoryUrl = url.appendPath( directory, false );
+            parts.add( () -> exportPart( context, listener, directoryUrl, pinned, new File( destination, directory ),
+                                         SVNDepth.INFINITY, destination ) );
+        }
+
+        List<ScmFile> files = new ArrayList<>();
+        try
+        {
+            for ( ExportScmResult result : new SvnJavaCommandExecutor( parallelism ).executeAll( parts ) )
+            {
+                files.addAll( result.getExportedFiles() );
+            }
+        }
+        catch ( ScmException e )
+        {
+            if ( e.getCause() instanceof SVNException )
+            {
+                throw (SVNException) e.getCause();
+            }
+            throw new IllegalStateException( e.getMessage(), e );
+        }
+        return files;
+    }
+
+    /**
+     * Exports one part, on a worker thread.
+     */
+    private ExportScmResult exportPart( SvnJavaCommandContext context, ScmResultListener listener, SVNURL url,
+                                        SVNRevision revision, File path, SVNDepth depth, File destination )
+        throws ScmException
+    {
+        SvnJavaCommandContext previous = context.bind();
+        ScmResultListener previousListener = ScmResultListeners.bind( listener );
+        SVNClientManager clientManager = repository.leaseClientManager();
+        try
+        {
+            ScmFileEventHandler handler = new ScmFileEventHandler( logger, destination );
+            clientManager.getUpdateClient().setEventHandler( handler );
+            SvnJavaUtil.export( clientManager, url, revision, path, depth );
+            return new ExportScmResult( SvnJavaScmProvider.COMMAND_LINE, handler.getFiles() );
+        }
+        catch ( SVNException e )
+        {
+            repository.discardSessions( clientManager );
+            throw new ScmException( e.getMessage(), e );
+        }
+        finally
+        {
+            repository.releaseClientManager( clientManager );
+            ScmResultListeners.restore( previousListener );
+            SvnJavaCommandContext.restore( previous );
+        }
+    }
+}
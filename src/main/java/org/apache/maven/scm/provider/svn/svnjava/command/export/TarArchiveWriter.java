@@ -0,0 +1,315 @@
+package org.apache.maven.scm.provider.svn.svnjava.command.export;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * POSIX (ustar) tar archive. The names, link targets and sizes which do not fit in the ustar header, as well as
+ * the names which are not ASCII, are written in a pax extended header before the entry.
+ *
+ * @since 2.2.2
+ */
+class TarArchiveWriter
+    extends ArchiveWriter
+{
+    private static final int BLOCK_SIZE = 512;
+
+    private static final int NAME_LENGTH = 100;
+
+    private static final int PREFIX_LENGTH = 155;
+
+    private static final long MAX_SIZE = 077777777777L;
+
+    private static final byte[] ZEROS = new byte[BLOCK_SIZE];
+
+    private final OutputStream out;
+
+    private final OutputStream entryStream;
+
+    private long entrySize;
+
+    private long written;
+
+    TarArchiveWriter( OutputStream out )
+    {
+        this.out = out;
+        this.entryStream = new EntryOutputStream( out )
+        {
+            @Override
+            public void write( int b )
+                throws IOException
+            {
+                out.write( b );
+                written++;
+            }
+
+            @Override
+            public void write( byte[] b, int off, int len )
+                throws IOException
+            {
+                out.write( b, off, len );
+                written += len;
+            }
+        };
+    }
+
+    boolean requiresSize()
+    {
+        return true;
+    }
+
+    void putDirectory( String path, Date date )
+        throws IOException
+    {
+        writeHeader( path + "/", '5', 0755, 0, date, null );
+    }
+
+    OutputStream putFile( String path, long size, boolean executable, Date date )
+        throws IOException
+    {
+        if ( size < 0 )
+        {
+            throw new IllegalArgumentException( "The size of " + path + " is required" );
+        }
+        writeHeader( path, '0', executable ? 0755 : 0644, size, date, null );
+        entrySize = size;
+        written = 0;
+        return entryStream;
+    }
+
+    void closeEntry()
+        throws IOException
+    {
+        if ( written != entrySize )
+        {
+            throw new IOException( "Wrote " + written + " bytes instead of " + entrySize );
+        }
+        pad( written );
+    }
+
+    void putSymbolicLink( String path, String target, Date date )
+        throws IOException
+    {
+        writeHeader( path, '2', 0777, 0, date, target );
+    }
+
+    void finish()
+        throws IOException
+    {
+        out.write( ZEROS );
+        out.write( ZEROS );
+        out.flush();
+    }
+
+    private void writeHeader( String name, char type, int mode, long size, Date date, String linkName )
+        throws IOException
+    {
+        long time = date == null ? 0 : date.getTime() / 1000;
+        Map<String, String> extended = new LinkedHashMap<>();
+        byte[] header = new byte[BLOCK_SIZE];
+
+        byte[] nameBytes = name.getBytes( StandardCharsets.UTF_8 );
+        int split = isAscii( name ) ? split( nameBytes ) : -1;
+        if ( split == 0 )
+        {
+            System.arraycopy( nameBytes, 0, header, 0, nameBytes.length );
+        }
+        else if ( split > 0 )
+        {
+            System.arraycopy( nameBytes, 0, header, 345, split );
+            System.arraycopy( nameBytes, split + 1, header, 0, nameBytes.length - split - 1 );
+        }
+        else
+        {
+            extended.put( "path", name );
+            putAscii( header, 0, NAME_LENGTH, name );
+        }
+
+        if ( linkName != null )
+        {
+            byte[] linkBytes = linkName.getBytes( StandardCharsets.UTF_8 );
+            if ( isAscii( linkName ) && linkBytes.length <= NAME_LENGTH )
+            {
+                System.arraycopy( linkBytes, 0, header, 157, linkBytes.length );
+            }
+            else
+            {
+                extended.put( "linkpath", linkName );
+                putAscii( header, 157, NAME_LENGTH, linkName );
+            }
+        }
+
+        if ( size > MAX_SIZE )
+        {
+            extended.put( "size", String.valueOf( size ) );
+        }
+
+        if ( !extended.isEmpty() )
+        {
+            writeExtendedHeader( extended, time );
+        }
+
+        putOctal( header, 100, 8, mode );
+        putOctal( header, 108, 8, 0 );
+        putOctal( header, 116, 8, 0 );
+        putOctal( header, 124, 12, size > MAX_SIZE ? 0 : size );
+        putOctal( header, 136, 12, time );
+        header[156] = (byte) type;
+        putAscii( header, 257, 6, "ustar" );
+        header[263] = '0';
+        header[264] = '0';
+        writeChecksum( header );
+        out.write( header );
+    }
+
+    private void writeExtendedHeader( Map<String, String> extended, long time )
+        throws IOException
+    {
+        StringBuilder records = new StringBuilder();
+        for ( Map.Entry<String, String> entry : extended.entrySet() )
+        {
+            records.append( getRecord( entry.getKey(), entry.getValue() ) );
+        }
+        byte[] content = records.toString().getBytes( StandardCharsets.UTF_8 );
+
+        byte[] header = new byte[BLOCK_SIZE];
+        putAscii( header, 0, NAME_LENGTH, "PaxHeader" );
+        putOctal( header, 100, 8, 0644 );
+        putOctal( header, 108, 8, 0 );
+        putOctal( header, 116, 8, 0 );
+        putOctal( header, 124, 12, content.length );
+        putOctal( header, 136, 12, time );
+        header[156] = 'x';
+        putAscii( header, 257, 6, "ustar" );
+        header[263] = '0';
+        header[264] = '0';
+        writeChecksum( header );
+        out.write( header );
+        out.write( content );
+        pad( content.length );
+    }
+
+    /**
+     * @return the pax record <code>"length key=value\n"</code>, the length counting itself
+     */
+    static String getRecord( String key, String value )
+    {
+        int length = key.length() + value.getBytes( StandardCharsets.UTF_8 ).length + 3;
+        int total = length + String.valueOf( length ).length();
+        if ( String.valueOf( total ).length() != String.valueOf( length ).length() )
+        {
+            total = length + String.valueOf( total ).length();
+        }
+        return total + " " + key + "=" + value + "\n";
+    }
+
+    /**
+     * @return 0 if the name fits in the name field, the index of the slash splitting it between the prefix and
+     *         the name fields, -1 if it fits in neither
+     */
+    static int split( byte[] name )
+    {
+        if ( name.length <= NAME_LENGTH )
+        {
+            return 0;
+        }
+        for ( int i = name.length - NAME_LENGTH - 1; i < name.length - 1 && i <= PREFIX_LENGTH; i++ )
+        {
+            if ( i > 0 && name[i] == '/' )
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void pad( long length )
+        throws IOException
+    {
+        int remainder = (int) ( length % BLOCK_SIZE );
+        if ( remainder > 0 )
+        {
+            out.write( ZEROS, 0, BLOCK_SIZE - remainder );
+        }
+    }
+
+    private static boolean isAscii( String value )
+    {
+        for ( int i = 0; i < value.length(); i++ )
+        {
+            if ( value.charAt( i ) > 0x7f )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Writes the ASCII characters of <code>value</code>, truncated to the field.
+     */
+    private static void putAscii( byte[] header, int offset, int length, String value )
+    {
+        for ( int i = 0, j = 0; i < value.length() && j < length; i++ )
+        {
+            char c = value.charAt( i );
+            if ( c <= 0x7f )
+            {
+                header[offset + j++] = (byte) c;
+            }
+        }
+    }
+
+    /**
+     * Writes <code>value</code> as zero padded octal digits followed by a NUL.
+     */
+    private static void putOctal( byte[] header, int offset, int length, long value )
+    {
+        String octal = Long.toOctalString( value );
+        int digits = length - 1;
+        for ( int i = 0; i < digits; i++ )
+        {
+            int index = octal.length() - digits + i;
+            header[offset + i] = (byte) ( index < 0 ? '0' : octal.charAt( index ) );
+        }
+        header[offset + digits] = 0;
+    }
+
+    private static void writeChecksum( byte[] header )
+    {
+        for ( int i = 148; i < 156; i++ )
+        {
+            header[i] = ' ';
+        }
+        long checksum = 0;
+        for ( byte b : header )
+        {
+            checksum += b & 0xff;
+        }
+        putOctal( header, 148, 7, checksum );
+        header[155] = ' ';
+    }
+}
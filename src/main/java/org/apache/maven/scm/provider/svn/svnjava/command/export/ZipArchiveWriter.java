@@ -0,0 +1,98 @@
+package org.apache.maven.scm.provider.svn.svnjava.command.export;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Zip archive. Symbolic links are stored as files holding the path of their target, as in an export on a file
+ * system without links.
+ *
+ * @since 2.2.2
+ */
+class ZipArchiveWriter
+    extends ArchiveWriter
+{
+    private final ZipOutputStream zip;
+
+    private final OutputStream entryStream;
+
+    ZipArchiveWriter( OutputStream out )
+    {
+        zip = new ZipOutputStream( new EntryOutputStream( out ), StandardCharsets.UTF_8 );
+        entryStream = new EntryOutputStream( zip );
+    }
+
+    boolean requiresSize()
+    {
+        return false;
+    }
+
+    void putDirectory( String path, Date date )
+        throws IOException
+    {
+        zip.putNextEntry( createEntry( path + "/", date ) );
+        zip.closeEntry();
+    }
+
+    OutputStream putFile( String path, long size, boolean executable, Date date )
+        throws IOException
+    {
+        zip.putNextEntry( createEntry( path, date ) );
+        return entryStream;
+    }
+
+    void closeEntry()
+        throws IOException
+    {
+        zip.closeEntry();
+    }
+
+    void putSymbolicLink( String path, String target, Date date )
+        throws IOException
+    {
+        zip.putNextEntry( createEntry( path, date ) );
+        zip.write( target.getBytes( StandardCharsets.UTF_8 ) );
+        zip.closeEntry();
+    }
+
+    void finish()
+        throws IOException
+    {
+        // finishes the zip without closing the stream of the caller
+        zip.finish();
+        zip.flush();
+    }
+
+    private static ZipEntry createEntry( String path, Date date )
+    {
+        ZipEntry entry = new ZipEntry( path );
+        if ( date != null )
+        {
+            entry.setTime( date.getTime() );
+        }
+        return entry;
+    }
+}
@@ -12,6 +12,7 @@ import org.apache.maven.scm.provider.svn.command.SvnCommand;
 import org.apache.maven.scm.provider.svn.svnjava.repository.SvnJavaScmProviderRepository;
 import org.tmatesoft.svn.core.SVNException;
 import org.tmatesoft.svn.core.SVNURL;
+import org.tmatesoft.svn.core.wc.SVNClientManager;
 import org.tmatesoft.svn.core.wc.SVNInfo;
 import org.tmatesoft.svn.core.wc.SVNRevision;
 import org.tmatesoft.svn.core.wc2.SvnOperationFactory;
@@ -88,20 +89,34 @@ public class SvnJavaInfoCommand
             }
 
             SVNInfo svnInfo = null;
-            
+
         	boolean isVersionedDirectory = SvnOperationFactory.isVersionedDirectory(f);
         	logger.debug("Get info, isVersionedDirectory: " + isVersionedDirectory );
         	
-        	if (isVersionedDirectory) 
-        	{
-        		logger.info("Get info from versioned directory: " + f );
-        		svnInfo = javaRepo.getClientManager().getWCClient().doInfo( f, svnRev );
-        	}
-        	else {
-        		SVNURL svnUrl = javaRepo.getSvnUrl();
-        		logger.info("Get info from svnUrl: " + svnUrl );
-            	svnInfo = javaRepo.getClientManager().getWCClient().doInfo( svnUrl, SVNRevision.UNDEFINED, svnRev );
-        	}
+            SVNClientManager clientManager = javaRepo.leaseClientManager();
+            try
+            {
+                if ( isVersionedDirectory )
+                {
+                    logger.info( "Get info from versioned directory: " + f );
+                    svnInfo = clientManager.getWCClient().doInfo( f, svnRev );
+                }
+                else
+                {
+                    SVNURL svnUrl = javaRepo.getSvnUrl();
+                    logger.info( "Get info from svnUrl: " + svnUrl );
+                    svnInfo = clientManager.getWCClient().doInfo( svnUrl, SVNRevision.UNDEFINED, svnRev );
+                }
+            }
+            catch ( SVNException e )
+            {
+                javaRepo.discardSessions( clientManager );
+                throw e;
+            }
+            finally
+            {
+                javaRepo.releaseClientManager( clientManager );
+            }
 
             InfoItem currentItem = new InfoItem();
 
@@ -19,18 +19,17 @@ import org.apache.maven.scm.provider.svn.SvnTagBranchUtils;
 import org.apache.maven.scm.provider.svn.command.SvnCommand;
 import org.apache.maven.scm.provider.svn.svnjava.SvnJavaScmProvider;
 import org.apache.maven.scm.provider.svn.svnjava.repository.SvnJavaScmProviderRepository;
+import org.apache.maven.scm.provider.svn.svnjava.util.ScmResultListener;
+import org.apache.maven.scm.provider.svn.svnjava.util.ScmResultListeners;
 import org.codehaus.plexus.util.StringUtils;
 import org.tmatesoft.svn.core.ISVNDirEntryHandler;
 import org.tmatesoft.svn.core.SVNDepth;
 import org.tmatesoft.svn.core.SVNDirEntry;
 import org.tmatesoft.svn.core.SVNException;
 import org.tmatesoft.svn.core.SVNURL;
+import org.tmatesoft.svn.core.wc.SVNClientManager;
 import org.tmatesoft.svn.core.wc.SVNRevision;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.stream.Collectors;
-
 /**
  * @author Olivier Lamy
  * @since 2.0.6
@@ -102,37 +101,43 @@ public class SvnJavaListCommand
         ISVNDirEntryHandler handler
         */
 
+        SVNClientManager clientManager = javaRepo.leaseClientManager();
         try
         {
-            javaRepo.getClientManager().getLogClient().doList(
+            clientManager.getLogClient().doList(
                 url == null ? javaRepo.getSvnUrl() : SVNURL.parseURIEncoded( url ), revision, revision, true,
                 // boolean fetchLocks,
                 SVNDepth.IMMEDIATES, 0, listEntryHandler );
         }
         catch ( SVNException e )
         {
+            javaRepo.discardSessions( clientManager );
             throw new ScmException( "Error while executing svn list.", e );
         }
+        finally
+        {
+            javaRepo.releaseClientManager( clientManager );
+        }
 
-        List<ScmFile> scmFiles = listEntryHandler.relativePaths.stream()
-                .map(path -> new ScmFile( path, ScmFileStatus.CHECKED_IN ))
-                .collect(Collectors.toList());
-
-        return new ListScmResult( scmFiles, new ScmResult( null, null, null, false ) );
+        return new ListScmResult( ScmResultListeners.getFiles( listEntryHandler.listener ),
+                                  new ScmResult( null, null, null, false ) );
 
     }
 
     private static class ListEntryHandler
         implements ISVNDirEntryHandler
     {
-        private List<String> relativePaths = new ArrayList<>();
+        /**
+         * receives the entries, collects them unless the caller registered its own listener.
+         */
+        private final ScmResultListener listener = ScmResultListeners.currentOrCollecting();
 
         public void handleDirEntry( SVNDirEntry svnDirEntry )
             throws SVNException
         {
             if ( StringUtils.isNotEmpty( svnDirEntry.getRelativePath() ) )
             {
-                relativePaths.add( svnDirEntry.getRelativePath() );
+                listener.onScmFile( new ScmFile( svnDirEntry.getRelativePath(), ScmFileStatus.CHECKED_IN ) );
             }
         }
     }
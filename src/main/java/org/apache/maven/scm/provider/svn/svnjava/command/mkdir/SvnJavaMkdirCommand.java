@@ -33,6 +33,7 @@ import org.codehaus.plexus.util.StringUtils;
 import org.tmatesoft.svn.core.SVNCommitInfo;
 import org.tmatesoft.svn.core.SVNException;
 import org.tmatesoft.svn.core.SVNURL;
+import org.tmatesoft.svn.core.wc.SVNClientManager;
 
 import java.io.File;
 import java.util.ArrayList;
@@ -70,21 +71,26 @@ public class SvnJavaMkdirCommand
             url = dirPath;
         }
         List<SVNURL> svnurls = new ArrayList<>( 1 );
+        SVNClientManager clientManager = javaRepo.leaseClientManager();
         try
         {
             svnurls.add( SVNURL.parseURIEncoded( url ) );
 
             SVNCommitInfo commitInfo =
-                SvnJavaUtil.mkdir( javaRepo.getClientManager(), svnurls.toArray(new SVNURL[0]),
-                                   message );
+                SvnJavaUtil.mkdir( clientManager, svnurls.toArray(new SVNURL[0]), message );
             ScmResult scmResult = new ScmResult( null, null, null, true );
 
             return new MkdirScmResult( Long.toString( commitInfo.getNewRevision() ), scmResult );
         }
         catch ( SVNException e )
         {
+            javaRepo.discardSessions( clientManager );
             throw new ScmException( e.getMessage(), e );
         }
+        finally
+        {
+            javaRepo.releaseClientManager( clientManager );
+        }
     }
 
 }
@@ -33,6 +33,7 @@ import org.tmatesoft.svn.core.SVNDepth;
 import org.tmatesoft.svn.core.SVNDirEntry;
 import org.tmatesoft.svn.core.SVNException;
 import org.tmatesoft.svn.core.SVNURL;
+import org.tmatesoft.svn.core.wc.SVNClientManager;
 import org.tmatesoft.svn.core.wc.SVNInfo;
 import org.tmatesoft.svn.core.wc.SVNRevision;
 
@@ -62,32 +63,41 @@ public class SvnJavaRemoteInfoCommand
 
         RemoteInfoScmResult remoteInfoScmResult = new RemoteInfoScmResult( null, null, null, true );
 
+        SVNClientManager clientManager = javaRepo.leaseClientManager();
         try
         {
+            try
+            {
 
-            DirEntryHandler dirEntryHandler = new DirEntryHandler( baseUrl );
-            javaRepo.getClientManager().getLogClient().doList( SVNURL.parseURIEncoded( baseUrl + "/tags" ),
-                                                               SVNRevision.HEAD, SVNRevision.HEAD, false, false,
-                                                               dirEntryHandler );
-            remoteInfoScmResult.setTags( dirEntryHandler.infos );
-        }
-        catch ( SVNException e )
-        {
-            return new RemoteInfoScmResult( null, e.getMessage(), null, false );
-        }
+                DirEntryHandler dirEntryHandler = new DirEntryHandler( baseUrl );
+                clientManager.getLogClient().doList( SVNURL.parseURIEncoded( baseUrl + "/tags" ), SVNRevision.HEAD,
+                                                     SVNRevision.HEAD, false, false, dirEntryHandler );
+                remoteInfoScmResult.setTags( dirEntryHandler.infos );
+            }
+            catch ( SVNException e )
+            {
+                javaRepo.discardSessions( clientManager );
+                return new RemoteInfoScmResult( null, e.getMessage(), null, false );
+            }
 
-        try
-        {
+            try
+            {
 
-            DirEntryHandler dirEntryHandler = new DirEntryHandler( baseUrl );
-            javaRepo.getClientManager().getLogClient().doList( SVNURL.parseURIEncoded( baseUrl + "/branches" ),
-                                                               SVNRevision.HEAD, SVNRevision.HEAD, false, false,
-                                                               dirEntryHandler );
-            remoteInfoScmResult.setBranches( dirEntryHandler.infos );
+                DirEntryHandler dirEntryHandler = new DirEntryHandler( baseUrl );
+                clientManager.getLogClient().doList( SVNURL.parseURIEncoded( baseUrl + "/branches" ),
+                                                     SVNRevision.HEAD, SVNRevision.HEAD, false, false,
+                                                     dirEntryHandler );
+                remoteInfoScmResult.setBranches( dirEntryHandler.infos );
+            }
+            catch ( SVNException e )
+            {
+                javaRepo.discardSessions( clientManager );
+                return new RemoteInfoScmResult( null, e.getMessage(), null, false );
+            }
         }
-        catch ( SVNException e )
+        finally
         {
-            return new RemoteInfoScmResult( null, e.getMessage(), null, false );
+            javaRepo.releaseClientManager( clientManager );
         }
 
         return remoteInfoScmResult;
@@ -101,11 +111,12 @@ public class SvnJavaRemoteInfoCommand
 
         String url = ( (SvnScmProviderRepository) repository ).getUrl();
 
+        SVNClientManager clientManager = javaRepo.leaseClientManager();
         try
         {
 
-            javaRepo.getClientManager().getWCClient().doInfo( SVNURL.parseURIEncoded( url ), SVNRevision.HEAD,
-                                                              SVNRevision.HEAD, SVNDepth.EMPTY, SVNInfo::getAuthor);
+            clientManager.getWCClient().doInfo( SVNURL.parseURIEncoded( url ), SVNRevision.HEAD, SVNRevision.HEAD,
+                                                SVNDepth.EMPTY, SVNInfo::getAuthor);
         }
         catch ( SVNException e )
         {
@@ -113,8 +124,13 @@ public class SvnJavaRemoteInfoCommand
             {
                 return false;
             }
+            javaRepo.discardSessions( clientManager );
             throw new ScmException( e.getMessage(), e );
         }
+        finally
+        {
+            javaRepo.releaseClientManager( clientManager );
+        }
         return true;
     }
 
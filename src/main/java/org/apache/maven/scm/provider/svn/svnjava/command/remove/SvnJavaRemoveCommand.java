@@ -30,7 +30,9 @@ import org.apache.maven.scm.provider.svn.svnjava.SvnJavaScmProvider;
 import org.apache.maven.scm.provider.svn.svnjava.repository.SvnJavaScmProviderRepository;
 import org.apache.maven.scm.provider.svn.svnjava.util.ScmFileEventHandler;
 import org.apache.maven.scm.provider.svn.svnjava.util.SvnJavaUtil;
+import org.tmatesoft.svn.core.SVNCancelException;
 import org.tmatesoft.svn.core.SVNException;
+import org.tmatesoft.svn.core.wc.SVNClientManager;
 
 /**
  * @author <a href="mailto:brett@apache.org">Brett Porter</a>
@@ -61,21 +63,31 @@ public class SvnJavaRemoveCommand
 
         ScmFileEventHandler handler = new ScmFileEventHandler( logger, fileSet.getBasedir() );
 
-        javaRepo.getClientManager().getWCClient().setEventHandler( handler );
+        SVNClientManager clientManager = javaRepo.leaseClientManager();
+
+        clientManager.getWCClient().setEventHandler( handler );
 
         try
         {
-            SvnJavaUtil.delete( javaRepo.getClientManager(), fileSet, true );
+            SvnJavaUtil.delete( clientManager, fileSet, true );
 
             return new RemoveScmResult( SvnJavaScmProvider.COMMAND_LINE, handler.getFiles() );
         }
+        catch ( SVNCancelException e )
+        {
+            SvnJavaUtil.cleanupAfterCancel( javaRepo, clientManager, fileSet.getBasedir(), logger );
+            return new RemoveScmResult( handler.getFiles(),
+                                        new ScmResult( SvnJavaScmProvider.COMMAND_LINE, "SVN remove cancelled.",
+                                                       e.getMessage(), false ) );
+        }
         catch ( SVNException e )
         {
+            javaRepo.discardSessions( clientManager );
             return new RemoveScmResult( SvnJavaScmProvider.COMMAND_LINE, "SVN remove failed.", e.getMessage(), false );
         }
         finally
         {
-            javaRepo.getClientManager().getWCClient().setEventHandler( null );
+            javaRepo.releaseClientManager( clientManager );
         }
     }
 }
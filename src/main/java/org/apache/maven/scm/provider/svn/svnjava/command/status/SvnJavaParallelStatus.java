@@ -0,0 +1,219 @@
+package org.apache.maven.scm.provider.svn.svnjava.command.status;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.scm.ScmException;
+import org.apache.maven.scm.ScmFile;
+import org.apache.maven.scm.command.status.StatusScmResult;
+import org.apache.maven.scm.provider.svn.svnjava.SvnJavaScmProvider;
+import org.apache.maven.scm.provider.svn.svnjava.repository.SvnJavaScmProviderRepository;
+import org.apache.maven.scm.provider.svn.svnjava.util.ScmResultListener;
+import org.apache.maven.scm.provider.svn.svnjava.util.ScmResultListeners;
+import org.apache.maven.scm.provider.svn.svnjava.util.SvnJavaCommandContext;
+import org.apache.maven.scm.provider.svn.svnjava.util.SvnJavaCommandExecutor;
+import org.apache.maven.scm.provider.svn.svnjava.util.SvnJavaUtil;
+import org.slf4j.Logger;
+import org.tmatesoft.svn.core.SVNCancelException;
+import org.tmatesoft.svn.core.SVNDepth;
+import org.tmatesoft.svn.core.SVNException;
+import org.tmatesoft.svn.core.SVNNodeKind;
+import org.tmatesoft.svn.core.SVNProperty;
+import org.tmatesoft.svn.core.wc.SVNClientManager;
+import org.tmatesoft.svn.core.wc.SVNInfo;
+import org.tmatesoft.svn.core.wc.SVNRevision;
+import org.tmatesoft.svn.core.wc.SVNStatus;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Status of a working copy split by top level directory, each of them read on its own thread and its own client
+ * manager, the entries of the root directory being read as one more part.
+ * <p>
+ * The command context is bound to the worker threads: a streaming {@link ScmResultListener} receives the files
+ * as they are found, from several threads, otherwise the files of all the parts are returned in the order of a
+ * status of the whole working copy: the entries of the root directory in the order svnkit walks them, the files of
+ * each top level directory at the place of that directory.
+ * Every versioned directory is a part, whether it is on disk or not, so that the same files are reported as by
+ * a status of the whole working copy. A root directory with <code>svn:externals</code> is read as a whole, as
+ * the externals are only read by a full status.
+ * </p>
+ *
+ * @since 2.2.2
+ */
+class SvnJavaParallelStatus
+{
+    private final SvnJavaScmProviderRepository repository;
+
+    private final Logger logger;
+
+    private final int parallelism;
+
+    SvnJavaParallelStatus( SvnJavaScmProviderRepository repository, Logger logger, int parallelism )
+    {
+        this.repository = repository;
+        this.logger = logger;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * @param clientManager the client manager of the command, used to list the top level directories
+     * @return the files which are not up to date, relative to <code>baseDir</code> and in the order of a status of
+     *         the whole working copy, empty if they were streamed
+     */
+    List<ScmFile> status( SVNClientManager clientManager, File baseDir, boolean remote )
+        throws SVNException
+    {
+        List<File> directories = new ArrayList<>();
+        boolean hasExternals = clientManager.getWCClient().doGetProperty( baseDir, SVNProperty.EXTERNALS,
+                                                                          SVNRevision.UNDEFINED,
+                                                                          SVNRevision.WORKING ) != null;
+        if ( !hasExternals )
+        {
+            clientManager.getWCClient().doInfo( baseDir, SVNRevision.UNDEFINED, SVNRevision.UNDEFINED,
+                                                SVNDepth.IMMEDIATES, null, ( SVNInfo info ) -> {
+                    if ( info.getKind() == SVNNodeKind.DIR && !baseDir.equals( info.getFile() ) )
+                    {
+                        directories.add( info.getFile() );
+                    }
+                } );
+        }
+        if ( logger.isDebugEnabled() )
+        {
+            logger.debug( "Reading the status of " + baseDir + " in " + ( directories.size() + 1 ) + " parts" );
+        }
+
+        SvnJavaCommandContext context = SvnJavaCommandContext.capture();
+        ScmResultListener listener = context.getResultListener() == null ? null
+            : ScmResultListeners.synchronizedListener( context.getResultListener() );
+
+        // the order in which the root directory walks its entries, the unmodified ones included, tells where the
+        // files of each top level directory go
+        List<File> walk = directories.isEmpty() ? null : new ArrayList<>();
+
+        List<SvnJavaCommandExecutor.ScmOperation<StatusScmResult>> parts = new ArrayList<>();
+        SVNDepth rootDepth = hasExternals ? SVNDepth.INFINITY : SVNDepth.IMMEDIATES;
+        parts.add( () -> statusPart( context, listener, baseDir, rootDepth, remote, baseDir, walk ) );
+        for ( File directory : directories )
+        {
+            parts.add( () -> statusPart( context, listener, directory, SVNDepth.INFINITY, remote, baseDir, null ) );
+        }
+
+        List<StatusScmResult> results;
+        try
+        {
+            results = new SvnJavaCommandExecutor( parallelism ).executeAll( parts );
+        }
+        catch ( ScmException e )
+        {
+            if ( e.getCause() instanceof SVNException )
+            {
+                throw (SVNException) e.getCause();
+            }
+            throw new IllegalStateException( e.getMessage(), e );
+        }
+        if ( walk == null )
+        {
+            return new ArrayList<>( results.get( 0 ).getChangedFiles() );
+        }
+
+        // the files of the root part are its immediate entries, their path is their name
+        Map<String, ScmFile> entries = new LinkedHashMap<>();
+        for ( ScmFile file : results.get( 0 ).getChangedFiles() )
+        {
+            entries.put( file.getPath(), file );
+        }
+        Map<File, List<ScmFile>> subtrees = new HashMap<>();
+        for ( int i = 0; i < directories.size(); i++ )
+        {
+            subtrees.put( directories.get( i ).getAbsoluteFile(), results.get( i + 1 ).getChangedFiles() );
+        }
+
+        List<ScmFile> files = new ArrayList<>();
+        for ( File entry : walk )
+        {
+            List<ScmFile> subtree = subtrees.remove( entry );
+            if ( subtree != null )
+            {
+                files.addAll( subtree );
+            }
+            ScmFile file = entries.remove( entry.getName() );
+            if ( file != null )
+            {
+                files.add( file );
+            }
+        }
+        // not walked by the root part, should it have changed in the meantime
+        files.addAll( entries.values() );
+        for ( File directory : directories )
+        {
+            List<ScmFile> subtree = subtrees.remove( directory.getAbsoluteFile() );
+            if ( subtree != null )
+            {
+                files.addAll( subtree );
+            }
+        }
+        return files;
+    }
+
+    /**
+     * Reads the status of one part, on a worker thread.
+     *
+     * @param walk receives every entry walked, in order, null if not needed
+     */
+    private StatusScmResult statusPart( SvnJavaCommandContext context, ScmResultListener listener, File path,
+                                        SVNDepth depth, boolean remote, File baseDir, List<File> walk )
+        throws ScmException
+    {
+        SvnJavaCommandContext previous = context.bind();
+        ScmResultListener previousListener = ScmResultListeners.bind( listener );
+        SVNClientManager clientManager = repository.leaseClientManager();
+        try
+        {
+            SvnStatusHandler handler = walk == null ? new SvnStatusHandler( baseDir ) : new SvnStatusHandler( baseDir )
+            {
+                @Override
+                public void handleStatus( SVNStatus status )
+                    throws SVNCancelException
+                {
+                    walk.add( status.getFile().getAbsoluteFile() );
+                    super.handleStatus( status );
+                }
+            };
+            SvnJavaUtil.status( clientManager, path, depth, remote, walk != null, handler );
+            return new StatusScmResult( SvnJavaScmProvider.COMMAND_LINE, handler.getFiles() );
+        }
+        catch ( SVNException e )
+        {
+            repository.discardSessions( clientManager );
+            throw new ScmException( e.getMessage(), e );
+        }
+        finally
+        {
+            repository.releaseClientManager( clientManager );
+            ScmResultListeners.restore( previousListener );
+            SvnJavaCommandContext.restore( previous );
+        }
+    }
+}
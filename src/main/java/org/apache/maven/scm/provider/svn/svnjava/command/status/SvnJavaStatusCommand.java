@@ -19,16 +19,27 @@ package org.apache.maven.scm.provider.svn.svnjava.command.status;
  * under the License.
  */
 
+import org.apache.maven.scm.CommandParameters;
 import org.apache.maven.scm.ScmException;
+import org.apache.maven.scm.ScmFile;
 import org.apache.maven.scm.ScmFileSet;
+import org.apache.maven.scm.ScmResult;
 import org.apache.maven.scm.command.status.AbstractStatusCommand;
 import org.apache.maven.scm.command.status.StatusScmResult;
 import org.apache.maven.scm.provider.ScmProviderRepository;
 import org.apache.maven.scm.provider.svn.command.SvnCommand;
 import org.apache.maven.scm.provider.svn.svnjava.SvnJavaScmProvider;
 import org.apache.maven.scm.provider.svn.svnjava.repository.SvnJavaScmProviderRepository;
+import org.apache.maven.scm.provider.svn.svnjava.util.SvnJavaCommandParameters;
 import org.apache.maven.scm.provider.svn.svnjava.util.SvnJavaUtil;
+import org.tmatesoft.svn.core.SVNCancelException;
+import org.tmatesoft.svn.core.SVNDepth;
 import org.tmatesoft.svn.core.SVNException;
+import org.tmatesoft.svn.core.wc.SVNClientManager;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * @author <a href="mailto:brett@apache.org">Brett Porter</a>
@@ -39,7 +50,45 @@ public class SvnJavaStatusCommand
     implements SvnCommand
 {
     /**
-     * {@inheritDoc}
+     * remote mode given in the command parameters, false if none.
+     */
+    private boolean remote;
+
+    /**
+     * parallelism given in the command parameters.
+     */
+    private int parallelism = 1;
+
+    /**
+     * depth given in the command parameters, null if none.
+     */
+    private SVNDepth depth;
+
+    /**
+     * Reads the status mode, the parallelism and the depth of the {@link SvnJavaCommandParameters}, if any, before
+     * running the status.
+     */
+    @Override
+    public ScmResult executeCommand( ScmProviderRepository repository, ScmFileSet fileSet,
+                                     CommandParameters parameters )
+        throws ScmException
+    {
+        remote = SvnJavaCommandParameters.isRemoteStatus( parameters );
+        parallelism = SvnJavaCommandParameters.getParallelism( parameters );
+        depth = SvnJavaCommandParameters.getDepth( parameters );
+        return super.executeCommand( repository, fileSet, parameters );
+    }
+
+    /**
+     * Reads the status of the working copy only, unless the remote mode is asked for: then the repository is
+     * contacted too, for the out of date information. Both modes report the local changes the same way, through
+     * {@link SvnStatusHandler}. With a parallelism above 1 the top level directories are read concurrently, and
+     * the same files are reported, in the same order as the sequential status: the order in which svnkit walks
+     * the working copy.
+     * <p>
+     * When the file set lists files, only their status is read: the files alone, the directories down to the
+     * depth of the parameters, or in full if none was given. The base directory is not walked then.
+     * </p>
      */
     protected StatusScmResult executeStatusCommand( ScmProviderRepository repo, ScmFileSet fileSet )
         throws ScmException
@@ -53,17 +102,60 @@ public class SvnJavaStatusCommand
 
         SvnStatusHandler handler = new SvnStatusHandler( fileSet.getBasedir() );
 
+        SVNClientManager clientManager = javaRepo.leaseClientManager();
+
         try
         {
-            SvnJavaUtil.status( javaRepo.getClientManager(), fileSet.getBasedir(), true, // isRecursive
-                                true, // isRemote
-                                handler );
+            List<ScmFile> files;
+            if ( !fileSet.getFileList().isEmpty() )
+            {
+                for ( File path : getPaths( fileSet ) )
+                {
+                    SVNDepth pathDepth = !path.isDirectory() ? SVNDepth.EMPTY
+                        : depth == null ? SVNDepth.INFINITY : depth;
+                    SvnJavaUtil.status( clientManager, path, pathDepth, remote, handler );
+                }
+                files = handler.getFiles();
+            }
+            else if ( parallelism > 1 )
+            {
+                files = new SvnJavaParallelStatus( javaRepo, logger, parallelism )
+                    .status( clientManager, fileSet.getBasedir(), remote );
+            }
+            else
+            {
+                SvnJavaUtil.status( clientManager, fileSet.getBasedir(), true, // isRecursive
+                                    remote, handler );
+                files = handler.getFiles();
+            }
 
-            return new StatusScmResult( SvnJavaScmProvider.COMMAND_LINE, handler.getFiles() );
+            return new StatusScmResult( SvnJavaScmProvider.COMMAND_LINE, files );
+        }
+        catch ( SVNCancelException e )
+        {
+            // the files found by the parts of a parallel status are lost with their results
+            return new StatusScmResult( handler.getFiles(),
+                                        new ScmResult( SvnJavaScmProvider.COMMAND_LINE, "SVN status cancelled.",
+                                                       e.getMessage(), false ) );
         }
         catch ( SVNException e )
         {
+            javaRepo.discardSessions( clientManager );
             return new StatusScmResult( SvnJavaScmProvider.COMMAND_LINE, "SVN status failed.", e.getMessage(), false );
         }
+        finally
+        {
+            javaRepo.releaseClientManager( clientManager );
+        }
+    }
+
+    private static List<File> getPaths( ScmFileSet fileSet )
+    {
+        List<File> paths = new ArrayList<>();
+        for ( File file : fileSet.getFileList() )
+        {
+            paths.add( file.isAbsolute() ? file : new File( fileSet.getBasedir(), file.getPath() ) );
+        }
+        return paths;
     }
 }
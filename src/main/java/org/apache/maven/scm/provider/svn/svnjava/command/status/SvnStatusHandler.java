@@ -22,6 +22,9 @@ package org.apache.maven.scm.provider.svn.svnjava.command.status;
 import org.apache.commons.lang.StringUtils;
 import org.apache.maven.scm.ScmFile;
 import org.apache.maven.scm.ScmFileStatus;
+import org.apache.maven.scm.provider.svn.svnjava.util.ScmResultListener;
+import org.apache.maven.scm.provider.svn.svnjava.util.ScmResultListeners;
+import org.apache.maven.scm.provider.svn.svnjava.util.SvnJavaCancellationToken;
 import org.apache.maven.scm.util.FilenameUtils;
 import org.tmatesoft.svn.core.SVNCancelException;
 import org.tmatesoft.svn.core.SVNNodeKind;
@@ -32,7 +35,6 @@ import org.tmatesoft.svn.core.wc.SVNStatus;
 import org.tmatesoft.svn.core.wc.SVNStatusType;
 
 import java.io.File;
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -50,18 +52,35 @@ import java.util.List;
 public class SvnStatusHandler
     implements ISVNStatusHandler, ISVNEventHandler
 {
-    private List<ScmFile> files = new ArrayList<>();
+    /**
+     * receives the files, collects them unless the caller registered its own listener.
+     */
+    private final ScmResultListener listener = ScmResultListeners.currentOrCollecting();
 
     private File baseDir;
 
+    /**
+     * normalized path of the base directory, removed from the path of each file.
+     */
+    private final String normalizedBaseDir;
+
+    /**
+     * token of the command creating this handler, null if it cannot be cancelled.
+     */
+    private final SvnJavaCancellationToken cancellationToken = SvnJavaCancellationToken.current();
+
     public SvnStatusHandler( File baseDir )
     {
         this.baseDir = baseDir;
+        this.normalizedBaseDir = FilenameUtils.normalizeFilename( baseDir.getAbsolutePath() );
     }
 
 
     public void handleStatus( SVNStatus status )
+        throws SVNCancelException
     {
+        checkCancelled();
+
 //         Gets  the  status  of  file/directory/symbolic link  text  contents.
 //         It is  SVNStatusType  who  contains  information on the state of  an item.
 
@@ -202,11 +221,10 @@ public class SvnStatusHandler
         if ( scmStatus != null && status.getKind() != SVNNodeKind.DIR )
         {
             String normalizedPath = FilenameUtils.normalizeFilename( status.getFile().getAbsolutePath() );
-            normalizedPath =
-                StringUtils.remove( normalizedPath, FilenameUtils.normalizeFilename( this.baseDir.getAbsolutePath() ) );
+            normalizedPath = StringUtils.remove( normalizedPath, normalizedBaseDir );
 
             normalizedPath = StringUtils.removeStart( normalizedPath, "/" );
-            files.add( new ScmFile( normalizedPath, scmStatus ) );
+            listener.onScmFile( new ScmFile( normalizedPath, scmStatus ) );
         }
     }
 
@@ -226,11 +244,11 @@ public class SvnStatusHandler
     public void checkCancelled()
         throws SVNCancelException
     {
-        // no op
+        SvnJavaCancellationToken.checkCancelled( cancellationToken );
     }
 
     public List<ScmFile> getFiles()
     {
-        return files;
+        return ScmResultListeners.getFiles( listener );
     }
 }
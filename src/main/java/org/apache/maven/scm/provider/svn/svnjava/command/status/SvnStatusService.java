@@ -0,0 +1,413 @@
+package org.apache.maven.scm.provider.svn.svnjava.command.status;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.scm.ScmFile;
+import org.apache.maven.scm.command.status.StatusScmResult;
+import org.apache.maven.scm.provider.svn.svnjava.SvnJavaScmProvider;
+import org.apache.maven.scm.provider.svn.svnjava.repository.SvnJavaScmProviderRepository;
+import org.apache.maven.scm.provider.svn.svnjava.util.ScmResultListener;
+import org.apache.maven.scm.provider.svn.svnjava.util.ScmResultListeners;
+import org.apache.maven.scm.provider.svn.svnjava.util.SvnJavaUtil;
+import org.tmatesoft.svn.core.SVNDepth;
+import org.tmatesoft.svn.core.SVNException;
+import org.tmatesoft.svn.core.wc.SVNClientManager;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Long-lived status of a working copy, for the tools asking for it every few seconds. The working copy is watched
+ * with a {@link WatchService}: the first call runs a full status, the next ones only re-examine the directories in
+ * which something changed since the previous call, and merge them into the status kept from the previous calls.
+ * <p>
+ * A full status is run again whenever the watcher lost events, or when the administrative area of the working copy
+ * changed, since an update, a commit or a revert changes the status of files without touching them. The changes
+ * are seen once the watcher reported them, usually within milliseconds, but some platforms only poll the file
+ * system every few seconds.
+ * </p>
+ * The service must be closed once no longer used, to release the watcher.
+ *
+ * @see SvnJavaScmProvider#openStatusService(org.apache.maven.scm.provider.ScmProviderRepository, File)
+ * @since 2.2.2
+ */
+public class SvnStatusService
+    implements Closeable
+{
+    private static final String ADMIN_DIRECTORY = ".svn";
+
+    /**
+     * above this many changed directories, a full status is cheaper than one status per directory.
+     */
+    private static final int MAX_DIRTY_DIRECTORIES = 1000;
+
+    private final SvnJavaScmProviderRepository repository;
+
+    private final File workingCopy;
+
+    private final WatchService watchService;
+
+    /**
+     * watched directories, by watch key.
+     */
+    private final Map<WatchKey, Path> directories = new HashMap<>();
+
+    /**
+     * directories whose entries changed since the last call, to re-examine down to their immediate children.
+     */
+    private final Set<Path> dirtyDirectories = new HashSet<>();
+
+    /**
+     * directories created or removed since the last call, to re-examine down to their last descendants.
+     */
+    private final Set<Path> dirtyTrees = new HashSet<>();
+
+    /**
+     * files reported by the last call, by path relative to the working copy.
+     */
+    private final TreeMap<String, ScmFile> files = new TreeMap<>();
+
+    private boolean fullStatusNeeded = true;
+
+    private int fullStatusCount;
+
+    private boolean closed;
+
+    /**
+     * Starts watching the working copy. Nothing is read from it before the first call to {@link #status()}.
+     *
+     * @throws IOException if the working copy cannot be watched
+     */
+    public SvnStatusService( SvnJavaScmProviderRepository repository, File workingCopy )
+        throws IOException
+    {
+        this.repository = repository;
+        this.workingCopy = workingCopy.getAbsoluteFile();
+
+        Path root = this.workingCopy.toPath();
+        this.watchService = root.getFileSystem().newWatchService();
+        try
+        {
+            registerTree( root );
+        }
+        catch ( IOException e )
+        {
+            watchService.close();
+            throw e;
+        }
+    }
+
+    public File getWorkingCopy()
+    {
+        return workingCopy;
+    }
+
+    /**
+     * @return the files of the working copy which are not up to date, the same as a status command would report
+     *         them, ordered by path
+     */
+    public synchronized StatusScmResult status()
+    {
+        if ( closed )
+        {
+            throw new IllegalStateException( "The status service of " + workingCopy + " is closed." );
+        }
+
+        pollEvents();
+
+        SVNClientManager clientManager = repository.leaseClientManager();
+
+        // the files are gathered in the cache of this service, never streamed to a listener of the calling command
+        ScmResultListener previous = ScmResultListeners.bind( null );
+
+        try
+        {
+            if ( !fullStatusNeeded )
+            {
+                try
+                {
+                    updateStatus( clientManager );
+                }
+                catch ( SVNException e )
+                {
+                    // a path which changed twice, or moved out of the working copy, is read again the usual way
+                    fullStatusNeeded = true;
+                }
+            }
+
+            if ( fullStatusNeeded )
+            {
+                fullStatus( clientManager );
+            }
+
+            return new StatusScmResult( SvnJavaScmProvider.COMMAND_LINE, new ArrayList<>( files.values() ) );
+        }
+        catch ( SVNException e )
+        {
+            repository.discardSessions( clientManager );
+            return new StatusScmResult( SvnJavaScmProvider.COMMAND_LINE, "SVN status failed.", e.getMessage(), false );
+        }
+        finally
+        {
+            ScmResultListeners.restore( previous );
+            repository.releaseClientManager( clientManager );
+        }
+    }
+
+    /**
+     * Stops watching the working copy. The service cannot be used anymore.
+     */
+    public synchronized void close()
+        throws IOException
+    {
+        if ( !closed )
+        {
+            closed = true;
+            directories.clear();
+            watchService.close();
+        }
+    }
+
+    /**
+     * @return the number of full status run so far, for the tests
+     */
+    synchronized int getFullStatusCount()
+    {
+        return fullStatusCount;
+    }
+
+    private void fullStatus( SVNClientManager clientManager )
+        throws SVNException
+    {
+        files.clear();
+        dirtyDirectories.clear();
+        dirtyTrees.clear();
+
+        // set again first, so that a failed status is run again in full at the next call
+        fullStatusNeeded = true;
+        fullStatusCount++;
+
+        SvnStatusHandler handler = new SvnStatusHandler( workingCopy );
+        SvnJavaUtil.status( clientManager, workingCopy, SVNDepth.INFINITY, false, handler );
+        add( handler );
+
+        fullStatusNeeded = false;
+    }
+
+    private void updateStatus( SVNClientManager clientManager )
+        throws SVNException
+    {
+        if ( dirtyDirectories.size() + dirtyTrees.size() > MAX_DIRTY_DIRECTORIES )
+        {
+            fullStatusNeeded = true;
+            return;
+        }
+
+        for ( Path tree : dirtyTrees )
+        {
+            if ( !isInDirtyTree( tree.getParent() ) )
+            {
+                updateStatus( clientManager, tree, SVNDepth.INFINITY );
+            }
+        }
+        for ( Path directory : dirtyDirectories )
+        {
+            if ( !isInDirtyTree( directory ) )
+            {
+                updateStatus( clientManager, directory, SVNDepth.IMMEDIATES );
+            }
+        }
+
+        dirtyDirectories.clear();
+        dirtyTrees.clear();
+    }
+
+    private void updateStatus( SVNClientManager clientManager, Path path, SVNDepth depth )
+        throws SVNException
+    {
+        String relativePath = getRelativePath( path );
+        String prefix = relativePath.length() == 0 ? "" : relativePath + "/";
+
+        files.remove( relativePath );
+        // the paths below the directory are sorted between its path followed by '/' and followed by the next
+        // character, '0'
+        Map<String, ScmFile> children = prefix.length() == 0 ? files : files.subMap( prefix, relativePath + '0' );
+        if ( depth == SVNDepth.INFINITY )
+        {
+            children.clear();
+        }
+        else
+        {
+            children.keySet().removeIf( child -> child.indexOf( '/', prefix.length() ) < 0 );
+        }
+
+        SvnStatusHandler handler = new SvnStatusHandler( workingCopy );
+        SvnJavaUtil.status( clientManager, path.toFile(), depth, false, handler );
+        add( handler );
+    }
+
+    private void add( SvnStatusHandler handler )
+    {
+        for ( ScmFile file : handler.getFiles() )
+        {
+            files.put( file.getPath(), file );
+        }
+    }
+
+    /**
+     * @return true if the given path, or one of its parents, is re-examined in full at this call
+     */
+    private boolean isInDirtyTree( Path path )
+    {
+        Path root = workingCopy.toPath();
+        for ( Path parent = path; parent != null && parent.startsWith( root ); parent = parent.getParent() )
+        {
+            if ( dirtyTrees.contains( parent ) )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String getRelativePath( Path path )
+    {
+        return workingCopy.toPath().relativize( path ).toString().replace( File.separatorChar, '/' );
+    }
+
+    /**
+     * Turns the events reported so far into dirty directories.
+     */
+    private void pollEvents()
+    {
+        WatchKey key;
+        try
+        {
+            while ( ( key = watchService.poll() ) != null )
+            {
+                Path directory = directories.get( key );
+                if ( directory != null )
+                {
+                    for ( WatchEvent<?> event : key.pollEvents() )
+                    {
+                        onEvent( directory, event );
+                    }
+                }
+                if ( !key.reset() )
+                {
+                    // the directory was removed, its parent was told about it
+                    directories.remove( key );
+                }
+            }
+        }
+        catch ( ClosedWatchServiceException e )
+        {
+            throw new IllegalStateException( "The status service of " + workingCopy + " is closed." );
+        }
+    }
+
+    private void onEvent( Path directory, WatchEvent<?> event )
+    {
+        if ( event.kind() == StandardWatchEventKinds.OVERFLOW )
+        {
+            fullStatusNeeded = true;
+            return;
+        }
+        if ( ADMIN_DIRECTORY.equals( directory.getFileName().toString() ) )
+        {
+            // the working copy database changed: an svn command ran on it
+            fullStatusNeeded = true;
+            return;
+        }
+
+        Path path = directory.resolve( (Path) event.context() );
+        dirtyDirectories.add( directory );
+
+        if ( event.kind() == StandardWatchEventKinds.ENTRY_CREATE
+            && Files.isDirectory( path, LinkOption.NOFOLLOW_LINKS ) )
+        {
+            dirtyTrees.add( path );
+            try
+            {
+                registerTree( path );
+            }
+            catch ( IOException e )
+            {
+                // removed again, or not readable: the full status will tell
+                fullStatusNeeded = true;
+            }
+        }
+        else if ( event.kind() == StandardWatchEventKinds.ENTRY_DELETE )
+        {
+            // it may have been a directory, with files reported below it
+            dirtyTrees.add( path );
+        }
+    }
+
+    /**
+     * Watches the directory and the directories below it. The administrative directories are watched too, but
+     * not their content.
+     */
+    private void registerTree( Path directory )
+        throws IOException
+    {
+        register( directory );
+        if ( ADMIN_DIRECTORY.equals( directory.getFileName().toString() ) )
+        {
+            return;
+        }
+
+        try ( DirectoryStream<Path> children = Files.newDirectoryStream( directory ) )
+        {
+            for ( Path child : children )
+            {
+                if ( Files.isDirectory( child, LinkOption.NOFOLLOW_LINKS ) )
+                {
+                    registerTree( child );
+                }
+            }
+        }
+    }
+
+    private void register( Path directory )
+        throws IOException
+    {
+        WatchKey key = directory.register( watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                                           StandardWatchEventKinds.ENTRY_DELETE,
+                                           StandardWatchEventKinds.ENTRY_MODIFY );
+        directories.put( key, directory );
+    }
+}
@@ -40,6 +40,7 @@ import org.codehaus.plexus.util.StringUtils;
 import org.tmatesoft.svn.core.SVNCommitInfo;
 import org.tmatesoft.svn.core.SVNException;
 import org.tmatesoft.svn.core.SVNURL;
+import org.tmatesoft.svn.core.wc.SVNClientManager;
 
 import java.io.File;
 import java.io.IOException;
@@ -87,6 +88,7 @@ public class SvnTagCommand
 
         SvnJavaScmProviderRepository javaRepo = (SvnJavaScmProviderRepository) repo;
 
+        SVNClientManager clientManager = javaRepo.leaseClientManager();
         try
         {
             SVNURL destURL = SVNURL.parseURIEncoded( SvnTagBranchUtils.resolveTagUrl( repository, new ScmTag( tag ) ) );
@@ -101,12 +103,12 @@ public class SvnTagCommand
             SVNCommitInfo info;
             if ( scmTagParameters != null && scmTagParameters.isRemoteTagging() )
             {
-                info = SvnJavaUtil.copy( javaRepo.getClientManager(), javaRepo.getSvnUrl(), destURL, false, message,
+                info = SvnJavaUtil.copy( clientManager, javaRepo.getSvnUrl(), destURL, false, message,
                                          scmTagParameters.getScmRevision() );
             }
             else
             {
-                info = SvnJavaUtil.copy( javaRepo.getClientManager(), fileSet.getBasedir(), destURL, false, message,
+                info = SvnJavaUtil.copy( clientManager, fileSet.getBasedir(), destURL, false, message,
                                          scmTagParameters.getScmRevision() );
             }
 
@@ -135,8 +137,13 @@ public class SvnTagCommand
         }
         catch ( SVNException e )
         {
+            javaRepo.discardSessions( clientManager );
             return new TagScmResult( SvnJavaScmProvider.COMMAND_LINE, "SVN tag failed.", e.getMessage(), false );
         }
+        finally
+        {
+            javaRepo.releaseClientManager( clientManager );
+        }
     }
 
 }
@@ -43,6 +43,7 @@ import org.codehaus.plexus.util.StringUtils;
 import org.tmatesoft.svn.core.SVNCommitInfo;
 import org.tmatesoft.svn.core.SVNException;
 import org.tmatesoft.svn.core.SVNURL;
+import org.tmatesoft.svn.core.wc.SVNClientManager;
 
 import java.io.File;
 import java.io.IOException;
@@ -70,24 +71,27 @@ public class SvnUnTagCommand extends AbstractUntagCommand implements SvnCommand
 
         ScmFileEventHandler handler = new ScmFileEventHandler( logger, scmFileSet.getBasedir() );
 
-        javaRepo.getClientManager().getWCClient().setEventHandler( handler );
+        SVNClientManager clientManager = javaRepo.leaseClientManager();
+
+        clientManager.getWCClient().setEventHandler( handler );
 
         try
         {
             SVNURL destURL = SVNURL.parseURIEncoded( SvnTagBranchUtils.resolveTagUrl( javaRepo, new ScmTag( tag ) ) );
 
-            javaRepo.getClientManager().getCommitClient().doDelete(new SVNURL[]{destURL}, scmUntagParameters.getMessage());
+            clientManager.getCommitClient().doDelete(new SVNURL[]{destURL}, scmUntagParameters.getMessage());
 
             return new UntagScmResult( SvnJavaScmProvider.COMMAND_LINE, "The svn remove command was successful.", "",
                     true );
         }
         catch ( SVNException e )
         {
+            javaRepo.discardSessions( clientManager );
             return new UntagScmResult( SvnJavaScmProvider.COMMAND_LINE, "SVN remove failed.", e.getMessage(), false );
         }
         finally
         {
-            javaRepo.getClientManager().getWCClient().setEventHandler( null );
+            javaRepo.releaseClientManager( clientManager );
         }
 
     }
@@ -115,6 +119,7 @@ public class SvnUnTagCommand extends AbstractUntagCommand implements SvnCommand
 
         SvnJavaScmProviderRepository javaRepo = (SvnJavaScmProviderRepository) repo;
 
+        SVNClientManager clientManager = javaRepo.leaseClientManager();
         try
         {
             SVNURL destURL = SVNURL.parseURIEncoded( SvnTagBranchUtils.resolveTagUrl( repository, new ScmTag( tag ) ) );
@@ -129,12 +134,12 @@ public class SvnUnTagCommand extends AbstractUntagCommand implements SvnCommand
             SVNCommitInfo info;
             if ( scmTagParameters != null && scmTagParameters.isRemoteTagging() )
             {
-                info = SvnJavaUtil.copy( javaRepo.getClientManager(), javaRepo.getSvnUrl(), destURL, false, message,
+                info = SvnJavaUtil.copy( clientManager, javaRepo.getSvnUrl(), destURL, false, message,
                                          scmTagParameters.getScmRevision() );
             }
             else
             {
-                info = SvnJavaUtil.copy( javaRepo.getClientManager(), fileSet.getBasedir(), destURL, false, message,
+                info = SvnJavaUtil.copy( clientManager, fileSet.getBasedir(), destURL, false, message,
                                          scmTagParameters.getScmRevision() );
             }
 
@@ -164,8 +169,13 @@ public class SvnUnTagCommand extends AbstractUntagCommand implements SvnCommand
         }
         catch ( SVNException e )
         {
+            javaRepo.discardSessions( clientManager );
             return new TagScmResult( SvnJavaScmProvider.COMMAND_LINE, "SVN tag failed.", e.getMessage(), false );
         }
+        finally
+        {
+            javaRepo.releaseClientManager( clientManager );
+        }
     }
 
 }
@@ -19,8 +19,12 @@ package org.apache.maven.scm.provider.svn.svnjava.command.update;
  * under the License.
  */
 
+import org.apache.maven.scm.ChangeSet;
+import org.apache.maven.scm.CommandParameters;
 import org.apache.maven.scm.ScmException;
+import org.apache.maven.scm.ScmFile;
 import org.apache.maven.scm.ScmFileSet;
+import org.apache.maven.scm.ScmResult;
 import org.apache.maven.scm.ScmTag;
 import org.apache.maven.scm.ScmVersion;
 import org.apache.maven.scm.command.changelog.ChangeLogCommand;
@@ -34,13 +38,24 @@ import org.apache.maven.scm.provider.svn.repository.SvnScmProviderRepository;
 import org.apache.maven.scm.provider.svn.svnjava.SvnJavaScmProvider;
 import org.apache.maven.scm.provider.svn.svnjava.command.changelog.SvnJavaChangeLogCommand;
 import org.apache.maven.scm.provider.svn.svnjava.repository.SvnJavaScmProviderRepository;
+import org.apache.maven.scm.provider.svn.svnjava.repository.SvnRevisionCache;
 import org.apache.maven.scm.provider.svn.svnjava.util.ScmFileEventHandler;
+import org.apache.maven.scm.provider.svn.svnjava.util.SvnExternalsFetcher;
+import org.apache.maven.scm.provider.svn.svnjava.util.SvnJavaCommandParameters;
 import org.apache.maven.scm.provider.svn.svnjava.util.SvnJavaUtil;
+import org.tmatesoft.svn.core.SVNCancelException;
+import org.tmatesoft.svn.core.SVNDepth;
 import org.tmatesoft.svn.core.SVNException;
 import org.tmatesoft.svn.core.SVNURL;
+import org.tmatesoft.svn.core.wc.SVNClientManager;
 import org.tmatesoft.svn.core.wc.SVNRevision;
 import org.tmatesoft.svn.core.wc.SVNUpdateClient;
 
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 /**
  * @author <a href="mailto:evenisse@apache.org">Emmanuel Venisse</a>
  * @version $Id: SvnJavaUpdateCommand.java 397 2010-01-14 21:11:48Z oliver.lamy@gmail.com $
@@ -50,7 +65,37 @@ public class SvnJavaUpdateCommand
     implements SvnCommand
 {
     /**
-     * {@inheritDoc}
+     * depth given in the command parameters, null if none.
+     */
+    private SVNDepth depth;
+
+    /**
+     * parallelism given in the command parameters, 1 if none.
+     */
+    private int parallelism;
+
+    /**
+     * Reads the depth and the parallelism of the {@link SvnJavaCommandParameters}, if any, before running the
+     * update.
+     */
+    @Override
+    public ScmResult executeCommand( ScmProviderRepository repository, ScmFileSet fileSet,
+                                     CommandParameters parameters )
+        throws ScmException
+    {
+        depth = SvnJavaCommandParameters.getDepth( parameters );
+        parallelism = SvnJavaCommandParameters.getParallelism( parameters );
+        return super.executeCommand( repository, fileSet, parameters );
+    }
+
+    /**
+     * Updates the base directory within the depth recorded in the working copy. When a depth is given in the
+     * command parameters, it is set on the files of the file set, or on the base directory if there are none,
+     * so that selected directories of a sparse working copy can be deepened one at a time. With a mirror, the
+     * working copy is relocated to it for the duration of the update. With a {@link SvnRevisionCache}, an update
+     * to HEAD is skipped when the url of the working copy did not change since its oldest revision. The externals
+     * of a full update are fetched by a {@link SvnExternalsFetcher} when the command runs in parallel or the
+     * repository has a {@link org.apache.maven.scm.provider.svn.svnjava.util.SvnExternalsCache}.
      */
     protected UpdateScmResult executeUpdateCommand( ScmProviderRepository repo, ScmFileSet fileSet, ScmVersion tag )
         throws ScmException
@@ -64,44 +109,179 @@ public class SvnJavaUpdateCommand
 
         SvnJavaScmProviderRepository javaRepo = (SvnJavaScmProviderRepository) repo;
 
+        ScmFileEventHandler handler = new ScmFileEventHandler( logger, fileSet.getBasedir() );
+
+        SVNClientManager clientManager = javaRepo.leaseClientManager();
+
+        // url of the working copy in the origin while it points to the mirror
+        SVNURL originUrl = null;
+
         try
         {
-            ScmFileEventHandler handler = new ScmFileEventHandler( logger, fileSet.getBasedir() );
 
-            SVNUpdateClient updateClient = javaRepo.getClientManager().getUpdateClient();
+            SVNUpdateClient updateClient = clientManager.getUpdateClient();
 
             updateClient.setEventHandler( handler );
 
             long revision = 0;
 
+            boolean fetchExternals = depth == null && SvnExternalsFetcher.isEnabled( javaRepo, parallelism );
+
+            SvnRevisionCache revisionCache = javaRepo.getRevisionCache();
+            if ( tag == null && depth == null && revisionCache != null )
+            {
+                long upToDate = new SvnUpToDateCheck( revisionCache, logger )
+                    .getUpToDateRevision( clientManager, fileSet.getBasedir() );
+                if ( upToDate >= 0 )
+                {
+                    if ( logger.isInfoEnabled() )
+                    {
+                        logger.info( "Nothing changed since revision " + upToDate + ", update skipped" );
+                    }
+                    return new UpdateScmResultWithRevision( SvnJavaScmProvider.COMMAND_LINE, handler.getFiles(),
+                                                            Long.toString( upToDate ) );
+                }
+            }
+
             if ( tag == null || SvnTagBranchUtils.isRevisionSpecifier( tag ) )
             {
                 SVNRevision rev = ( tag == null ? SVNRevision.parse( "" ) : SVNRevision.parse( tag.getName() ) );
-                revision = SvnJavaUtil.update( updateClient, fileSet.getBasedir(), rev, true );
+                originUrl = relocateToMirror( javaRepo, clientManager, fileSet.getBasedir() );
+                if ( depth == null )
+                {
+                    revision = SvnJavaUtil.update( updateClient, fileSet.getBasedir(), rev, true, fetchExternals );
+                }
+                else
+                {
+                    for ( long pathRevision : SvnJavaUtil.update( updateClient, getPaths( fileSet ), rev, depth,
+                                                                  true ) )
+                    {
+                        revision = Math.max( revision, pathRevision );
+                    }
+                }
+                relocateToOrigin( javaRepo, clientManager, fileSet.getBasedir(), originUrl );
+                originUrl = null;
             }
             else
             {
                 // The tag specified does not appear to be numeric, so assume it refers
                 // to a branch/tag url and perform a switch operation rather than update
-                revision = SvnJavaUtil.switchToURL( javaRepo.getClientManager(), fileSet.getBasedir(),
+                revision = SvnJavaUtil.switchToURL( clientManager, fileSet.getBasedir(),
                                                     SVNURL.parseURIEncoded( SvnTagBranchUtils.resolveTagUrl( repository,
                                                                                                              new ScmTag(
                                                                                                                  tag.getName() ) ) ),
-                                                    SVNRevision.HEAD, true );
+                                                    SVNRevision.HEAD, true, fetchExternals );
             }
 
-            return new UpdateScmResultWithRevision( SvnJavaScmProvider.COMMAND_LINE, handler.getFiles(),
+            List<ScmFile> files = new ArrayList<>( handler.getFiles() );
+            if ( fetchExternals )
+            {
+                files.addAll( new SvnExternalsFetcher( javaRepo, logger, parallelism )
+                                  .fetch( clientManager, fileSet.getBasedir(), revision, fileSet.getBasedir() ) );
+            }
+            return new UpdateScmResultWithRevision( SvnJavaScmProvider.COMMAND_LINE, files,
                                                     Long.toString( revision ) );
         }
+        catch ( SVNCancelException e )
+        {
+            SvnJavaUtil.cleanupAfterCancel( javaRepo, clientManager, fileSet.getBasedir(), logger );
+            if ( originUrl != null )
+            {
+                // the cancelled client manager has been dropped, the working copy is unlocked by now
+                SVNClientManager relocatingClientManager = javaRepo.leaseClientManager();
+                try
+                {
+                    relocateToOrigin( javaRepo, relocatingClientManager, fileSet.getBasedir(), originUrl );
+                }
+                finally
+                {
+                    javaRepo.releaseClientManager( relocatingClientManager );
+                }
+            }
+            return new UpdateScmResultWithRevision( handler.getFiles(), Collections.<ChangeSet>emptyList(),
+                                                    Long.toString( -1 ),
+                                                    new ScmResult( SvnJavaScmProvider.COMMAND_LINE,
+                                                                   "SVN update cancelled.", e.getMessage(), false ) );
+        }
         catch ( SVNException e )
         {
+            javaRepo.discardSessions( clientManager );
+            relocateToOrigin( javaRepo, clientManager, fileSet.getBasedir(), originUrl );
             return new UpdateScmResultWithRevision( SvnJavaScmProvider.COMMAND_LINE, "SVN update failed.",
                                                     e.getMessage(), Long.toString( -1 ), false );
         }
         finally
         {
-            javaRepo.getClientManager().getUpdateClient().setEventHandler( null );
+            javaRepo.releaseClientManager( clientManager );
+        }
+    }
+
+    /**
+     * Points the working copy to the mirror of the repository, if it has one which is up to date, so that the
+     * update reads from it.
+     *
+     * @return the url of the working copy in the origin, to relocate it back once updated, null if it was not
+     *         relocated
+     */
+    private static SVNURL relocateToMirror( SvnJavaScmProviderRepository repository, SVNClientManager clientManager,
+                                            File workingCopy )
+        throws SVNException
+    {
+        if ( repository.getMirror() == null )
+        {
+            return null;
+        }
+        SVNURL originUrl = clientManager.getWCClient().doInfo( workingCopy, SVNRevision.UNDEFINED ).getURL();
+        SVNURL mirrorUrl = repository.getReadUrl( clientManager, originUrl );
+        if ( mirrorUrl.equals( originUrl ) )
+        {
+            return null;
+        }
+        SvnJavaUtil.relocate( clientManager.getUpdateClient(), workingCopy, originUrl, mirrorUrl );
+        return originUrl;
+    }
+
+    /**
+     * Points the working copy updated from the mirror back to the origin, once the update is over and the working
+     * copy cleaned up if it was cancelled, and expands its keywords against the origin again. A failure is only
+     * logged so that it does not hide the outcome of the update, the working copy then still points to the mirror.
+     *
+     * @param originUrl the url of the working copy in the origin, null if it was not relocated to the mirror
+     */
+    private void relocateToOrigin( SvnJavaScmProviderRepository repository, SVNClientManager clientManager,
+                                   File workingCopy, SVNURL originUrl )
+    {
+        if ( originUrl == null )
+        {
+            return;
+        }
+        try
+        {
+            SvnJavaUtil.relocate( clientManager.getUpdateClient(), workingCopy,
+                                  repository.getMirror().getMirrorUrl( originUrl ), originUrl );
+            SvnJavaUtil.translateKeywords( clientManager, workingCopy );
+        }
+        catch ( SVNException e )
+        {
+            logger.warn( "Working copy " + workingCopy + " could not be relocated back to " + originUrl
+                             + ", it still points to the mirror, see 'svn relocate': " + e.getMessage() );
+        }
+    }
+
+    private static File[] getPaths( ScmFileSet fileSet )
+    {
+        List<File> files = fileSet.getFileList();
+        if ( files.isEmpty() )
+        {
+            return new File[]{ fileSet.getBasedir() };
+        }
+        File[] paths = new File[files.size()];
+        for ( int i = 0; i < paths.length; i++ )
+        {
+            File file = files.get( i );
+            paths[i] = file.isAbsolute() ? file : new File( fileSet.getBasedir(), file.getPath() );
         }
+        return paths;
     }
 
     /**
@@ -0,0 +1,120 @@
+package org.apache.maven.scm.provider.svn.svnjava.command.update;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.scm.provider.svn.svnjava.repository.SvnRevisionCache;
+import org.slf4j.Logger;
+import org.tmatesoft.svn.core.SVNDepth;
+import org.tmatesoft.svn.core.SVNException;
+import org.tmatesoft.svn.core.SVNProperty;
+import org.tmatesoft.svn.core.SVNURL;
+import org.tmatesoft.svn.core.wc.SVNClientManager;
+import org.tmatesoft.svn.core.wc.SVNRevision;
+import org.tmatesoft.svn.core.wc2.SvnGetProperties;
+import org.tmatesoft.svn.core.wc2.SvnGetStatusSummary;
+import org.tmatesoft.svn.core.wc2.SvnOperationFactory;
+import org.tmatesoft.svn.core.wc2.SvnStatusSummary;
+import org.tmatesoft.svn.core.wc2.SvnTarget;
+
+import java.io.File;
+
+/**
+ * Tells whether an update of a working copy to HEAD has anything to bring, without sending the report of the
+ * working copy: its revisions are read locally, as <code>svnversion</code> does, and compared with the last
+ * changed revision of its url, from a {@link SvnRevisionCache}.
+ * <p>
+ * A skipped update leaves the revisions of the working copy as they are, and does not restore the files missing
+ * locally. Working copies with externals or switched subtrees are always updated.
+ * </p>
+ *
+ * @since 2.2.2
+ */
+class SvnUpToDateCheck
+{
+    private final SvnRevisionCache revisionCache;
+
+    private final Logger logger;
+
+    SvnUpToDateCheck( SvnRevisionCache revisionCache, Logger logger )
+    {
+        this.revisionCache = revisionCache;
+        this.logger = logger;
+    }
+
+    /**
+     * @return the highest revision of the working copy if the update can be skipped, -1 otherwise
+     */
+    long getUpToDateRevision( SVNClientManager clientManager, File workingCopy )
+    {
+        SvnStatusSummary summary;
+        try
+        {
+            SvnOperationFactory operationFactory = clientManager.getStatusClient().getOperationsFactory();
+            SvnGetStatusSummary getStatusSummary = operationFactory.createGetStatusSummary();
+            getStatusSummary.setSingleTarget( SvnTarget.fromFile( workingCopy ) );
+            summary = getStatusSummary.run();
+            if ( summary.isSwitched() || hasExternals( operationFactory, workingCopy ) )
+            {
+                return -1;
+            }
+        }
+        catch ( SVNException e )
+        {
+            if ( logger.isDebugEnabled() )
+            {
+                logger.debug( "Cannot read the revisions of " + workingCopy + ": " + e.getMessage() );
+            }
+            return -1;
+        }
+
+        try
+        {
+            SVNURL url = clientManager.getWCClient().doInfo( workingCopy, SVNRevision.UNDEFINED ).getURL();
+            long lastChanged = revisionCache.getLastChangedRevision( clientManager, url );
+            if ( lastChanged < 0 || summary.getMinRevision() < lastChanged )
+            {
+                return -1;
+            }
+            return summary.getMaxRevision();
+        }
+        catch ( SVNException e )
+        {
+            // the update itself reports the error
+            return -1;
+        }
+    }
+
+    private static boolean hasExternals( SvnOperationFactory operationFactory, File workingCopy )
+        throws SVNException
+    {
+        boolean[] found = new boolean[1];
+        SvnGetProperties getProperties = operationFactory.createGetProperties();
+        getProperties.setSingleTarget( SvnTarget.fromFile( workingCopy ) );
+        getProperties.setDepth( SVNDepth.INFINITY );
+        getProperties.setReceiver( ( target, properties ) -> {
+            if ( properties.containsName( SVNProperty.EXTERNALS ) )
+            {
+                found[0] = true;
+            }
+        } );
+        getProperties.run();
+        return found[0];
+    }
+}
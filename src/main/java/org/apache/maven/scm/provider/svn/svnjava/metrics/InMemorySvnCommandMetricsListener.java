@@ -0,0 +1,210 @@
+package org.apache.maven.scm.provider.svn.svnjava.metrics;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Thread safe listener aggregating the metrics in memory, per command and per repository url.
+ *
+ * @since 2.2.2
+ */
+public class InMemorySvnCommandMetricsListener
+    implements SvnCommandMetricsListener
+{
+    /**
+     * statistics by command, then by repository url. Guarded by this.
+     */
+    private final Map<String, Map<String, Statistics>> statistics = new TreeMap<>();
+
+    public synchronized void commandExecuted( SvnCommandMetrics metrics )
+    {
+        Map<String, Statistics> byUrl = statistics.get( metrics.getCommand() );
+        if ( byUrl == null )
+        {
+            byUrl = new TreeMap<>();
+            statistics.put( metrics.getCommand(), byUrl );
+        }
+        Statistics stats = byUrl.get( metrics.getRepositoryUrl() );
+        if ( stats == null )
+        {
+            stats = new Statistics();
+            byUrl.put( metrics.getRepositoryUrl(), stats );
+        }
+        stats.add( metrics );
+    }
+
+    /**
+     * @return the statistics of one command on one repository, never null
+     */
+    public synchronized Statistics getStatistics( String command, String repositoryUrl )
+    {
+        Statistics result = new Statistics();
+        Map<String, Statistics> byUrl = statistics.get( command );
+        if ( byUrl != null && byUrl.containsKey( repositoryUrl ) )
+        {
+            result.add( byUrl.get( repositoryUrl ) );
+        }
+        return result;
+    }
+
+    /**
+     * @return a snapshot of the statistics of each command, all repositories together
+     */
+    public synchronized Map<String, Statistics> getStatisticsByCommand()
+    {
+        Map<String, Statistics> result = new TreeMap<>();
+        for ( Map.Entry<String, Map<String, Statistics>> entry : statistics.entrySet() )
+        {
+            Statistics total = new Statistics();
+            for ( Statistics stats : entry.getValue().values() )
+            {
+                total.add( stats );
+            }
+            result.put( entry.getKey(), total );
+        }
+        return result;
+    }
+
+    /**
+     * @return a snapshot of the statistics of each repository url, all commands together
+     */
+    public synchronized Map<String, Statistics> getStatisticsByRepository()
+    {
+        Map<String, Statistics> result = new TreeMap<>();
+        for ( Map<String, Statistics> byUrl : statistics.values() )
+        {
+            for ( Map.Entry<String, Statistics> entry : byUrl.entrySet() )
+            {
+                Statistics total = result.get( entry.getKey() );
+                if ( total == null )
+                {
+                    total = new Statistics();
+                    result.put( entry.getKey(), total );
+                }
+                total.add( entry.getValue() );
+            }
+        }
+        return result;
+    }
+
+    public synchronized void reset()
+    {
+        statistics.clear();
+    }
+
+    /**
+     * Sums of the metrics of several command executions.
+     */
+    public static final class Statistics
+    {
+        private long count;
+
+        private long failures;
+
+        private long totalNanos;
+
+        private long maxNanos;
+
+        private long files;
+
+        private long bytesSent;
+
+        private long bytesReceived;
+
+        private long roundTrips;
+
+        void add( SvnCommandMetrics metrics )
+        {
+            count++;
+            if ( !metrics.isSuccess() )
+            {
+                failures++;
+            }
+            totalNanos += metrics.getElapsedNanos();
+            maxNanos = Math.max( maxNanos, metrics.getElapsedNanos() );
+            files += metrics.getFiles();
+            bytesSent += metrics.getBytesSent();
+            bytesReceived += metrics.getBytesReceived();
+            roundTrips += metrics.getRoundTrips();
+        }
+
+        void add( Statistics other )
+        {
+            count += other.count;
+            failures += other.failures;
+            totalNanos += other.totalNanos;
+            maxNanos = Math.max( maxNanos, other.maxNanos );
+            files += other.files;
+            bytesSent += other.bytesSent;
+            bytesReceived += other.bytesReceived;
+            roundTrips += other.roundTrips;
+        }
+
+        public long getCount()
+        {
+            return count;
+        }
+
+        public long getFailures()
+        {
+            return failures;
+        }
+
+        public long getTotalNanos()
+        {
+            return totalNanos;
+        }
+
+        public long getMaxNanos()
+        {
+            return maxNanos;
+        }
+
+        public long getFiles()
+        {
+            return files;
+        }
+
+        public long getBytesSent()
+        {
+            return bytesSent;
+        }
+
+        public long getBytesReceived()
+        {
+            return bytesReceived;
+        }
+
+        public long getRoundTrips()
+        {
+            return roundTrips;
+        }
+
+        @Override
+        public String toString()
+        {
+            return count + " executions (" + failures + " failed), " + totalNanos / 1000000 + " ms total, "
+                + maxNanos / 1000000 + " ms max, " + files + " files, " + bytesSent + " bytes sent, " + bytesReceived
+                + " bytes received, " + roundTrips + " round trips";
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package org.apache.maven.scm.provider.svn.svnjava.metrics;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.scm.CommandParameters;
+import org.apache.maven.scm.ScmException;
+import org.apache.maven.scm.ScmFileSet;
+import org.apache.maven.scm.ScmResult;
+import org.apache.maven.scm.provider.ScmProviderRepository;
+import org.apache.maven.scm.provider.svn.command.SvnCommand;
+import org.apache.maven.scm.provider.svn.repository.SvnScmProviderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link SvnCommand} decorator measuring each execution of the wrapped command and reporting it to a
+ * {@link SvnCommandMetricsListener}.
+ *
+ * @since 2.2.2
+ */
+public class MeteredSvnCommand
+    implements SvnCommand
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger( MeteredSvnCommand.class );
+
+    private final String name;
+
+    private final SvnCommand command;
+
+    private final SvnCommandMetricsListener listener;
+
+    public MeteredSvnCommand( String name, SvnCommand command, SvnCommandMetricsListener listener )
+    {
+        this.name = name;
+        this.command = command;
+        this.listener = listener;
+    }
+
+    public String getName()
+    {
+        return name;
+    }
+
+    public SvnCommand getCommand()
+    {
+        return command;
+    }
+
+    public ScmResult execute( ScmProviderRepository repository, ScmFileSet fileSet, CommandParameters parameters )
+        throws ScmException
+    {
+        SvnCommandMetricsRecorder recorder = new SvnCommandMetricsRecorder();
+        SvnCommandMetricsRecorder previous = recorder.bind();
+        boolean success = false;
+        long start = System.nanoTime();
+        try
+        {
+            ScmResult result = command.execute( repository, fileSet, parameters );
+            success = result != null && result.isSuccess();
+            return result;
+        }
+        finally
+        {
+            long elapsed = System.nanoTime() - start;
+            SvnCommandMetricsRecorder.restore( previous );
+            report( new SvnCommandMetrics( name, getRepositoryUrl( repository ), success, elapsed,
+                                           recorder.getFiles(), recorder.getBytesSent(),
+                                           recorder.getBytesReceived(), recorder.getRoundTrips() ) );
+        }
+    }
+
+    private void report( SvnCommandMetrics metrics )
+    {
+        try
+        {
+            listener.commandExecuted( metrics );
+        }
+        catch ( RuntimeException e )
+        {
+            // metrics must never break a command
+            LOGGER.warn( "Metrics listener failed for " + metrics, e );
+        }
+    }
+
+    private static String getRepositoryUrl( ScmProviderRepository repository )
+    {
+        if ( repository instanceof SvnScmProviderRepository )
+        {
+            return ( (SvnScmProviderRepository) repository ).getUrl();
+        }
+        return String.valueOf( repository );
+    }
+}
@@ -0,0 +1,269 @@
+package org.apache.maven.scm.provider.svn.svnjava.metrics;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.tmatesoft.svn.util.ISVNDebugLog;
+import org.tmatesoft.svn.util.SVNDebugLog;
+import org.tmatesoft.svn.util.SVNLogType;
+
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.logging.Level;
+
+/**
+ * Debug log of one svn session, counting the bytes going through its network streams.
+ * <p>
+ * svnkit wraps the socket streams of svn:// and http(s):// connections with
+ * {@link #createLogStream(SVNLogType, InputStream)} when they are opened, and keeps them as long as the
+ * connection lives. Sessions are reused by several commands, so the counting streams report to the
+ * {@link SvnCommandMetricsRecorder} currently attached to the session, if any. A read following a write is
+ * counted as one round trip. Everything else is forwarded to the delegate log.
+ * </p>
+ *
+ * @since 2.2.2
+ */
+public class MeteringDebugLog
+    implements ISVNDebugLog
+{
+    private volatile ISVNDebugLog delegate;
+
+    private volatile SvnCommandMetricsRecorder recorder;
+
+    private volatile boolean requestPending;
+
+    public MeteringDebugLog()
+    {
+        this( null );
+    }
+
+    public MeteringDebugLog( ISVNDebugLog delegate )
+    {
+        setDelegate( delegate );
+    }
+
+    /**
+     * @param delegate the log receiving the messages, the default svnkit log if null
+     */
+    public void setDelegate( ISVNDebugLog delegate )
+    {
+        this.delegate = delegate == null ? SVNDebugLog.getDefaultLog() : delegate;
+    }
+
+    public ISVNDebugLog getDelegate()
+    {
+        return delegate;
+    }
+
+    /**
+     * @param recorder the recorder of the command using the session, null when the session is idle or the
+     *            command is not metered
+     */
+    public void setRecorder( SvnCommandMetricsRecorder recorder )
+    {
+        this.recorder = recorder;
+        this.requestPending = false;
+    }
+
+    public SvnCommandMetricsRecorder getRecorder()
+    {
+        return recorder;
+    }
+
+    public InputStream createLogStream( SVNLogType logType, InputStream is )
+    {
+        return delegate.createLogStream( logType, new CountingInputStream( is ) );
+    }
+
+    public OutputStream createLogStream( SVNLogType logType, OutputStream os )
+    {
+        return delegate.createLogStream( logType, new CountingOutputStream( os ) );
+    }
+
+    public OutputStream createOutputLogStream()
+    {
+        return delegate.createOutputLogStream();
+    }
+
+    public OutputStream createInputLogStream()
+    {
+        return delegate.createInputLogStream();
+    }
+
+    public void flushStream( Object stream )
+    {
+        delegate.flushStream( stream );
+    }
+
+    public void logError( SVNLogType logType, String message )
+    {
+        delegate.logError( logType, message );
+    }
+
+    public void logError( SVNLogType logType, Throwable th )
+    {
+        delegate.logError( logType, th );
+    }
+
+    public void logSevere( SVNLogType logType, String message )
+    {
+        delegate.logSevere( logType, message );
+    }
+
+    public void logSevere( SVNLogType logType, Throwable th )
+    {
+        delegate.logSevere( logType, th );
+    }
+
+    public void logFine( SVNLogType logType, Throwable th )
+    {
+        delegate.logFine( logType, th );
+    }
+
+    public void logFine( SVNLogType logType, String message )
+    {
+        delegate.logFine( logType, message );
+    }
+
+    public void logFiner( SVNLogType logType, Throwable th )
+    {
+        delegate.logFiner( logType, th );
+    }
+
+    public void logFiner( SVNLogType logType, String message )
+    {
+        delegate.logFiner( logType, message );
+    }
+
+    public void logFinest( SVNLogType logType, Throwable th )
+    {
+        delegate.logFinest( logType, th );
+    }
+
+    public void logFinest( SVNLogType logType, String message )
+    {
+        delegate.logFinest( logType, message );
+    }
+
+    public void log( SVNLogType logType, Throwable th, Level logLevel )
+    {
+        delegate.log( logType, th, logLevel );
+    }
+
+    public void log( SVNLogType logType, String message, Level logLevel )
+    {
+        delegate.log( logType, message, logLevel );
+    }
+
+    public void log( SVNLogType logType, String message, byte[] data )
+    {
+        delegate.log( logType, message, data );
+    }
+
+    private void received( long count )
+    {
+        SvnCommandMetricsRecorder current = recorder;
+        if ( current != null && count > 0 )
+        {
+            current.bytesReceived( count );
+            if ( requestPending )
+            {
+                requestPending = false;
+                current.roundTrip();
+            }
+        }
+    }
+
+    private void sent( long count )
+    {
+        SvnCommandMetricsRecorder current = recorder;
+        if ( current != null && count > 0 )
+        {
+            current.bytesSent( count );
+            requestPending = true;
+        }
+    }
+
+    private final class CountingInputStream
+        extends FilterInputStream
+    {
+        private CountingInputStream( InputStream in )
+        {
+            super( in );
+        }
+
+        @Override
+        public int read()
+            throws IOException
+        {
+            int b = in.read();
+            if ( b >= 0 )
+            {
+                received( 1 );
+            }
+            return b;
+        }
+
+        @Override
+        public int read( byte[] b, int off, int len )
+            throws IOException
+        {
+            int count = in.read( b, off, len );
+            received( count );
+            return count;
+        }
+
+        @Override
+        public long skip( long n )
+            throws IOException
+        {
+            long count = in.skip( n );
+            received( count );
+            return count;
+        }
+    }
+
+    private final class CountingOutputStream
+        extends FilterOutputStream
+    {
+        private CountingOutputStream( OutputStream out )
+        {
+            super( out );
+        }
+
+        @Override
+        public void write( int b )
+            throws IOException
+        {
+            out.write( b );
+            sent( 1 );
+        }
+
+        @Override
+        public void write( byte[] b, int off, int len )
+            throws IOException
+        {
+            out.write( b, off, len );
+            sent( len );
+        }
+    }
+}
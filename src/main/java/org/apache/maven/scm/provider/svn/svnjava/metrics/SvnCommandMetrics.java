@@ -0,0 +1,124 @@
+package org.apache.maven.scm.provider.svn.svnjava.metrics;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+/**
+ * What one execution of an scm command cost.
+ * <p>
+ * Bytes and round trips are measured on the svn:// and http(s):// connections of the command; they stay at
+ * zero for file:// repositories, which are accessed without any network protocol.
+ * </p>
+ *
+ * @since 2.2.2
+ */
+public final class SvnCommandMetrics
+{
+    private final String command;
+
+    private final String repositoryUrl;
+
+    private final boolean success;
+
+    private final long elapsedNanos;
+
+    private final long files;
+
+    private final long bytesSent;
+
+    private final long bytesReceived;
+
+    private final long roundTrips;
+
+    public SvnCommandMetrics( String command, String repositoryUrl, boolean success, long elapsedNanos, long files,
+                              long bytesSent, long bytesReceived, long roundTrips )
+    {
+        this.command = command;
+        this.repositoryUrl = repositoryUrl;
+        this.success = success;
+        this.elapsedNanos = elapsedNanos;
+        this.files = files;
+        this.bytesSent = bytesSent;
+        this.bytesReceived = bytesReceived;
+        this.roundTrips = roundTrips;
+    }
+
+    /**
+     * @return the name of the command, <code>checkout</code>, <code>status</code>...
+     */
+    public String getCommand()
+    {
+        return command;
+    }
+
+    public String getRepositoryUrl()
+    {
+        return repositoryUrl;
+    }
+
+    /**
+     * @return false if the command returned an unsuccessful result or threw an exception
+     */
+    public boolean isSuccess()
+    {
+        return success;
+    }
+
+    /**
+     * @return the wall clock time of the command, in nanoseconds
+     */
+    public long getElapsedNanos()
+    {
+        return elapsedNanos;
+    }
+
+    /**
+     * @return the number of files reported by the command
+     */
+    public long getFiles()
+    {
+        return files;
+    }
+
+    public long getBytesSent()
+    {
+        return bytesSent;
+    }
+
+    public long getBytesReceived()
+    {
+        return bytesReceived;
+    }
+
+    /**
+     * @return the number of requests which waited for an answer of the server
+     */
+    public long getRoundTrips()
+    {
+        return roundTrips;
+    }
+
+    @Override
+    public String toString()
+    {
+        return command + " " + repositoryUrl + ( success ? "" : " (failed)" ) + ": " + elapsedNanos / 1000000
+            + " ms, " + files + " files, " + bytesSent + " bytes sent, " + bytesReceived + " bytes received, "
+            + roundTrips + " round trips";
+    }
+}
@@ -0,0 +1,36 @@
+package org.apache.maven.scm.provider.svn.svnjava.metrics;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+/**
+ * Receives the metrics of each scm command executed by a
+ * {@link org.apache.maven.scm.provider.svn.svnjava.SvnJavaScmProvider}, see
+ * {@link org.apache.maven.scm.provider.svn.svnjava.SvnJavaScmProvider#setMetricsListener(SvnCommandMetricsListener)}.
+ * <p>
+ * Commands run concurrently, so implementations must be thread safe. They are called on the thread which ran
+ * the command, once it completed, and should return quickly.
+ * </p>
+ *
+ * @since 2.2.2
+ */
+public interface SvnCommandMetricsListener
+{
+    void commandExecuted( SvnCommandMetrics metrics );
+}
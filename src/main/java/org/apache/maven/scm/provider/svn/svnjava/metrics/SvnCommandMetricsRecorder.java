@@ -0,0 +1,115 @@
+package org.apache.maven.scm.provider.svn.svnjava.metrics;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters of the command running on the current thread. A recorder is bound to the thread by
+ * {@link MeteredSvnCommand} while the command runs; the event handlers and the svn sessions created on that
+ * thread pick it up with {@link #current()} and feed it. When metrics are disabled no recorder is bound and
+ * {@link #current()} returns null.
+ *
+ * @since 2.2.2
+ */
+public final class SvnCommandMetricsRecorder
+{
+    private static final ThreadLocal<SvnCommandMetricsRecorder> CURRENT = new ThreadLocal<>();
+
+    private final AtomicLong files = new AtomicLong();
+
+    private final AtomicLong bytesSent = new AtomicLong();
+
+    private final AtomicLong bytesReceived = new AtomicLong();
+
+    private final AtomicLong roundTrips = new AtomicLong();
+
+    /**
+     * @return the recorder of the command running on this thread, or null if metrics are disabled
+     */
+    public static SvnCommandMetricsRecorder current()
+    {
+        return CURRENT.get();
+    }
+
+    /**
+     * Binds this recorder to the current thread, for work done on behalf of the command on another thread.
+     *
+     * @return the recorder previously bound, to be restored with {@link #restore(SvnCommandMetricsRecorder)}
+     */
+    public SvnCommandMetricsRecorder bind()
+    {
+        SvnCommandMetricsRecorder previous = CURRENT.get();
+        CURRENT.set( this );
+        return previous;
+    }
+
+    public static void restore( SvnCommandMetricsRecorder previous )
+    {
+        if ( previous == null )
+        {
+            CURRENT.remove();
+        }
+        else
+        {
+            CURRENT.set( previous );
+        }
+    }
+
+    public void fileTouched()
+    {
+        files.incrementAndGet();
+    }
+
+    public void bytesSent( long count )
+    {
+        bytesSent.addAndGet( count );
+    }
+
+    public void bytesReceived( long count )
+    {
+        bytesReceived.addAndGet( count );
+    }
+
+    public void roundTrip()
+    {
+        roundTrips.incrementAndGet();
+    }
+
+    public long getFiles()
+    {
+        return files.get();
+    }
+
+    public long getBytesSent()
+    {
+        return bytesSent.get();
+    }
+
+    public long getBytesReceived()
+    {
+        return bytesReceived.get();
+    }
+
+    public long getRoundTrips()
+    {
+        return roundTrips.get();
+    }
+}
@@ -0,0 +1,508 @@
+package org.apache.maven.scm.provider.svn.svnjava.repository;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.scm.provider.svn.svnjava.util.SvnJavaCancellationToken;
+import org.tmatesoft.svn.core.auth.ISVNAuthenticationManager;
+import org.tmatesoft.svn.core.wc.ISVNExternalsHandler;
+import org.tmatesoft.svn.core.wc.ISVNOptions;
+import org.tmatesoft.svn.core.wc.SVNBasicClient;
+import org.tmatesoft.svn.core.wc.SVNClientManager;
+import org.tmatesoft.svn.core.wc.SVNCommitClient;
+import org.tmatesoft.svn.core.wc.SVNUpdateClient;
+import org.tmatesoft.svn.core.wc.SVNWCUtil;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Thread safe pool of {@link SVNClientManager} instances keyed by {@link SvnJavaRepositoryConfiguration}.
+ * <p>
+ * A client manager is leased for the duration of one scm command with {@link #lease(SvnJavaRepositoryConfiguration)} and handed back
+ * with {@link #release(SVNClientManager)}. While leased, the instance is used by a single command only, so
+ * handlers registered on its clients never leak into another command. Returned instances are kept idle
+ * (at most {@link #getMaxIdle()} of them, most recently used first) and disposed once they stayed idle
+ * longer than {@link #getIdleTimeout()} milliseconds.
+ * </p>
+ * <p>
+ * The client managers do not own their {@link org.tmatesoft.svn.core.io.SVNRepository} sessions: they borrow
+ * them from the {@link SvnSessionCache} of their key, and the sessions go back to that cache on release, so
+ * that connections and authentication survive from one command to the next. The session cache of a key is
+ * dropped once no client manager of that key is left and its idle sessions expired, so that the keys of past
+ * credentials do not pile up in a long-running process.
+ * </p>
+ *
+ * @since 2.2.2
+ */
+public class SvnClientManagerPool
+{
+    public static final int DEFAULT_MAX_IDLE = 8;
+
+    public static final long DEFAULT_IDLE_TIMEOUT = 60 * 1000L;
+
+    private static final SvnClientManagerPool INSTANCE =
+        new SvnClientManagerPool( DEFAULT_MAX_IDLE, DEFAULT_IDLE_TIMEOUT );
+
+    private final int maxIdle;
+
+    private final long idleTimeout;
+
+    /**
+     * idle entries, most recently returned first. Guarded by this.
+     */
+    private final LinkedList<IdleEntry> idle = new LinkedList<>();
+
+    /**
+     * leased instances and the key they were created for. Guarded by this.
+     */
+    private final Map<SVNClientManager, SvnJavaRepositoryConfiguration> leased = new IdentityHashMap<>();
+
+    /**
+     * instances dropped with {@link #invalidate(SVNClientManager)} and not released yet. Guarded by this.
+     */
+    private final Set<SVNClientManager> invalidated = Collections.newSetFromMap( new IdentityHashMap<>() );
+
+    /**
+     * session caches by key. Guarded by this.
+     */
+    private final Map<SvnJavaRepositoryConfiguration, SvnSessionCache> sessionCaches = new HashMap<>();
+
+    /**
+     * number of client managers being created, by key, which are neither idle nor leased yet. Guarded by this.
+     */
+    private final Map<SvnJavaRepositoryConfiguration, Integer> creating = new HashMap<>();
+
+    private long created;
+
+    private long reused;
+
+    public SvnClientManagerPool( int maxIdle, long idleTimeout )
+    {
+        if ( maxIdle < 0 )
+        {
+            throw new IllegalArgumentException( "maxIdle must be positive" );
+        }
+        this.maxIdle = maxIdle;
+        this.idleTimeout = idleTimeout;
+    }
+
+    /**
+     * @return the pool shared by all repositories of this classloader
+     */
+    public static SvnClientManagerPool getInstance()
+    {
+        return INSTANCE;
+    }
+
+    /**
+     * Leases a client manager matching the given key, creating one if no idle instance is available.
+     * The caller must hand it back with {@link #release(SVNClientManager)}, usually in a finally block.
+     * The cancellation token bound to the current thread, if any, is registered as canceller.
+     */
+    public SVNClientManager lease( SvnJavaRepositoryConfiguration key )
+    {
+        List<SVNClientManager> expired;
+        SVNClientManager clientManager = null;
+        synchronized ( this )
+        {
+            expired = removeExpired( System.currentTimeMillis() );
+            for ( Iterator<IdleEntry> it = idle.iterator(); it.hasNext(); )
+            {
+                IdleEntry entry = it.next();
+                if ( entry.key.equals( key ) )
+                {
+                    it.remove();
+                    clientManager = entry.clientManager;
+                    reused++;
+                    break;
+                }
+            }
+            if ( clientManager == null )
+            {
+                created++;
+                // keeps the session cache of the key while the client manager is created
+                creating.merge( key, 1, Integer::sum );
+            }
+        }
+        dispose( expired );
+
+        if ( clientManager == null )
+        {
+            // creating the options parses the configuration files, do it outside of the lock
+            try
+            {
+                clientManager = createClientManager( key );
+            }
+            finally
+            {
+                synchronized ( this )
+                {
+                    creating.computeIfPresent( key, ( k, count ) -> count == 1 ? null : count - 1 );
+                }
+            }
+        }
+
+        synchronized ( this )
+        {
+            leased.put( clientManager, key );
+        }
+
+        // the sessions check it, which covers the operations without event handler, like log or annotate
+        clientManager.setCanceller( SvnJavaCancellationToken.current() );
+        return clientManager;
+    }
+
+    /**
+     * Hands a leased client manager back to the pool. Handlers registered by the command are cleared.
+     * Instances which were not leased from this pool, or which do not fit in the idle set, are disposed.
+     */
+    public void release( SVNClientManager clientManager )
+    {
+        if ( clientManager == null )
+        {
+            return;
+        }
+        synchronized ( this )
+        {
+            if ( invalidated.remove( clientManager ) )
+            {
+                return;
+            }
+        }
+
+        reset( clientManager );
+
+        List<SVNClientManager> toDispose;
+        synchronized ( this )
+        {
+            SvnJavaRepositoryConfiguration key = leased.remove( clientManager );
+            toDispose = removeExpired( System.currentTimeMillis() );
+            if ( key == null )
+            {
+                toDispose.add( clientManager );
+            }
+            else
+            {
+                idle.addFirst( new IdleEntry( key, clientManager, System.currentTimeMillis() ) );
+                while ( idle.size() > maxIdle )
+                {
+                    toDispose.add( idle.removeLast().clientManager );
+                }
+            }
+        }
+        dispose( toDispose );
+        evictSessionCaches();
+    }
+
+    /**
+     * Drops a leased client manager which cannot be used anymore, for instance because the working copy context
+     * of its operation factory was disposed after a cancellation: its sessions are closed and it is disposed.
+     * Releasing it afterwards does nothing, so the command can still do so in its finally block.
+     */
+    public void invalidate( SVNClientManager clientManager )
+    {
+        synchronized ( this )
+        {
+            if ( leased.remove( clientManager ) == null )
+            {
+                return;
+            }
+            invalidated.add( clientManager );
+        }
+        if ( clientManager.getRepositoryPool() instanceof SvnSessionCache.SessionPool )
+        {
+            SvnSessionCache.SessionPool sessionPool = (SvnSessionCache.SessionPool) clientManager.getRepositoryPool();
+            sessionPool.discardSessions();
+            sessionPool.releaseSessions();
+        }
+        dispose( Collections.singletonList( clientManager ) );
+    }
+
+    /**
+     * Marks the sessions borrowed by a leased client manager to be closed instead of cached when it is released,
+     * to be called when the command using it failed with an {@link org.tmatesoft.svn.core.SVNException}.
+     */
+    public void discardSessions( SVNClientManager clientManager )
+    {
+        if ( clientManager != null && clientManager.getRepositoryPool() instanceof SvnSessionCache.SessionPool )
+        {
+            ( (SvnSessionCache.SessionPool) clientManager.getRepositoryPool() ).discardSessions();
+        }
+    }
+
+    /**
+     * Disposes the idle instances which exceeded the idle timeout, and drops the session caches left unused.
+     */
+    public void evictIdle()
+    {
+        List<SVNClientManager> expired;
+        synchronized ( this )
+        {
+            expired = removeExpired( System.currentTimeMillis() );
+        }
+        dispose( expired );
+        evictSessionCaches();
+    }
+
+    /**
+     * Disposes all idle instances and closes all idle sessions. Leased instances are disposed when they are
+     * released.
+     */
+    public void clear()
+    {
+        List<SVNClientManager> toDispose = new ArrayList<>();
+        List<SvnSessionCache> caches;
+        synchronized ( this )
+        {
+            for ( IdleEntry entry : idle )
+            {
+                toDispose.add( entry.clientManager );
+            }
+            idle.clear();
+            caches = new ArrayList<>( sessionCaches.values() );
+        }
+        dispose( toDispose );
+        for ( SvnSessionCache cache : caches )
+        {
+            cache.clear();
+        }
+    }
+
+    /**
+     * @return the cache holding the sessions of the client managers created for the given key, replaced by a new
+     *         one once dropped for being unused
+     */
+    public synchronized SvnSessionCache getSessionCache( SvnJavaRepositoryConfiguration key )
+    {
+        SvnSessionCache cache = sessionCaches.get( key );
+        if ( cache == null )
+        {
+            cache = createSessionCache( key );
+            sessionCaches.put( key, cache );
+        }
+        return cache;
+    }
+
+    public int getMaxIdle()
+    {
+        return maxIdle;
+    }
+
+    public long getIdleTimeout()
+    {
+        return idleTimeout;
+    }
+
+    public synchronized int getIdleCount()
+    {
+        return idle.size();
+    }
+
+    public synchronized int getLeasedCount()
+    {
+        return leased.size();
+    }
+
+    public synchronized int getSessionCacheCount()
+    {
+        return sessionCaches.size();
+    }
+
+    /**
+     * @return the number of client managers created by this pool
+     */
+    public synchronized long getCreatedCount()
+    {
+        return created;
+    }
+
+    /**
+     * @return the number of leases served by an idle client manager
+     */
+    public synchronized long getReusedCount()
+    {
+        return reused;
+    }
+
+    protected SVNClientManager createClientManager( SvnJavaRepositoryConfiguration key )
+    {
+        /*
+         * readonly = true - not to save any configuration changes that can be done
+         * during the program run to a config file
+         */
+        ISVNOptions options = SVNWCUtil.createDefaultOptions( true );
+
+        ISVNAuthenticationManager authenticationManager = key.createAuthenticationManager();
+
+        SVNClientManager clientManager = SVNClientManager.newInstance(
+            options, getSessionCache( key ).newSessionPool( authenticationManager, options ) );
+        // also hand the authentication manager to the operation factory
+        clientManager.setAuthenticationManager( authenticationManager );
+        return clientManager;
+    }
+
+    protected SvnSessionCache createSessionCache( SvnJavaRepositoryConfiguration key )
+    {
+        return new SvnSessionCache();
+    }
+
+    /**
+     * Clears what a command may have changed on the clients of a leased instance, so that the next lease
+     * starts from the same defaults as a freshly created one.
+     */
+    private void reset( SVNClientManager clientManager )
+    {
+        // before the canceller is cleared, the sessions of a cancelled command are closed
+        if ( clientManager.getRepositoryPool() instanceof SvnSessionCache.SessionPool )
+        {
+            ( (SvnSessionCache.SessionPool) clientManager.getRepositoryPool() ).releaseSessions();
+        }
+        clientManager.setEventHandler( null );
+        clientManager.setCanceller( null );
+
+        SVNUpdateClient updateClient = clientManager.getUpdateClient();
+        updateClient.setExportExpandsKeywords( true );
+        updateClient.setUpdateLocksOnDemand( false );
+        updateClient.setExternalsHandler( ISVNExternalsHandler.DEFAULT );
+
+        SVNCommitClient commitClient = clientManager.getCommitClient();
+        commitClient.setCommitHandler( null );
+
+        for ( SVNBasicClient client : getClients( clientManager ) )
+        {
+            client.setIgnoreExternals( false );
+        }
+    }
+
+    private static SVNBasicClient[] getClients( SVNClientManager clientManager )
+    {
+        return new SVNBasicClient[]{ clientManager.getUpdateClient(), clientManager.getCommitClient(),
+            clientManager.getWCClient(), clientManager.getStatusClient(), clientManager.getDiffClient(),
+            clientManager.getLogClient(), clientManager.getCopyClient() };
+    }
+
+    /**
+     * Drops the session caches of the keys no client manager uses anymore, once their idle sessions expired.
+     */
+    private void evictSessionCaches()
+    {
+        List<SvnSessionCache> unused = new ArrayList<>();
+        synchronized ( this )
+        {
+            Set<SvnJavaRepositoryConfiguration> used = getUsedKeys();
+            for ( Map.Entry<SvnJavaRepositoryConfiguration, SvnSessionCache> entry : sessionCaches.entrySet() )
+            {
+                if ( !used.contains( entry.getKey() ) )
+                {
+                    unused.add( entry.getValue() );
+                }
+            }
+        }
+        if ( unused.isEmpty() )
+        {
+            return;
+        }
+
+        // closes the expired sessions outside of the lock
+        for ( SvnSessionCache cache : unused )
+        {
+            cache.evictIdle();
+        }
+        synchronized ( this )
+        {
+            Set<SvnJavaRepositoryConfiguration> used = getUsedKeys();
+            sessionCaches.entrySet().removeIf( entry -> !used.contains( entry.getKey() )
+                && unused.contains( entry.getValue() ) && entry.getValue().getIdleCount() == 0 );
+        }
+    }
+
+    /**
+     * @return the keys of the client managers idle, leased or being created. Guarded by this.
+     */
+    private Set<SvnJavaRepositoryConfiguration> getUsedKeys()
+    {
+        Set<SvnJavaRepositoryConfiguration> used = new HashSet<>( leased.values() );
+        used.addAll( creating.keySet() );
+        for ( IdleEntry entry : idle )
+        {
+            used.add( entry.key );
+        }
+        return used;
+    }
+
+    private List<SVNClientManager> removeExpired( long now )
+    {
+        List<SVNClientManager> expired = new ArrayList<>();
+        for ( Iterator<IdleEntry> it = idle.iterator(); it.hasNext(); )
+        {
+            IdleEntry entry = it.next();
+            if ( now - entry.returned > idleTimeout )
+            {
+                it.remove();
+                expired.add( entry.clientManager );
+            }
+        }
+        return expired;
+    }
+
+    private void dispose( List<SVNClientManager> clientManagers )
+    {
+        for ( SVNClientManager clientManager : clientManagers )
+        {
+            try
+            {
+                // each client has an operation factory of its own, holding the working copy database it last opened
+                for ( SVNBasicClient client : getClients( clientManager ) )
+                {
+                    client.getOperationsFactory().dispose();
+                }
+                clientManager.dispose();
+            }
+            catch ( RuntimeException e )
+            {
+                // nothing we can do here, the instance is dropped anyway
+            }
+        }
+    }
+
+    private static final class IdleEntry
+    {
+        private final SvnJavaRepositoryConfiguration key;
+
+        private final SVNClientManager clientManager;
+
+        private final long returned;
+
+        private IdleEntry( SvnJavaRepositoryConfiguration key, SVNClientManager clientManager, long returned )
+        {
+            this.key = key;
+            this.clientManager = clientManager;
+            this.returned = returned;
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package org.apache.maven.scm.provider.svn.svnjava.repository;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.tmatesoft.svn.core.auth.ISVNAuthenticationManager;
+import org.tmatesoft.svn.core.wc.SVNWCUtil;
+
+import java.io.File;
+import java.util.Objects;
+
+/**
+ * Immutable connection settings of a {@link SvnJavaScmProviderRepository}: credentials, ssh key and svn
+ * configuration directory. Instances are created with {@link #builder()} and are used as the key of the
+ * {@link SvnClientManagerPool}, so repositories with equal configurations share client managers and sessions.
+ * <p>
+ * The ssh credentials are handed to the authentication manager of each client manager, they are never
+ * published through the <code>javasvn.ssh2.*</code> system properties.
+ * </p>
+ *
+ * @since 2.2.2
+ */
+public final class SvnJavaRepositoryConfiguration
+{
+    private final String user;
+
+    private final String password;
+
+    private final String privateKey;
+
+    private final String passphrase;
+
+    private final String configDirectory;
+
+    private final boolean useAuthCache;
+
+    private SvnJavaRepositoryConfiguration( Builder builder )
+    {
+        this.user = builder.user;
+        this.password = builder.password;
+        this.privateKey = builder.privateKey;
+        this.passphrase = builder.passphrase;
+        this.configDirectory = builder.configDirectory;
+        this.useAuthCache = builder.useAuthCache;
+    }
+
+    public static Builder builder()
+    {
+        return new Builder();
+    }
+
+    public String getUser()
+    {
+        return user;
+    }
+
+    public String getPassword()
+    {
+        return password;
+    }
+
+    /**
+     * @return the path of the ssh private key file
+     */
+    public String getPrivateKey()
+    {
+        return privateKey;
+    }
+
+    public String getPassphrase()
+    {
+        return passphrase;
+    }
+
+    public String getConfigDirectory()
+    {
+        return configDirectory;
+    }
+
+    public boolean isUseAuthCache()
+    {
+        return useAuthCache;
+    }
+
+    /**
+     * Creates a new authentication manager for these settings. Authentication managers keep per operation
+     * state, so each client manager gets its own.
+     */
+    public ISVNAuthenticationManager createAuthenticationManager()
+    {
+        return SVNWCUtil.createDefaultAuthenticationManager(
+            configDirectory == null ? null : new File( configDirectory ), user, toChars( password ),
+            privateKey == null ? null : new File( privateKey ), toChars( passphrase ), useAuthCache );
+    }
+
+    private static char[] toChars( String secret )
+    {
+        return secret == null ? null : secret.toCharArray();
+    }
+
+    @Override
+    public boolean equals( Object o )
+    {
+        if ( this == o )
+        {
+            return true;
+        }
+        if ( !( o instanceof SvnJavaRepositoryConfiguration ) )
+        {
+            return false;
+        }
+        SvnJavaRepositoryConfiguration other = (SvnJavaRepositoryConfiguration) o;
+        return useAuthCache == other.useAuthCache && Objects.equals( user, other.user )
+            && Objects.equals( password, other.password ) && Objects.equals( privateKey, other.privateKey )
+            && Objects.equals( passphrase, other.passphrase )
+            && Objects.equals( configDirectory, other.configDirectory );
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash( user, password, privateKey, passphrase, configDirectory, useAuthCache );
+    }
+
+    @Override
+    public String toString()
+    {
+        // never print the password nor the passphrase
+        return "SvnJavaRepositoryConfiguration[user=" + user + ", privateKey=" + privateKey + ", configDirectory="
+            + configDirectory + ", useAuthCache=" + useAuthCache + "]";
+    }
+
+    /**
+     * Builder of {@link SvnJavaRepositoryConfiguration}, not thread safe.
+     */
+    public static final class Builder
+    {
+        private String user;
+
+        private String password;
+
+        private String privateKey;
+
+        private String passphrase;
+
+        private String configDirectory;
+
+        private boolean useAuthCache;
+
+        private Builder()
+        {
+            // use SvnJavaRepositoryConfiguration.builder()
+        }
+
+        public Builder user( String user )
+        {
+            this.user = user;
+            return this;
+        }
+
+        public Builder password( String password )
+        {
+            this.password = password;
+            return this;
+        }
+
+        public Builder privateKey( String privateKey )
+        {
+            this.privateKey = privateKey;
+            return this;
+        }
+
+        public Builder passphrase( String passphrase )
+        {
+            this.passphrase = passphrase;
+            return this;
+        }
+
+        public Builder configDirectory( String configDirectory )
+        {
+            this.configDirectory = configDirectory;
+            return this;
+        }
+
+        public Builder useAuthCache( boolean useAuthCache )
+        {
+            this.useAuthCache = useAuthCache;
+            return this;
+        }
+
+        public SvnJavaRepositoryConfiguration build()
+        {
+            return new SvnJavaRepositoryConfiguration( this );
+        }
+    }
+}
@@ -21,17 +21,25 @@ package org.apache.maven.scm.provider.svn.svnjava.repository;
 
 import org.apache.maven.scm.provider.svn.repository.SvnScmProviderRepository;
 import org.apache.maven.scm.provider.svn.util.SvnUtil;
+import org.apache.maven.scm.provider.svn.svnjava.util.SvnExternalsCache;
+import org.apache.maven.scm.provider.svn.svnjava.util.SvnWorkingCopyCache;
+import org.apache.maven.scm.providers.svn.settings.Settings;
 import org.tmatesoft.svn.core.SVNURL;
-import org.tmatesoft.svn.core.auth.BasicAuthenticationManager;
-import org.tmatesoft.svn.core.auth.ISVNAuthenticationManager;
-import org.tmatesoft.svn.core.auth.SVNSSHAuthentication;
-import org.tmatesoft.svn.core.wc.ISVNOptions;
 import org.tmatesoft.svn.core.wc.SVNClientManager;
-import org.tmatesoft.svn.core.wc.SVNWCUtil;
-
-import java.io.File;
 
 /**
+ * Svn repository accessed through svnkit.
+ * <p>
+ * The credentials set on the repository are turned into an immutable {@link SvnJavaRepositoryConfiguration}
+ * the first time a client manager is needed, and the same configuration is used until a credential changes.
+ * It can also be given up front with
+ * {@link #SvnJavaScmProviderRepository(SVNURL, String, SvnJavaRepositoryConfiguration)}.
+ * </p>
+ * <p>
+ * With a {@link SvnMirror}, checkout, update, export, changelog and blame read from the local replica when it is
+ * up to date, and commits are followed by a catch up of the replica.
+ * </p>
+ *
  * @author <a href="mailto:evenisse@apache.org">Emmanuel Venisse</a>
  * @version $Id: SvnJavaScmProviderRepository.java 480 2010-12-26 21:32:41Z oliver.lamy $
  */
@@ -40,7 +48,20 @@ public class SvnJavaScmProviderRepository
 {
     private SVNURL svnUrl;
 
-    private SVNClientManager clientManager;
+    private SvnClientManagerPool clientManagerPool = SvnClientManagerPool.getInstance();
+
+    /**
+     * lazily built from the credentials, reset by the setters.
+     */
+    private volatile SvnJavaRepositoryConfiguration configuration;
+
+    private volatile SvnMirror mirror;
+
+    private volatile SvnWorkingCopyCache workingCopyCache;
+
+    private volatile SvnRevisionCache revisionCache;
+
+    private volatile SvnExternalsCache externalsCache;
 
     public SvnJavaScmProviderRepository( SVNURL svnUrl, String strUrl )
     {
@@ -51,17 +72,22 @@ public class SvnJavaScmProviderRepository
         setPassword( null );
 
         this.svnUrl = svnUrl;
+    }
 
-        if ( getUser() != null )
-        {
-            System.getProperties().setProperty( "javasvn.ssh2.username", getUser() );
-        }
-        if ( getPassword() != null )
-        {
-            System.getProperties().setProperty( "javasvn.ssh2.password", getPassword() );
-        }
+    /**
+     * @since 2.2.2
+     */
+    public SvnJavaScmProviderRepository( SVNURL svnUrl, String strUrl, SvnJavaRepositoryConfiguration configuration )
+    {
+        super( strUrl, configuration.getUser(), configuration.getPassword() );
+
+        super.setPrivateKey( configuration.getPrivateKey() );
+
+        super.setPassphrase( configuration.getPassphrase() );
+
+        this.svnUrl = svnUrl;
 
-        initializeClientManager();
+        this.configuration = configuration;
     }
 
     public SVNURL getSvnUrl()
@@ -69,109 +95,222 @@ public class SvnJavaScmProviderRepository
         return svnUrl;
     }
 
-    public SVNClientManager getClientManager()
+    /**
+     * Leases a client manager from the {@link SvnClientManagerPool}. The caller owns it until it is handed back
+     * with {@link #releaseClientManager(SVNClientManager)}.
+     *
+     * @since 2.2.2
+     */
+    public SVNClientManager leaseClientManager()
     {
-        ISVNOptions options = SVNWCUtil.createDefaultOptions( true );
+        return clientManagerPool.lease( getConfiguration() );
+    }
 
-        String configDirectory = SvnUtil.getSettings().getConfigDirectory();
+    /**
+     * Hands a client manager obtained with {@link #leaseClientManager()} back to the pool.
+     *
+     * @since 2.2.2
+     */
+    public void releaseClientManager( SVNClientManager svnClientManager )
+    {
+        clientManagerPool.release( svnClientManager );
+    }
 
-        ISVNAuthenticationManager isvnAuthenticationManager =
-            SVNWCUtil.createDefaultAuthenticationManager( configDirectory == null ? null : new File( configDirectory ),
-                                                          getUser(), getPassword(),
-                                                          SvnUtil.getSettings().isUseAuthCache() );
+    /**
+     * Drops a leased client manager which cannot be reused, see {@link SvnClientManagerPool#invalidate(SVNClientManager)}.
+     *
+     * @since 2.2.2
+     */
+    public void invalidateClientManager( SVNClientManager svnClientManager )
+    {
+        clientManagerPool.invalidate( svnClientManager );
+    }
 
-        SVNClientManager svnClientManager = SVNClientManager.newInstance( options, isvnAuthenticationManager );
+    /**
+     * Closes the sessions of a leased client manager when it is released instead of caching them, to be called
+     * when the command failed with an {@link org.tmatesoft.svn.core.SVNException}.
+     *
+     * @since 2.2.2
+     */
+    public void discardSessions( SVNClientManager svnClientManager )
+    {
+        clientManagerPool.discardSessions( svnClientManager );
+    }
 
-        return svnClientManager;
+    public SvnClientManagerPool getClientManagerPool()
+    {
+        return clientManagerPool;
+    }
 
+    public void setClientManagerPool( SvnClientManagerPool clientManagerPool )
+    {
+        this.clientManagerPool = clientManagerPool;
     }
 
-    public void setPrivateKey( String privateKey )
+    /**
+     * @return the cache of the svn sessions opened on behalf of this repository, shared with the repositories
+     *         using the same configuration
+     * @since 2.2.2
+     */
+    public SvnSessionCache getSessionCache()
     {
-        super.setPrivateKey( privateKey );
+        return clientManagerPool.getSessionCache( getConfiguration() );
+    }
 
-        if ( getPrivateKey() != null )
-        {
-            System.getProperties().setProperty( "javasvn.ssh2.key", getPrivateKey() );
-        }
+    /**
+     * @deprecated creates a new, unpooled client manager on each call, use {@link #leaseClientManager()}
+     */
+    @Deprecated
+    public SVNClientManager getClientManager()
+    {
+        return clientManagerPool.createClientManager( getConfiguration() );
+    }
 
-        initializeClientManager();
+    /**
+     * @since 2.2.2
+     */
+    public SvnMirror getMirror()
+    {
+        return mirror;
     }
 
-    public void setPassphrase( String passphrase )
+    /**
+     * @param mirror the local replica to read from, null to always read from the origin
+     * @since 2.2.2
+     */
+    public void setMirror( SvnMirror mirror )
     {
-        super.setPassphrase( passphrase );
+        this.mirror = mirror;
+    }
 
-        if ( getPassphrase() != null )
-        {
-            System.getProperties().setProperty( "javasvn.ssh2.passphrase", getPassphrase() );
-        }
+    /**
+     * @since 2.2.2
+     */
+    public SvnWorkingCopyCache getWorkingCopyCache()
+    {
+        return workingCopyCache;
+    }
 
-        initializeClientManager();
+    /**
+     * @param workingCopyCache the donors to seed full checkouts from, null to always check out from scratch
+     * @since 2.2.2
+     */
+    public void setWorkingCopyCache( SvnWorkingCopyCache workingCopyCache )
+    {
+        this.workingCopyCache = workingCopyCache;
     }
 
-    public void setUser( String user )
+    /**
+     * @since 2.2.2
+     */
+    public SvnRevisionCache getRevisionCache()
     {
-        super.setUser( user );
+        return revisionCache;
+    }
 
-        if ( getUser() != null )
-        {
-            System.getProperties().setProperty( "javasvn.ssh2.username", getUser() );
-        }
+    /**
+     * @param revisionCache the last changed revisions which let an update to HEAD be skipped when nothing changed,
+     *            null to always update
+     * @since 2.2.2
+     */
+    public void setRevisionCache( SvnRevisionCache revisionCache )
+    {
+        this.revisionCache = revisionCache;
+    }
 
-        initializeClientManager();
+    /**
+     * @since 2.2.2
+     */
+    public SvnExternalsCache getExternalsCache()
+    {
+        return externalsCache;
     }
 
-    public void setPassword( String password )
+    /**
+     * @param externalsCache the working copies of the externals pinned to a revision, null to always check them
+     *            out from the repository
+     * @since 2.2.2
+     */
+    public void setExternalsCache( SvnExternalsCache externalsCache )
     {
-        super.setPassword( password );
+        this.externalsCache = externalsCache;
+    }
+
+    /**
+     * @return the url to read <code>url</code> from: the same path in the mirror when there is one covering it and
+     *         holding the latest revision, <code>url</code> itself otherwise
+     * @see SvnMirror#getReadUrl(SVNClientManager, SVNURL)
+     * @since 2.2.2
+     */
+    public SVNURL getReadUrl( SVNClientManager clientManager, SVNURL url )
+    {
+        SvnMirror current = mirror;
+        return current == null ? url : current.getReadUrl( clientManager, url );
+    }
 
-        if ( getPassword() != null )
+    /**
+     * Catches the mirror, if any, up with the commits just made to the origin. A failure is only logged, the
+     * next read synchronises again.
+     *
+     * @since 2.2.2
+     */
+    public void synchronizeMirror( SVNClientManager clientManager )
+    {
+        SvnMirror current = mirror;
+        if ( current != null )
         {
-            System.getProperties().setProperty( "javasvn.ssh2.password", getPassword() );
+            current.getReadUrl( clientManager, current.getOriginUrl() );
         }
+    }
 
-        initializeClientManager();
+    /**
+     * @return the connection settings of this repository, built once from the credentials and the svn settings
+     * @since 2.2.2
+     */
+    public SvnJavaRepositoryConfiguration getConfiguration()
+    {
+        SvnJavaRepositoryConfiguration result = configuration;
+        if ( result == null )
+        {
+            Settings settings = SvnUtil.getSettings();
+            result = SvnJavaRepositoryConfiguration.builder()
+                .user( getUser() )
+                .password( getPassword() )
+                .privateKey( getPrivateKey() )
+                .passphrase( getPassphrase() )
+                .configDirectory( settings.getConfigDirectory() )
+                .useAuthCache( settings.isUseAuthCache() )
+                .build();
+            configuration = result;
+        }
+        return result;
     }
 
-    private void initializeClientManager()
+    public void setPrivateKey( String privateKey )
     {
-        /*
-        * Creates a default run-time configuration options driver. Default options
-        * created in this way use the Subversion run-time configuration area (for
-        * instance, on a Windows platform it can be found in the '%APPDATA%\Subversion'
-        * directory).
-        *
-        * readonly = true - not to save  any configuration changes that can be done
-        * during the program run to a config file (config settings will only
-        * be read to initialize; to enable changes the readonly flag should be set
-        * to false).
-        *
-        */
-        ISVNOptions options = SVNWCUtil.createDefaultOptions( true );
-        clientManager = SVNClientManager.newInstance( options, getAuthManager() );
+        super.setPrivateKey( privateKey );
+
+        configuration = null;
     }
 
-    private ISVNAuthenticationManager getAuthManager()
+    public void setPassphrase( String passphrase )
     {
-        if ( getPrivateKey() != null )
-        {
-            SVNSSHAuthentication[] auth = new SVNSSHAuthentication[1];
-            auth[0] = new SVNSSHAuthentication( getUser(), getPrivateKey().toCharArray(), getPassphrase(), -1, false );
+        super.setPassphrase( passphrase );
 
-            return new BasicAuthenticationManager( auth );
-        }
-        else if ( getUser() != null )
-        {
-            return new BasicAuthenticationManager( getUser(), getPassword() );
-        }
-        else
-        {
-            String configDirectory = SvnUtil.getSettings().getConfigDirectory();
+        configuration = null;
+    }
 
-            return SVNWCUtil.createDefaultAuthenticationManager(
-                configDirectory == null ? null : new File( configDirectory ), getUser(), getPassword(),
-                SvnUtil.getSettings().isUseAuthCache() );
-        }
+    public void setUser( String user )
+    {
+        super.setUser( user );
+
+        configuration = null;
+    }
+
+    public void setPassword( String password )
+    {
+        super.setPassword( password );
+
+        configuration = null;
     }
 }
@@ -0,0 +1,275 @@
+package org.apache.maven.scm.provider.svn.svnjava.repository;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.tmatesoft.svn.core.SVNErrorCode;
+import org.tmatesoft.svn.core.SVNErrorMessage;
+import org.tmatesoft.svn.core.SVNException;
+import org.tmatesoft.svn.core.SVNURL;
+import org.tmatesoft.svn.core.io.SVNRepository;
+import org.tmatesoft.svn.core.wc.SVNClientManager;
+import org.tmatesoft.svn.core.wc.admin.SVNAdminClient;
+import org.tmatesoft.svn.core.wc.admin.SVNSyncInfo;
+
+import java.io.File;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Local FSFS replica of a remote repository, or of a subtree of it, kept up to date with svnsync.
+ * <p>
+ * The replica is created on first use in {@link #getDirectory()}, with the uuid of the origin so that working
+ * copies can be relocated between both, and is then synchronised incrementally from its last synced revision.
+ * Paths are the same in both repositories: a url of the origin maps to the same path below the root of the
+ * replica, see {@link #getMirrorUrl(SVNURL)}.
+ * </p>
+ * <p>
+ * The read commands of a {@link SvnJavaScmProviderRepository} with a mirror go through
+ * {@link #getReadUrl(SVNClientManager, SVNURL)}, which catches the replica up when the origin moved on and only
+ * hands out its url when it holds the latest revision of the origin. Working copies are relocated to the origin
+ * and exports are written with their keywords expanded against the origin, as if read from it. Commits still go
+ * to the origin and are followed by a catch up. Synchronisations of one replica are serialised within the JVM,
+ * and by the svnsync lock across processes.
+ * </p>
+ *
+ * @since 2.2.2
+ */
+public class SvnMirror
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger( SvnMirror.class );
+
+    /**
+     * mirrors created by {@link #getInstance(File, SVNURL)}, by directory.
+     */
+    private static final Map<File, SvnMirror> INSTANCES = new ConcurrentHashMap<>();
+
+    private final SVNURL originUrl;
+
+    private final File directory;
+
+    private final SVNURL mirrorRootUrl;
+
+    /**
+     * root of the origin repository, known once the replica has been opened. Guarded by this.
+     */
+    private SVNURL originRootUrl;
+
+    private volatile long syncedRevision = -1;
+
+    /**
+     * @param originUrl the url to mirror, the root of the origin repository or a directory below it
+     * @param directory the directory of the replica, created if needed
+     */
+    public SvnMirror( SVNURL originUrl, File directory )
+        throws SVNException
+    {
+        this.originUrl = originUrl;
+        this.directory = directory.getAbsoluteFile();
+        this.mirrorRootUrl = SVNURL.fromFile( this.directory );
+    }
+
+    /**
+     * @return the mirror of <code>originUrl</code> in a directory of <code>mirrorsDirectory</code> named after the
+     *         url, shared by all the callers asking for the same url
+     */
+    public static SvnMirror getInstance( File mirrorsDirectory, SVNURL originUrl )
+        throws SVNException
+    {
+        SVNURL url = withoutUserInfo( originUrl );
+        String name = url.toString().replaceAll( "[^A-Za-z0-9.-]+", "_" );
+        File directory = new File( mirrorsDirectory, name ).getAbsoluteFile();
+        SvnMirror mirror = INSTANCES.get( directory );
+        if ( mirror == null )
+        {
+            SvnMirror created = new SvnMirror( url, directory );
+            mirror = INSTANCES.putIfAbsent( directory, created );
+            if ( mirror == null )
+            {
+                mirror = created;
+            }
+        }
+        return mirror;
+    }
+
+    public SVNURL getOriginUrl()
+    {
+        return originUrl;
+    }
+
+    public File getDirectory()
+    {
+        return directory;
+    }
+
+    /**
+     * @return the file url of the root of the replica
+     */
+    public SVNURL getMirrorRootUrl()
+    {
+        return mirrorRootUrl;
+    }
+
+    /**
+     * @return the last revision of the origin copied to the replica by this instance, -1 before the first
+     *         synchronisation
+     */
+    public long getSyncedRevision()
+    {
+        return syncedRevision;
+    }
+
+    /**
+     * Creates the replica if needed and copies the revisions of the origin it misses.
+     *
+     * @param clientManager client manager used to reach the origin, with its credentials
+     * @return the last revision of the replica, which is the latest revision of the origin
+     */
+    public synchronized long synchronize( SVNClientManager clientManager )
+        throws SVNException
+    {
+        SVNAdminClient adminClient = clientManager.getAdminClient();
+        if ( originRootUrl == null )
+        {
+            open( clientManager, adminClient );
+        }
+        adminClient.doSynchronize( mirrorRootUrl );
+        syncedRevision = adminClient.doInfo( mirrorRootUrl ).getLastMergedRevision();
+        return syncedRevision;
+    }
+
+    /**
+     * Maps <code>url</code> to the replica, catching the replica up first when the origin has revisions it misses.
+     * The latest revision of the origin is asked outside of the lock of the replica, a synchronisation only runs
+     * when it is above the synced revision.
+     *
+     * @return the url of the same path in the replica when the replica covers it and holds the latest revision of
+     *         the origin, <code>url</code> itself otherwise, e.g. when the origin cannot be reached
+     */
+    public SVNURL getReadUrl( SVNClientManager clientManager, SVNURL url )
+    {
+        if ( !isMirrored( url ) )
+        {
+            return url;
+        }
+        try
+        {
+            // the session goes back to the pool of the client manager
+            long latestRevision = clientManager.createRepository( originUrl, true ).getLatestRevision();
+            if ( getOriginRootUrl() == null || syncedRevision < latestRevision )
+            {
+                synchronize( clientManager );
+            }
+            return getMirrorUrl( url );
+        }
+        catch ( SVNException e )
+        {
+            LOGGER.warn( "Mirror " + directory + " of " + originUrl + " could not be synchronised, reading from the"
+                             + " origin: " + e.getMessage() );
+            return url;
+        }
+    }
+
+    /**
+     * @return the root of the origin repository, null until the replica has been opened by a synchronisation
+     */
+    public synchronized SVNURL getOriginRootUrl()
+    {
+        return originRootUrl;
+    }
+
+    /**
+     * @return true if <code>url</code> is the mirrored url or below it
+     */
+    public boolean isMirrored( SVNURL url )
+    {
+        if ( !url.getProtocol().equals( originUrl.getProtocol() ) || !url.getHost().equals( originUrl.getHost() )
+            || url.getPort() != originUrl.getPort() )
+        {
+            return false;
+        }
+        String path = url.getPath();
+        String originPath = originUrl.getPath();
+        return path.equals( originPath ) || path.startsWith( originPath + "/" ) || originPath.isEmpty();
+    }
+
+    /**
+     * @return the url of the same path in the replica, which must have been opened by a synchronisation
+     */
+    public synchronized SVNURL getMirrorUrl( SVNURL url )
+        throws SVNException
+    {
+        if ( originRootUrl == null || !isMirrored( url ) )
+        {
+            throw new SVNException( SVNErrorMessage.create( SVNErrorCode.BAD_URL, "''{0}'' is not mirrored by ''{1}''",
+                                                            new Object[]{ url, directory } ) );
+        }
+        String relativePath = url.getPath().substring( originRootUrl.getPath().length() );
+        if ( relativePath.startsWith( "/" ) )
+        {
+            relativePath = relativePath.substring( 1 );
+        }
+        return relativePath.isEmpty() ? mirrorRootUrl : mirrorRootUrl.appendPath( relativePath, false );
+    }
+
+    @Override
+    public String toString()
+    {
+        return "SvnMirror[" + originUrl + " in " + directory + "]";
+    }
+
+    /**
+     * Creates and initialises the replica if it does not exist yet, and checks it mirrors the expected url.
+     */
+    private void open( SVNClientManager clientManager, SVNAdminClient adminClient )
+        throws SVNException
+    {
+        // the session goes back to the pool of the client manager
+        SVNRepository origin = clientManager.createRepository( originUrl, true );
+        SVNURL rootUrl = origin.getRepositoryRoot( true );
+        if ( !new File( directory, "format" ).exists() )
+        {
+            LOGGER.info( "Creating mirror " + directory + " of " + originUrl );
+            // revision properties must be writable for svnsync
+            adminClient.doCreateRepository( directory, origin.getRepositoryUUID( true ), true, false );
+            adminClient.doInitialize( originUrl, mirrorRootUrl );
+        }
+
+        SVNSyncInfo info = adminClient.doInfo( mirrorRootUrl );
+        if ( info.getSrcURL() == null
+            || !withoutUserInfo( SVNURL.parseURIEncoded( info.getSrcURL() ) ).equals( withoutUserInfo( originUrl ) ) )
+        {
+            throw new SVNException( SVNErrorMessage.create( SVNErrorCode.BAD_URL, "''{0}'' mirrors ''{1}'', not ''{2}''",
+                                                            new Object[]{ directory, info.getSrcURL(), originUrl } ) );
+        }
+        originRootUrl = rootUrl;
+    }
+
+    private static SVNURL withoutUserInfo( SVNURL url )
+        throws SVNException
+    {
+        if ( url.getUserInfo() == null )
+        {
+            return url;
+        }
+        return SVNURL.create( url.getProtocol(), null, url.getHost(), url.hasPort() ? url.getPort() : -1,
+                              url.getPath(), false );
+    }
+}
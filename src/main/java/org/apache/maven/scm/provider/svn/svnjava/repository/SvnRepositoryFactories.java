@@ -0,0 +1,135 @@
+package org.apache.maven.scm.provider.svn.svnjava.repository;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.tmatesoft.svn.core.internal.io.dav.DAVRepositoryFactory;
+import org.tmatesoft.svn.core.internal.io.fs.FSRepositoryFactory;
+import org.tmatesoft.svn.core.internal.io.svn.SVNRepositoryFactoryImpl;
+
+/**
+ * Registers the svnkit repository factories one protocol at a time, the first time a url of that protocol is
+ * used. Setting up a factory loads its whole implementation, the DAV one being by far the largest, so a command
+ * working on a local <code>file://</code> repository or over <code>svn://</code> does not pay for the others.
+ *
+ * @since 2.2.2
+ */
+public final class SvnRepositoryFactories
+{
+    private static final Object LOCK = new Object();
+
+    private static volatile boolean davSetup;
+
+    private static volatile boolean svnSetup;
+
+    private static volatile boolean fsSetup;
+
+    private SvnRepositoryFactories()
+    {
+        // no op
+    }
+
+    /**
+     * Registers the factory handling a protocol, if not already done. Unknown protocols register all factories,
+     * so that svnkit reports them as it always did.
+     *
+     * @param protocol the protocol of a {@link org.tmatesoft.svn.core.SVNURL}, e.g. <code>https</code> or
+     *            <code>svn+ssh</code>
+     */
+    public static void setup( String protocol )
+    {
+        if ( "http".equals( protocol ) || "https".equals( protocol ) )
+        {
+            setupDav();
+        }
+        else if ( "svn".equals( protocol ) || ( protocol != null && protocol.startsWith( "svn+" ) ) )
+        {
+            setupSvn();
+        }
+        else if ( "file".equals( protocol ) )
+        {
+            setupFs();
+        }
+        else
+        {
+            setupAll();
+        }
+    }
+
+    public static void setupAll()
+    {
+        setupDav();
+        setupSvn();
+        setupFs();
+    }
+
+    private static void setupDav()
+    {
+        if ( !davSetup )
+        {
+            synchronized ( LOCK )
+            {
+                if ( !davSetup )
+                {
+                    /*
+                     * for DAV (over http and https)
+                     */
+                    DAVRepositoryFactory.setup();
+                    davSetup = true;
+                }
+            }
+        }
+    }
+
+    private static void setupSvn()
+    {
+        if ( !svnSetup )
+        {
+            synchronized ( LOCK )
+            {
+                if ( !svnSetup )
+                {
+                    /*
+                     * for svn (over svn and svn+ssh)
+                     */
+                    SVNRepositoryFactoryImpl.setup();
+                    svnSetup = true;
+                }
+            }
+        }
+    }
+
+    private static void setupFs()
+    {
+        if ( !fsSetup )
+        {
+            synchronized ( LOCK )
+            {
+                if ( !fsSetup )
+                {
+                    /*
+                     * for file
+                     */
+                    FSRepositoryFactory.setup();
+                    fsSetup = true;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package org.apache.maven.scm.provider.svn.svnjava.repository;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.tmatesoft.svn.core.SVNDirEntry;
+import org.tmatesoft.svn.core.SVNException;
+import org.tmatesoft.svn.core.SVNURL;
+import org.tmatesoft.svn.core.io.SVNRepository;
+import org.tmatesoft.svn.core.wc.SVNClientManager;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Last changed revision of repository urls, as seen at HEAD, kept for a short time so that the working copies of
+ * the same url polled together share one query. A url changes with any commit below it, so an update of a working
+ * copy whose oldest revision is at least the last changed revision of its url has nothing to bring.
+ * <p>
+ * An entry may be stale by up to the time to live; the commits made through the provider clear the cache.
+ * </p>
+ *
+ * @since 2.2.2
+ */
+public class SvnRevisionCache
+{
+    /**
+     * number of entries above which the expired ones are dropped.
+     */
+    private static final int PRUNE_THRESHOLD = 1024;
+
+    private final long ttlNanos;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * @param ttl how long a revision is kept, 0 to query it each time
+     */
+    public SvnRevisionCache( long ttl, TimeUnit unit )
+    {
+        this.ttlNanos = unit.toNanos( ttl );
+    }
+
+    public long getTtl( TimeUnit unit )
+    {
+        return unit.convert( ttlNanos, TimeUnit.NANOSECONDS );
+    }
+
+    /**
+     * @return the revision of the last commit below <code>url</code> at HEAD, -1 if it does not exist at HEAD
+     */
+    public long getLastChangedRevision( SVNClientManager clientManager, SVNURL url )
+        throws SVNException
+    {
+        String key = url.toString();
+        long now = System.nanoTime();
+        Entry entry = entries.get( key );
+        if ( entry != null && now - entry.time < ttlNanos )
+        {
+            return entry.revision;
+        }
+
+        SVNRepository repository = clientManager.createRepository( url, true );
+        SVNDirEntry info = repository.info( "", -1 );
+        long revision = info == null ? -1 : info.getRevision();
+
+        if ( ttlNanos > 0 )
+        {
+            if ( entries.size() >= PRUNE_THRESHOLD )
+            {
+                prune( now );
+            }
+            entries.put( key, new Entry( revision, now ) );
+        }
+        return revision;
+    }
+
+    /**
+     * Forgets all the revisions, e.g. after a commit.
+     */
+    public void clear()
+    {
+        entries.clear();
+    }
+
+    private void prune( long now )
+    {
+        for ( Iterator<Entry> it = entries.values().iterator(); it.hasNext(); )
+        {
+            if ( now - it.next().time >= ttlNanos )
+            {
+                it.remove();
+            }
+        }
+    }
+
+    private static final class Entry
+    {
+        private final long revision;
+
+        private final long time;
+
+        private Entry( long revision, long time )
+        {
+            this.revision = revision;
+            this.time = time;
+        }
+    }
+}
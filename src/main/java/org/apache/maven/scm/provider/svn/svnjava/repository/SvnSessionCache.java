@@ -0,0 +1,548 @@
+package org.apache.maven.scm.provider.svn.svnjava.repository;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.scm.provider.svn.svnjava.metrics.MeteringDebugLog;
+import org.apache.maven.scm.provider.svn.svnjava.metrics.SvnCommandMetricsRecorder;
+import org.apache.maven.scm.provider.svn.svnjava.util.SvnJavaCancellationToken;
+import org.tmatesoft.svn.core.ISVNCanceller;
+import org.tmatesoft.svn.core.SVNException;
+import org.tmatesoft.svn.core.SVNURL;
+import org.tmatesoft.svn.core.auth.ISVNAuthenticationManager;
+import org.tmatesoft.svn.core.io.ISVNTunnelProvider;
+import org.tmatesoft.svn.core.io.SVNRepository;
+import org.tmatesoft.svn.core.io.SVNRepositoryFactory;
+import org.tmatesoft.svn.core.wc.ISVNRepositoryPool;
+import org.tmatesoft.svn.util.ISVNDebugLog;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Thread safe cache of open {@link SVNRepository} sessions, shared by all the client managers created for the
+ * same {@link SvnJavaRepositoryConfiguration}.
+ * <p>
+ * Client managers do not open sessions themselves, they go through a {@link SessionPool} obtained with
+ * {@link #newSessionPool(ISVNAuthenticationManager, ISVNTunnelProvider)}. Sessions borrowed by a session pool
+ * are handed back to this cache when the client manager is released, so the next command talking to the same
+ * server (protocol, host, port and user) reuses an already connected and authenticated session instead of
+ * doing the handshake again.
+ * </p>
+ * <p>
+ * Idle sessions are closed after {@link #getIdleTimeout()} milliseconds. A session which stayed idle longer
+ * than {@link #getValidationInterval()} milliseconds is checked with {@link SVNRepository#testConnection()}
+ * before being reused, and dropped if the server went away in the meantime. Sessions of a command which failed
+ * or was cancelled are closed instead of cached.
+ * </p>
+ * <p>
+ * Each session logs through its own {@link MeteringDebugLog}, which is attached to the metrics recorder of the
+ * command borrowing the session.
+ * </p>
+ *
+ * @since 2.2.2
+ */
+public class SvnSessionCache
+{
+    public static final int DEFAULT_MAX_IDLE = 16;
+
+    public static final long DEFAULT_IDLE_TIMEOUT = 5 * 60 * 1000L;
+
+    public static final long DEFAULT_VALIDATION_INTERVAL = 10 * 1000L;
+
+    private final int maxIdle;
+
+    private final long idleTimeout;
+
+    private final long validationInterval;
+
+    /**
+     * idle sessions, most recently returned first. Guarded by this.
+     */
+    private final LinkedList<IdleSession> idle = new LinkedList<>();
+
+    private long opened;
+
+    private long reused;
+
+    private long discarded;
+
+    public SvnSessionCache()
+    {
+        this( DEFAULT_MAX_IDLE, DEFAULT_IDLE_TIMEOUT, DEFAULT_VALIDATION_INTERVAL );
+    }
+
+    public SvnSessionCache( int maxIdle, long idleTimeout, long validationInterval )
+    {
+        if ( maxIdle < 0 )
+        {
+            throw new IllegalArgumentException( "maxIdle must be positive" );
+        }
+        this.maxIdle = maxIdle;
+        this.idleTimeout = idleTimeout;
+        this.validationInterval = validationInterval;
+    }
+
+    /**
+     * Creates a repository pool borrowing its sessions from this cache, to be given to
+     * {@link org.tmatesoft.svn.core.wc.SVNClientManager#newInstance(org.tmatesoft.svn.core.wc.ISVNOptions,
+     * ISVNRepositoryPool)}.
+     */
+    public SessionPool newSessionPool( ISVNAuthenticationManager authenticationManager,
+                                       ISVNTunnelProvider tunnelProvider )
+    {
+        return new SessionPool( authenticationManager, tunnelProvider );
+    }
+
+    /**
+     * Closes the idle sessions which exceeded the idle timeout.
+     */
+    public void evictIdle()
+    {
+        List<SVNRepository> expired;
+        synchronized ( this )
+        {
+            expired = removeExpired( System.currentTimeMillis() );
+        }
+        close( expired );
+    }
+
+    /**
+     * Closes all idle sessions. Borrowed sessions are closed when they come back.
+     */
+    public void clear()
+    {
+        List<SVNRepository> toClose = new ArrayList<>();
+        synchronized ( this )
+        {
+            for ( IdleSession session : idle )
+            {
+                toClose.add( session.repository );
+            }
+            idle.clear();
+        }
+        close( toClose );
+    }
+
+    public int getMaxIdle()
+    {
+        return maxIdle;
+    }
+
+    public long getIdleTimeout()
+    {
+        return idleTimeout;
+    }
+
+    public long getValidationInterval()
+    {
+        return validationInterval;
+    }
+
+    public synchronized int getIdleCount()
+    {
+        return idle.size();
+    }
+
+    /**
+     * @return the number of sessions opened because no idle session was available
+     */
+    public synchronized long getOpenedCount()
+    {
+        return opened;
+    }
+
+    /**
+     * @return the number of sessions served by an idle session
+     */
+    public synchronized long getReusedCount()
+    {
+        return reused;
+    }
+
+    /**
+     * @return the number of idle sessions dropped because they failed the health check
+     */
+    public synchronized long getDiscardedCount()
+    {
+        return discarded;
+    }
+
+    SVNRepository borrow( SVNURL url, ISVNAuthenticationManager authenticationManager,
+                          ISVNTunnelProvider tunnelProvider )
+        throws SVNException
+    {
+        String endpoint = getEndpoint( url );
+        while ( true )
+        {
+            IdleSession candidate = null;
+            List<SVNRepository> expired;
+            synchronized ( this )
+            {
+                long now = System.currentTimeMillis();
+                expired = removeExpired( now );
+                for ( Iterator<IdleSession> it = idle.iterator(); it.hasNext(); )
+                {
+                    IdleSession session = it.next();
+                    if ( session.endpoint.equals( endpoint ) )
+                    {
+                        it.remove();
+                        candidate = session;
+                        break;
+                    }
+                }
+            }
+            close( expired );
+
+            if ( candidate == null )
+            {
+                break;
+            }
+
+            SVNRepository repository = candidate.repository;
+            repository.setAuthenticationManager( authenticationManager );
+            repository.setTunnelProvider( tunnelProvider );
+            if ( isHealthy( candidate ) )
+            {
+                try
+                {
+                    repository.setLocation( url, false );
+                    synchronized ( this )
+                    {
+                        reused++;
+                    }
+                    return repository;
+                }
+                catch ( SVNException e )
+                {
+                    // should not happen as the endpoint matches, fall through and drop the session
+                }
+            }
+            synchronized ( this )
+            {
+                discarded++;
+            }
+            repository.closeSession();
+        }
+
+        SVNRepository repository = open( url, authenticationManager, tunnelProvider );
+        synchronized ( this )
+        {
+            opened++;
+        }
+        return repository;
+    }
+
+    private static SVNRepository open( SVNURL url, ISVNAuthenticationManager authenticationManager,
+                                       ISVNTunnelProvider tunnelProvider )
+        throws SVNException
+    {
+        SvnRepositoryFactories.setup( url.getProtocol() );
+        SVNRepository repository = SVNRepositoryFactory.create( url, null );
+        repository.setAuthenticationManager( authenticationManager );
+        repository.setTunnelProvider( tunnelProvider );
+        repository.setDebugLog( new MeteringDebugLog() );
+        return repository;
+    }
+
+    void giveBack( SVNRepository repository )
+    {
+        repository.setCanceller( null );
+        MeteringDebugLog log = getDebugLog( repository );
+        log.setDelegate( null );
+        log.setRecorder( null );
+
+        List<SVNRepository> toClose;
+        synchronized ( this )
+        {
+            long now = System.currentTimeMillis();
+            toClose = removeExpired( now );
+            idle.addFirst( new IdleSession( getEndpoint( repository.getLocation() ), repository, now ) );
+            while ( idle.size() > maxIdle )
+            {
+                toClose.add( idle.removeLast().repository );
+            }
+        }
+        close( toClose );
+    }
+
+    private boolean isHealthy( IdleSession session )
+    {
+        if ( System.currentTimeMillis() - session.returned <= validationInterval )
+        {
+            return true;
+        }
+        try
+        {
+            session.repository.testConnection();
+            return true;
+        }
+        catch ( SVNException e )
+        {
+            return false;
+        }
+    }
+
+    private List<SVNRepository> removeExpired( long now )
+    {
+        List<SVNRepository> expired = new ArrayList<>();
+        for ( Iterator<IdleSession> it = idle.iterator(); it.hasNext(); )
+        {
+            IdleSession session = it.next();
+            if ( now - session.returned > idleTimeout )
+            {
+                it.remove();
+                expired.add( session.repository );
+            }
+        }
+        return expired;
+    }
+
+    private void close( List<SVNRepository> repositories )
+    {
+        for ( SVNRepository repository : repositories )
+        {
+            try
+            {
+                repository.closeSession();
+            }
+            catch ( RuntimeException e )
+            {
+                // nothing we can do here, the session is dropped anyway
+            }
+        }
+    }
+
+    private static MeteringDebugLog getDebugLog( SVNRepository repository )
+    {
+        if ( repository.getDebugLog() instanceof MeteringDebugLog )
+        {
+            return (MeteringDebugLog) repository.getDebugLog();
+        }
+        // somebody replaced it, only new connections will be counted
+        MeteringDebugLog log = new MeteringDebugLog( repository.getDebugLog() );
+        repository.setDebugLog( log );
+        return log;
+    }
+
+    private static boolean isCancelled( ISVNCanceller canceller )
+    {
+        return canceller instanceof SvnJavaCancellationToken && ( (SvnJavaCancellationToken) canceller ).isCancelled();
+    }
+
+    /**
+     * Sessions can only be moved with {@link SVNRepository#setLocation(SVNURL, boolean)} between urls sharing
+     * the same protocol, host, port and user.
+     */
+    private static String getEndpoint( SVNURL url )
+    {
+        return url.getProtocol() + "://" + ( url.getUserInfo() == null ? "" : url.getUserInfo() + "@" )
+            + url.getHost() + ":" + url.getPort();
+    }
+
+    private static final class IdleSession
+    {
+        private final String endpoint;
+
+        private final SVNRepository repository;
+
+        private final long returned;
+
+        private IdleSession( String endpoint, SVNRepository repository, long returned )
+        {
+            this.endpoint = endpoint;
+            this.repository = repository;
+            this.returned = returned;
+        }
+    }
+
+    /**
+     * {@link ISVNRepositoryPool} of one client manager. It keeps track of the sessions it borrowed from the
+     * cache and hands them back on {@link #releaseSessions()}, which the {@link SvnClientManagerPool} calls
+     * when the client manager is released. Like the client manager it belongs to, it is used by one command
+     * at a time.
+     * <p>
+     * A session asked for with <code>mayReuse</code> false belongs to the caller, which closes it once done, so it
+     * is opened apart from the cache and closed again on release, never cached.
+     * </p>
+     */
+    public final class SessionPool
+        implements ISVNRepositoryPool
+    {
+        private final List<SVNRepository> borrowed = new ArrayList<>();
+
+        /**
+         * sessions opened for a caller asking for its own, not borrowed from the cache.
+         */
+        private final List<SVNRepository> owned = new ArrayList<>();
+
+        private final Map<String, SVNRepository> reusable = new HashMap<>();
+
+        private ISVNAuthenticationManager authenticationManager;
+
+        private final ISVNTunnelProvider tunnelProvider;
+
+        private ISVNCanceller canceller;
+
+        private ISVNDebugLog debugLog;
+
+        private boolean discard;
+
+        private SessionPool( ISVNAuthenticationManager authenticationManager, ISVNTunnelProvider tunnelProvider )
+        {
+            this.authenticationManager = authenticationManager;
+            this.tunnelProvider = tunnelProvider;
+        }
+
+        public synchronized SVNRepository createRepository( SVNURL url, boolean mayReuse )
+            throws SVNException
+        {
+            String endpoint = getEndpoint( url );
+            if ( mayReuse )
+            {
+                SVNRepository repository = reusable.get( endpoint );
+                if ( repository != null )
+                {
+                    repository.setLocation( url, false );
+                    getDebugLog( repository ).setRecorder( SvnCommandMetricsRecorder.current() );
+                    return repository;
+                }
+            }
+
+            SVNRepository repository;
+            if ( mayReuse )
+            {
+                repository = borrow( url, authenticationManager, tunnelProvider );
+                borrowed.add( repository );
+                reusable.put( endpoint, repository );
+            }
+            else
+            {
+                repository = open( url, authenticationManager, tunnelProvider );
+                owned.add( repository );
+            }
+            repository.setCanceller( canceller );
+            MeteringDebugLog log = getDebugLog( repository );
+            log.setDelegate( debugLog );
+            log.setRecorder( SvnCommandMetricsRecorder.current() );
+            return repository;
+        }
+
+        public synchronized void setAuthenticationManager( ISVNAuthenticationManager authenticationManager )
+        {
+            this.authenticationManager = authenticationManager;
+            for ( SVNRepository repository : getSessions() )
+            {
+                repository.setAuthenticationManager( authenticationManager );
+            }
+        }
+
+        public synchronized void setCanceller( ISVNCanceller canceller )
+        {
+            this.canceller = canceller;
+            for ( SVNRepository repository : getSessions() )
+            {
+                repository.setCanceller( canceller );
+            }
+        }
+
+        public synchronized void setDebugLog( ISVNDebugLog debugLog )
+        {
+            this.debugLog = debugLog;
+            for ( SVNRepository repository : getSessions() )
+            {
+                getDebugLog( repository ).setDelegate( debugLog );
+            }
+        }
+
+        /**
+         * @deprecated use {@link #dispose()}
+         */
+        @Deprecated
+        public void shutdownConnections( boolean shutdownAll )
+        {
+            dispose();
+        }
+
+        public void dispose()
+        {
+            releaseSessions();
+        }
+
+        /**
+         * Makes the next {@link #releaseSessions()} close the borrowed sessions instead of handing them back, as
+         * the connection of a command which failed may be broken.
+         */
+        public synchronized void discardSessions()
+        {
+            discard = true;
+        }
+
+        /**
+         * Hands all borrowed sessions back to the cache. They are closed instead if {@link #discardSessions()}
+         * was called or if the command was cancelled. The sessions the callers owned are closed, should they
+         * have been left open.
+         */
+        public void releaseSessions()
+        {
+            List<SVNRepository> toRelease;
+            List<SVNRepository> toClose;
+            boolean closeAll;
+            synchronized ( this )
+            {
+                toRelease = new ArrayList<>( borrowed );
+                toClose = new ArrayList<>( owned );
+                closeAll = discard || isCancelled( canceller );
+                discard = false;
+                borrowed.clear();
+                owned.clear();
+                reusable.clear();
+            }
+            close( toClose );
+            if ( closeAll )
+            {
+                close( toRelease );
+                return;
+            }
+            for ( SVNRepository repository : toRelease )
+            {
+                giveBack( repository );
+            }
+        }
+
+        private List<SVNRepository> getSessions()
+        {
+            List<SVNRepository> sessions = new ArrayList<>( borrowed );
+            sessions.addAll( owned );
+            return sessions;
+        }
+
+        /**
+         * @return the cache this pool borrows its sessions from
+         */
+        public SvnSessionCache getSessionCache()
+        {
+            return SvnSessionCache.this;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package org.apache.maven.scm.provider.svn.svnjava.util;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+import org.apache.maven.scm.ChangeSet;
+import org.apache.maven.scm.ScmFile;
+import org.apache.maven.scm.command.blame.BlameLine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link ScmResultListener} collecting the records, used by the commands to build the lists of their results when
+ * no listener was registered. The files are kept in a {@link CompactScmFileList}.
+ *
+ * @since 2.2.2
+ */
+public class CollectingScmResultListener
+    implements ScmResultListener
+{
+    private final CompactScmFileList files = new CompactScmFileList();
+
+    private final List<ChangeSet> changeSets = new ArrayList<>();
+
+    private final List<BlameLine> blameLines = new ArrayList<>();
+
+    public void onScmFile( ScmFile file )
+    {
+        files.add( file );
+    }
+
+    public void onChangeSet( ChangeSet changeSet )
+    {
+        changeSets.add( changeSet );
+    }
+
+    public void onBlameLine( BlameLine line )
+    {
+        blameLines.add( line );
+    }
+
+    public List<ScmFile> getFiles()
+    {
+        return files;
+    }
+
+    public List<ChangeSet> getChangeSets()
+    {
+        return changeSets;
+    }
+
+    public List<BlameLine> getBlameLines()
+    {
+        return blameLines;
+    }
+}
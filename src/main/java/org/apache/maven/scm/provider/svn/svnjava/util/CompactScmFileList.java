@@ -0,0 +1,247 @@
+package org.apache.maven.scm.provider.svn.svnjava.util;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+import org.apache.maven.scm.ScmFile;
+import org.apache.maven.scm.ScmFileStatus;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * List of {@link ScmFile} storing the paths compactly: the directory part of each path is interned, so a
+ * directory holding many files is stored once, and only the file name is kept per entry. The {@link ScmFile}
+ * objects are created when the list is read.
+ * <p>
+ * Results of commands on large trees hold hundreds of thousands of files, most of them sharing a few thousand
+ * directories; this list keeps roughly a file name, two references and an array slot per entry. The list is not
+ * thread safe. It is serialized as an {@link ArrayList}.
+ * </p>
+ *
+ * @since 2.2.2
+ */
+public class CompactScmFileList
+    extends AbstractList<ScmFile>
+    implements RandomAccess, Serializable
+{
+    private static final long serialVersionUID = 1L;
+
+    private static final String NO_DIRECTORY = "";
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * the interned directory parts, with their trailing separator.
+     */
+    private transient Map<String, String> directories = new HashMap<>();
+
+    /**
+     * directory of the last added path: files are usually reported directory by directory.
+     */
+    private transient String lastDirectory = NO_DIRECTORY;
+
+    private transient String[] directoryOf = new String[INITIAL_CAPACITY];
+
+    private transient String[] nameOf = new String[INITIAL_CAPACITY];
+
+    private transient ScmFileStatus[] statusOf = new ScmFileStatus[INITIAL_CAPACITY];
+
+    private transient int size;
+
+    /**
+     * Adds a file without creating a {@link ScmFile}.
+     */
+    public void add( String path, ScmFileStatus status )
+    {
+        add( size, path, status );
+    }
+
+    @Override
+    public ScmFile get( int index )
+    {
+        checkIndex( index, size );
+        return new ScmFile( getPath( index ), statusOf[index] );
+    }
+
+    /**
+     * @return the path of an entry, without creating a {@link ScmFile}
+     */
+    public String getPath( int index )
+    {
+        checkIndex( index, size );
+        String directory = directoryOf[index];
+        return directory.isEmpty() ? nameOf[index] : directory.concat( nameOf[index] );
+    }
+
+    public ScmFileStatus getStatus( int index )
+    {
+        checkIndex( index, size );
+        return statusOf[index];
+    }
+
+    @Override
+    public int size()
+    {
+        return size;
+    }
+
+    @Override
+    public boolean add( ScmFile file )
+    {
+        add( size, file.getPath(), file.getStatus() );
+        return true;
+    }
+
+    @Override
+    public void add( int index, ScmFile file )
+    {
+        add( index, file.getPath(), file.getStatus() );
+    }
+
+    @Override
+    public ScmFile set( int index, ScmFile file )
+    {
+        ScmFile previous = get( index );
+        store( index, file.getPath(), file.getStatus() );
+        return previous;
+    }
+
+    @Override
+    public ScmFile remove( int index )
+    {
+        ScmFile previous = get( index );
+        int moved = size - index - 1;
+        System.arraycopy( directoryOf, index + 1, directoryOf, index, moved );
+        System.arraycopy( nameOf, index + 1, nameOf, index, moved );
+        System.arraycopy( statusOf, index + 1, statusOf, index, moved );
+        size--;
+        directoryOf[size] = null;
+        nameOf[size] = null;
+        statusOf[size] = null;
+        modCount++;
+        return previous;
+    }
+
+    @Override
+    public void clear()
+    {
+        Arrays.fill( directoryOf, 0, size, null );
+        Arrays.fill( nameOf, 0, size, null );
+        Arrays.fill( statusOf, 0, size, null );
+        size = 0;
+        directories.clear();
+        lastDirectory = NO_DIRECTORY;
+        modCount++;
+    }
+
+    /**
+     * @return the number of distinct directories stored
+     */
+    int getDirectoryCount()
+    {
+        return directories.size();
+    }
+
+    /**
+     * Releases the unused capacity, once the list is complete.
+     */
+    public void trimToSize()
+    {
+        if ( directoryOf.length > size )
+        {
+            directoryOf = Arrays.copyOf( directoryOf, size );
+            nameOf = Arrays.copyOf( nameOf, size );
+            statusOf = Arrays.copyOf( statusOf, size );
+        }
+    }
+
+    private void add( int index, String path, ScmFileStatus status )
+    {
+        checkIndex( index, size + 1 );
+        if ( size == directoryOf.length )
+        {
+            int capacity = Math.max( INITIAL_CAPACITY, size + ( size >> 1 ) );
+            directoryOf = Arrays.copyOf( directoryOf, capacity );
+            nameOf = Arrays.copyOf( nameOf, capacity );
+            statusOf = Arrays.copyOf( statusOf, capacity );
+        }
+        int moved = size - index;
+        if ( moved > 0 )
+        {
+            System.arraycopy( directoryOf, index, directoryOf, index + 1, moved );
+            System.arraycopy( nameOf, index, nameOf, index + 1, moved );
+            System.arraycopy( statusOf, index, statusOf, index + 1, moved );
+        }
+        size++;
+        store( index, path, status );
+        modCount++;
+    }
+
+    private void store( int index, String path, ScmFileStatus status )
+    {
+        int separator = Math.max( path.lastIndexOf( '/' ), path.lastIndexOf( '\\' ) );
+        directoryOf[index] = separator < 0 ? NO_DIRECTORY : intern( path, separator + 1 );
+        nameOf[index] = separator < 0 ? path : path.substring( separator + 1 );
+        statusOf[index] = status;
+    }
+
+    /**
+     * @return the interned directory made of the first characters of the path
+     */
+    private String intern( String path, int length )
+    {
+        String last = lastDirectory;
+        if ( last.length() == length && path.startsWith( last ) )
+        {
+            return last;
+        }
+        String directory = path.substring( 0, length );
+        String interned = directories.get( directory );
+        if ( interned == null )
+        {
+            directories.put( directory, directory );
+            interned = directory;
+        }
+        lastDirectory = interned;
+        return interned;
+    }
+
+    /**
+     * @param limit the first invalid index, the size of the list or one more when adding
+     */
+    private void checkIndex( int index, int limit )
+    {
+        if ( index < 0 || index >= limit )
+        {
+            throw new IndexOutOfBoundsException( "Index: " + index + ", Size: " + size );
+        }
+    }
+
+    private Object writeReplace()
+    {
+        return new ArrayList<>( this );
+    }
+}
@@ -1,7 +1,6 @@
 package org.apache.maven.scm.provider.svn.svnjava.util;
 
 import java.io.File;
-import java.util.ArrayList;
 import java.util.List;
 
 /*
@@ -25,6 +24,7 @@ import java.util.List;
 
 import org.apache.maven.scm.ScmFile;
 import org.apache.maven.scm.ScmFileStatus;
+import org.apache.maven.scm.provider.svn.svnjava.metrics.SvnCommandMetricsRecorder;
 import org.codehaus.plexus.util.StringUtils;
 import org.slf4j.Logger;
 import org.tmatesoft.svn.core.SVNCancelException;
@@ -48,9 +48,22 @@ public class ScmFileEventHandler
 {
     private final Logger logger;
 
-    private final List<ScmFile> files = new ArrayList<>();
+    /**
+     * receives the files, collects them unless the caller registered its own listener.
+     */
+    private final ScmResultListener listener = ScmResultListeners.currentOrCollecting();
+
+    private final String baseDirectoryPath;
 
-    private final File baseDirectory;
+    /**
+     * recorder of the metered command creating this handler, null if metrics are disabled.
+     */
+    private final SvnCommandMetricsRecorder metrics = SvnCommandMetricsRecorder.current();
+
+    /**
+     * token of the command creating this handler, null if it cannot be cancelled.
+     */
+    private final SvnJavaCancellationToken cancellationToken = SvnJavaCancellationToken.current();
 
     /**
      * The logger is used in alerting the user to unknown file statuses.
@@ -59,7 +72,7 @@ public class ScmFileEventHandler
     {
         this.logger = logger;
 
-        this.baseDirectory = baseDirectory;
+        this.baseDirectoryPath = baseDirectory.getAbsolutePath();
     }
 
     /**
@@ -94,28 +107,45 @@ public class ScmFileEventHandler
                               + event.getFile().getAbsolutePath() );
         }
 
-        String currentFile = event.getFile().getAbsolutePath();
-        if ( currentFile.startsWith( baseDirectory.getAbsolutePath() ) )
+        onFile( event.getFile(), status );
+    }
+
+    /**
+     * Reports a file handled without an svn event, e.g. one restored locally.
+     *
+     * @param file the file, below the base directory
+     * @since 2.2.2
+     */
+    public void onFile( File file, ScmFileStatus status )
+    {
+        String currentFile = file.getAbsolutePath();
+        if ( currentFile.startsWith( baseDirectoryPath ) )
         {
-            currentFile = currentFile.substring( baseDirectory.getAbsolutePath().length() + 1 );
+            currentFile = currentFile.substring( baseDirectoryPath.length() + 1 );
         }
 
-        files.add( new ScmFile( currentFile, status ) );
+        listener.onScmFile( new ScmFile( currentFile, status ) );
+
+        if ( metrics != null )
+        {
+            metrics.fileTouched();
+        }
     }
 
     public void checkCancelled()
         throws SVNCancelException
     {
-        // null
+        SvnJavaCancellationToken.checkCancelled( cancellationToken );
     }
 
     /**
-     * Returns the list of files collected from handling events.
+     * Returns the list of files collected from handling events, empty if they were streamed to a
+     * {@link ScmResultListener}.
      *
      * @return a list of {@link ScmFile} objects
      */
     public List<ScmFile> getFiles()
     {
-        return files;
+        return ScmResultListeners.getFiles( listener );
     }
 }
\ No newline at end of file
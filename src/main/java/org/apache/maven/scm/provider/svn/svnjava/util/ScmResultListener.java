@@ -0,0 +1,64 @@
+package org.apache.maven.scm.provider.svn.svnjava.util;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+import org.apache.maven.scm.ChangeSet;
+import org.apache.maven.scm.ScmFile;
+import org.apache.maven.scm.command.blame.BlameLine;
+
+/**
+ * Receives the records of a command as svnkit produces them, instead of collecting them in the result: files of
+ * checkout, update, status, export, remove, add and list, change sets of changelog and lines of blame. The memory
+ * used by a command then no longer depends on the size of the tree.
+ * <p>
+ * Streaming is opt-in, register the listener with
+ * {@link SvnJavaCommandParameters#setResultListener(ScmResultListener)} or
+ * {@link org.apache.maven.scm.provider.svn.svnjava.SvnJavaScmProvider#executeStreaming(ScmResultListener,
+ * SvnJavaCommandExecutor.ScmOperation)}. The records passed to the listener are not added to the result, the lists
+ * of the result are empty unless the listener is a {@link CollectingScmResultListener}.
+ * </p>
+ * <p>
+ * The listener is called on the thread running the command, except by the commands working in parallel, a
+ * parallel export or status and the fetch of the externals, which call it from their worker threads. These calls
+ * are made one at a time, through {@link ScmResultListeners#synchronizedListener(ScmResultListener)}, so the
+ * listener does not need to be thread safe, but it must not rely on the calling thread.
+ * </p>
+ *
+ * @see CollectingScmResultListener
+ * @since 2.2.2
+ */
+public interface ScmResultListener
+{
+    default void onScmFile( ScmFile file )
+    {
+        // ignored
+    }
+
+    default void onChangeSet( ChangeSet changeSet )
+    {
+        // ignored
+    }
+
+    default void onBlameLine( BlameLine line )
+    {
+        // ignored
+    }
+}
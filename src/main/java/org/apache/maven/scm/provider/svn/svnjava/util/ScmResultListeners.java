@@ -0,0 +1,156 @@
+package org.apache.maven.scm.provider.svn.svnjava.util;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+import org.apache.maven.scm.ChangeSet;
+import org.apache.maven.scm.ScmFile;
+import org.apache.maven.scm.command.blame.BlameLine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binds the {@link ScmResultListener} registered by the caller to the thread running the command, where the
+ * svnkit handlers pick it up.
+ *
+ * @since 2.2.2
+ */
+public final class ScmResultListeners
+{
+    private static final ThreadLocal<ScmResultListener> CURRENT = new ThreadLocal<>();
+
+    private ScmResultListeners()
+    {
+        // no op
+    }
+
+    /**
+     * @return the listener registered for the command running on this thread, null if its records are collected
+     *         in the result
+     */
+    public static ScmResultListener current()
+    {
+        return CURRENT.get();
+    }
+
+    /**
+     * @return the listener registered for the command running on this thread, or a new collecting listener if
+     *         there is none
+     */
+    public static ScmResultListener currentOrCollecting()
+    {
+        ScmResultListener listener = CURRENT.get();
+        return listener == null ? new CollectingScmResultListener() : listener;
+    }
+
+    /**
+     * @return a listener forwarding the records to the given one, one at a time, for the commands reporting
+     *         records from several threads
+     */
+    public static ScmResultListener synchronizedListener( ScmResultListener listener )
+    {
+        return new SynchronizedScmResultListener( listener );
+    }
+
+    /**
+     * @return the files collected by the listener, empty if it streams them
+     */
+    public static List<ScmFile> getFiles( ScmResultListener listener )
+    {
+        if ( listener instanceof CollectingScmResultListener )
+        {
+            return ( (CollectingScmResultListener) listener ).getFiles();
+        }
+        return new ArrayList<>();
+    }
+
+    /**
+     * @return the change sets collected by the listener, empty if it streams them
+     */
+    public static List<ChangeSet> getChangeSets( ScmResultListener listener )
+    {
+        if ( listener instanceof CollectingScmResultListener )
+        {
+            return ( (CollectingScmResultListener) listener ).getChangeSets();
+        }
+        return new ArrayList<>();
+    }
+
+    /**
+     * @return the blame lines collected by the listener, empty if it streams them
+     */
+    public static List<BlameLine> getBlameLines( ScmResultListener listener )
+    {
+        if ( listener instanceof CollectingScmResultListener )
+        {
+            return ( (CollectingScmResultListener) listener ).getBlameLines();
+        }
+        return new ArrayList<>();
+    }
+
+    /**
+     * @return the listener previously bound, to be restored with {@link #restore(ScmResultListener)}
+     */
+    public static ScmResultListener bind( ScmResultListener listener )
+    {
+        ScmResultListener previous = CURRENT.get();
+        CURRENT.set( listener );
+        return previous;
+    }
+
+    public static void restore( ScmResultListener previous )
+    {
+        if ( previous == null )
+        {
+            CURRENT.remove();
+        }
+        else
+        {
+            CURRENT.set( previous );
+        }
+    }
+
+    private static final class SynchronizedScmResultListener
+        implements ScmResultListener
+    {
+        private final ScmResultListener listener;
+
+        private SynchronizedScmResultListener( ScmResultListener listener )
+        {
+            this.listener = listener;
+        }
+
+        public synchronized void onScmFile( ScmFile file )
+        {
+            listener.onScmFile( file );
+        }
+
+        public synchronized void onChangeSet( ChangeSet changeSet )
+        {
+            listener.onChangeSet( changeSet );
+        }
+
+        public synchronized void onBlameLine( BlameLine line )
+        {
+            listener.onBlameLine( line );
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package org.apache.maven.scm.provider.svn.svnjava.util;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.commons.io.FileUtils;
+import org.apache.maven.scm.ScmFileStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.tmatesoft.svn.core.SVNDepth;
+import org.tmatesoft.svn.core.SVNErrorCode;
+import org.tmatesoft.svn.core.SVNErrorMessage;
+import org.tmatesoft.svn.core.SVNException;
+import org.tmatesoft.svn.core.SVNNodeKind;
+import org.tmatesoft.svn.core.SVNURL;
+import org.tmatesoft.svn.core.wc.ISVNEventHandler;
+import org.tmatesoft.svn.core.wc.SVNClientManager;
+import org.tmatesoft.svn.core.wc.SVNInfo;
+import org.tmatesoft.svn.core.wc.SVNRevision;
+import org.tmatesoft.svn.core.wc.SVNUpdateClient;
+import org.tmatesoft.svn.core.wc.SVNWCClient;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.UUID;
+
+/**
+ * Working copies of the externals pinned to a revision, shared by all the working copies of the machine. An
+ * external at a fixed revision never changes, so it is checked out once in {@link #getDirectory()} and then
+ * cloned locally, the same way as the donors of a {@link SvnWorkingCopyCache}.
+ * <p>
+ * A cached working copy is checked out under a temporary name and renamed once complete, so that concurrent
+ * callers, in this process or another, never see a partial one; the loser of a race discards its own.
+ * </p>
+ *
+ * @since 2.2.2
+ */
+public class SvnExternalsCache
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger( SvnExternalsCache.class );
+
+    private final File directory;
+
+    public SvnExternalsCache( File directory )
+    {
+        this.directory = directory.getAbsoluteFile();
+    }
+
+    public File getDirectory()
+    {
+        return directory;
+    }
+
+    /**
+     * Checks <code>url</code> out at <code>revision</code> into <code>target</code> from the cached working copy,
+     * checked out first if needed.
+     *
+     * @param pegRevision the peg revision of <code>url</code>, part of the key of the cached working copy
+     * @param target the directory of the new working copy, missing or empty
+     * @param handler receives the files of the new working copy, all of them reported as added like in a checkout,
+     *            the update client of <code>clientManager</code> is left reporting to it
+     */
+    public void checkOut( SVNClientManager clientManager, SVNURL url, SVNRevision pegRevision, long revision,
+                          File target, ScmFileEventHandler handler )
+        throws SVNException
+    {
+        SVNUpdateClient updateClient = clientManager.getUpdateClient();
+        SVNWCClient wcClient = clientManager.getWCClient();
+        ISVNEventHandler cancellationHandler = new SvnWorkingCopyCache.CancellationHandler( handler );
+        updateClient.setEventHandler( cancellationHandler );
+        wcClient.setEventHandler( cancellationHandler );
+        try
+        {
+            File cached = getCachedWorkingCopy( updateClient, url, pegRevision, revision );
+            try
+            {
+                SvnWorkingCopyCache.copyAdministrativeArea(
+                    new File( cached, SvnWorkingCopyCache.ADMIN_DIRECTORY ).toPath(),
+                    new File( target, SvnWorkingCopyCache.ADMIN_DIRECTORY ).toPath() );
+            }
+            catch ( IOException e )
+            {
+                FileUtils.deleteQuietly( new File( target, SvnWorkingCopyCache.ADMIN_DIRECTORY ) );
+                throw new SVNException( SVNErrorMessage.create( SVNErrorCode.IO_ERROR, "Cannot clone " + cached
+                    + ": " + e.getMessage() ), e );
+            }
+            // the working files come from the pristine store
+            wcClient.doRevert( new File[]{ target }, SVNDepth.INFINITY, null );
+        }
+        finally
+        {
+            updateClient.setEventHandler( handler );
+            wcClient.setEventHandler( null );
+        }
+
+        wcClient.doInfo( target, SVNRevision.UNDEFINED, SVNRevision.UNDEFINED, SVNDepth.INFINITY, null,
+                         ( SVNInfo info ) -> {
+                if ( info.getKind() == SVNNodeKind.FILE )
+                {
+                    handler.onFile( info.getFile(), ScmFileStatus.ADDED );
+                }
+            } );
+    }
+
+    /**
+     * @return the cached working copy of <code>url@pegRevision</code> at <code>revision</code>, checked out if
+     *         missing
+     */
+    File getCachedWorkingCopy( SVNUpdateClient updateClient, SVNURL url, SVNRevision pegRevision, long revision )
+        throws SVNException
+    {
+        String name = url.toString().replaceAll( "[^A-Za-z0-9.-]+", "_" ) + "@"
+            + ( pegRevision.getNumber() >= 0 ? pegRevision.getNumber() + "_" : "" ) + revision;
+        File cached = new File( directory, name );
+        if ( new File( cached, SvnWorkingCopyCache.ADMIN_DIRECTORY ).isDirectory() )
+        {
+            return cached;
+        }
+
+        File partial = new File( directory, name + ".tmp-" + UUID.randomUUID() );
+        LOGGER.info( "Caching the external " + url + " at revision " + revision );
+        boolean ignoreExternals = updateClient.isIgnoreExternals();
+        try
+        {
+            // the externals nested in this one are resolved along with the working copy it is cloned into
+            updateClient.setIgnoreExternals( true );
+            updateClient.doCheckout( url, partial, pegRevision, SVNRevision.create( revision ), SVNDepth.INFINITY,
+                                     false );
+            Files.move( partial.toPath(), cached.toPath(), StandardCopyOption.ATOMIC_MOVE );
+        }
+        catch ( FileAlreadyExistsException e )
+        {
+            LOGGER.debug( url + " at revision " + revision + " was cached concurrently" );
+        }
+        catch ( IOException e )
+        {
+            if ( !new File( cached, SvnWorkingCopyCache.ADMIN_DIRECTORY ).isDirectory() )
+            {
+                throw new SVNException( SVNErrorMessage.create( SVNErrorCode.IO_ERROR, "Cannot cache " + url
+                    + ": " + e.getMessage() ), e );
+            }
+        }
+        finally
+        {
+            updateClient.setIgnoreExternals( ignoreExternals );
+            FileUtils.deleteQuietly( partial );
+        }
+        return cached;
+    }
+}
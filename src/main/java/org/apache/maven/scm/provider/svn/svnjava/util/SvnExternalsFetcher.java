@@ -0,0 +1,313 @@
+package org.apache.maven.scm.provider.svn.svnjava.util;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.scm.ScmException;
+import org.apache.maven.scm.ScmFile;
+import org.apache.maven.scm.command.checkout.CheckOutScmResult;
+import org.apache.maven.scm.provider.svn.svnjava.SvnJavaScmProvider;
+import org.apache.maven.scm.provider.svn.svnjava.repository.SvnJavaScmProviderRepository;
+import org.slf4j.Logger;
+import org.tmatesoft.svn.core.SVNDepth;
+import org.tmatesoft.svn.core.SVNException;
+import org.tmatesoft.svn.core.SVNNodeKind;
+import org.tmatesoft.svn.core.SVNProperty;
+import org.tmatesoft.svn.core.SVNURL;
+import org.tmatesoft.svn.core.internal.util.SVNPathUtil;
+import org.tmatesoft.svn.core.internal.wc.SVNExternal;
+import org.tmatesoft.svn.core.wc.ISVNPropertyHandler;
+import org.tmatesoft.svn.core.wc.SVNClientManager;
+import org.tmatesoft.svn.core.wc.SVNInfo;
+import org.tmatesoft.svn.core.wc.SVNPropertyData;
+import org.tmatesoft.svn.core.wc.SVNRevision;
+import org.tmatesoft.svn.core.wc.SVNUpdateClient;
+import org.tmatesoft.svn.core.wc.SVNWCClient;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fetches the directory externals of a working copy checked out or updated without them, each external on its
+ * own thread and its own client manager. svnkit resolves the externals one after the other once the working
+ * copy is complete, which leaves the connection idle most of the time when there are many of them.
+ * <p>
+ * A missing external is checked out, from the {@link SvnExternalsCache} of the repository when it is pinned to
+ * a revision, and an external already checked out is updated. They are then registered in the working copy as
+ * svnkit would, through the {@link SvnExternalsRegistry}. Only when something was left out here, a file external,
+ * an external nested in another one or switched to another url, or an external no longer defined, or when the
+ * registry is not usable with this version of svnkit, does a last sequential pass of svnkit run, finding the
+ * fetched externals already in place.
+ * </p>
+ * <p>
+ * The command context is bound to the worker threads, like for {@link SvnJavaCommandExecutor} operations.
+ * </p>
+ *
+ * @since 2.2.2
+ */
+public class SvnExternalsFetcher
+{
+    private final SvnJavaScmProviderRepository repository;
+
+    private final Logger logger;
+
+    private final int parallelism;
+
+    public SvnExternalsFetcher( SvnJavaScmProviderRepository repository, Logger logger, int parallelism )
+    {
+        this.repository = repository;
+        this.logger = logger;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * @return true if the externals are worth fetching apart, that is in parallel or from the cache
+     */
+    public static boolean isEnabled( SvnJavaScmProviderRepository repository, int parallelism )
+    {
+        return parallelism > 1 || repository.getExternalsCache() != null;
+    }
+
+    /**
+     * Fetches the externals of <code>workingCopy</code>.
+     *
+     * @param clientManager the client manager of the command, used to read the definitions and for the last pass
+     * @param revision the revision the working copy was checked out or updated to
+     * @param baseDirectory the directory the files are reported relative to
+     * @return the files of the externals, empty if they were streamed
+     */
+    public List<ScmFile> fetch( SVNClientManager clientManager, File workingCopy, long revision, File baseDirectory )
+        throws SVNException
+    {
+        Map<File, File> owners = new TreeMap<>();
+        Map<File, SVNExternal> externals = getExternals( clientManager.getWCClient(), workingCopy, owners );
+        Map<File, File> registered =
+            SvnExternalsRegistry.getRegisteredExternals( clientManager.getOptions(), workingCopy );
+        if ( externals.isEmpty() && ( registered == null || registered.isEmpty() ) )
+        {
+            return new ArrayList<>();
+        }
+        if ( logger.isDebugEnabled() )
+        {
+            logger.debug( "Fetching " + externals.size() + " externals of " + workingCopy );
+        }
+
+        SvnJavaCommandContext context = SvnJavaCommandContext.capture();
+        ScmResultListener listener = context.getResultListener() == null ? null
+            : ScmResultListeners.synchronizedListener( context.getResultListener() );
+
+        Set<File> fetched = ConcurrentHashMap.newKeySet();
+        List<SvnJavaCommandExecutor.ScmOperation<CheckOutScmResult>> operations = new ArrayList<>();
+        List<String> targets = new ArrayList<>();
+        for ( Map.Entry<File, SVNExternal> external : externals.entrySet() )
+        {
+            File target = external.getKey();
+            if ( isNested( target, targets ) )
+            {
+                // defined in another external or hidden by it, left to the last pass
+                continue;
+            }
+            targets.add( target.getPath() + File.separator );
+            operations.add( () -> fetchExternal( context, listener, external.getValue(), target, baseDirectory,
+                                                 fetched ) );
+        }
+
+        List<ScmFile> files = new ArrayList<>();
+        try
+        {
+            for ( CheckOutScmResult result : new SvnJavaCommandExecutor( parallelism ).executeAll( operations ) )
+            {
+                files.addAll( result.getCheckedOutFiles() );
+            }
+        }
+        catch ( ScmException e )
+        {
+            if ( e.getCause() instanceof SVNException )
+            {
+                throw (SVNException) e.getCause();
+            }
+            throw new IllegalStateException( e.getMessage(), e );
+        }
+
+        boolean complete = registered != null && register( clientManager, externals, owners, fetched, registered )
+            && fetched.size() == externals.size() && externals.keySet().containsAll( registered.keySet() );
+        if ( !complete )
+        {
+            SVNUpdateClient updateClient = clientManager.getUpdateClient();
+            updateClient.setIgnoreExternals( false );
+            updateClient.doUpdate( workingCopy, SVNRevision.create( revision ), SVNDepth.INFINITY, false, false );
+        }
+        return files;
+    }
+
+    /**
+     * Records the fetched externals in the working copy, through the {@link SvnExternalsRegistry}.
+     *
+     * @return false if they could not be registered, the last pass of svnkit then registers them
+     */
+    private boolean register( SVNClientManager clientManager, Map<File, SVNExternal> externals,
+                              Map<File, File> owners, Set<File> fetched, Map<File, File> registered )
+        throws SVNException
+    {
+        SVNWCClient wcClient = clientManager.getWCClient();
+        List<SvnExternalsRegistry.Registration> registrations = new ArrayList<>();
+        for ( File target : fetched )
+        {
+            if ( registered.containsKey( target ) )
+            {
+                continue;
+            }
+            SVNExternal external = externals.get( target );
+            SVNInfo info = wcClient.doInfo( target, SVNRevision.UNDEFINED );
+            SVNURL root = info.getRepositoryRootURL();
+            registrations.add( new SvnExternalsRegistry.Registration(
+                owners.get( target ), target, root, info.getRepositoryUUID(),
+                SVNPathUtil.getRelativePath( root.getPath(), info.getURL().getPath() ),
+                external.isPegRevisionExplicit() ? external.getPegRevision().getNumber() : -1,
+                external.isRevisionExplicit() ? external.getRevision().getNumber() : -1 ) );
+        }
+        return registrations.isEmpty() || SvnExternalsRegistry.register( clientManager.getOptions(), registrations );
+    }
+
+    private static boolean isNested( File target, List<String> targets )
+    {
+        for ( String other : targets )
+        {
+            if ( target.getPath().startsWith( other ) )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the externals defined in <code>workingCopy</code>, by target, sorted so that a nested target follows
+     *         the target holding it
+     */
+    private Map<File, SVNExternal> getExternals( SVNWCClient wcClient, File workingCopy, Map<File, File> owners )
+        throws SVNException
+    {
+        Map<File, String> definitions = new TreeMap<>();
+        wcClient.doGetProperty( workingCopy, SVNProperty.EXTERNALS, SVNRevision.WORKING, SVNRevision.WORKING,
+                                SVNDepth.INFINITY, new ISVNPropertyHandler()
+            {
+                public void handleProperty( File path, SVNPropertyData property )
+                {
+                    definitions.put( path.getAbsoluteFile(), property.getValue().getString() );
+                }
+
+                public void handleProperty( SVNURL url, SVNPropertyData property )
+                {
+                }
+
+                public void handleProperty( long revision, SVNPropertyData property )
+                {
+                }
+            }, null );
+
+        Map<File, SVNExternal> externals = new TreeMap<>();
+        for ( Map.Entry<File, String> definition : definitions.entrySet() )
+        {
+            File owner = definition.getKey();
+            SVNInfo info = wcClient.doInfo( owner, SVNRevision.UNDEFINED );
+            for ( SVNExternal external : SVNExternal.parseExternals( owner, definition.getValue() ) )
+            {
+                external.resolveURL( info.getRepositoryRootURL(), info.getURL() );
+                File target = new File( owner, external.getPath() ).getAbsoluteFile();
+                externals.put( target, external );
+                owners.put( target, owner );
+            }
+        }
+        return externals;
+    }
+
+    /**
+     * Checks out or updates one external, on a worker thread.
+     *
+     * @param fetched receives <code>target</code> unless the external is left to the last pass
+     */
+    private CheckOutScmResult fetchExternal( SvnJavaCommandContext context, ScmResultListener listener,
+                                             SVNExternal external, File target, File baseDirectory,
+                                             Set<File> fetched )
+        throws ScmException
+    {
+        SvnJavaCommandContext previous = context.bind();
+        ScmResultListener previousListener = ScmResultListeners.bind( listener );
+        SVNClientManager clientManager = repository.leaseClientManager();
+        try
+        {
+            ScmFileEventHandler handler = new ScmFileEventHandler( logger, baseDirectory );
+            SVNUpdateClient updateClient = clientManager.getUpdateClient();
+            updateClient.setEventHandler( handler );
+            updateClient.setIgnoreExternals( false );
+
+            SVNURL url = external.getResolvedURL();
+            SVNRevision revision = external.isRevisionExplicit() ? external.getRevision() : SVNRevision.HEAD;
+            SVNRevision pegRevision =
+                external.isPegRevisionExplicit() ? external.getPegRevision() : SVNRevision.UNDEFINED;
+            if ( new File( target, SvnWorkingCopyCache.ADMIN_DIRECTORY ).isDirectory() )
+            {
+                SVNURL current = clientManager.getWCClient().doInfo( target, SVNRevision.UNDEFINED ).getURL();
+                if ( url.equals( current ) )
+                {
+                    updateClient.doUpdate( target, revision, SVNDepth.INFINITY, false, false );
+                    fetched.add( target );
+                }
+                // else switched by the last pass
+            }
+            else if ( !target.exists() )
+            {
+                SVNInfo info = clientManager.getWCClient().doInfo( url, pegRevision, revision );
+                if ( info.getKind() == SVNNodeKind.DIR )
+                {
+                    SvnExternalsCache cache = repository.getExternalsCache();
+                    target.getParentFile().mkdirs();
+                    if ( cache != null && revision.getNumber() >= 0 )
+                    {
+                        cache.checkOut( clientManager, url, pegRevision, revision.getNumber(), target, handler );
+                    }
+                    else
+                    {
+                        updateClient.doCheckout( url, target, pegRevision, revision, SVNDepth.INFINITY, false );
+                    }
+                    fetched.add( target );
+                }
+                // else a file external, left to the last pass
+            }
+            return new CheckOutScmResult( SvnJavaScmProvider.COMMAND_LINE, handler.getFiles() );
+        }
+        catch ( SVNException e )
+        {
+            repository.discardSessions( clientManager );
+            throw new ScmException( e.getMessage(), e );
+        }
+        finally
+        {
+            repository.releaseClientManager( clientManager );
+            ScmResultListeners.restore( previousListener );
+            SvnJavaCommandContext.restore( previous );
+        }
+    }
+}
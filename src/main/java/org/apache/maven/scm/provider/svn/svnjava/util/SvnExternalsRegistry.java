@@ -0,0 +1,160 @@
+package org.apache.maven.scm.provider.svn.svnjava.util;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.tmatesoft.svn.core.SVNException;
+import org.tmatesoft.svn.core.SVNNodeKind;
+import org.tmatesoft.svn.core.SVNURL;
+import org.tmatesoft.svn.core.internal.wc17.db.ISVNWCDb;
+import org.tmatesoft.svn.core.internal.wc17.db.SVNWCDb;
+import org.tmatesoft.svn.core.wc.ISVNOptions;
+
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Externals recorded in the database of a working copy, which svnkit reads to report and update them. svnkit has
+ * no public API for them, so this class goes to its internal <code>SVNWCDb</code>, and is the only one to do so.
+ * Internals may change with any upgrade of svnkit: when a call fails, the methods return null or false, and the
+ * caller lets svnkit process the externals itself with a plain update, which registers them as well.
+ *
+ * @since 2.2.2
+ */
+final class SvnExternalsRegistry
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger( SvnExternalsRegistry.class );
+
+    private SvnExternalsRegistry()
+    {
+    }
+
+    /**
+     * @return the externals registered in <code>workingCopy</code>, the defining directory by target, null if they
+     *         cannot be read
+     */
+    static Map<File, File> getRegisteredExternals( ISVNOptions options, File workingCopy )
+    {
+        SVNWCDb db = null;
+        try
+        {
+            db = new SVNWCDb();
+            db.open( ISVNWCDb.SVNWCDbOpenMode.ReadOnly, options, false, false );
+            Map<File, File> registered = new TreeMap<>();
+            for ( Map.Entry<File, File> external : db.getExternalsDefinedBelow( workingCopy.getAbsoluteFile() )
+                .entrySet() )
+            {
+                registered.put( external.getKey().getAbsoluteFile(), external.getValue() );
+            }
+            return registered;
+        }
+        catch ( SVNException | RuntimeException | LinkageError e )
+        {
+            LOGGER.debug( "Cannot read the externals registered in " + workingCopy + ": " + e );
+            return null;
+        }
+        finally
+        {
+            close( db );
+        }
+    }
+
+    /**
+     * Registers directory externals, as svnkit does for the externals it checks out itself, so that they are part of
+     * the status of the working copy and of its next updates.
+     *
+     * @return false if they could not all be registered
+     */
+    static boolean register( ISVNOptions options, List<Registration> registrations )
+    {
+        SVNWCDb db = null;
+        try
+        {
+            db = new SVNWCDb();
+            db.open( ISVNWCDb.SVNWCDbOpenMode.ReadWrite, options, false, false );
+            for ( Registration registration : registrations )
+            {
+                db.registerExternal( registration.owner, registration.target, SVNNodeKind.DIR,
+                                     registration.repositoryRoot, registration.repositoryUuid,
+                                     new File( registration.repositoryPath ), registration.pegRevision,
+                                     registration.revision );
+            }
+            return true;
+        }
+        catch ( SVNException | RuntimeException | LinkageError e )
+        {
+            LOGGER.debug( "Cannot register the externals: " + e );
+            return false;
+        }
+        finally
+        {
+            close( db );
+        }
+    }
+
+    private static void close( SVNWCDb db )
+    {
+        if ( db != null )
+        {
+            db.close();
+        }
+    }
+
+    /**
+     * A directory external checked out in a working copy.
+     */
+    static final class Registration
+    {
+        private final File owner;
+
+        private final File target;
+
+        private final SVNURL repositoryRoot;
+
+        private final String repositoryUuid;
+
+        private final String repositoryPath;
+
+        private final long pegRevision;
+
+        private final long revision;
+
+        /**
+         * @param owner the directory defining the external
+         * @param repositoryPath the path of the external in its repository, relative to the root
+         * @param pegRevision the explicit peg revision of the definition, -1 if none
+         * @param revision the explicit revision of the definition, -1 if none
+         */
+        Registration( File owner, File target, SVNURL repositoryRoot, String repositoryUuid, String repositoryPath,
+                      long pegRevision, long revision )
+        {
+            this.owner = owner;
+            this.target = target;
+            this.repositoryRoot = repositoryRoot;
+            this.repositoryUuid = repositoryUuid;
+            this.repositoryPath = repositoryPath;
+            this.pegRevision = pegRevision;
+            this.revision = revision;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package org.apache.maven.scm.provider.svn.svnjava.util;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+import org.tmatesoft.svn.core.ISVNCanceller;
+import org.tmatesoft.svn.core.SVNCancelException;
+import org.tmatesoft.svn.core.SVNErrorCode;
+import org.tmatesoft.svn.core.SVNErrorMessage;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cancellation token of one or more scm commands, with an optional deadline. Pass it to a command with
+ * {@link SvnJavaCommandParameters#setCancellationToken(SvnJavaCancellationToken)}; the provider binds it to the
+ * thread running the command, and the svnkit event handlers check it each time svnkit calls
+ * {@link #checkCancelled()}.
+ * <p>
+ * A token can be cancelled from any thread. A cancelled command stops at the next check, cleans up its working
+ * copy and returns a failed result listing the files processed so far.
+ * </p>
+ *
+ * @since 2.2.2
+ */
+public class SvnJavaCancellationToken
+    implements ISVNCanceller
+{
+    private static final ThreadLocal<SvnJavaCancellationToken> CURRENT = new ThreadLocal<>();
+
+    private static final long NO_DEADLINE = Long.MAX_VALUE;
+
+    private final long deadline;
+
+    private final long timeoutMillis;
+
+    private volatile boolean cancelled;
+
+    /**
+     * Creates a token without deadline, cancelled only by {@link #cancel()}.
+     */
+    public SvnJavaCancellationToken()
+    {
+        this.deadline = NO_DEADLINE;
+        this.timeoutMillis = -1;
+    }
+
+    /**
+     * Creates a token cancelled by {@link #cancel()} or when the timeout, starting now, expires.
+     */
+    public SvnJavaCancellationToken( long timeout, TimeUnit unit )
+    {
+        this.deadline = System.nanoTime() + unit.toNanos( timeout );
+        this.timeoutMillis = unit.toMillis( timeout );
+    }
+
+    /**
+     * @return the token of the command running on this thread, or null if the command cannot be cancelled
+     */
+    public static SvnJavaCancellationToken current()
+    {
+        return CURRENT.get();
+    }
+
+    /**
+     * Binds this token to the current thread.
+     *
+     * @return the token previously bound, to be restored with {@link #restore(SvnJavaCancellationToken)}
+     */
+    public SvnJavaCancellationToken bind()
+    {
+        SvnJavaCancellationToken previous = CURRENT.get();
+        CURRENT.set( this );
+        return previous;
+    }
+
+    public static void restore( SvnJavaCancellationToken previous )
+    {
+        if ( previous == null )
+        {
+            CURRENT.remove();
+        }
+        else
+        {
+            CURRENT.set( previous );
+        }
+    }
+
+    /**
+     * Checks the token, if any.
+     *
+     * @param token the token to check, may be null
+     * @throws SVNCancelException if the token was cancelled or its deadline expired
+     */
+    public static void checkCancelled( SvnJavaCancellationToken token )
+        throws SVNCancelException
+    {
+        if ( token != null )
+        {
+            token.checkCancelled();
+        }
+    }
+
+    public void cancel()
+    {
+        cancelled = true;
+    }
+
+    /**
+     * @return true if {@link #cancel()} was called or the deadline expired
+     */
+    public boolean isCancelled()
+    {
+        return cancelled || isExpired();
+    }
+
+    /**
+     * @return true if the token has a deadline and it expired
+     */
+    public boolean isExpired()
+    {
+        return deadline != NO_DEADLINE && System.nanoTime() - deadline >= 0;
+    }
+
+    public void checkCancelled()
+        throws SVNCancelException
+    {
+        if ( cancelled )
+        {
+            throw new SVNCancelException( SVNErrorMessage.create( SVNErrorCode.CANCELLED, "Operation cancelled" ) );
+        }
+        if ( isExpired() )
+        {
+            throw new SVNCancelException(
+                SVNErrorMessage.create( SVNErrorCode.CANCELLED, "Operation timed out after {0} ms", timeoutMillis ) );
+        }
+    }
+}
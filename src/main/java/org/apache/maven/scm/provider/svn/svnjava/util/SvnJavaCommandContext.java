@@ -0,0 +1,96 @@
+package org.apache.maven.scm.provider.svn.svnjava.util;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+import org.apache.maven.scm.provider.svn.svnjava.metrics.SvnCommandMetricsRecorder;
+
+/**
+ * What a command binds to its thread: the {@link SvnCommandMetricsRecorder}, the
+ * {@link SvnJavaCancellationToken} and the {@link ScmResultListener}. A command splitting its work over several
+ * threads captures its context and binds it on each of them, so that the svnkit handlers created there report
+ * to the same recorder and listener and stop with the same token.
+ *
+ * @since 2.2.2
+ */
+public final class SvnJavaCommandContext
+{
+    private final SvnCommandMetricsRecorder recorder;
+
+    private final SvnJavaCancellationToken cancellationToken;
+
+    private final ScmResultListener resultListener;
+
+    private SvnJavaCommandContext( SvnCommandMetricsRecorder recorder, SvnJavaCancellationToken cancellationToken,
+                                   ScmResultListener resultListener )
+    {
+        this.recorder = recorder;
+        this.cancellationToken = cancellationToken;
+        this.resultListener = resultListener;
+    }
+
+    /**
+     * @return the context bound to the current thread
+     */
+    public static SvnJavaCommandContext capture()
+    {
+        return new SvnJavaCommandContext( SvnCommandMetricsRecorder.current(), SvnJavaCancellationToken.current(),
+                                          ScmResultListeners.current() );
+    }
+
+    /**
+     * Binds this context to the current thread.
+     *
+     * @return the context previously bound, to be restored with {@link #restore(SvnJavaCommandContext)}
+     */
+    public SvnJavaCommandContext bind()
+    {
+        SvnJavaCommandContext previous = capture();
+        apply( this );
+        return previous;
+    }
+
+    public static void restore( SvnJavaCommandContext previous )
+    {
+        apply( previous );
+    }
+
+    public SvnCommandMetricsRecorder getRecorder()
+    {
+        return recorder;
+    }
+
+    public SvnJavaCancellationToken getCancellationToken()
+    {
+        return cancellationToken;
+    }
+
+    public ScmResultListener getResultListener()
+    {
+        return resultListener;
+    }
+
+    private static void apply( SvnJavaCommandContext context )
+    {
+        SvnCommandMetricsRecorder.restore( context.recorder );
+        SvnJavaCancellationToken.restore( context.cancellationToken );
+        ScmResultListeners.restore( context.resultListener );
+    }
+}
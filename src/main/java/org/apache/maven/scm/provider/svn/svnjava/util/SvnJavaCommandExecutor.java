@@ -0,0 +1,163 @@
+package org.apache.maven.scm.provider.svn.svnjava.util;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.scm.ScmException;
+import org.apache.maven.scm.ScmResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs a batch of scm operations, typically on many repositories, with at most {@link #getMaxParallelism()}
+ * of them running at the same time.
+ * <p>
+ * Each batch gets its own threads, which are stopped once the batch completed. All operations are run even if
+ * some of them fail; the results are returned in the order of the operations, and the first failure is
+ * rethrown with the later ones attached as suppressed exceptions.
+ * </p>
+ *
+ * @since 2.2.2
+ */
+public class SvnJavaCommandExecutor
+{
+    private static final AtomicInteger BATCH_COUNT = new AtomicInteger();
+
+    private final int maxParallelism;
+
+    public SvnJavaCommandExecutor( int maxParallelism )
+    {
+        if ( maxParallelism < 1 )
+        {
+            throw new IllegalArgumentException( "maxParallelism must be at least 1" );
+        }
+        this.maxParallelism = maxParallelism;
+    }
+
+    public int getMaxParallelism()
+    {
+        return maxParallelism;
+    }
+
+    /**
+     * Runs the operations and waits for all of them.
+     *
+     * @return the results, in the order of the operations
+     * @throws ScmException if an operation failed or the calling thread was interrupted
+     */
+    public <T extends ScmResult> List<T> executeAll( List<? extends ScmOperation<T>> operations )
+        throws ScmException
+    {
+        List<T> results = new ArrayList<>( operations.size() );
+        if ( operations.isEmpty() )
+        {
+            return results;
+        }
+
+        ExecutorService executor = newExecutor( Math.min( maxParallelism, operations.size() ) );
+        try
+        {
+            List<Future<T>> futures = new ArrayList<>( operations.size() );
+            for ( ScmOperation<T> operation : operations )
+            {
+                futures.add( executor.submit( operation::execute ) );
+            }
+
+            ScmException failure = null;
+            for ( Future<T> future : futures )
+            {
+                T result = null;
+                try
+                {
+                    result = future.get();
+                }
+                catch ( ExecutionException e )
+                {
+                    ScmException cause = e.getCause() instanceof ScmException ? (ScmException) e.getCause()
+                        : new ScmException( "Error while executing SCM command.", e.getCause() );
+                    if ( failure == null )
+                    {
+                        failure = cause;
+                    }
+                    else
+                    {
+                        failure.addSuppressed( cause );
+                    }
+                }
+                catch ( InterruptedException e )
+                {
+                    Thread.currentThread().interrupt();
+                    for ( Future<T> pending : futures )
+                    {
+                        pending.cancel( true );
+                    }
+                    throw new ScmException( "Interrupted while waiting for the SCM commands.", e );
+                }
+                results.add( result );
+            }
+
+            if ( failure != null )
+            {
+                throw failure;
+            }
+            return results;
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    private ExecutorService newExecutor( int threads )
+    {
+        final String prefix = "svnjava-batch-" + BATCH_COUNT.incrementAndGet() + "-";
+        ThreadFactory threadFactory = new ThreadFactory()
+        {
+            private final AtomicInteger count = new AtomicInteger();
+
+            public Thread newThread( Runnable r )
+            {
+                Thread thread = new Thread( r, prefix + count.incrementAndGet() );
+                thread.setDaemon( true );
+                return thread;
+            }
+        };
+        return new ThreadPoolExecutor( threads, threads, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                                       threadFactory );
+    }
+
+    /**
+     * One scm operation of a batch, usually a call on the provider such as
+     * <code>() -&gt; provider.checkOut( repository, fileSet )</code>.
+     */
+    public interface ScmOperation<T extends ScmResult>
+    {
+        T execute()
+            throws ScmException;
+    }
+}
@@ -0,0 +1,270 @@
+package org.apache.maven.scm.provider.svn.svnjava.util;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+import org.apache.maven.scm.CommandParameters;
+import org.tmatesoft.svn.core.SVNDepth;
+
+/**
+ * {@link CommandParameters} accepted by the svnjava commands, adding the settings which cannot be stored as
+ * plain command parameters. The regular parameters are set as usual.
+ *
+ * @since 2.2.2
+ */
+public class SvnJavaCommandParameters
+    extends CommandParameters
+{
+    private static final long serialVersionUID = 1L;
+
+    private transient SvnJavaCancellationToken cancellationToken;
+
+    private transient ScmResultListener resultListener;
+
+    private int parallelism = 1;
+
+    private transient SVNDepth depth;
+
+    private boolean resume;
+
+    private int retries;
+
+    private long retryBackoff = 1000;
+
+    private boolean remoteStatus;
+
+    public SvnJavaCancellationToken getCancellationToken()
+    {
+        return cancellationToken;
+    }
+
+    /**
+     * @param cancellationToken the token used to cancel the command, null if it cannot be cancelled
+     */
+    public void setCancellationToken( SvnJavaCancellationToken cancellationToken )
+    {
+        this.cancellationToken = cancellationToken;
+    }
+
+    public ScmResultListener getResultListener()
+    {
+        return resultListener;
+    }
+
+    /**
+     * @param resultListener the listener receiving the records of the command as they are produced, null to
+     *            collect them in the result
+     */
+    public void setResultListener( ScmResultListener resultListener )
+    {
+        this.resultListener = resultListener;
+    }
+
+    public int getParallelism()
+    {
+        return parallelism;
+    }
+
+    /**
+     * Sets the number of threads a command able to split its work may use. The export and the status read their
+     * top level directories concurrently, and the checkout and the update fetch the <code>svn:externals</code> of
+     * the working copy concurrently. A checkout does not split its own tree: svnkit locks the whole working copy
+     * while it is written, so a checkout without externals runs on the calling thread whatever the parallelism.
+     *
+     * @param parallelism the number of threads; 1, the default, keeps the work on the calling thread
+     */
+    public void setParallelism( int parallelism )
+    {
+        if ( parallelism < 1 )
+        {
+            throw new IllegalArgumentException( "parallelism must be at least 1" );
+        }
+        this.parallelism = parallelism;
+    }
+
+    public SVNDepth getDepth()
+    {
+        return depth;
+    }
+
+    /**
+     * @param depth the depth of a checkout, or the depth an update sets on the files of its file set, such as
+     *            {@link SVNDepth#IMMEDIATES} to get the top level files and empty directories which can be
+     *            deepened later, or the depth a status reads the directories of its file set at; null for the
+     *            default depth of the command
+     */
+    public void setDepth( SVNDepth depth )
+    {
+        this.depth = depth;
+    }
+
+    public boolean isResume()
+    {
+        return resume;
+    }
+
+    /**
+     * @param resume true to let a checkout complete the working copy left at its destination by an interrupted
+     *            checkout of the same url, instead of failing on it
+     */
+    public void setResume( boolean resume )
+    {
+        this.resume = resume;
+    }
+
+    public int getRetries()
+    {
+        return retries;
+    }
+
+    /**
+     * @param retries how many times a checkout failing on a network error is resumed, 0, the default, to fail
+     *            at once
+     */
+    public void setRetries( int retries )
+    {
+        if ( retries < 0 )
+        {
+            throw new IllegalArgumentException( "retries must not be negative" );
+        }
+        this.retries = retries;
+    }
+
+    public long getRetryBackoff()
+    {
+        return retryBackoff;
+    }
+
+    /**
+     * @param retryBackoff the delay in milliseconds before the first retry, doubled for each of the next ones;
+     *            1 second by default
+     */
+    public void setRetryBackoff( long retryBackoff )
+    {
+        if ( retryBackoff < 0 )
+        {
+            throw new IllegalArgumentException( "retryBackoff must not be negative" );
+        }
+        this.retryBackoff = retryBackoff;
+    }
+
+    public boolean isRemoteStatus()
+    {
+        return remoteStatus;
+    }
+
+    /**
+     * @param remoteStatus true to have the status contact the repository for out of date information, false, the
+     *            default, to only read the working copy
+     */
+    public void setRemoteStatus( boolean remoteStatus )
+    {
+        this.remoteStatus = remoteStatus;
+    }
+
+    /**
+     * @return the cancellation token of the parameters, null if there is none
+     */
+    public static SvnJavaCancellationToken getCancellationToken( CommandParameters parameters )
+    {
+        if ( parameters instanceof SvnJavaCommandParameters )
+        {
+            return ( (SvnJavaCommandParameters) parameters ).getCancellationToken();
+        }
+        return null;
+    }
+
+    /**
+     * @return the result listener of the parameters, null if there is none
+     */
+    public static ScmResultListener getResultListener( CommandParameters parameters )
+    {
+        if ( parameters instanceof SvnJavaCommandParameters )
+        {
+            return ( (SvnJavaCommandParameters) parameters ).getResultListener();
+        }
+        return null;
+    }
+
+    /**
+     * @return the parallelism of the parameters, 1 if not set
+     */
+    public static int getParallelism( CommandParameters parameters )
+    {
+        if ( parameters instanceof SvnJavaCommandParameters )
+        {
+            return ( (SvnJavaCommandParameters) parameters ).getParallelism();
+        }
+        return 1;
+    }
+
+    /**
+     * @return the depth of the parameters, null if there is none
+     */
+    public static SVNDepth getDepth( CommandParameters parameters )
+    {
+        if ( parameters instanceof SvnJavaCommandParameters )
+        {
+            return ( (SvnJavaCommandParameters) parameters ).getDepth();
+        }
+        return null;
+    }
+
+    /**
+     * @return true if the parameters ask to resume an interrupted checkout
+     */
+    public static boolean isResume( CommandParameters parameters )
+    {
+        return parameters instanceof SvnJavaCommandParameters && ( (SvnJavaCommandParameters) parameters ).isResume();
+    }
+
+    /**
+     * @return the retries of the parameters, 0 if not set
+     */
+    public static int getRetries( CommandParameters parameters )
+    {
+        if ( parameters instanceof SvnJavaCommandParameters )
+        {
+            return ( (SvnJavaCommandParameters) parameters ).getRetries();
+        }
+        return 0;
+    }
+
+    /**
+     * @return the first retry delay of the parameters in milliseconds, 1 second if not set
+     */
+    public static long getRetryBackoff( CommandParameters parameters )
+    {
+        if ( parameters instanceof SvnJavaCommandParameters )
+        {
+            return ( (SvnJavaCommandParameters) parameters ).getRetryBackoff();
+        }
+        return 1000;
+    }
+
+    /**
+     * @return true if the parameters ask for a remote status
+     */
+    public static boolean isRemoteStatus( CommandParameters parameters )
+    {
+        return parameters instanceof SvnJavaCommandParameters
+            && ( (SvnJavaCommandParameters) parameters ).isRemoteStatus();
+    }
+}
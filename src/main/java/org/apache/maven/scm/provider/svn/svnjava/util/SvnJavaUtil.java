@@ -22,31 +22,49 @@ package org.apache.maven.scm.provider.svn.svnjava.util;
 import org.apache.maven.scm.ScmFileSet;
 import org.apache.maven.scm.ScmFileStatus;
 import org.apache.maven.scm.provider.svn.svnjava.command.status.SvnStatusHandler;
+import org.apache.maven.scm.provider.svn.svnjava.repository.SvnJavaScmProviderRepository;
 import org.codehaus.plexus.util.StringUtils;
+import org.slf4j.Logger;
 import org.tmatesoft.svn.core.ISVNLogEntryHandler;
 import org.tmatesoft.svn.core.SVNCancelException;
 import org.tmatesoft.svn.core.SVNCommitInfo;
 import org.tmatesoft.svn.core.SVNDepth;
 import org.tmatesoft.svn.core.SVNException;
 import org.tmatesoft.svn.core.SVNProperties;
+import org.tmatesoft.svn.core.SVNProperty;
 import org.tmatesoft.svn.core.SVNURL;
+import org.tmatesoft.svn.core.internal.util.SVNDate;
+import org.tmatesoft.svn.core.internal.util.SVNPathUtil;
+import org.tmatesoft.svn.core.internal.wc.SVNFileUtil;
+import org.tmatesoft.svn.core.internal.wc.admin.SVNTranslator;
+import org.tmatesoft.svn.core.io.SVNRepository;
 import org.tmatesoft.svn.core.wc.ISVNAnnotateHandler;
 import org.tmatesoft.svn.core.wc.ISVNEventHandler;
+import org.tmatesoft.svn.core.wc.ISVNPropertyHandler;
 import org.tmatesoft.svn.core.wc.SVNClientManager;
 import org.tmatesoft.svn.core.wc.SVNCommitClient;
 import org.tmatesoft.svn.core.wc.SVNCopySource;
 import org.tmatesoft.svn.core.wc.SVNDiffClient;
 import org.tmatesoft.svn.core.wc.SVNEvent;
 import org.tmatesoft.svn.core.wc.SVNEventAction;
+import org.tmatesoft.svn.core.wc.SVNInfo;
 import org.tmatesoft.svn.core.wc.SVNLogClient;
+import org.tmatesoft.svn.core.wc.SVNPropertyData;
 import org.tmatesoft.svn.core.wc.SVNRevision;
 import org.tmatesoft.svn.core.wc.SVNUpdateClient;
+import org.tmatesoft.svn.core.wc.SVNWCClient;
+import org.tmatesoft.svn.core.wc.SVNWCUtil;
+import org.tmatesoft.svn.core.wc2.SvnCleanup;
+import org.tmatesoft.svn.core.wc2.SvnOperationFactory;
+import org.tmatesoft.svn.core.wc2.SvnTarget;
 
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * * Static helper library to consolidate calls to the {@link
@@ -207,6 +225,32 @@ public final class SvnJavaUtil
         return updateClient.doCheckout( url, destPath, revision, revision, isRecursive );
     }
 
+    /**
+     * Checks out a working copy down to the given depth, which is recorded in the working copy: later updates
+     * stay within it, unless they set another depth with
+     * {@link #update(SVNUpdateClient, File[], SVNRevision, SVNDepth, boolean)}.
+     *
+     * @since 2.2.2
+     */
+    public static long checkout( SVNUpdateClient updateClient, SVNURL url, SVNRevision revision, File destPath,
+                                 SVNDepth depth )
+        throws SVNException
+    {
+        return checkout( updateClient, url, revision, destPath, depth, false );
+    }
+
+    /**
+     * @param ignoreExternals true when the externals are fetched afterwards, e.g. by {@link SvnExternalsFetcher}
+     * @since 2.2.2
+     */
+    public static long checkout( SVNUpdateClient updateClient, SVNURL url, SVNRevision revision, File destPath,
+                                 SVNDepth depth, boolean ignoreExternals )
+        throws SVNException
+    {
+        updateClient.setIgnoreExternals( ignoreExternals );
+        return updateClient.doCheckout( url, destPath, revision, revision, depth, false );
+    }
+
     public static long export( SVNClientManager clientManager, SVNURL url, SVNRevision revision, File destPath,
                                boolean isRecursive )
         throws SVNException
@@ -222,6 +266,20 @@ public final class SvnJavaUtil
         return updateClient.doExport( url, destPath, revision, revision, "native", true, isRecursive );
     }
 
+    /**
+     * Exports <code>url</code> down to the given depth, overwriting the files already in <code>destPath</code>.
+     *
+     * @since 2.2.2
+     */
+    public static long export( SVNClientManager clientManager, SVNURL url, SVNRevision revision, File destPath,
+                               SVNDepth depth )
+        throws SVNException
+    {
+        SVNUpdateClient updateClient = clientManager.getUpdateClient();
+        updateClient.setIgnoreExternals( false );
+        return updateClient.doExport( url, destPath, revision, revision, "native", true, depth );
+    }
+
     /**
      * Updates a working copy to a different URL. Like 'svn switch URL' command.
      * It's done by invoking
@@ -246,13 +304,21 @@ public final class SvnJavaUtil
     public static long switchToURL( SVNClientManager clientManager, File wcPath, SVNURL url,
                                     SVNRevision updateToRevision, boolean isRecursive )
         throws SVNException
+    {
+        return switchToURL( clientManager, wcPath, url, updateToRevision, isRecursive, false );
+    }
+
+    /**
+     * @param ignoreExternals true when the externals are fetched afterwards, e.g. by {@link SvnExternalsFetcher}
+     * @since 2.2.2
+     */
+    public static long switchToURL( SVNClientManager clientManager, File wcPath, SVNURL url,
+                                    SVNRevision updateToRevision, boolean isRecursive, boolean ignoreExternals )
+        throws SVNException
     {
         SVNUpdateClient updateClient = clientManager.getUpdateClient();
 
-        /*
-         * sets externals not to be ignored during the switch
-         */
-        updateClient.setIgnoreExternals( false );
+        updateClient.setIgnoreExternals( ignoreExternals );
 
         /*
          * returns the number of the revision wcPath was updated to
@@ -282,17 +348,174 @@ public final class SvnJavaUtil
                                boolean isRecursive )
         throws SVNException
     {
-        //SVNUpdateClient updateClient = clientManager.getUpdateClient();
-        /*
-         * sets externals not to be ignored during the update
-         */
-        updateClient.setIgnoreExternals( false );
+        return update( updateClient, wcPath, updateToRevision, isRecursive, false );
+    }
+
+    /**
+     * @param ignoreExternals true when the externals are fetched afterwards, e.g. by {@link SvnExternalsFetcher}
+     * @since 2.2.2
+     */
+    public static long update( SVNUpdateClient updateClient, File wcPath, SVNRevision updateToRevision,
+                               boolean isRecursive, boolean ignoreExternals )
+        throws SVNException
+    {
+        updateClient.setIgnoreExternals( ignoreExternals );
         /*
          * returns the number of the revision wcPath was updated to
          */
         return updateClient.doUpdate( wcPath, updateToRevision, isRecursive );
     }
 
+    /**
+     * Updates some paths of a working copy down to the given depth. With <code>depthIsSticky</code> the depth
+     * becomes the depth of the paths, like 'svn update --set-depth': a directory checked out with a lower depth
+     * is deepened, fetching only what it was missing, and the missing parents of the paths are brought in too.
+     *
+     * @return the revision of each path
+     * @since 2.2.2
+     */
+    public static long[] update( SVNUpdateClient updateClient, File[] wcPaths, SVNRevision updateToRevision,
+                                 SVNDepth depth, boolean depthIsSticky )
+        throws SVNException
+    {
+        updateClient.setIgnoreExternals( false );
+        return updateClient.doUpdate( wcPaths, updateToRevision, depth, false, depthIsSticky, depthIsSticky );
+    }
+
+    /**
+     * Points a working copy to another repository with the same uuid, like 'svn relocate FROM TO PATH'. Only the
+     * urls recorded in the working copy change, nothing is transferred.
+     *
+     * @since 2.2.2
+     */
+    public static void relocate( SVNUpdateClient updateClient, File wcPath, SVNURL fromUrl, SVNURL toUrl )
+        throws SVNException
+    {
+        updateClient.doRelocate( wcPath, fromUrl, toUrl, true );
+    }
+
+    /**
+     * Expands again the keywords of the files of a working copy, against the urls and last changes recorded in it.
+     * Relocating a working copy does not translate its files: once checked out or updated from a mirror and
+     * relocated to the origin, a <code>$HeadURL$</code> still holds the url of the file in the mirror otherwise.
+     * Files never committed are left as they are.
+     *
+     * @since 2.2.2
+     */
+    public static void translateKeywords( SVNClientManager clientManager, File wcPath )
+        throws SVNException
+    {
+        final SVNWCClient wcClient = clientManager.getWCClient();
+        final Map<File, String> keywords = new LinkedHashMap<>();
+        wcClient.doGetProperty( wcPath, SVNProperty.KEYWORDS, SVNRevision.UNDEFINED, SVNRevision.WORKING,
+                                SVNDepth.INFINITY, new KeywordsHandler()
+            {
+                @Override
+                public void handleProperty( File path, SVNPropertyData property )
+                {
+                    keywords.put( path, property.getValue().getString() );
+                }
+            }, null );
+
+        for ( Map.Entry<File, String> entry : keywords.entrySet() )
+        {
+            File file = entry.getKey();
+            SVNInfo info = wcClient.doInfo( file, SVNRevision.UNDEFINED );
+            if ( !file.isFile() || info.getCommittedRevision() == null || !info.getCommittedRevision().isValid() )
+            {
+                continue;
+            }
+            String charset = SVNTranslator.getCharset( getValue( wcClient, file, SVNProperty.CHARSET ),
+                                                       getValue( wcClient, file, SVNProperty.MIME_TYPE ),
+                                                       file.getPath(), clientManager.getOptions() );
+            translateKeywords( file, charset, SVNTranslator.computeKeywords(
+                entry.getValue(), info.getURL().toString(), info.getRepositoryRootURL().toString(), info.getAuthor(),
+                SVNDate.formatDate( info.getCommittedDate() ),
+                String.valueOf( info.getCommittedRevision().getNumber() ), clientManager.getOptions() ) );
+        }
+    }
+
+    /**
+     * Expands again the keywords of the files exported from <code>url</code> into <code>destPath</code>, against
+     * <code>originUrl</code>. An export from a mirror expands them against the mirror otherwise, see
+     * {@link #translateKeywords(SVNClientManager, File)}.
+     *
+     * @param url the url exported, in a mirror
+     * @param revision the revision exported
+     * @param originUrl the url in the origin of the same path as <code>url</code>
+     * @param originRootUrl the root of the origin repository
+     * @since 2.2.2
+     */
+    public static void translateKeywords( SVNClientManager clientManager, SVNURL url, long revision, File destPath,
+                                          SVNURL originUrl, SVNURL originRootUrl )
+        throws SVNException
+    {
+        final Map<String, String> keywords = new LinkedHashMap<>();
+        final String root = url.getPath();
+        clientManager.getWCClient().doGetProperty( url, SVNProperty.KEYWORDS, SVNRevision.create( revision ),
+                                                   SVNRevision.create( revision ), SVNDepth.INFINITY,
+                                                   new KeywordsHandler()
+            {
+                @Override
+                public void handleProperty( SVNURL path, SVNPropertyData property )
+                {
+                    keywords.put( SVNPathUtil.getRelativePath( root, path.getPath() ),
+                                  property.getValue().getString() );
+                }
+            } );
+
+        // the path of a file is relative to its parent
+        boolean isFile = keywords.containsKey( "" );
+        SVNRepository repository = clientManager.createRepository( isFile ? url.removePathTail() : url, true );
+        for ( Map.Entry<String, String> entry : keywords.entrySet() )
+        {
+            String path = isFile ? SVNPathUtil.tail( url.getPath() ) : entry.getKey();
+            File file = isFile ? ( destPath.isDirectory() ? new File( destPath, path ) : destPath )
+                : new File( destPath, path );
+            if ( !file.isFile() )
+            {
+                continue;
+            }
+            SVNProperties properties = new SVNProperties();
+            repository.getFile( path, revision, properties, null );
+            String charset = SVNTranslator.getCharset( properties.getStringValue( SVNProperty.CHARSET ),
+                                                       properties.getStringValue( SVNProperty.MIME_TYPE ),
+                                                       file.getPath(), clientManager.getOptions() );
+            SVNURL fileUrl = isFile ? originUrl : originUrl.appendPath( path, false );
+            translateKeywords( file, charset, SVNTranslator.computeKeywords(
+                entry.getValue(), fileUrl.toString(), originRootUrl.toString(),
+                properties.getStringValue( SVNProperty.LAST_AUTHOR ),
+                properties.getStringValue( SVNProperty.COMMITTED_DATE ),
+                properties.getStringValue( SVNProperty.COMMITTED_REVISION ), clientManager.getOptions() ) );
+        }
+    }
+
+    /**
+     * Collapses the keywords of <code>file</code> and expands them again with the given values, in place.
+     */
+    private static void translateKeywords( File file, String charset, Map<String, byte[]> keywords )
+        throws SVNException
+    {
+        File collapsed = SVNFileUtil.createUniqueFile( file.getParentFile(), file.getName(), ".tmp", false );
+        try
+        {
+            SVNTranslator.translate( file, collapsed, charset, null, keywords, false, false );
+            // written over the file, which keeps its permissions
+            SVNTranslator.translate( collapsed, file, charset, null, keywords, false, true );
+        }
+        finally
+        {
+            SVNFileUtil.deleteFile( collapsed );
+        }
+    }
+
+    private static String getValue( SVNWCClient wcClient, File file, String name )
+        throws SVNException
+    {
+        SVNPropertyData property = wcClient.doGetProperty( file, name, SVNRevision.UNDEFINED, SVNRevision.WORKING );
+        return property == null || property.getValue() == null ? null : property.getValue().getString();
+    }
+
     public static void changelog( SVNClientManager clientManager, SVNURL svnUrl, SVNRevision startRevision,
                                   SVNRevision endRevision, boolean stopOnCopy, boolean reportPaths,
                                   ISVNLogEntryHandler handler )
@@ -418,12 +641,38 @@ public final class SvnJavaUtil
                                SvnStatusHandler handler )
         throws SVNException
     {
-        boolean isIncludeIgnored = true;
-        boolean isReportAll = true;
+        status( clientManager, wcPath, SVNDepth.fromRecurse( isRecursive ), isRemote, handler );
+    }
+
+    /**
+     * Same as {@link #status(SVNClientManager, File, boolean, boolean, SvnStatusHandler)}, down to the given depth.
+     *
+     * @since 2.2.2
+     */
+    public static void status( SVNClientManager clientManager, File wcPath, SVNDepth depth, boolean isRemote,
+                               SvnStatusHandler handler )
+        throws SVNException
+    {
+        // only the entries SvnStatusHandler reports are asked for: the unmodified ones are skipped by svnkit
+        // before any status object is built for them, and the ignored ones are dropped by the handler anyway
+        status( clientManager, wcPath, depth, isRemote, false, handler );
+    }
+
+    /**
+     * Same as {@link #status(SVNClientManager, File, SVNDepth, boolean, SvnStatusHandler)}, the unmodified entries
+     * being passed to the handler too when <code>isReportAll</code> is true.
+     *
+     * @since 2.2.2
+     */
+    public static void status( SVNClientManager clientManager, File wcPath, SVNDepth depth, boolean isRemote,
+                               boolean isReportAll, SvnStatusHandler handler )
+        throws SVNException
+    {
+        boolean isIncludeIgnored = false;
         boolean isCollectParentExternals = true;
 
-        clientManager.getStatusClient().doStatus( wcPath, isRecursive, isRemote, isReportAll, isIncludeIgnored,
-                                                  isCollectParentExternals, handler );
+        clientManager.getStatusClient().doStatus( wcPath, SVNRevision.HEAD, depth, isRemote, isReportAll,
+                                                  isIncludeIgnored, isCollectParentExternals, handler, null );
     }
 
     /*
@@ -548,6 +797,20 @@ public final class SvnJavaUtil
                                                  true, false, handler, null );
     }
 
+    /**
+     * Blames a file of the repository, identified by its url at <code>pegRevision</code>, from revision 1 to
+     * HEAD.
+     *
+     * @since 2.2.2
+     */
+    public static void blame( SVNClientManager clientManager, SVNURL url, SVNRevision pegRevision,
+                              ISVNAnnotateHandler handler )
+        throws SVNException
+    {
+        clientManager.getLogClient().doAnnotate( url, pegRevision, SVNRevision.create( 1 ), SVNRevision.HEAD, true,
+                                                 false, handler, null );
+    }
+
     public static SVNCommitInfo mkdir( SVNClientManager clientManager, SVNURL[] urls, String commitMessage )
         throws SVNException
     {
@@ -555,6 +818,62 @@ public final class SvnJavaUtil
         return commitInfo;
     }
 
+    /**
+     * Cleans up the working copy after an operation of the client manager was cancelled: the unfinished work items
+     * are completed or rolled back and the locks left by the operation are broken, so that the working copy can be
+     * used again. The client manager is dropped from the pool first, disposing it closes its working copy database,
+     * which rolls back the transaction interrupted by the cancellation. The cleanup itself runs with an operation
+     * factory of its own, without the cancelled event handler. Failures are only logged, the working copy may not
+     * even exist if a checkout was cancelled early.
+     */
+    public static void cleanupAfterCancel( SvnJavaScmProviderRepository repository, SVNClientManager clientManager,
+                                           File wcPath, Logger logger )
+    {
+        repository.invalidateClientManager( clientManager );
+        if ( !SVNWCUtil.isVersionedDirectory( wcPath ) )
+        {
+            return;
+        }
+        SvnOperationFactory operationFactory = new SvnOperationFactory();
+        try
+        {
+            SvnCleanup cleanup = operationFactory.createCleanup();
+            cleanup.setSingleTarget( SvnTarget.fromFile( wcPath ) );
+            cleanup.setBreakLocks( true );
+            cleanup.run();
+        }
+        catch ( SVNException e )
+        {
+            logger.warn( "Cleanup of " + wcPath + " after cancellation failed: " + e.getMessage() );
+        }
+        finally
+        {
+            operationFactory.dispose();
+        }
+    }
+
+    /**
+     * Handler of the <code>svn:keywords</code> properties of a working copy or of a url.
+     */
+    private abstract static class KeywordsHandler
+        implements ISVNPropertyHandler
+    {
+        @Override
+        public void handleProperty( File path, SVNPropertyData property )
+        {
+        }
+
+        @Override
+        public void handleProperty( SVNURL url, SVNPropertyData property )
+        {
+        }
+
+        @Override
+        public void handleProperty( long revision, SVNPropertyData property )
+        {
+        }
+    }
+
     /**
      * Generic event handler that collects all events internally and will return them with a call to
      * {@link #getEvents()}
@@ -564,6 +883,8 @@ public final class SvnJavaUtil
     {
         private List<SVNEvent> events = new ArrayList<>();
 
+        private final SvnJavaCancellationToken cancellationToken = SvnJavaCancellationToken.current();
+
         public GenericEventHandler()
         {
         }
@@ -576,7 +897,7 @@ public final class SvnJavaUtil
         public void checkCancelled()
             throws SVNCancelException
         {
-            // null
+            SvnJavaCancellationToken.checkCancelled( cancellationToken );
         }
 
         public List<SVNEvent> getEvents()
@@ -0,0 +1,315 @@
+package org.apache.maven.scm.provider.svn.svnjava.util;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.commons.io.FileUtils;
+import org.apache.maven.scm.ScmFileStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.tmatesoft.svn.core.SVNCancelException;
+import org.tmatesoft.svn.core.SVNDepth;
+import org.tmatesoft.svn.core.SVNException;
+import org.tmatesoft.svn.core.SVNNodeKind;
+import org.tmatesoft.svn.core.SVNURL;
+import org.tmatesoft.svn.core.wc.ISVNEventHandler;
+import org.tmatesoft.svn.core.wc.SVNClientManager;
+import org.tmatesoft.svn.core.wc.SVNEvent;
+import org.tmatesoft.svn.core.wc.SVNInfo;
+import org.tmatesoft.svn.core.wc.SVNRevision;
+import org.tmatesoft.svn.core.wc.SVNUpdateClient;
+import org.tmatesoft.svn.core.wc.SVNWCClient;
+import org.tmatesoft.svn.core.wc2.SvnGetStatusSummary;
+import org.tmatesoft.svn.core.wc2.SvnOperationFactory;
+import org.tmatesoft.svn.core.wc2.SvnTarget;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+
+/**
+ * Directory of idle working copies used as donors to seed new checkouts on the same machine.
+ * <p>
+ * Any working copy directly below {@link #getDirectory()} is a donor for the url it is checked out from. When a
+ * full checkout of that url is asked for, the administrative area of the donor whose revision is the closest to
+ * the target is copied, its pristine store hard linked when the file system allows it, the working files are
+ * restored from the pristine copies, and an update brings the clone to the target revision: only the changes
+ * between both revisions go over the network. Donors must not be in use while they are cloned.
+ * </p>
+ * <p>
+ * A donor with a switched subtree is skipped: neither the revert nor the update of the clone would switch it back,
+ * and the new working copy would hold the content of another url.
+ * </p>
+ *
+ * @since 2.2.2
+ */
+public class SvnWorkingCopyCache
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger( SvnWorkingCopyCache.class );
+
+    static final String ADMIN_DIRECTORY = ".svn";
+
+    private final File directory;
+
+    private final long maxRevisionDistance;
+
+    /**
+     * @param directory the directory holding the donor working copies
+     * @param maxRevisionDistance how many revisions a donor may be away from the target revision, a donor further
+     *            away is not worth cloning and a plain checkout is done instead
+     */
+    public SvnWorkingCopyCache( File directory, long maxRevisionDistance )
+    {
+        this.directory = directory;
+        this.maxRevisionDistance = maxRevisionDistance;
+    }
+
+    /**
+     * @param directory the directory holding the donor working copies, any of them being close enough
+     */
+    public SvnWorkingCopyCache( File directory )
+    {
+        this( directory, Long.MAX_VALUE );
+    }
+
+    public File getDirectory()
+    {
+        return directory;
+    }
+
+    public long getMaxRevisionDistance()
+    {
+        return maxRevisionDistance;
+    }
+
+    /**
+     * Checks <code>url</code> out into <code>target</code> by cloning a donor, if there is one close enough.
+     *
+     * @param url the url to check out, as recorded in the donors
+     * @param readUrl the url to read the missing changes from, <code>url</code> or its mirror, the clone is left
+     *            pointing to it
+     * @param target the directory of the new working copy, missing or empty
+     * @param handler receives the files of the new working copy, all of them reported as added like in a checkout,
+     *            the update client of <code>clientManager</code> is left reporting to it
+     * @return the revision of the clone, or -1 if there was no donor and nothing was done
+     */
+    public long checkOut( SVNClientManager clientManager, SVNURL url, SVNURL readUrl, SVNRevision revision,
+                          File target, ScmFileEventHandler handler )
+        throws SVNException
+    {
+        String[] existing = target.list();
+        if ( existing != null && existing.length > 0 )
+        {
+            return -1;
+        }
+
+        long targetRevision =
+            clientManager.getWCClient().doInfo( readUrl, SVNRevision.UNDEFINED, revision ).getRevision().getNumber();
+        File donor = findDonor( clientManager.getWCClient(), url, targetRevision, target );
+        if ( donor == null )
+        {
+            return -1;
+        }
+        LOGGER.info( "Seeding " + target + " from the working copy " + donor );
+
+        try
+        {
+            copyAdministrativeArea( new File( donor, ADMIN_DIRECTORY ).toPath(),
+                                    new File( target, ADMIN_DIRECTORY ).toPath() );
+        }
+        catch ( IOException e )
+        {
+            LOGGER.warn( "Working copy " + donor + " could not be cloned: " + e.getMessage() );
+            FileUtils.deleteQuietly( new File( target, ADMIN_DIRECTORY ) );
+            return -1;
+        }
+
+        SVNUpdateClient updateClient = clientManager.getUpdateClient();
+        SVNWCClient wcClient = clientManager.getWCClient();
+        // the files are reported once the clone is complete, only cancellation is checked meanwhile
+        ISVNEventHandler cancellationHandler = new CancellationHandler( handler );
+        updateClient.setEventHandler( cancellationHandler );
+        wcClient.setEventHandler( cancellationHandler );
+        long result;
+        try
+        {
+            if ( !readUrl.equals( url ) )
+            {
+                SvnJavaUtil.relocate( updateClient, target, url, readUrl );
+            }
+            // nothing but the administrative area was copied, the working files come from the pristine store
+            wcClient.doRevert( new File[]{ target }, SVNDepth.INFINITY, null );
+            result = updateClient.doUpdate( target, SVNRevision.create( targetRevision ), SVNDepth.INFINITY, false,
+                                            true );
+        }
+        finally
+        {
+            updateClient.setEventHandler( handler );
+            wcClient.setEventHandler( null );
+        }
+
+        wcClient.doInfo( target, SVNRevision.UNDEFINED, SVNRevision.UNDEFINED, SVNDepth.INFINITY, null,
+                         ( SVNInfo info ) -> {
+                if ( info.getKind() == SVNNodeKind.FILE )
+                {
+                    handler.onFile( info.getFile(), ScmFileStatus.ADDED );
+                }
+            } );
+        return result;
+    }
+
+    /**
+     * @return the donor checked out from <code>url</code> with the revision closest to <code>revision</code>, null
+     *         if there is none within {@link #getMaxRevisionDistance()}
+     */
+    File findDonor( SVNWCClient wcClient, SVNURL url, long revision, File target )
+    {
+        File[] candidates = directory.listFiles();
+        if ( candidates == null )
+        {
+            return null;
+        }
+        File absoluteTarget = target.getAbsoluteFile();
+        File best = null;
+        long bestDistance = Long.MAX_VALUE;
+        for ( File candidate : candidates )
+        {
+            if ( !new File( candidate, ADMIN_DIRECTORY + "/wc.db" ).isFile()
+                || candidate.getAbsoluteFile().equals( absoluteTarget ) )
+            {
+                continue;
+            }
+            try
+            {
+                SVNInfo info = wcClient.doInfo( candidate, SVNRevision.UNDEFINED );
+                if ( !isSameLocation( info.getURL(), url ) || info.getDepth() != SVNDepth.INFINITY )
+                {
+                    continue;
+                }
+                long distance = Math.abs( info.getRevision().getNumber() - revision );
+                if ( distance <= maxRevisionDistance && distance < bestDistance
+                    && !isSwitched( wcClient.getOperationsFactory(), candidate ) )
+                {
+                    best = candidate;
+                    bestDistance = distance;
+                }
+            }
+            catch ( SVNException e )
+            {
+                LOGGER.debug( "Skipping the donor " + candidate + ": " + e.getMessage() );
+            }
+        }
+        return best;
+    }
+
+    private static boolean isSwitched( SvnOperationFactory operationFactory, File workingCopy )
+        throws SVNException
+    {
+        SvnGetStatusSummary getStatusSummary = operationFactory.createGetStatusSummary();
+        getStatusSummary.setSingleTarget( SvnTarget.fromFile( workingCopy ) );
+        if ( getStatusSummary.run().isSwitched() )
+        {
+            LOGGER.debug( "Skipping the donor " + workingCopy + ": a subtree of it is switched" );
+            return true;
+        }
+        return false;
+    }
+
+    private static boolean isSameLocation( SVNURL url, SVNURL other )
+    {
+        return url.getProtocol().equals( other.getProtocol() ) && url.getHost().equals( other.getHost() )
+            && url.getPort() == other.getPort() && url.getPath().equals( other.getPath() );
+    }
+
+    /**
+     * Copies the administrative area of a working copy. The pristine files are never modified in place, they are
+     * hard linked when possible.
+     */
+    static void copyAdministrativeArea( Path source, Path target )
+        throws IOException
+    {
+        Path pristine = source.resolve( "pristine" );
+        Path tmp = source.resolve( "tmp" );
+        Files.walkFileTree( source, new SimpleFileVisitor<Path>()
+        {
+            private boolean linkFailed;
+
+            @Override
+            public FileVisitResult preVisitDirectory( Path dir, BasicFileAttributes attrs )
+                throws IOException
+            {
+                Files.createDirectories( target.resolve( source.relativize( dir ) ) );
+                // leftovers of the operations of the donor
+                return dir.equals( tmp ) ? FileVisitResult.SKIP_SUBTREE : FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile( Path file, BasicFileAttributes attrs )
+                throws IOException
+            {
+                Path copy = target.resolve( source.relativize( file ) );
+                if ( file.startsWith( pristine ) && !linkFailed )
+                {
+                    try
+                    {
+                        Files.createLink( copy, file );
+                        return FileVisitResult.CONTINUE;
+                    }
+                    catch ( IOException | UnsupportedOperationException e )
+                    {
+                        // e.g. another file system, copy the pristine files too
+                        linkFailed = true;
+                    }
+                }
+                Files.copy( file, copy, StandardCopyOption.COPY_ATTRIBUTES );
+                return FileVisitResult.CONTINUE;
+            }
+        } );
+    }
+
+    /**
+     * Ignores the events, only checks the cancellation of the command.
+     */
+    static final class CancellationHandler
+        implements ISVNEventHandler
+    {
+        private final ISVNEventHandler delegate;
+
+        CancellationHandler( ISVNEventHandler delegate )
+        {
+            this.delegate = delegate;
+        }
+
+        public void handleEvent( SVNEvent event, double progress )
+        {
+            // no op
+        }
+
+        public void checkCancelled()
+            throws SVNCancelException
+        {
+            delegate.checkCancelled();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package org.apache.maven.scm.provider.svn.svnjava;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.scm.ScmFileSet;
+import org.apache.maven.scm.ScmTestCase;
+import org.apache.maven.scm.command.checkin.CheckInScmResult;
+import org.apache.maven.scm.command.checkout.CheckOutScmResult;
+import org.apache.maven.scm.command.status.StatusScmResult;
+import org.apache.maven.scm.command.update.UpdateScmResult;
+import org.apache.maven.scm.repository.ScmRepository;
+import org.apache.maven.scm.provider.svn.svnjava.util.SvnJavaCommandExecutor.ScmOperation;
+import org.codehaus.plexus.util.FileUtils;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs checkouts, status, checkins and updates on several local repositories at the same time.
+ */
+public class SvnJavaScmProviderConcurrencyTest
+    extends ScmTestCase
+{
+    private static final int REPOSITORIES = 4;
+
+    private static final int WORKING_COPIES_PER_REPOSITORY = 3;
+
+    @Test
+    public void testConcurrentCommands()
+        throws Exception
+    {
+        File root = getTestFile( "target/concurrency" );
+        FileUtils.deleteDirectory( root );
+
+        SvnJavaScmProvider provider = (SvnJavaScmProvider) getScmManager().getProviderByType( "javasvn" );
+
+        final List<ScmRepository> repositories = new ArrayList<>();
+        final List<File> workingCopies = new ArrayList<>();
+        List<ScmOperation<CheckOutScmResult>> checkouts = new ArrayList<>();
+        for ( int i = 0; i < REPOSITORIES; i++ )
+        {
+            File repositoryRoot = new File( root, "repository-" + i );
+            SvnJavaScmTestUtils.initializeRepository( repositoryRoot );
+            // svnkit shares its in-process write locks between repositories with the same uuid, and all the
+            // repositories are loaded from the same dump: give each one its own uuid like real repositories
+            SvnJavaScmTestUtils.getSVNAdminClient().doSetUUID( repositoryRoot, UUID.randomUUID().toString() );
+            final ScmRepository repository =
+                makeScmRepository( SvnJavaScmTestUtils.getScmUrl( new File( repositoryRoot, "trunk" ) ) );
+            for ( int j = 0; j < WORKING_COPIES_PER_REPOSITORY; j++ )
+            {
+                final File workingCopy = new File( root, "wc-" + i + "-" + j );
+                repositories.add( repository );
+                workingCopies.add( workingCopy );
+                checkouts.add( () -> provider.checkOut( repository, new ScmFileSet( workingCopy ) ) );
+            }
+        }
+
+        List<CheckOutScmResult> checkedOut = provider.executeBatch( checkouts, 6 );
+        int expectedFiles = checkedOut.get( 0 ).getCheckedOutFiles().size();
+        assertTrue( expectedFiles > 0 );
+        for ( CheckOutScmResult result : checkedOut )
+        {
+            assertResultIsSuccess( result );
+            assertEquals( expectedFiles, result.getCheckedOutFiles().size() );
+        }
+
+        // the first working copy of each repository commits a change, the others pick it up
+        List<ScmOperation<StatusScmResult>> statuses = new ArrayList<>();
+        List<ScmOperation<CheckInScmResult>> checkins = new ArrayList<>();
+        for ( int i = 0; i < workingCopies.size(); i += WORKING_COPIES_PER_REPOSITORY )
+        {
+            final ScmRepository repository = repositories.get( i );
+            final File workingCopy = workingCopies.get( i );
+            FileUtils.fileWrite( new File( workingCopy, "readme.txt" ), "changed by working copy " + i );
+            statuses.add( () -> provider.status( repository, new ScmFileSet( workingCopy ) ) );
+            checkins.add( () -> provider.checkIn( repository, new ScmFileSet( workingCopy ), "concurrent change" ) );
+        }
+
+        for ( StatusScmResult result : provider.executeBatch( statuses, 6 ) )
+        {
+            assertResultIsSuccess( result );
+            assertEquals( 1, result.getChangedFiles().size() );
+        }
+        for ( CheckInScmResult result : provider.executeBatch( checkins, 6 ) )
+        {
+            assertResultIsSuccess( result );
+            assertEquals( 1, result.getCheckedInFiles().size() );
+        }
+
+        List<ScmOperation<UpdateScmResult>> updates = new ArrayList<>();
+        for ( int i = 0; i < workingCopies.size(); i++ )
+        {
+            if ( i % WORKING_COPIES_PER_REPOSITORY != 0 )
+            {
+                final ScmRepository repository = repositories.get( i );
+                final File workingCopy = workingCopies.get( i );
+                updates.add( () -> provider.update( repository, new ScmFileSet( workingCopy ) ) );
+            }
+        }
+        for ( UpdateScmResult result : provider.executeBatch( updates, 6 ) )
+        {
+            assertResultIsSuccess( result );
+            assertEquals( 1, result.getUpdatedFiles().size() );
+        }
+        for ( int i = 0; i < workingCopies.size(); i++ )
+        {
+            int committer = i - i % WORKING_COPIES_PER_REPOSITORY;
+            assertEquals( "changed by working copy " + committer,
+                          FileUtils.fileRead( new File( workingCopies.get( i ), "readme.txt" ) ) );
+        }
+    }
+}
@@ -21,8 +21,16 @@ package org.apache.maven.scm.provider.svn.svnjava;
 
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 
+import org.apache.maven.scm.ScmFileSet;
+import org.apache.maven.scm.ScmResult;
+import org.apache.maven.scm.command.checkin.CheckInScmResult;
+import org.apache.maven.scm.manager.NoSuchScmProviderException;
+import org.apache.maven.scm.manager.ScmManager;
+import org.apache.maven.scm.provider.ScmProvider;
+import org.apache.maven.scm.repository.ScmRepository;
 import org.codehaus.plexus.util.FileUtils;
 import org.codehaus.plexus.util.Os;
 import org.codehaus.plexus.util.StringUtils;
@@ -98,6 +106,58 @@ public final class SvnJavaScmTestUtils
         loadSvnDump( repositoryRoot, new FileInputStream( dump ) );
     }
     
+    /**
+     * Loads the tck repository in <code>repositoryRoot</code>.
+     *
+     * @return the scm repository of its trunk
+     */
+    public static ScmRepository initializeTrunk( ScmManager scmManager, File repositoryRoot )
+        throws Exception
+    {
+        initializeRepository( repositoryRoot );
+        return scmManager.makeScmRepository( getScmUrl( new File( repositoryRoot, "trunk" ) ) );
+    }
+
+    public static SvnJavaScmProvider getProvider( ScmManager scmManager )
+        throws NoSuchScmProviderException
+    {
+        return (SvnJavaScmProvider) scmManager.getProviderByType( "javasvn" );
+    }
+
+    /**
+     * Deletes what a previous run left in <code>directory</code>.
+     *
+     * @return <code>directory</code>
+     */
+    public static File deleteDirectory( File directory )
+        throws IOException
+    {
+        FileUtils.deleteDirectory( directory );
+        return directory;
+    }
+
+    /**
+     * Checks out <code>repository</code> in <code>committer</code>, writes <code>readme</code> to its
+     * <code>readme.txt</code> and checks it in.
+     *
+     * @return the revision of the change
+     */
+    public static long commitChange( ScmProvider provider, ScmRepository repository, File committer, String readme )
+        throws Exception
+    {
+        deleteDirectory( committer );
+        assertSuccess( provider.checkOut( repository, new ScmFileSet( committer ) ) );
+        FileUtils.fileWrite( new File( committer, "readme.txt" ), readme );
+        CheckInScmResult checkIn = provider.checkIn( repository, new ScmFileSet( committer ), "change" );
+        assertSuccess( checkIn );
+        return Long.parseLong( checkIn.getScmRevision() );
+    }
+
+    private static void assertSuccess( ScmResult result )
+    {
+        Assert.assertTrue( result.getProviderMessage() + " " + result.getCommandOutput(), result.isSuccess() );
+    }
+
     public static SVNAdminClient getSVNAdminClient()
     {
         SVNAdminClient client = SVNClientManager.newInstance().getAdminClient();
@@ -0,0 +1,59 @@
+package org.apache.maven.scm.provider.svn.svnjava.command.blame;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.scm.ScmFileSet;
+import org.apache.maven.scm.ScmTestCase;
+import org.apache.maven.scm.command.blame.BlameLine;
+import org.apache.maven.scm.command.blame.BlameScmResult;
+import org.apache.maven.scm.provider.svn.svnjava.SvnJavaScmProvider;
+import org.apache.maven.scm.provider.svn.svnjava.SvnJavaScmTestUtils;
+import org.apache.maven.scm.repository.ScmRepository;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class SvnJavaBlameCommandTest
+    extends ScmTestCase
+{
+    @Test
+    public void testBlameOfFileChangedOverSeveralRevisions()
+        throws Exception
+    {
+        SvnJavaScmProvider provider = SvnJavaScmTestUtils.getProvider( getScmManager() );
+        ScmRepository repository = SvnJavaScmTestUtils.initializeTrunk( getScmManager(), getRepositoryRoot() );
+        File committer = getTestFile( "target/blame-commit" );
+        long first = SvnJavaScmTestUtils.commitChange( provider, repository, committer, "one\ntwo\n" );
+        long second = SvnJavaScmTestUtils.commitChange( provider, repository, committer, "one\ntwo\nthree\n" );
+        long third = SvnJavaScmTestUtils.commitChange( provider, repository, committer, "one\ntwo\nthree\nfour\n" );
+
+        BlameScmResult blame = provider.blame( repository, new ScmFileSet( committer ), "readme.txt" );
+        assertResultIsSuccess( blame );
+        List<BlameLine> lines = blame.getLines();
+        assertEquals( 4, lines.size() );
+        assertEquals( String.valueOf( first ), lines.get( 0 ).getRevision() );
+        assertEquals( String.valueOf( first ), lines.get( 1 ).getRevision() );
+        assertEquals( String.valueOf( second ), lines.get( 2 ).getRevision() );
+        assertEquals( String.valueOf( third ), lines.get( 3 ).getRevision() );
+    }
+}
@@ -0,0 +1,127 @@
+package org.apache.maven.scm.provider.svn.svnjava.command.checkout;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.scm.CommandParameter;
+import org.apache.maven.scm.ScmFile;
+import org.apache.maven.scm.ScmFileSet;
+import org.apache.maven.scm.ScmTestCase;
+import org.apache.maven.scm.ScmVersion;
+import org.apache.maven.scm.command.checkout.CheckOutScmResult;
+import org.apache.maven.scm.command.update.UpdateScmResult;
+import org.apache.maven.scm.provider.svn.svnjava.SvnJavaScmProvider;
+import org.apache.maven.scm.provider.svn.svnjava.SvnJavaScmTestUtils;
+import org.apache.maven.scm.provider.svn.svnjava.util.SvnJavaCommandParameters;
+import org.apache.maven.scm.repository.ScmRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.tmatesoft.svn.core.SVNDepth;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SvnJavaCheckOutDepthTest
+    extends ScmTestCase
+{
+    private SvnJavaScmProvider provider;
+
+    private ScmRepository repository;
+
+    private File workingCopy;
+
+    @Before
+    public void setUp()
+        throws Exception
+    {
+        super.setUp();
+        provider = SvnJavaScmTestUtils.getProvider( getScmManager() );
+        repository = SvnJavaScmTestUtils.initializeTrunk( getScmManager(), getRepositoryRoot() );
+        workingCopy = SvnJavaScmTestUtils.deleteDirectory( getTestFile( "target/depth-checkout" ) );
+    }
+
+    @Test
+    public void testShallowCheckOutCanBeDeepened()
+        throws Exception
+    {
+        SvnJavaCommandParameters parameters = new SvnJavaCommandParameters();
+        parameters.setString( CommandParameter.SHALLOW, Boolean.TRUE.toString() );
+        CheckOutScmResult checkOut =
+            provider.checkout( repository.getProviderRepository(), new ScmFileSet( workingCopy ), parameters );
+        assertResultIsSuccess( checkOut );
+        assertEquals( Arrays.asList( "pom.xml", "readme.txt" ), getPaths( checkOut.getCheckedOutFiles() ) );
+        assertTrue( new File( workingCopy, "src" ).isDirectory() );
+        assertFalse( new File( workingCopy, "src/main" ).exists() );
+
+        // a plain update stays within the depth of the working copy
+        UpdateScmResult update = provider.update( repository, new ScmFileSet( workingCopy ), (ScmVersion) null, false );
+        assertResultIsSuccess( update );
+        assertFalse( new File( workingCopy, "src/main" ).exists() );
+
+        parameters = new SvnJavaCommandParameters();
+        parameters.setDepth( SVNDepth.INFINITY );
+        parameters.setString( CommandParameter.RUN_CHANGELOG_WITH_UPDATE, Boolean.FALSE.toString() );
+        update = provider.update( repository.getProviderRepository(),
+                                  new ScmFileSet( workingCopy, new File( "src" ) ), parameters );
+        assertResultIsSuccess( update );
+        assertEquals( Arrays.asList( "src/main/java/Application.java", "src/test/java/Test.java" ),
+                      getPaths( update.getUpdatedFiles() ) );
+        assertTrue( new File( workingCopy, "src/main/java/Application.java" ).exists() );
+    }
+
+    @Test
+    public void testDepthOfParameters()
+        throws Exception
+    {
+        SvnJavaCommandParameters parameters = new SvnJavaCommandParameters();
+        parameters.setDepth( SVNDepth.EMPTY );
+        CheckOutScmResult checkOut =
+            provider.checkout( repository.getProviderRepository(), new ScmFileSet( workingCopy ), parameters );
+        assertResultIsSuccess( checkOut );
+        assertTrue( checkOut.getCheckedOutFiles().isEmpty() );
+        assertFalse( new File( workingCopy, "pom.xml" ).exists() );
+    }
+
+    @Test
+    public void testNotRecursive()
+        throws Exception
+    {
+        CheckOutScmResult checkOut = provider.checkOut( repository, new ScmFileSet( workingCopy ), false );
+        assertResultIsSuccess( checkOut );
+        assertEquals( Arrays.asList( "pom.xml", "readme.txt" ), getPaths( checkOut.getCheckedOutFiles() ) );
+        assertFalse( new File( workingCopy, "src" ).exists() );
+    }
+
+    private static List<String> getPaths( List<ScmFile> files )
+    {
+        List<String> paths = new ArrayList<>();
+        for ( ScmFile file : files )
+        {
+            paths.add( file.getPath().replace( '\\', '/' ) );
+        }
+        paths.sort( null );
+        return paths;
+    }
+}
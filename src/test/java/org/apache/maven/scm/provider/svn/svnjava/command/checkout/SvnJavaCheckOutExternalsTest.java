@@ -0,0 +1,172 @@
+package org.apache.maven.scm.provider.svn.svnjava.command.checkout;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+import org.apache.maven.scm.ScmFile;
+import org.apache.maven.scm.CommandParameter;
+import org.apache.maven.scm.ScmFile;
+import org.apache.maven.scm.ScmFileSet;
+import org.apache.maven.scm.ScmTestCase;
+import org.apache.maven.scm.command.checkout.CheckOutScmResult;
+import org.apache.maven.scm.command.status.StatusScmResult;
+import org.apache.maven.scm.command.update.UpdateScmResult;
+import org.apache.maven.scm.provider.svn.svnjava.SvnJavaScmProvider;
+import org.apache.maven.scm.provider.svn.svnjava.SvnJavaScmTestUtils;
+import org.apache.maven.scm.provider.svn.svnjava.repository.SvnJavaScmProviderRepository;
+import org.apache.maven.scm.provider.svn.svnjava.util.SvnExternalsCache;
+import org.apache.maven.scm.provider.svn.svnjava.util.SvnJavaCommandParameters;
+import org.apache.maven.scm.repository.ScmRepository;
+import org.codehaus.plexus.util.FileUtils;
+import org.junit.Before;
+import org.junit.Test;
+import org.tmatesoft.svn.core.SVNDepth;
+import org.tmatesoft.svn.core.SVNProperty;
+import org.tmatesoft.svn.core.SVNPropertyValue;
+import org.tmatesoft.svn.core.wc.SVNClientManager;
+import org.tmatesoft.svn.core.wc.SVNRevision;
+import org.tmatesoft.svn.core.wc.SVNWCClient;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SvnJavaCheckOutExternalsTest
+    extends ScmTestCase
+{
+    private SvnJavaScmProvider provider;
+
+    private ScmRepository repository;
+
+    private File cache;
+
+    @Before
+    public void setUp()
+        throws Exception
+    {
+        super.setUp();
+        provider = SvnJavaScmTestUtils.getProvider( getScmManager() );
+        repository = SvnJavaScmTestUtils.initializeTrunk( getScmManager(), getRepositoryRoot() );
+        cache = SvnJavaScmTestUtils.deleteDirectory( getTestFile( "target/externals-cache" ) );
+        defineExternals();
+    }
+
+    @Test
+    public void testCheckOutExternalsInParallel()
+        throws Exception
+    {
+        File workingCopy = SvnJavaScmTestUtils.deleteDirectory( getTestFile( "target/externals-checkout" ) );
+        CheckOutScmResult checkOut = provider.checkout( repository.getProviderRepository(),
+                                                        new ScmFileSet( workingCopy ), getParameters() );
+        assertResultIsSuccess( checkOut );
+        assertTrue( getPaths( checkOut.getCheckedOutFiles() ).contains( "ext-pinned/java/Application.java" ) );
+        assertTrue( getPaths( checkOut.getCheckedOutFiles() ).contains( "ext-head/java/Test.java" ) );
+        assertTrue( new File( workingCopy, "ext-pinned/java/Application.java" ).isFile() );
+        assertTrue( new File( workingCopy, "ext-head/java/Test.java" ).isFile() );
+        assertExternalsRegistered( workingCopy );
+    }
+
+    @Test
+    public void testCheckOutPinnedExternalFromCache()
+        throws Exception
+    {
+        ( (SvnJavaScmProviderRepository) repository.getProviderRepository() )
+            .setExternalsCache( new SvnExternalsCache( cache ) );
+
+        File first = SvnJavaScmTestUtils.deleteDirectory( getTestFile( "target/externals-checkout" ) );
+        assertResultIsSuccess( provider.checkout( repository.getProviderRepository(), new ScmFileSet( first ),
+                                                  new SvnJavaCommandParameters() ) );
+        String[] cached = cache.list();
+        assertEquals( 1, cached.length );
+
+        File second = SvnJavaScmTestUtils.deleteDirectory( getTestFile( "target/externals-checkout-2" ) );
+        CheckOutScmResult checkOut = provider.checkout( repository.getProviderRepository(),
+                                                        new ScmFileSet( second ), getParameters() );
+        assertResultIsSuccess( checkOut );
+        assertEquals( 1, cache.list().length );
+        assertTrue( getPaths( checkOut.getCheckedOutFiles() ).contains( "ext-pinned/java/Application.java" ) );
+        assertEquals( FileUtils.fileRead( new File( first, "ext-pinned/java/Application.java" ) ),
+                      FileUtils.fileRead( new File( second, "ext-pinned/java/Application.java" ) ) );
+        assertExternalsRegistered( second );
+
+        SvnJavaCommandParameters parameters = getParameters();
+        parameters.setString( CommandParameter.RUN_CHANGELOG_WITH_UPDATE, Boolean.FALSE.toString() );
+        UpdateScmResult update =
+            provider.update( repository.getProviderRepository(), new ScmFileSet( second ), parameters );
+        assertResultIsSuccess( update );
+        assertTrue( new File( second, "ext-head/java/Test.java" ).isFile() );
+    }
+
+    /**
+     * Sets a pinned and a floating external on trunk.
+     */
+    private void defineExternals()
+        throws Exception
+    {
+        File committer = SvnJavaScmTestUtils.deleteDirectory( getTestFile( "target/externals-commit" ) );
+        assertResultIsSuccess( provider.checkOut( repository, new ScmFileSet( committer ) ) );
+        SVNClientManager clientManager = SVNClientManager.newInstance();
+        try
+        {
+            SVNWCClient wcClient = clientManager.getWCClient();
+            long revision = wcClient.doInfo( committer, SVNRevision.UNDEFINED ).getRevision().getNumber();
+            wcClient.doSetProperty( committer, SVNProperty.EXTERNALS, SVNPropertyValue.create(
+                "-r" + revision + " ^/trunk/src/main ext-pinned\n^/trunk/src/test ext-head\n" ), false,
+                                    SVNDepth.EMPTY, null, null );
+        }
+        finally
+        {
+            clientManager.dispose();
+        }
+        assertResultIsSuccess( provider.checkIn( repository, new ScmFileSet( committer ), "externals" ) );
+    }
+
+    /**
+     * The externals are known to the working copy, so they show in its status and are updated along with it.
+     */
+    private void assertExternalsRegistered( File workingCopy )
+        throws Exception
+    {
+        FileUtils.fileWrite( new File( workingCopy, "ext-head/java/Test.java" ), "changed" );
+        StatusScmResult status = provider.status( repository, new ScmFileSet( workingCopy ) );
+        assertResultIsSuccess( status );
+        assertTrue( getPaths( status.getChangedFiles() ).contains( "ext-head/java/Test.java" ) );
+    }
+
+    private SvnJavaCommandParameters getParameters()
+    {
+        SvnJavaCommandParameters parameters = new SvnJavaCommandParameters();
+        parameters.setParallelism( 4 );
+        return parameters;
+    }
+
+    private static List<String> getPaths( List<ScmFile> files )
+    {
+        List<String> paths = new ArrayList<>();
+        for ( ScmFile file : files )
+        {
+            paths.add( file.getPath().replace( '\\', '/' ) );
+        }
+        Collections.sort( paths );
+        return paths;
+    }
+}
@@ -0,0 +1,159 @@
+package org.apache.maven.scm.provider.svn.svnjava.command.checkout;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+import org.apache.maven.scm.ScmFile;
+import org.apache.maven.scm.ScmFileSet;
+import org.apache.maven.scm.ScmFileStatus;
+import org.apache.maven.scm.ScmTestCase;
+import org.apache.maven.scm.command.checkout.CheckOutScmResult;
+import org.apache.maven.scm.command.status.StatusScmResult;
+import org.apache.maven.scm.provider.svn.svnjava.SvnJavaScmProvider;
+import org.apache.maven.scm.provider.svn.svnjava.SvnJavaScmTestUtils;
+import org.apache.maven.scm.provider.svn.svnjava.repository.SvnJavaScmProviderRepository;
+import org.apache.maven.scm.provider.svn.svnjava.util.SvnWorkingCopyCache;
+import org.apache.maven.scm.repository.ScmRepository;
+import org.codehaus.plexus.util.FileUtils;
+import org.junit.Before;
+import org.junit.Test;
+import org.tmatesoft.svn.core.SVNDepth;
+import org.tmatesoft.svn.core.SVNURL;
+import org.tmatesoft.svn.core.wc.SVNClientManager;
+import org.tmatesoft.svn.core.wc.SVNCopySource;
+import org.tmatesoft.svn.core.wc.SVNRevision;
+
+import java.io.File;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SvnJavaCheckOutFromDonorTest
+    extends ScmTestCase
+{
+    private SvnJavaScmProvider provider;
+
+    private ScmRepository repository;
+
+    private File donors;
+
+    private File workingCopy;
+
+    @Before
+    public void setUp()
+        throws Exception
+    {
+        super.setUp();
+        provider = SvnJavaScmTestUtils.getProvider( getScmManager() );
+        repository = SvnJavaScmTestUtils.initializeTrunk( getScmManager(), getRepositoryRoot() );
+        donors = SvnJavaScmTestUtils.deleteDirectory( getTestFile( "target/donors" ) );
+        workingCopy = SvnJavaScmTestUtils.deleteDirectory( getTestFile( "target/donor-checkout" ) );
+    }
+
+    @Test
+    public void testCheckOutFromDonor()
+        throws Exception
+    {
+        File donor = new File( donors, "trunk" );
+        assertResultIsSuccess( provider.checkOut( repository, new ScmFileSet( donor ) ) );
+        String donorContent = FileUtils.fileRead( new File( donor, "readme.txt" ) );
+        SvnJavaScmTestUtils.commitChange( provider, repository, getTestFile( "target/donor-commit" ),
+                                          "changed after the donor" );
+
+        setWorkingCopyCache( new SvnWorkingCopyCache( donors ) );
+        CheckOutScmResult checkOut = provider.checkOut( repository, new ScmFileSet( workingCopy ) );
+        assertResultIsSuccess( checkOut );
+        assertEquals( 4, checkOut.getCheckedOutFiles().size() );
+        for ( ScmFile file : checkOut.getCheckedOutFiles() )
+        {
+            assertEquals( ScmFileStatus.ADDED, file.getStatus() );
+        }
+        assertEquals( "changed after the donor", FileUtils.fileRead( new File( workingCopy, "readme.txt" ) ) );
+        assertTrue( new File( workingCopy, "src/main/java/Application.java" ).isFile() );
+        assertEquals( donorContent, FileUtils.fileRead( new File( donor, "readme.txt" ) ) );
+
+        // the clone is a working copy of its own, without local changes
+        StatusScmResult status = provider.status( repository, new ScmFileSet( workingCopy ) );
+        assertResultIsSuccess( status );
+        assertTrue( status.getChangedFiles().toString(), status.getChangedFiles().isEmpty() );
+    }
+
+    @Test
+    public void testDonorTooFarAway()
+        throws Exception
+    {
+        assertResultIsSuccess( provider.checkOut( repository, new ScmFileSet( new File( donors, "trunk" ) ) ) );
+        SvnJavaScmTestUtils.commitChange( provider, repository, getTestFile( "target/donor-commit" ),
+                                          "changed after the donor" );
+
+        provider.setWorkingCopyCacheDirectory( donors );
+        provider.setWorkingCopyCacheMaxRevisionDistance( 0 );
+        try
+        {
+            ScmRepository seeded = makeScmRepository( SvnJavaScmTestUtils.getScmUrl( new File( getRepositoryRoot(),
+                                                                                               "trunk" ) ) );
+            SvnWorkingCopyCache workingCopyCache =
+                ( (SvnJavaScmProviderRepository) seeded.getProviderRepository() ).getWorkingCopyCache();
+            assertEquals( 0, workingCopyCache.getMaxRevisionDistance() );
+
+            CheckOutScmResult checkOut = provider.checkOut( seeded, new ScmFileSet( workingCopy ) );
+            assertResultIsSuccess( checkOut );
+            assertEquals( 4, checkOut.getCheckedOutFiles().size() );
+            assertEquals( "changed after the donor", FileUtils.fileRead( new File( workingCopy, "readme.txt" ) ) );
+        }
+        finally
+        {
+            provider.setWorkingCopyCacheDirectory( null );
+            provider.setWorkingCopyCacheMaxRevisionDistance( Long.MAX_VALUE );
+        }
+    }
+
+    @Test
+    public void testSwitchedDonorIsSkipped()
+        throws Exception
+    {
+        File donor = new File( donors, "trunk" );
+        assertResultIsSuccess( provider.checkOut( repository, new ScmFileSet( donor ) ) );
+        SVNURL trunk = SVNURL.fromFile( new File( getRepositoryRoot(), "trunk" ).getAbsoluteFile() );
+        SVNURL branch = SVNURL.fromFile( new File( getRepositoryRoot(), "branches/other" ).getAbsoluteFile() );
+        SVNClientManager clientManager = SVNClientManager.newInstance();
+        try
+        {
+            SVNCopySource source =
+                new SVNCopySource( SVNRevision.HEAD, SVNRevision.HEAD, trunk.appendPath( "src", false ) );
+            clientManager.getCopyClient().doCopy( new SVNCopySource[]{ source }, branch, false, true, true,
+                                                  "branch", null );
+            clientManager.getUpdateClient().doSwitch( new File( donor, "src" ), branch, SVNRevision.UNDEFINED,
+                                                      SVNRevision.HEAD, SVNDepth.INFINITY, false, false );
+
+            setWorkingCopyCache( new SvnWorkingCopyCache( donors ) );
+            assertResultIsSuccess( provider.checkOut( repository, new ScmFileSet( workingCopy ) ) );
+            assertEquals( trunk.appendPath( "src", false ), clientManager.getWCClient()
+                .doInfo( new File( workingCopy, "src" ), SVNRevision.UNDEFINED ).getURL() );
+        }
+        finally
+        {
+            clientManager.dispose();
+        }
+    }
+
+    private void setWorkingCopyCache( SvnWorkingCopyCache workingCopyCache )
+    {
+        ( (SvnJavaScmProviderRepository) repository.getProviderRepository() ).setWorkingCopyCache( workingCopyCache );
+    }
+}
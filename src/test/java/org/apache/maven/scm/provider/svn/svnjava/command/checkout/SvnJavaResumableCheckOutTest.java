@@ -0,0 +1,215 @@
+package org.apache.maven.scm.provider.svn.svnjava.command.checkout;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.scm.ScmFileSet;
+import org.apache.maven.scm.ScmTestCase;
+import org.apache.maven.scm.command.checkout.CheckOutScmResult;
+import org.apache.maven.scm.provider.svn.svnjava.SvnJavaScmProvider;
+import org.apache.maven.scm.provider.svn.svnjava.SvnJavaScmTestUtils;
+import org.apache.maven.scm.provider.svn.svnjava.util.SvnJavaCancellationToken;
+import org.apache.maven.scm.provider.svn.svnjava.util.SvnJavaCommandParameters;
+import org.apache.maven.scm.repository.ScmRepository;
+import org.codehaus.plexus.util.FileUtils;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+import org.tmatesoft.svn.core.SVNCancelException;
+import org.tmatesoft.svn.core.SVNErrorCode;
+import org.tmatesoft.svn.core.SVNErrorMessage;
+import org.tmatesoft.svn.core.SVNException;
+import org.tmatesoft.svn.core.wc.SVNClientManager;
+import org.tmatesoft.svn.core.wc.SVNRevision;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SvnJavaResumableCheckOutTest
+    extends ScmTestCase
+{
+    private SvnJavaScmProvider provider;
+
+    private ScmRepository repository;
+
+    private File workingCopy;
+
+    @Before
+    public void setUp()
+        throws Exception
+    {
+        super.setUp();
+        provider = SvnJavaScmTestUtils.getProvider( getScmManager() );
+        repository = SvnJavaScmTestUtils.initializeTrunk( getScmManager(), getRepositoryRoot() );
+        workingCopy = SvnJavaScmTestUtils.deleteDirectory( getTestFile( "target/resumable-checkout" ) );
+    }
+
+    @Test
+    public void testResumeInterruptedCheckOut()
+        throws Exception
+    {
+        SvnJavaCommandParameters parameters = new SvnJavaCommandParameters();
+        parameters.setCancellationToken( new CancelAfterFilesToken( 2 ) );
+        CheckOutScmResult interrupted =
+            provider.checkout( repository.getProviderRepository(), new ScmFileSet( workingCopy ), parameters );
+        assertFalse( interrupted.isSuccess() );
+        long pinned = getRevision( workingCopy );
+        String readme = FileUtils.fileRead( new File( workingCopy, "readme.txt" ) );
+        SvnJavaScmTestUtils.commitChange( provider, repository, getTestFile( "target/resumable-commit" ),
+                                          "changed after the interruption" );
+
+        parameters = new SvnJavaCommandParameters();
+        parameters.setResume( true );
+        CheckOutScmResult resumed =
+            provider.checkout( repository.getProviderRepository(), new ScmFileSet( workingCopy ), parameters );
+        assertResultIsSuccess( resumed );
+        SvnJavaCheckOutScmResult result = (SvnJavaCheckOutScmResult) resumed;
+        assertEquals( 1, result.getAttempts() );
+        assertTrue( result.getBytesSaved() > 0 );
+        assertEquals( 2, resumed.getCheckedOutFiles().size() );
+        assertTrue( new File( workingCopy, "src/main/java/Application.java" ).isFile() );
+        assertTrue( new File( workingCopy, "src/test/java/Test.java" ).isFile() );
+
+        // completed to the revision the interrupted checkout was pinned to
+        assertEquals( pinned, getRevision( workingCopy ) );
+        assertEquals( readme, FileUtils.fileRead( new File( workingCopy, "readme.txt" ) ) );
+    }
+
+    @Test
+    public void testPlainCheckOutReportsOneAttempt()
+        throws Exception
+    {
+        CheckOutScmResult checkOut = provider.checkOut( repository, new ScmFileSet( workingCopy ) );
+        assertResultIsSuccess( checkOut );
+        assertEquals( 1, ( (SvnJavaCheckOutScmResult) checkOut ).getAttempts() );
+        assertEquals( 0, ( (SvnJavaCheckOutScmResult) checkOut ).getBytesSaved() );
+    }
+
+    @Test
+    public void testTransientErrors()
+    {
+        assertTrue( SvnJavaResumableCheckOut.isTransient( getException( SVNErrorCode.RA_SVN_IO_ERROR ) ) );
+        assertTrue( SvnJavaResumableCheckOut.isTransient( getException( SVNErrorCode.RA_DAV_REQUEST_FAILED ) ) );
+        assertTrue( SvnJavaResumableCheckOut.isTransient( getException( SVNErrorCode.IO_ERROR ) ) );
+        assertFalse( SvnJavaResumableCheckOut.isTransient( getException( SVNErrorCode.RA_NOT_AUTHORIZED ) ) );
+        assertFalse( SvnJavaResumableCheckOut.isTransient( getException( SVNErrorCode.FS_NOT_FOUND ) ) );
+        assertFalse( SvnJavaResumableCheckOut.isTransient( getException( SVNErrorCode.WC_OBSTRUCTED_UPDATE ) ) );
+    }
+
+    @Test
+    public void testCancellationStopsRetryBackoff()
+        throws Exception
+    {
+        SvnJavaCancellationToken token = new SvnJavaCancellationToken();
+        SvnJavaCancellationToken previous = token.bind();
+        SvnJavaResumableCheckOut checkOut;
+        try
+        {
+            checkOut = new SvnJavaResumableCheckOut( LoggerFactory.getLogger( getClass() ), false, 1, 60 * 1000L );
+        }
+        finally
+        {
+            SvnJavaCancellationToken.restore( previous );
+        }
+
+        Thread canceller = new Thread( () -> {
+            try
+            {
+                Thread.sleep( 200 );
+            }
+            catch ( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+            }
+            token.cancel();
+        } );
+        canceller.start();
+        long start = System.currentTimeMillis();
+        try
+        {
+            checkOut.sleep( 60 * 1000L );
+            fail( "the wait was not cancelled" );
+        }
+        catch ( SVNCancelException e )
+        {
+            assertTrue( System.currentTimeMillis() - start < 10 * 1000L );
+        }
+        finally
+        {
+            canceller.join();
+        }
+    }
+
+    private static SVNException getException( SVNErrorCode code )
+    {
+        return new SVNException( SVNErrorMessage.create( code ) );
+    }
+
+    private static long getRevision( File workingCopy )
+        throws SVNException
+    {
+        SVNClientManager clientManager = SVNClientManager.newInstance();
+        try
+        {
+            return clientManager.getWCClient().doInfo( workingCopy, SVNRevision.UNDEFINED ).getRevision().getNumber();
+        }
+        finally
+        {
+            clientManager.dispose();
+        }
+    }
+
+    /**
+     * Cancels itself once the working copy holds the given number of files.
+     */
+    private class CancelAfterFilesToken
+        extends SvnJavaCancellationToken
+    {
+        private final int files;
+
+        CancelAfterFilesToken( int files )
+        {
+            this.files = files;
+        }
+
+        @Override
+        public void checkCancelled()
+            throws SVNCancelException
+        {
+            try
+            {
+                if ( workingCopy.isDirectory()
+                    && FileUtils.getFiles( workingCopy, "**", "**/.svn/**", false ).size() >= files )
+                {
+                    cancel();
+                }
+            }
+            catch ( IOException e )
+            {
+                throw new IllegalStateException( e );
+            }
+            super.checkCancelled();
+        }
+    }
+}
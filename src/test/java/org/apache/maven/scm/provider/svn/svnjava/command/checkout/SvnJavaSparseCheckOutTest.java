@@ -0,0 +1,114 @@
+package org.apache.maven.scm.provider.svn.svnjava.command.checkout;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+import org.apache.maven.scm.ScmFile;
+import org.apache.maven.scm.ScmFileSet;
+import org.apache.maven.scm.ScmTestCase;
+import org.apache.maven.scm.ScmVersion;
+import org.apache.maven.scm.command.checkout.CheckOutScmResult;
+import org.apache.maven.scm.command.update.UpdateScmResult;
+import org.apache.maven.scm.provider.svn.svnjava.SvnJavaScmProvider;
+import org.apache.maven.scm.provider.svn.svnjava.SvnJavaScmTestUtils;
+import org.apache.maven.scm.repository.ScmRepository;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SvnJavaSparseCheckOutTest
+    extends ScmTestCase
+{
+    private SvnJavaScmProvider provider;
+
+    private ScmRepository repository;
+
+    private File workingCopy;
+
+    @Before
+    public void setUp()
+        throws Exception
+    {
+        super.setUp();
+        provider = SvnJavaScmTestUtils.getProvider( getScmManager() );
+        repository = SvnJavaScmTestUtils.initializeTrunk( getScmManager(), getRepositoryRoot() );
+        workingCopy = SvnJavaScmTestUtils.deleteDirectory( getTestFile( "target/sparse-checkout" ) );
+        // the file set scans its base directory
+        workingCopy.mkdirs();
+    }
+
+    @Test
+    public void testIncludes()
+        throws Exception
+    {
+        CheckOutScmResult checkOut =
+            provider.checkOut( repository, new ScmFileSet( workingCopy, "src/main/**", null ) );
+        assertResultIsSuccess( checkOut );
+        assertEquals( Arrays.asList( "src/main/java/Application.java" ), getPaths( checkOut.getCheckedOutFiles() ) );
+        assertFalse( new File( workingCopy, "pom.xml" ).exists() );
+        assertFalse( new File( workingCopy, "src/test" ).exists() );
+
+        // the depths are sticky, a plain update does not bring the rest of the tree
+        UpdateScmResult update = provider.update( repository, new ScmFileSet( workingCopy ), (ScmVersion) null, false );
+        assertResultIsSuccess( update );
+        assertFalse( new File( workingCopy, "pom.xml" ).exists() );
+        assertFalse( new File( workingCopy, "src/test" ).exists() );
+        assertTrue( new File( workingCopy, "src/main/java/Application.java" ).exists() );
+    }
+
+    @Test
+    public void testIncludesAndExcludes()
+        throws Exception
+    {
+        CheckOutScmResult checkOut =
+            provider.checkOut( repository, new ScmFileSet( workingCopy, "pom.xml,src/", "**/Test.java" ) );
+        assertResultIsSuccess( checkOut );
+        assertEquals( Arrays.asList( "pom.xml", "src/main/java/Application.java" ),
+                      getPaths( checkOut.getCheckedOutFiles() ) );
+        assertFalse( new File( workingCopy, "readme.txt" ).exists() );
+        assertFalse( new File( workingCopy, "src/test/java/Test.java" ).exists() );
+    }
+
+    @Test
+    public void testIncludesEverything()
+        throws Exception
+    {
+        CheckOutScmResult checkOut = provider.checkOut( repository, new ScmFileSet( workingCopy, "**", null ) );
+        assertResultIsSuccess( checkOut );
+        assertEquals( 4, checkOut.getCheckedOutFiles().size() );
+    }
+
+    private static List<String> getPaths( List<ScmFile> files )
+    {
+        List<String> paths = new ArrayList<>();
+        for ( ScmFile file : files )
+        {
+            paths.add( file.getPath().replace( '\\', '/' ) );
+        }
+        paths.sort( null );
+        return paths;
+    }
+}
@@ -0,0 +1,268 @@
+package org.apache.maven.scm.provider.svn.svnjava.command.export;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.scm.ScmFile;
+import org.apache.maven.scm.ScmFileSet;
+import org.apache.maven.scm.ScmTestCase;
+import org.apache.maven.scm.ScmVersion;
+import org.apache.maven.scm.command.export.ExportScmResult;
+import org.apache.maven.scm.provider.svn.svnjava.SvnJavaScmProvider;
+import org.apache.maven.scm.provider.svn.svnjava.SvnJavaScmTestUtils;
+import org.apache.maven.scm.repository.ScmRepository;
+import org.codehaus.plexus.util.FileUtils;
+import org.codehaus.plexus.util.IOUtil;
+import org.junit.Before;
+import org.junit.Test;
+import org.tmatesoft.svn.core.SVNDepth;
+import org.tmatesoft.svn.core.SVNProperty;
+import org.tmatesoft.svn.core.SVNPropertyValue;
+import org.tmatesoft.svn.core.wc.SVNClientManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SvnJavaExportArchiveCommandTest
+    extends ScmTestCase
+{
+    private static final List<String> FILES =
+        Arrays.asList( "pom.xml", "readme.txt", "src/main/java/Application.java", "src/test/java/Test.java" );
+
+    private SvnJavaScmProvider provider;
+
+    private ScmRepository repository;
+
+    private File exportDirectory;
+
+    @Before
+    public void setUp()
+        throws Exception
+    {
+        super.setUp();
+        provider = SvnJavaScmTestUtils.getProvider( getScmManager() );
+        repository = SvnJavaScmTestUtils.initializeTrunk( getScmManager(), getRepositoryRoot() );
+        exportDirectory = SvnJavaScmTestUtils.deleteDirectory( getTestFile( "target/archive-export" ) );
+        commitKeywords();
+        assertResultIsSuccess( provider.export( repository, new ScmFileSet( exportDirectory ) ) );
+    }
+
+    @Test
+    public void testZip()
+        throws Exception
+    {
+        ByteArrayOutputStream archive = new ByteArrayOutputStream();
+        ExportScmResult result = provider.exportArchive( repository.getProviderRepository(), null,
+                                                         SvnArchiveFormat.ZIP, "project-1.0", archive );
+        assertResultIsSuccess( result );
+        assertEquals( FILES, getPaths( result.getExportedFiles() ) );
+
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        try ( ZipInputStream zip = new ZipInputStream( new ByteArrayInputStream( archive.toByteArray() ) ) )
+        {
+            for ( ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry() )
+            {
+                entries.put( entry.getName(), IOUtil.toByteArray( zip ) );
+            }
+        }
+        assertTrue( entries.containsKey( "project-1.0/" ) );
+        assertTrue( entries.containsKey( "project-1.0/src/main/java/" ) );
+        assertSameContent( entries, "project-1.0/" );
+    }
+
+    @Test
+    public void testTar()
+        throws Exception
+    {
+        ByteArrayOutputStream archive = new ByteArrayOutputStream();
+        ExportScmResult result = provider.exportArchive( repository.getProviderRepository(), (ScmVersion) null,
+                                                         SvnArchiveFormat.TAR, null, archive );
+        assertResultIsSuccess( result );
+        assertEquals( FILES, getPaths( result.getExportedFiles() ) );
+
+        Map<String, byte[]> entries = readTar( archive.toByteArray() );
+        assertTrue( entries.containsKey( "src/main/java/" ) );
+        assertSameContent( entries, "" );
+    }
+
+    @Test
+    public void testTarLongNames()
+        throws Exception
+    {
+        StringBuilder splitName = new StringBuilder();
+        while ( splitName.length() < 150 )
+        {
+            splitName.append( "directory/" );
+        }
+        splitName.append( "file.txt" );
+        StringBuilder longName = new StringBuilder();
+        while ( longName.length() < 300 )
+        {
+            longName.append( "very-long-directory-name/" );
+        }
+        longName.append( "file.txt" );
+        String names[] = { splitName.toString(), longName.toString(), "répertoire/fichier.txt" };
+
+        ByteArrayOutputStream archive = new ByteArrayOutputStream();
+        TarArchiveWriter writer = new TarArchiveWriter( archive );
+        for ( String name : names )
+        {
+            byte[] content = name.getBytes( StandardCharsets.UTF_8 );
+            OutputStream out = writer.putFile( name, content.length, false, new Date() );
+            out.write( content );
+            out.close();
+            writer.closeEntry();
+        }
+        writer.finish();
+
+        Map<String, byte[]> entries = readTar( archive.toByteArray() );
+        assertEquals( Arrays.asList( names ), new ArrayList<>( entries.keySet() ) );
+        for ( String name : names )
+        {
+            assertArrayEquals( name.getBytes( StandardCharsets.UTF_8 ), entries.get( name ) );
+        }
+        assertEquals( "98 path=" + longName.substring( 0, 89 ) + "\n",
+                      TarArchiveWriter.getRecord( "path", longName.substring( 0, 89 ) ) );
+    }
+
+    /**
+     * Sets keywords and windows end of lines on readme.txt.
+     */
+    private void commitKeywords()
+        throws Exception
+    {
+        File committer = SvnJavaScmTestUtils.deleteDirectory( getTestFile( "target/archive-commit" ) );
+        assertResultIsSuccess( provider.checkOut( repository, new ScmFileSet( committer ) ) );
+        File readme = new File( committer, "readme.txt" );
+        FileUtils.fileWrite( readme, "$Id$\n$HeadURL$\nexported without a working copy\n" );
+        SVNClientManager clientManager = SVNClientManager.newInstance();
+        try
+        {
+            clientManager.getWCClient().doSetProperty( readme, SVNProperty.KEYWORDS,
+                                                       SVNPropertyValue.create( "Id HeadURL" ), false, SVNDepth.EMPTY,
+                                                       null, null );
+            clientManager.getWCClient().doSetProperty( readme, SVNProperty.EOL_STYLE,
+                                                       SVNPropertyValue.create( "CRLF" ), false, SVNDepth.EMPTY,
+                                                       null, null );
+        }
+        finally
+        {
+            clientManager.dispose();
+        }
+        assertResultIsSuccess( provider.checkIn( repository, new ScmFileSet( committer ), "keywords" ) );
+    }
+
+    /**
+     * Checks the files of the archive against an export to disk.
+     */
+    private void assertSameContent( Map<String, byte[]> entries, String prefix )
+        throws Exception
+    {
+        for ( String file : FILES )
+        {
+            byte[] expected = FileUtils.fileRead( new File( exportDirectory, file ) ).getBytes();
+            assertArrayEquals( file, expected, entries.get( prefix + file ) );
+        }
+        // svnkit expands keywords in exports by default
+        String[] readme = new String( entries.get( prefix + "readme.txt" ), StandardCharsets.UTF_8 ).split( "\r\n" );
+        assertEquals( 3, readme.length );
+        assertTrue( readme[0], readme[0].matches( "\\$Id: readme\\.txt \\d+ .+ \\$" ) );
+        assertEquals( "$HeadURL: " + getScmUrl() + "/readme.txt $", readme[1] );
+        assertEquals( "exported without a working copy", readme[2] );
+    }
+
+    private String getScmUrl()
+        throws Exception
+    {
+        return SvnJavaScmTestUtils.getScmUrl( new File( getRepositoryRoot(), "trunk" ) ).substring( "scm:javasvn:".length() );
+    }
+
+    /**
+     * Reads the entries of a tar, with the pax paths.
+     */
+    private static Map<String, byte[]> readTar( byte[] archive )
+        throws IOException
+    {
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        InputStream in = new ByteArrayInputStream( archive );
+        String paxPath = null;
+        byte[] header = new byte[512];
+        while ( in.read( header ) == 512 && header[0] != 0 )
+        {
+            String name = getString( header, 0, 100 );
+            String prefix = getString( header, 345, 155 );
+            if ( prefix.length() > 0 )
+            {
+                name = prefix + "/" + name;
+            }
+            int size = Integer.parseInt( getString( header, 124, 11 ), 8 );
+            byte[] content = new byte[size];
+            assertEquals( size, in.read( content ) );
+            in.skip( ( 512 - size % 512 ) % 512 );
+
+            if ( header[156] == 'x' )
+            {
+                String record = new String( content, StandardCharsets.UTF_8 );
+                paxPath = record.substring( record.indexOf( "path=" ) + 5, record.length() - 1 );
+                continue;
+            }
+            entries.put( paxPath == null ? name : paxPath, content );
+            paxPath = null;
+        }
+        return entries;
+    }
+
+    private static String getString( byte[] header, int offset, int length )
+    {
+        int end = offset;
+        while ( end < offset + length && header[end] != 0 )
+        {
+            end++;
+        }
+        return new String( header, offset, end - offset, StandardCharsets.UTF_8 );
+    }
+
+    private static List<String> getPaths( List<ScmFile> files )
+    {
+        List<String> paths = new ArrayList<>();
+        for ( ScmFile file : files )
+        {
+            paths.add( file.getPath().replace( '\\', '/' ) );
+        }
+        paths.sort( null );
+        return paths;
+    }
+}
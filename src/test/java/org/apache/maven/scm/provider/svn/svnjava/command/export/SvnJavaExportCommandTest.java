@@ -0,0 +1,125 @@
+package org.apache.maven.scm.provider.svn.svnjava.command.export;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+import org.apache.maven.scm.CommandParameter;
+import org.apache.maven.scm.ScmFile;
+import org.apache.maven.scm.ScmFileSet;
+import org.apache.maven.scm.ScmRevision;
+import org.apache.maven.scm.ScmTestCase;
+import org.apache.maven.scm.ScmVersion;
+import org.apache.maven.scm.command.export.ExportScmResult;
+import org.apache.maven.scm.provider.svn.svnjava.SvnJavaScmProvider;
+import org.apache.maven.scm.provider.svn.svnjava.SvnJavaScmTestUtils;
+import org.apache.maven.scm.provider.svn.svnjava.util.SvnJavaCommandParameters;
+import org.apache.maven.scm.repository.ScmRepository;
+import org.codehaus.plexus.util.FileUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+
+public class SvnJavaExportCommandTest
+    extends ScmTestCase
+{
+    private static final List<String> FILES =
+        Arrays.asList( "pom.xml", "readme.txt", "src/main/java/Application.java", "src/test/java/Test.java" );
+
+    private SvnJavaScmProvider provider;
+
+    private ScmRepository repository;
+
+    private File exportDirectory;
+
+    @Before
+    public void setUp()
+        throws Exception
+    {
+        super.setUp();
+        provider = SvnJavaScmTestUtils.getProvider( getScmManager() );
+        repository = SvnJavaScmTestUtils.initializeTrunk( getScmManager(), getRepositoryRoot() );
+        exportDirectory = SvnJavaScmTestUtils.deleteDirectory( getTestFile( "target/export" ) );
+    }
+
+    @Test
+    public void testExportOfRevision()
+        throws Exception
+    {
+        long changed = SvnJavaScmTestUtils.commitChange( provider, repository, getTestFile( "target/export-commit" ),
+                                                         "changed" );
+
+        ExportScmResult export = provider.export( repository, new ScmFileSet( exportDirectory ),
+                                                  new ScmRevision( String.valueOf( changed - 1 ) ) );
+        assertResultIsSuccess( export );
+        assertEquals( FILES, getPaths( export.getExportedFiles() ) );
+        assertNotEquals( "changed", FileUtils.fileRead( new File( exportDirectory, "readme.txt" ) ) );
+        assertFalse( new File( exportDirectory, ".svn" ).exists() );
+    }
+
+    @Test
+    public void testExportToOutputDirectory()
+        throws Exception
+    {
+        File outputDirectory = new File( exportDirectory, "output" );
+        ExportScmResult export = provider.export( repository, new ScmFileSet( exportDirectory ), (ScmVersion) null,
+                                                  outputDirectory.getPath() );
+        assertResultIsSuccess( export );
+        assertEquals( FILES, getPaths( export.getExportedFiles() ) );
+        assertEquals( Arrays.asList( "output" ), Arrays.asList( exportDirectory.list() ) );
+    }
+
+    @Test
+    public void testParallelExport()
+        throws Exception
+    {
+        long changed = SvnJavaScmTestUtils.commitChange( provider, repository, getTestFile( "target/export-commit" ),
+                                                         "changed" );
+        // the head revision is a later one
+        SvnJavaScmTestUtils.commitChange( provider, repository, getTestFile( "target/export-commit" ),
+                                          "changed again" );
+
+        SvnJavaCommandParameters parameters = new SvnJavaCommandParameters();
+        parameters.setParallelism( 4 );
+        parameters.setScmVersion( CommandParameter.SCM_VERSION, new ScmRevision( String.valueOf( changed ) ) );
+        ExportScmResult export =
+            provider.export( repository.getProviderRepository(), new ScmFileSet( exportDirectory ), parameters );
+        assertResultIsSuccess( export );
+        assertEquals( FILES, getPaths( export.getExportedFiles() ) );
+        assertEquals( "changed", FileUtils.fileRead( new File( exportDirectory, "readme.txt" ) ) );
+        assertEquals( 1, new File( exportDirectory, "src/test/java" ).list().length );
+    }
+
+    private static List<String> getPaths( List<ScmFile> files )
+    {
+        List<String> paths = new ArrayList<>();
+        for ( ScmFile file : files )
+        {
+            paths.add( file.getPath().replace( '\\', '/' ) );
+        }
+        paths.sort( null );
+        return paths;
+    }
+}
@@ -0,0 +1,198 @@
+package org.apache.maven.scm.provider.svn.svnjava.command.status;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+import org.apache.maven.scm.ScmFile;
+import org.apache.maven.scm.ScmFileSet;
+import org.apache.maven.scm.ScmFileStatus;
+import org.apache.maven.scm.ScmTestCase;
+import org.apache.maven.scm.command.status.StatusScmResult;
+import org.apache.maven.scm.provider.svn.svnjava.SvnJavaScmProvider;
+import org.apache.maven.scm.provider.svn.svnjava.SvnJavaScmTestUtils;
+import org.apache.maven.scm.provider.svn.svnjava.util.SvnJavaCommandParameters;
+import org.apache.maven.scm.repository.ScmRepository;
+import org.codehaus.plexus.util.FileUtils;
+import org.junit.Before;
+import org.junit.Test;
+import org.tmatesoft.svn.core.SVNDepth;
+import org.tmatesoft.svn.core.SVNProperty;
+import org.tmatesoft.svn.core.SVNPropertyValue;
+import org.tmatesoft.svn.core.wc.SVNClientManager;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SvnJavaStatusModeTest
+    extends ScmTestCase
+{
+    private SvnJavaScmProvider provider;
+
+    private ScmRepository repository;
+
+    private File workingCopy;
+
+    @Before
+    public void setUp()
+        throws Exception
+    {
+        super.setUp();
+        provider = SvnJavaScmTestUtils.getProvider( getScmManager() );
+        repository = SvnJavaScmTestUtils.initializeTrunk( getScmManager(), getRepositoryRoot() );
+        workingCopy = SvnJavaScmTestUtils.deleteDirectory( getTestFile( "target/status-mode" ) );
+        assertResultIsSuccess( provider.checkOut( repository, new ScmFileSet( workingCopy ) ) );
+        FileUtils.fileWrite( new File( workingCopy, "readme.txt" ), "changed readme.txt" );
+    }
+
+    @Test
+    public void testLocalAndRemoteStatusReportTheSameChanges()
+        throws Exception
+    {
+        StatusScmResult local = provider.status( repository, new ScmFileSet( workingCopy ) );
+        assertResultIsSuccess( local );
+        assertReadmeModified( local.getChangedFiles() );
+
+        SvnJavaCommandParameters parameters = new SvnJavaCommandParameters();
+        parameters.setRemoteStatus( true );
+        StatusScmResult remote =
+            provider.status( repository.getProviderRepository(), new ScmFileSet( workingCopy ), parameters );
+        assertResultIsSuccess( remote );
+        assertReadmeModified( remote.getChangedFiles() );
+    }
+
+    @Test
+    public void testLocalStatusDoesNotContactTheRepository()
+        throws Exception
+    {
+        File root = getRepositoryRoot();
+        File moved = new File( root.getPath() + "-moved" );
+        FileUtils.deleteDirectory( moved );
+        assertTrue( root.renameTo( moved ) );
+        try
+        {
+            StatusScmResult local = provider.status( repository, new ScmFileSet( workingCopy ) );
+            assertResultIsSuccess( local );
+            assertReadmeModified( local.getChangedFiles() );
+
+            SvnJavaCommandParameters parameters = new SvnJavaCommandParameters();
+            parameters.setRemoteStatus( true );
+            assertFalse( provider.status( repository.getProviderRepository(), new ScmFileSet( workingCopy ),
+                                          parameters ).isSuccess() );
+        }
+        finally
+        {
+            assertTrue( moved.renameTo( root ) );
+        }
+    }
+
+    @Test
+    public void testOnlyChangedEntriesAreReported()
+        throws Exception
+    {
+        FileUtils.fileWrite( new File( workingCopy, "unversioned.txt" ), "new" );
+        new File( workingCopy, "target" ).mkdirs();
+        FileUtils.fileWrite( new File( workingCopy, "target/ignored.txt" ), "ignored" );
+        SVNClientManager clientManager = SVNClientManager.newInstance();
+        try
+        {
+            clientManager.getWCClient().doSetProperty( workingCopy, SVNProperty.IGNORE,
+                                                       SVNPropertyValue.create( "target" ), false, SVNDepth.EMPTY,
+                                                       null, null );
+        }
+        finally
+        {
+            clientManager.dispose();
+        }
+
+        StatusScmResult status = provider.status( repository, new ScmFileSet( workingCopy ) );
+        assertResultIsSuccess( status );
+        List<ScmFile> files = new ArrayList<>( status.getChangedFiles() );
+        files.sort( Comparator.comparing( ScmFile::getPath ) );
+        assertEquals( files.toString(), 2, files.size() );
+        assertEquals( "readme.txt", files.get( 0 ).getPath() );
+        assertEquals( ScmFileStatus.MODIFIED, files.get( 0 ).getStatus() );
+        assertEquals( "unversioned.txt", files.get( 1 ).getPath() );
+        assertEquals( ScmFileStatus.UNKNOWN, files.get( 1 ).getStatus() );
+    }
+
+    @Test
+    public void testParallelStatusReportsTheSameFiles()
+        throws Exception
+    {
+        FileUtils.fileWrite( new File( workingCopy, "src/main/java/Application.java" ), "changed" );
+        FileUtils.fileWrite( new File( workingCopy, "src/main/java/Unversioned.java" ), "new" );
+        new File( workingCopy, "src/site" ).mkdirs();
+        FileUtils.fileWrite( new File( workingCopy, "src/site/index.apt" ), "new" );
+        FileUtils.deleteDirectory( new File( workingCopy, "src/test" ) );
+        // root entries on both sides of the top level directory, one sorted between it and its files by path
+        FileUtils.fileWrite( new File( workingCopy, "a.txt" ), "new" );
+        FileUtils.fileWrite( new File( workingCopy, "src-notes.txt" ), "new" );
+        FileUtils.fileWrite( new File( workingCopy, "zz.txt" ), "new" );
+        new File( workingCopy, "b" ).mkdirs();
+        FileUtils.fileWrite( new File( workingCopy, "b/x.txt" ), "new" );
+
+        List<ScmFile> sequential = provider.status( repository, new ScmFileSet( workingCopy ) ).getChangedFiles();
+        assertEquals( sequential.toString(), 9, sequential.size() );
+
+        SvnJavaCommandParameters parameters = new SvnJavaCommandParameters();
+        parameters.setParallelism( 4 );
+        StatusScmResult parallel =
+            provider.status( repository.getProviderRepository(), new ScmFileSet( workingCopy ), parameters );
+        assertResultIsSuccess( parallel );
+        assertEquals( sequential.toString(), parallel.getChangedFiles().toString() );
+    }
+
+    @Test
+    public void testStatusOfTheListedFilesOnly()
+        throws Exception
+    {
+        FileUtils.fileWrite( new File( workingCopy, "src/main/java/Application.java" ), "changed" );
+        FileUtils.fileWrite( new File( workingCopy, "src/main/java/Unversioned.java" ), "new" );
+        FileUtils.fileWrite( new File( workingCopy, "src/test/java/Test.java" ), "changed" );
+        ScmFileSet fileSet = new ScmFileSet( workingCopy, Arrays.asList( new File( "readme.txt" ),
+                                                                         new File( "pom.xml" ),
+                                                                         new File( workingCopy, "src/main" ) ) );
+
+        StatusScmResult status = provider.status( repository, fileSet );
+        assertResultIsSuccess( status );
+        List<ScmFile> files = new ArrayList<>( status.getChangedFiles() );
+        files.sort( Comparator.comparing( ScmFile::getPath ) );
+        assertEquals( "[[readme.txt:modified], [src/main/java/Application.java:modified], "
+                          + "[src/main/java/Unversioned.java:unknown]]", files.toString() );
+
+        SvnJavaCommandParameters parameters = new SvnJavaCommandParameters();
+        parameters.setDepth( SVNDepth.IMMEDIATES );
+        status = provider.status( repository.getProviderRepository(), fileSet, parameters );
+        assertResultIsSuccess( status );
+        assertReadmeModified( status.getChangedFiles() );
+    }
+
+    private static void assertReadmeModified( List<ScmFile> files )
+    {
+        assertEquals( 1, files.size() );
+        assertEquals( "readme.txt", files.get( 0 ).getPath() );
+        assertEquals( ScmFileStatus.MODIFIED, files.get( 0 ).getStatus() );
+    }
+}
@@ -0,0 +1,166 @@
+package org.apache.maven.scm.provider.svn.svnjava.command.status;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+import org.apache.maven.scm.ScmFile;
+import org.apache.maven.scm.ScmFileSet;
+import org.apache.maven.scm.ScmTestCase;
+import org.apache.maven.scm.command.status.StatusScmResult;
+import org.apache.maven.scm.provider.svn.svnjava.SvnJavaScmProvider;
+import org.apache.maven.scm.provider.svn.svnjava.SvnJavaScmTestUtils;
+import org.apache.maven.scm.repository.ScmRepository;
+import org.codehaus.plexus.util.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.tmatesoft.svn.core.SVNDepth;
+import org.tmatesoft.svn.core.wc.SVNClientManager;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SvnStatusServiceTest
+    extends ScmTestCase
+{
+    private SvnJavaScmProvider provider;
+
+    private ScmRepository repository;
+
+    private File workingCopy;
+
+    private SvnStatusService service;
+
+    @Before
+    public void setUp()
+        throws Exception
+    {
+        super.setUp();
+        provider = SvnJavaScmTestUtils.getProvider( getScmManager() );
+        repository = SvnJavaScmTestUtils.initializeTrunk( getScmManager(), getRepositoryRoot() );
+        workingCopy = SvnJavaScmTestUtils.deleteDirectory( getTestFile( "target/status-service" ) );
+        assertResultIsSuccess( provider.checkOut( repository, new ScmFileSet( workingCopy ) ) );
+        service = provider.openStatusService( repository.getProviderRepository(), workingCopy );
+    }
+
+    @After
+    public void tearDown()
+        throws Exception
+    {
+        service.close();
+        super.tearDown();
+    }
+
+    @Test
+    public void testChangesAreReadIncrementally()
+        throws Exception
+    {
+        assertStatus();
+        assertEquals( 1, service.getFullStatusCount() );
+
+        FileUtils.fileWrite( new File( workingCopy, "readme.txt" ), "changed readme.txt" );
+        assertStatus();
+
+        FileUtils.fileWrite( new File( workingCopy, "src/main/java/Unversioned.java" ), "new" );
+        assertStatus();
+
+        File directory = new File( workingCopy, "src/site/apt" );
+        assertTrue( directory.mkdirs() );
+        FileUtils.fileWrite( new File( directory, "index.apt" ), "new" );
+        assertStatus();
+
+        assertTrue( new File( workingCopy, "src/test/java/Test.java" ).delete() );
+        assertStatus();
+
+        FileUtils.deleteDirectory( new File( workingCopy, "src/main" ) );
+        assertStatus();
+
+        FileUtils.deleteDirectory( new File( workingCopy, "src/site" ) );
+        assertStatus();
+
+        assertEquals( 1, service.getFullStatusCount() );
+    }
+
+    @Test
+    public void testSvnCommandsLeadToAFullStatus()
+        throws Exception
+    {
+        File readme = new File( workingCopy, "readme.txt" );
+        FileUtils.fileWrite( readme, "changed readme.txt" );
+        assertStatus();
+        assertEquals( 1, service.getFullStatusCount() );
+
+        SVNClientManager clientManager = SVNClientManager.newInstance();
+        try
+        {
+            clientManager.getWCClient().doRevert( new File[] { readme }, SVNDepth.EMPTY, null );
+        }
+        finally
+        {
+            clientManager.dispose();
+        }
+        assertStatus();
+        assertTrue( service.getFullStatusCount() > 1 );
+    }
+
+    @Test( expected = IllegalStateException.class )
+    public void testClosedServiceCannotBeUsed()
+        throws Exception
+    {
+        service.close();
+        service.status();
+    }
+
+    /**
+     * Waits for the watcher to report the last changes, until the service reports the same files as a status
+     * command.
+     */
+    private void assertStatus()
+        throws Exception
+    {
+        StatusScmResult expected = provider.status( repository, new ScmFileSet( workingCopy ) );
+        assertResultIsSuccess( expected );
+        String expectedFiles = toString( expected.getChangedFiles() );
+
+        String files = null;
+        for ( long end = System.currentTimeMillis() + 10000; System.currentTimeMillis() < end; Thread.sleep( 50 ) )
+        {
+            StatusScmResult status = service.status();
+            assertResultIsSuccess( status );
+            files = toString( status.getChangedFiles() );
+            if ( expectedFiles.equals( files ) )
+            {
+                return;
+            }
+        }
+        fail( "expected " + expectedFiles + " but was " + files );
+    }
+
+    private static String toString( List<ScmFile> files )
+    {
+        List<ScmFile> sorted = new ArrayList<>( files );
+        sorted.sort( Comparator.comparing( ScmFile::getPath ) );
+        return sorted.toString();
+    }
+}
@@ -0,0 +1,187 @@
+package org.apache.maven.scm.provider.svn.svnjava.command.update;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.scm.ScmFileSet;
+import org.apache.maven.scm.ScmTestCase;
+import org.apache.maven.scm.ScmVersion;
+import org.apache.maven.scm.command.update.UpdateScmResult;
+import org.apache.maven.scm.command.update.UpdateScmResultWithRevision;
+import org.apache.maven.scm.provider.svn.svnjava.SvnJavaScmProvider;
+import org.apache.maven.scm.provider.svn.svnjava.SvnJavaScmTestUtils;
+import org.apache.maven.scm.repository.ScmRepository;
+import org.codehaus.plexus.util.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.tmatesoft.svn.core.SVNDepth;
+import org.tmatesoft.svn.core.SVNProperty;
+import org.tmatesoft.svn.core.SVNPropertyValue;
+import org.tmatesoft.svn.core.wc.SVNClientManager;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SvnJavaUpToDateUpdateTest
+    extends ScmTestCase
+{
+    private SvnJavaScmProvider provider;
+
+    private File workingCopy;
+
+    private File committer;
+
+    @Before
+    public void setUp()
+        throws Exception
+    {
+        super.setUp();
+        SvnJavaScmTestUtils.initializeRepository( getRepositoryRoot() );
+        provider = SvnJavaScmTestUtils.getProvider( getScmManager() );
+        workingCopy = SvnJavaScmTestUtils.deleteDirectory( getTestFile( "target/up-to-date-update" ) );
+        committer = SvnJavaScmTestUtils.deleteDirectory( getTestFile( "target/up-to-date-commit" ) );
+    }
+
+    @After
+    public void tearDown()
+        throws Exception
+    {
+        provider.setUpToDateCheckTtl( -1, TimeUnit.SECONDS );
+        super.tearDown();
+    }
+
+    @Test
+    public void testCachedRevisionSkipsUpdate()
+        throws Exception
+    {
+        provider.setUpToDateCheckTtl( 1, TimeUnit.HOURS );
+        ScmRepository repository = makeRepository();
+        checkOut( repository );
+
+        UpdateScmResult update = update( repository );
+        assertTrue( update.getUpdatedFiles().isEmpty() );
+
+        // a commit made outside of the provider is not seen until the cached revision expires
+        long changed = commitOutsideProvider();
+        update = update( repository );
+        assertTrue( update.getUpdatedFiles().isEmpty() );
+        assertEquals( String.valueOf( changed - 1 ), ( (UpdateScmResultWithRevision) update ).getRevision() );
+        assertEquals( "/readme.txt", FileUtils.fileRead( new File( workingCopy, "readme.txt" ) ) );
+
+        // one made through the provider clears the cache
+        FileUtils.fileWrite( new File( committer, "pom.xml" ), "changed through the provider" );
+        assertResultIsSuccess( provider.checkIn( repository, new ScmFileSet( committer ), "change" ) );
+        update = update( repository );
+        assertEquals( 2, update.getUpdatedFiles().size() );
+        assertEquals( "changed outside", FileUtils.fileRead( new File( workingCopy, "readme.txt" ) ) );
+    }
+
+    @Test
+    public void testUncachedRevision()
+        throws Exception
+    {
+        provider.setUpToDateCheckTtl( 0, TimeUnit.SECONDS );
+        ScmRepository repository = makeRepository();
+        checkOut( repository );
+
+        assertTrue( update( repository ).getUpdatedFiles().isEmpty() );
+
+        long changed = commitOutsideProvider();
+        UpdateScmResult update = update( repository );
+        assertEquals( 1, update.getUpdatedFiles().size() );
+        assertEquals( String.valueOf( changed ), ( (UpdateScmResultWithRevision) update ).getRevision() );
+        assertEquals( "changed outside", FileUtils.fileRead( new File( workingCopy, "readme.txt" ) ) );
+    }
+
+    @Test
+    public void testWorkingCopyWithExternalsIsUpdated()
+        throws Exception
+    {
+        provider.setUpToDateCheckTtl( 1, TimeUnit.HOURS );
+        ScmRepository repository = makeRepository();
+        checkOut( repository );
+
+        SVNClientManager clientManager = SVNClientManager.newInstance();
+        try
+        {
+            String url = SvnJavaScmTestUtils.getScmUrl( new File( getRepositoryRoot(), "trunk/src" ) )
+                .substring( "scm:javasvn:".length() );
+            clientManager.getWCClient().doSetProperty( workingCopy, SVNProperty.EXTERNALS,
+                                                       SVNPropertyValue.create( url + " external" ), false,
+                                                       SVNDepth.EMPTY, null, null );
+        }
+        finally
+        {
+            clientManager.dispose();
+        }
+
+        // not skipped, the external is fetched
+        update( repository );
+        assertTrue( new File( workingCopy, "external/main/java/Application.java" ).exists() );
+
+        commitOutsideProvider();
+        update( repository );
+        assertEquals( "changed outside", FileUtils.fileRead( new File( workingCopy, "readme.txt" ) ) );
+    }
+
+    private ScmRepository makeRepository()
+        throws Exception
+    {
+        return makeScmRepository( SvnJavaScmTestUtils.getScmUrl( new File( getRepositoryRoot(), "trunk" ) ) );
+    }
+
+    private void checkOut( ScmRepository repository )
+        throws Exception
+    {
+        assertResultIsSuccess( provider.checkOut( repository, new ScmFileSet( workingCopy ) ) );
+        assertResultIsSuccess( provider.checkOut( repository, new ScmFileSet( committer ) ) );
+    }
+
+    private UpdateScmResult update( ScmRepository repository )
+        throws Exception
+    {
+        UpdateScmResult update = provider.update( repository, new ScmFileSet( workingCopy ), (ScmVersion) null, false );
+        assertResultIsSuccess( update );
+        return update;
+    }
+
+    /**
+     * @return the revision of the change
+     */
+    private long commitOutsideProvider()
+        throws Exception
+    {
+        File readme = new File( committer, "readme.txt" );
+        FileUtils.fileWrite( readme, "changed outside" );
+        SVNClientManager clientManager = SVNClientManager.newInstance();
+        try
+        {
+            return clientManager.getCommitClient().doCommit( new File[]{ readme }, false, "change", null, null,
+                                                             false, false, SVNDepth.EMPTY ).getNewRevision();
+        }
+        finally
+        {
+            clientManager.dispose();
+        }
+    }
+}
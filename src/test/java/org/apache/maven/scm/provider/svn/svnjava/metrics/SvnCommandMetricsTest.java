@@ -0,0 +1,104 @@
+package org.apache.maven.scm.provider.svn.svnjava.metrics;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.scm.ScmFileSet;
+import org.apache.maven.scm.ScmTestCase;
+import org.apache.maven.scm.command.checkout.CheckOutScmResult;
+import org.apache.maven.scm.provider.svn.repository.SvnScmProviderRepository;
+import org.apache.maven.scm.provider.svn.svnjava.SvnJavaScmProvider;
+import org.apache.maven.scm.provider.svn.svnjava.SvnJavaScmTestUtils;
+import org.apache.maven.scm.repository.ScmRepository;
+import org.junit.Test;
+import org.tmatesoft.svn.util.SVNLogType;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SvnCommandMetricsTest
+    extends ScmTestCase
+{
+    @Test
+    public void testCommandsAreMetered()
+        throws Exception
+    {
+        File workingCopy = SvnJavaScmTestUtils.deleteDirectory( getTestFile( "target/metrics-checkout" ) );
+
+        SvnJavaScmProvider provider = SvnJavaScmTestUtils.getProvider( getScmManager() );
+        InMemorySvnCommandMetricsListener listener = new InMemorySvnCommandMetricsListener();
+        provider.setMetricsListener( listener );
+        try
+        {
+            ScmRepository repository = SvnJavaScmTestUtils.initializeTrunk( getScmManager(), getRepositoryRoot() );
+            CheckOutScmResult result = provider.checkOut( repository, new ScmFileSet( workingCopy ) );
+            assertResultIsSuccess( result );
+            provider.status( repository, new ScmFileSet( workingCopy ) );
+
+            InMemorySvnCommandMetricsListener.Statistics checkout = listener.getStatisticsByCommand().get( "checkout" );
+            assertEquals( 1, checkout.getCount() );
+            assertEquals( 0, checkout.getFailures() );
+            assertEquals( result.getCheckedOutFiles().size(), checkout.getFiles() );
+            assertTrue( checkout.getTotalNanos() > 0 );
+            assertEquals( 1, listener.getStatisticsByCommand().get( "status" ).getCount() );
+            String url = ( (SvnScmProviderRepository) repository.getProviderRepository() ).getUrl();
+            assertEquals( 2, listener.getStatisticsByRepository().get( url ).getCount() );
+        }
+        finally
+        {
+            provider.setMetricsListener( null );
+        }
+        assertTrue( provider.getMetricsListener() instanceof NoOpSvnCommandMetricsListener );
+    }
+
+    @Test
+    public void testNetworkStreamsAreCounted()
+        throws Exception
+    {
+        MeteringDebugLog log = new MeteringDebugLog();
+        SvnCommandMetricsRecorder recorder = new SvnCommandMetricsRecorder();
+        log.setRecorder( recorder );
+
+        ByteArrayOutputStream socketOut = new ByteArrayOutputStream();
+        OutputStream out = log.createLogStream( SVNLogType.NETWORK, socketOut );
+        InputStream in = log.createLogStream( SVNLogType.NETWORK, new ByteArrayInputStream( new byte[100] ) );
+
+        out.write( new byte[10] );
+        out.write( 1 );
+        in.read( new byte[30] );
+        in.read();
+        out.write( new byte[5] );
+        in.read( new byte[30] );
+
+        assertEquals( 16, recorder.getBytesSent() );
+        assertEquals( 61, recorder.getBytesReceived() );
+        assertEquals( 2, recorder.getRoundTrips() );
+
+        // idle sessions do not count
+        log.setRecorder( null );
+        out.write( new byte[5] );
+        assertEquals( 16, recorder.getBytesSent() );
+    }
+}
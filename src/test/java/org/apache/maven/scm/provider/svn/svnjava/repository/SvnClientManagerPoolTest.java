@@ -0,0 +1,152 @@
+package org.apache.maven.scm.provider.svn.svnjava.repository;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.junit.Test;
+import org.tmatesoft.svn.core.wc.SVNClientManager;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class SvnClientManagerPoolTest
+{
+    private static final SvnJavaRepositoryConfiguration KEY =
+        SvnJavaRepositoryConfiguration.builder().user( "user" ).password( "pwd" ).build();
+
+    @Test
+    public void testReleasedInstanceIsReused()
+    {
+        SvnClientManagerPool pool = new SvnClientManagerPool( 2, 60 * 1000L );
+
+        SVNClientManager first = pool.lease( KEY );
+        assertEquals( 1, pool.getLeasedCount() );
+        pool.release( first );
+        assertEquals( 0, pool.getLeasedCount() );
+        assertEquals( 1, pool.getIdleCount() );
+
+        SVNClientManager second = pool.lease( KEY );
+        assertSame( first, second );
+        assertEquals( 1, pool.getCreatedCount() );
+        assertEquals( 1, pool.getReusedCount() );
+        pool.release( second );
+    }
+
+    @Test
+    public void testKeyedByCredentials()
+    {
+        SvnClientManagerPool pool = new SvnClientManagerPool( 2, 60 * 1000L );
+
+        SVNClientManager first = pool.lease( KEY );
+        pool.release( first );
+
+        SVNClientManager other = pool.lease( SvnJavaRepositoryConfiguration.builder().user( "other" ).password( "pwd" ).build() );
+        assertNotSame( first, other );
+        pool.release( other );
+        assertEquals( 2, pool.getIdleCount() );
+    }
+
+    @Test
+    public void testIdleSizeIsBounded()
+    {
+        SvnClientManagerPool pool = new SvnClientManagerPool( 1, 60 * 1000L );
+
+        SVNClientManager first = pool.lease( KEY );
+        SVNClientManager second = pool.lease( KEY );
+        assertNotSame( first, second );
+
+        pool.release( first );
+        pool.release( second );
+        assertEquals( 1, pool.getIdleCount() );
+    }
+
+    @Test
+    public void testClientOptionsAreResetOnRelease()
+    {
+        SvnClientManagerPool pool = new SvnClientManagerPool( 1, 60 * 1000L );
+
+        SVNClientManager first = pool.lease( KEY );
+        first.getUpdateClient().setIgnoreExternals( true );
+        first.getUpdateClient().setExportExpandsKeywords( false );
+        first.getStatusClient().setIgnoreExternals( true );
+        pool.release( first );
+
+        SVNClientManager second = pool.lease( KEY );
+        assertSame( first, second );
+        assertFalse( second.getUpdateClient().isIgnoreExternals() );
+        assertTrue( second.getUpdateClient().isExportExpandsKeywords() );
+        assertFalse( second.getStatusClient().isIgnoreExternals() );
+        pool.release( second );
+    }
+
+    @Test
+    public void testInvalidatedInstanceIsNotReused()
+    {
+        SvnClientManagerPool pool = new SvnClientManagerPool( 2, 60 * 1000L );
+
+        SVNClientManager first = pool.lease( KEY );
+        pool.invalidate( first );
+        assertEquals( 0, pool.getLeasedCount() );
+        pool.release( first );
+        assertEquals( 0, pool.getIdleCount() );
+
+        SVNClientManager second = pool.lease( KEY );
+        assertNotSame( first, second );
+        pool.release( second );
+    }
+
+    @Test
+    public void testIdleInstancesAreEvicted()
+        throws Exception
+    {
+        SvnClientManagerPool pool = new SvnClientManagerPool( 2, 0L );
+
+        pool.release( pool.lease( KEY ) );
+        Thread.sleep( 5 );
+        pool.evictIdle();
+        assertEquals( 0, pool.getIdleCount() );
+    }
+
+    @Test
+    public void testUnusedSessionCachesAreDropped()
+        throws Exception
+    {
+        SvnClientManagerPool pool = new SvnClientManagerPool( 2, 0L );
+        SvnJavaRepositoryConfiguration other =
+            SvnJavaRepositoryConfiguration.builder().user( "other" ).password( "pwd" ).build();
+
+        SVNClientManager leased = pool.lease( KEY );
+        SvnSessionCache cache = pool.getSessionCache( KEY );
+        pool.release( pool.lease( other ) );
+        assertEquals( 2, pool.getSessionCacheCount() );
+
+        Thread.sleep( 5 );
+        pool.evictIdle();
+        assertEquals( 1, pool.getSessionCacheCount() );
+        assertSame( cache, pool.getSessionCache( KEY ) );
+
+        pool.release( leased );
+        Thread.sleep( 5 );
+        pool.evictIdle();
+        assertEquals( 0, pool.getSessionCacheCount() );
+    }
+}
@@ -0,0 +1,112 @@
+package org.apache.maven.scm.provider.svn.svnjava.repository;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.scm.provider.svn.svnjava.SvnJavaScmProvider;
+import org.junit.Test;
+import org.tmatesoft.svn.core.SVNURL;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class SvnJavaScmProviderRepositoryTest
+{
+    @Test
+    public void testConfigurationIsBuiltOnce()
+        throws Exception
+    {
+        SvnJavaScmProviderRepository repository = newRepository();
+        repository.setUser( "user" );
+        repository.setPassword( "pwd" );
+
+        SvnJavaRepositoryConfiguration configuration = repository.getConfiguration();
+        assertSame( configuration, repository.getConfiguration() );
+        assertEquals( "user", configuration.getUser() );
+        assertEquals( "pwd", configuration.getPassword() );
+
+        repository.setPrivateKey( "/home/user/.ssh/id_rsa" );
+        assertNotEquals( configuration, repository.getConfiguration() );
+        assertEquals( "/home/user/.ssh/id_rsa", repository.getConfiguration().getPrivateKey() );
+    }
+
+    @Test
+    public void testCredentialsAreNotPublished()
+        throws Exception
+    {
+        System.getProperties().remove( "javasvn.ssh2.username" );
+        System.getProperties().remove( "javasvn.ssh2.password" );
+        System.getProperties().remove( "javasvn.ssh2.key" );
+        System.getProperties().remove( "javasvn.ssh2.passphrase" );
+
+        SvnJavaScmProviderRepository repository = newRepository();
+        repository.setUser( "user" );
+        repository.setPassword( "pwd" );
+        repository.setPrivateKey( "/home/user/.ssh/id_rsa" );
+        repository.setPassphrase( "secret" );
+        repository.getConfiguration();
+
+        assertNull( System.getProperty( "javasvn.ssh2.username" ) );
+        assertNull( System.getProperty( "javasvn.ssh2.password" ) );
+        assertNull( System.getProperty( "javasvn.ssh2.key" ) );
+        assertNull( System.getProperty( "javasvn.ssh2.passphrase" ) );
+    }
+
+    @Test
+    public void testGivenConfiguration()
+        throws Exception
+    {
+        SvnJavaRepositoryConfiguration configuration =
+            SvnJavaRepositoryConfiguration.builder().user( "user" ).privateKey( "/tmp/key" ).passphrase( "pp" ).build();
+        SvnJavaScmProviderRepository repository =
+            new SvnJavaScmProviderRepository( SVNURL.parseURIEncoded( "svn+ssh://localhost/repo" ),
+                                              "svn+ssh://localhost/repo", configuration );
+
+        assertSame( configuration, repository.getConfiguration() );
+        assertEquals( "user", repository.getUser() );
+        assertEquals( "/tmp/key", repository.getPrivateKey() );
+        assertEquals( "pp", repository.getPassphrase() );
+    }
+
+    @Test
+    public void testParsedUrlIsReused()
+        throws Exception
+    {
+        SvnJavaScmProvider provider = new SvnJavaScmProvider();
+        SvnJavaScmProviderRepository first =
+            (SvnJavaScmProviderRepository) provider.makeProviderScmRepository( "https://user@localhost/repo", '|' );
+        first.setPassword( "pwd" );
+        SvnJavaScmProviderRepository second =
+            (SvnJavaScmProviderRepository) provider.makeProviderScmRepository( "https://user@localhost/repo", '|' );
+
+        assertSame( first.getSvnUrl(), second.getSvnUrl() );
+        assertEquals( "https://localhost/repo", second.getUrl() );
+        assertEquals( "user", second.getUser() );
+        assertNull( second.getPassword() );
+    }
+
+    private SvnJavaScmProviderRepository newRepository()
+        throws Exception
+    {
+        return new SvnJavaScmProviderRepository( SVNURL.parseURIEncoded( "svn://localhost/repo" ),
+                                                 "svn://localhost/repo" );
+    }
+}
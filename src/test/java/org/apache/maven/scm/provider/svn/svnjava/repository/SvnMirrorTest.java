@@ -0,0 +1,270 @@
+package org.apache.maven.scm.provider.svn.svnjava.repository;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+import org.apache.maven.scm.ScmFileSet;
+import org.apache.maven.scm.ScmTestCase;
+import org.apache.maven.scm.ScmVersion;
+import org.apache.maven.scm.command.checkin.CheckInScmResult;
+import org.apache.maven.scm.command.checkout.CheckOutScmResult;
+import org.apache.maven.scm.command.update.UpdateScmResult;
+import org.apache.maven.scm.provider.svn.svnjava.SvnJavaScmProvider;
+import org.apache.maven.scm.provider.svn.svnjava.SvnJavaScmTestUtils;
+import org.apache.maven.scm.provider.svn.svnjava.util.SvnJavaCancellationToken;
+import org.apache.maven.scm.provider.svn.svnjava.util.SvnJavaCommandParameters;
+import org.apache.maven.scm.provider.svn.svnjava.util.SvnJavaUtil;
+import org.apache.maven.scm.repository.ScmRepository;
+import org.codehaus.plexus.util.FileUtils;
+import org.junit.Before;
+import org.junit.Test;
+import org.tmatesoft.svn.core.SVNDepth;
+import org.tmatesoft.svn.core.SVNException;
+import org.tmatesoft.svn.core.SVNProperty;
+import org.tmatesoft.svn.core.SVNPropertyValue;
+import org.tmatesoft.svn.core.SVNURL;
+import org.tmatesoft.svn.core.wc.SVNClientManager;
+import org.tmatesoft.svn.core.wc.SVNRevision;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SvnMirrorTest
+    extends ScmTestCase
+{
+    private SvnJavaScmProvider provider;
+
+    private ScmRepository repository;
+
+    private SvnJavaScmProviderRepository javaRepository;
+
+    private SvnMirror mirror;
+
+    @Before
+    public void setUp()
+        throws Exception
+    {
+        super.setUp();
+        provider = SvnJavaScmTestUtils.getProvider( getScmManager() );
+        repository = SvnJavaScmTestUtils.initializeTrunk( getScmManager(), getRepositoryRoot() );
+        javaRepository = (SvnJavaScmProviderRepository) repository.getProviderRepository();
+
+        File mirrorDirectory = SvnJavaScmTestUtils.deleteDirectory( getTestFile( "target/mirror" ) );
+        mirror = new SvnMirror( javaRepository.getSvnUrl(), mirrorDirectory );
+        javaRepository.setMirror( mirror );
+    }
+
+    @Test
+    public void testCheckOutFromMirror()
+        throws Exception
+    {
+        File workingCopy = SvnJavaScmTestUtils.deleteDirectory( getTestFile( "target/mirror-checkout" ) );
+        CheckOutScmResult checkOut = provider.checkOut( repository, new ScmFileSet( workingCopy ) );
+        assertResultIsSuccess( checkOut );
+        assertEquals( 4, checkOut.getCheckedOutFiles().size() );
+        assertEquals( getLatestRevision(), mirror.getSyncedRevision() );
+
+        // the working copy points to the origin
+        assertEquals( javaRepository.getSvnUrl(), getUrl( workingCopy ) );
+
+        SVNClientManager clientManager = javaRepository.leaseClientManager();
+        try
+        {
+            assertEquals( mirror.getMirrorRootUrl().appendPath( "trunk", false ),
+                          javaRepository.getReadUrl( clientManager, javaRepository.getSvnUrl() ) );
+            SVNURL outside = SVNURL.fromFile( new File( getRepositoryRoot(), "tags" ) );
+            assertSame( outside, javaRepository.getReadUrl( clientManager, outside ) );
+        }
+        finally
+        {
+            javaRepository.releaseClientManager( clientManager );
+        }
+    }
+
+    @Test
+    public void testCommitIsMirrored()
+        throws Exception
+    {
+        File workingCopy = SvnJavaScmTestUtils.deleteDirectory( getTestFile( "target/mirror-commit" ) );
+        assertResultIsSuccess( provider.checkOut( repository, new ScmFileSet( workingCopy ) ) );
+        File otherWorkingCopy = SvnJavaScmTestUtils.deleteDirectory( getTestFile( "target/mirror-update" ) );
+        assertResultIsSuccess( provider.checkOut( repository, new ScmFileSet( otherWorkingCopy ) ) );
+        long revision = mirror.getSyncedRevision();
+
+        FileUtils.fileWrite( new File( workingCopy, "readme.txt" ), "changed through the origin" );
+        CheckInScmResult checkIn = provider.checkIn( repository, new ScmFileSet( workingCopy ), "mirrored change" );
+        assertResultIsSuccess( checkIn );
+        assertEquals( revision + 1, getLatestRevision() );
+        assertEquals( revision + 1, mirror.getSyncedRevision() );
+
+        UpdateScmResult update =
+            provider.update( repository, new ScmFileSet( otherWorkingCopy ), (ScmVersion) null, false );
+        assertResultIsSuccess( update );
+        assertEquals( 1, update.getUpdatedFiles().size() );
+        assertEquals( "changed through the origin",
+                      FileUtils.fileRead( new File( otherWorkingCopy, "readme.txt" ) ) );
+        assertEquals( javaRepository.getSvnUrl(), getUrl( otherWorkingCopy ) );
+    }
+
+    @Test
+    public void testKeywordsAreExpandedAgainstTheOrigin()
+        throws Exception
+    {
+        File workingCopy = SvnJavaScmTestUtils.deleteDirectory( getTestFile( "target/mirror-commit" ) );
+        assertResultIsSuccess( provider.checkOut( repository, new ScmFileSet( workingCopy ) ) );
+        File otherWorkingCopy = SvnJavaScmTestUtils.deleteDirectory( getTestFile( "target/mirror-update" ) );
+        assertResultIsSuccess( provider.checkOut( repository, new ScmFileSet( otherWorkingCopy ) ) );
+
+        File file = new File( workingCopy, "k.txt" );
+        FileUtils.fileWrite( file, "$HeadURL$" );
+        SVNClientManager clientManager = javaRepository.leaseClientManager();
+        try
+        {
+            SvnJavaUtil.add( clientManager, file, false );
+            clientManager.getWCClient().doSetProperty( file, SVNProperty.KEYWORDS, SVNPropertyValue.create( "HeadURL" ),
+                                                       false, SVNDepth.EMPTY, null, null );
+        }
+        finally
+        {
+            javaRepository.releaseClientManager( clientManager );
+        }
+        assertResultIsSuccess( provider.checkIn( repository, new ScmFileSet( workingCopy ), "keywords" ) );
+        String expanded = "$HeadURL: " + javaRepository.getSvnUrl().appendPath( "k.txt", false ) + " $";
+
+        File checkedOut = SvnJavaScmTestUtils.deleteDirectory( getTestFile( "target/mirror-checkout" ) );
+        assertResultIsSuccess( provider.checkOut( repository, new ScmFileSet( checkedOut ) ) );
+        assertEquals( expanded, FileUtils.fileRead( new File( checkedOut, "k.txt" ) ) );
+
+        assertResultIsSuccess( provider.update( repository, new ScmFileSet( otherWorkingCopy ) ) );
+        assertEquals( expanded, FileUtils.fileRead( new File( otherWorkingCopy, "k.txt" ) ) );
+        assertTrue( provider.status( repository, new ScmFileSet( otherWorkingCopy ) ).getChangedFiles().isEmpty() );
+
+        File exported = SvnJavaScmTestUtils.deleteDirectory( getTestFile( "target/mirror-export" ) );
+        assertResultIsSuccess( provider.export( repository, new ScmFileSet( exported ) ) );
+        assertEquals( expanded, FileUtils.fileRead( new File( exported, "k.txt" ) ) );
+    }
+
+    @Test
+    public void testCancelledUpdateIsRelocatedToTheOrigin()
+        throws Exception
+    {
+        File otherWorkingCopy = SvnJavaScmTestUtils.deleteDirectory( getTestFile( "target/mirror-update" ) );
+        assertResultIsSuccess( provider.checkOut( repository, new ScmFileSet( otherWorkingCopy ) ) );
+        SvnJavaScmTestUtils.commitChange( provider, repository, getTestFile( "target/mirror-commit" ),
+                                          "changed through the origin" );
+
+        SvnJavaCommandParameters parameters = new SvnJavaCommandParameters();
+        parameters.setCancellationToken( new SvnJavaCancellationToken( 0, TimeUnit.MILLISECONDS ) );
+        UpdateScmResult update = provider.update( javaRepository, new ScmFileSet( otherWorkingCopy ), parameters );
+        assertFalse( update.isSuccess() );
+        assertEquals( "SVN update cancelled.", update.getProviderMessage() );
+        assertEquals( javaRepository.getSvnUrl(), getUrl( otherWorkingCopy ) );
+
+        // the working copy was cleaned up, an update completes
+        assertResultIsSuccess( provider.update( repository, new ScmFileSet( otherWorkingCopy ) ) );
+        assertEquals( "changed through the origin",
+                      FileUtils.fileRead( new File( otherWorkingCopy, "readme.txt" ) ) );
+        assertEquals( javaRepository.getSvnUrl(), getUrl( otherWorkingCopy ) );
+    }
+
+    @Test
+    public void testMirrorCatchesUpWithTheOrigin()
+        throws Exception
+    {
+        SVNClientManager clientManager = javaRepository.leaseClientManager();
+        try
+        {
+            SVNURL mirrorUrl = mirror.getMirrorRootUrl().appendPath( "trunk", false );
+            assertEquals( mirrorUrl, javaRepository.getReadUrl( clientManager, javaRepository.getSvnUrl() ) );
+            long revision = mirror.getSyncedRevision();
+            assertEquals( mirrorUrl, javaRepository.getReadUrl( clientManager, javaRepository.getSvnUrl() ) );
+            assertEquals( revision, mirror.getSyncedRevision() );
+
+            // committed to the origin without the provider, the mirror is behind
+            SvnJavaUtil.mkdir( clientManager, new SVNURL[]{ javaRepository.getSvnUrl().appendPath( "docs", false ) },
+                               "not mirrored yet" );
+            assertEquals( revision, mirror.getSyncedRevision() );
+            assertEquals( mirrorUrl, javaRepository.getReadUrl( clientManager, javaRepository.getSvnUrl() ) );
+            assertEquals( revision + 1, mirror.getSyncedRevision() );
+        }
+        finally
+        {
+            javaRepository.releaseClientManager( clientManager );
+        }
+    }
+
+    @Test
+    public void testMirrorOfAnotherUrl()
+        throws Exception
+    {
+        File workingCopy = SvnJavaScmTestUtils.deleteDirectory( getTestFile( "target/mirror-checkout" ) );
+        assertResultIsSuccess( provider.checkOut( repository, new ScmFileSet( workingCopy ) ) );
+
+        SvnMirror other = new SvnMirror( javaRepository.getSvnUrl().appendPath( "src", false ),
+                                         mirror.getDirectory() );
+        SVNClientManager clientManager = javaRepository.leaseClientManager();
+        try
+        {
+            other.synchronize( clientManager );
+            fail( "the directory mirrors trunk" );
+        }
+        catch ( SVNException e )
+        {
+            assertTrue( e.getMessage(), e.getMessage().contains( "mirrors" ) );
+        }
+        finally
+        {
+            javaRepository.releaseClientManager( clientManager );
+        }
+        assertFalse( other.getSyncedRevision() >= 0 );
+    }
+
+    private long getLatestRevision()
+        throws SVNException
+    {
+        SVNClientManager clientManager = javaRepository.leaseClientManager();
+        try
+        {
+            return clientManager.createRepository( javaRepository.getSvnUrl(), true ).getLatestRevision();
+        }
+        finally
+        {
+            javaRepository.releaseClientManager( clientManager );
+        }
+    }
+
+    private SVNURL getUrl( File workingCopy )
+        throws SVNException
+    {
+        SVNClientManager clientManager = javaRepository.leaseClientManager();
+        try
+        {
+            return clientManager.getWCClient().doInfo( workingCopy, SVNRevision.UNDEFINED ).getURL();
+        }
+        finally
+        {
+            javaRepository.releaseClientManager( clientManager );
+        }
+    }
+}
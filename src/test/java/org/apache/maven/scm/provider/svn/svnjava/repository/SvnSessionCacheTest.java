@@ -0,0 +1,183 @@
+package org.apache.maven.scm.provider.svn.svnjava.repository;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.scm.provider.svn.svnjava.SvnJavaScmTestUtils;
+import org.apache.maven.scm.provider.svn.svnjava.util.SvnJavaCancellationToken;
+import org.codehaus.plexus.util.FileUtils;
+import org.junit.Before;
+import org.junit.Test;
+import org.tmatesoft.svn.core.SVNURL;
+import org.tmatesoft.svn.core.internal.io.fs.FSRepositoryFactory;
+import org.tmatesoft.svn.core.io.SVNRepository;
+import org.tmatesoft.svn.core.wc.SVNWCUtil;
+
+import java.io.File;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class SvnSessionCacheTest
+{
+    private SVNURL url;
+
+    @Before
+    public void setUp()
+        throws Exception
+    {
+        FSRepositoryFactory.setup();
+
+        File repositoryRoot = new File( "target/session-cache-repository" );
+        SvnJavaScmTestUtils.initializeRepository( repositoryRoot );
+        url = SVNURL.fromFile( repositoryRoot.getAbsoluteFile() );
+    }
+
+    @Test
+    public void testSessionIsReusedAfterRelease()
+        throws Exception
+    {
+        SvnSessionCache cache = new SvnSessionCache( 4, 60 * 1000L, 60 * 1000L );
+
+        SvnSessionCache.SessionPool first = newSessionPool( cache );
+        SVNRepository repository = first.createRepository( url, true );
+        long revision = repository.getLatestRevision();
+        assertSame( repository, first.createRepository( url.appendPath( "trunk", false ), true ) );
+        first.releaseSessions();
+        assertEquals( 1, cache.getIdleCount() );
+
+        SvnSessionCache.SessionPool second = newSessionPool( cache );
+        SVNRepository reused = second.createRepository( url, true );
+        assertSame( repository, reused );
+        assertEquals( url, reused.getLocation() );
+        assertEquals( revision, reused.getLatestRevision() );
+
+        assertEquals( 1, cache.getOpenedCount() );
+        assertEquals( 1, cache.getReusedCount() );
+        second.releaseSessions();
+    }
+
+    @Test
+    public void testSessionsOwnedByTheCallerAreNotCached()
+        throws Exception
+    {
+        SvnSessionCache cache = new SvnSessionCache( 4, 60 * 1000L, 60 * 1000L );
+
+        SvnSessionCache.SessionPool pool = newSessionPool( cache );
+        SVNRepository cached = pool.createRepository( url, true );
+        pool.releaseSessions();
+
+        pool = newSessionPool( cache );
+        SVNRepository owned = pool.createRepository( url, false );
+        assertNotSame( cached, owned );
+        owned.getLatestRevision();
+        owned.closeSession();
+        pool.releaseSessions();
+
+        assertEquals( 1, cache.getIdleCount() );
+        assertEquals( 1, cache.getOpenedCount() );
+        assertEquals( 0, cache.getReusedCount() );
+        assertSame( cached, newSessionPool( cache ).createRepository( url, true ) );
+    }
+
+    @Test
+    public void testBorrowedSessionsAreNotShared()
+        throws Exception
+    {
+        SvnSessionCache cache = new SvnSessionCache( 4, 60 * 1000L, 60 * 1000L );
+
+        SVNRepository first = newSessionPool( cache ).createRepository( url, true );
+        SVNRepository second = newSessionPool( cache ).createRepository( url, true );
+        assertNotSame( first, second );
+        assertEquals( 2, cache.getOpenedCount() );
+    }
+
+    @Test
+    public void testStaleSessionIsDiscarded()
+        throws Exception
+    {
+        SvnSessionCache cache = new SvnSessionCache( 4, 60 * 1000L, 0L );
+
+        SvnSessionCache.SessionPool pool = newSessionPool( cache );
+        pool.createRepository( url, true ).getLatestRevision();
+        pool.releaseSessions();
+
+        FileUtils.deleteDirectory( new File( "target/session-cache-repository" ) );
+        Thread.sleep( 5 );
+
+        newSessionPool( cache ).createRepository( url, true );
+        assertEquals( 1, cache.getDiscardedCount() );
+        assertEquals( 2, cache.getOpenedCount() );
+        assertEquals( 0, cache.getReusedCount() );
+    }
+
+    @Test
+    public void testSessionsOfFailedCommandAreClosed()
+        throws Exception
+    {
+        SvnSessionCache cache = new SvnSessionCache( 4, 60 * 1000L, 60 * 1000L );
+
+        SvnSessionCache.SessionPool pool = newSessionPool( cache );
+        pool.createRepository( url, true ).getLatestRevision();
+        pool.discardSessions();
+        pool.releaseSessions();
+        assertEquals( 0, cache.getIdleCount() );
+
+        // the pool itself stays usable
+        pool.createRepository( url, true ).getLatestRevision();
+        pool.releaseSessions();
+        assertEquals( 1, cache.getIdleCount() );
+    }
+
+    @Test
+    public void testSessionsOfCancelledCommandAreClosed()
+        throws Exception
+    {
+        SvnSessionCache cache = new SvnSessionCache( 4, 60 * 1000L, 60 * 1000L );
+
+        SvnJavaCancellationToken token = new SvnJavaCancellationToken();
+        SvnSessionCache.SessionPool pool = newSessionPool( cache );
+        pool.setCanceller( token );
+        pool.createRepository( url, true ).getLatestRevision();
+        token.cancel();
+        pool.releaseSessions();
+        assertEquals( 0, cache.getIdleCount() );
+    }
+
+    @Test
+    public void testIdleSessionsAreEvicted()
+        throws Exception
+    {
+        SvnSessionCache cache = new SvnSessionCache( 4, 0L, 0L );
+
+        SvnSessionCache.SessionPool pool = newSessionPool( cache );
+        pool.createRepository( url, true );
+        pool.releaseSessions();
+        Thread.sleep( 5 );
+        cache.evictIdle();
+        assertEquals( 0, cache.getIdleCount() );
+    }
+
+    private SvnSessionCache.SessionPool newSessionPool( SvnSessionCache cache )
+    {
+        return cache.newSessionPool( SVNWCUtil.createDefaultAuthenticationManager(),
+                                     SVNWCUtil.createDefaultOptions( true ) );
+    }
+}
@@ -0,0 +1,142 @@
+package org.apache.maven.scm.provider.svn.svnjava.util;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.scm.ScmFile;
+import org.apache.maven.scm.ScmFileStatus;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class CompactScmFileListTest
+{
+    @Test
+    public void testPathsAreKept()
+    {
+        List<ScmFile> expected = new ArrayList<>();
+        expected.add( new ScmFile( "pom.xml", ScmFileStatus.ADDED ) );
+        expected.add( new ScmFile( "src/main/java/Application.java", ScmFileStatus.ADDED ) );
+        expected.add( new ScmFile( "src/main/java/Other.java", ScmFileStatus.MODIFIED ) );
+        expected.add( new ScmFile( "src\\test\\java\\Test.java", ScmFileStatus.DELETED ) );
+        expected.add( new ScmFile( "src/main/java/Third.java", ScmFileStatus.CONFLICT ) );
+
+        CompactScmFileList files = new CompactScmFileList();
+        for ( ScmFile file : expected )
+        {
+            files.add( file.getPath(), file.getStatus() );
+        }
+
+        assertEquals( expected, files );
+        assertEquals( expected.hashCode(), files.hashCode() );
+        assertEquals( "src\\test\\java\\Test.java", files.getPath( 3 ) );
+        assertEquals( ScmFileStatus.CONFLICT, files.getStatus( 4 ) );
+    }
+
+    @Test
+    public void testDirectoriesAreShared()
+    {
+        CompactScmFileList files = new CompactScmFileList();
+        files.add( "src/main/java/A.java", ScmFileStatus.ADDED );
+        files.add( "src/test/java/B.java", ScmFileStatus.ADDED );
+        files.add( new String( "src/main/java/C.java" ), ScmFileStatus.ADDED );
+
+        assertEquals( 2, files.getDirectoryCount() );
+        assertEquals( "src/main/java/C.java", files.getPath( 2 ) );
+    }
+
+    @Test
+    public void testListCanBeSortedAndEdited()
+    {
+        CompactScmFileList files = new CompactScmFileList();
+        for ( int i = 99; i >= 0; i-- )
+        {
+            files.add( "dir" + i % 7 + "/file" + i, ScmFileStatus.CHECKED_OUT );
+        }
+
+        Collections.sort( files, Comparator.comparing( ScmFile::getPath ) );
+        assertEquals( "dir0/file0", files.get( 0 ).getPath() );
+
+        files.remove( 0 );
+        files.add( 0, new ScmFile( "first", ScmFileStatus.ADDED ) );
+        files.set( 1, new ScmFile( "dir/second", ScmFileStatus.DELETED ) );
+        assertEquals( 100, files.size() );
+        assertEquals( new ScmFile( "first", ScmFileStatus.ADDED ), files.get( 0 ) );
+        assertEquals( new ScmFile( "dir/second", ScmFileStatus.DELETED ), files.get( 1 ) );
+
+        files.clear();
+        assertEquals( 0, files.size() );
+    }
+
+    @Test
+    public void testInvalidIndexReportsTheSize()
+    {
+        CompactScmFileList files = new CompactScmFileList();
+        files.add( "pom.xml", ScmFileStatus.ADDED );
+        files.add( "readme.txt", ScmFileStatus.ADDED );
+        try
+        {
+            files.get( 2 );
+            fail( "the index is out of bounds" );
+        }
+        catch ( IndexOutOfBoundsException e )
+        {
+            assertEquals( "Index: 2, Size: 2", e.getMessage() );
+        }
+        try
+        {
+            files.add( 3, new ScmFile( "other.txt", ScmFileStatus.ADDED ) );
+            fail( "the index is out of bounds" );
+        }
+        catch ( IndexOutOfBoundsException e )
+        {
+            assertEquals( "Index: 3, Size: 2", e.getMessage() );
+        }
+    }
+
+    @Test
+    public void testSerializedAsArrayList()
+        throws Exception
+    {
+        CompactScmFileList files = new CompactScmFileList();
+        files.add( "src/main/java/Application.java", ScmFileStatus.CHECKED_OUT );
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try ( ObjectOutputStream out = new ObjectOutputStream( bytes ) )
+        {
+            out.writeObject( files );
+        }
+        try ( ObjectInputStream in = new ObjectInputStream( new ByteArrayInputStream( bytes.toByteArray() ) ) )
+        {
+            Object copy = in.readObject();
+            assertEquals( ArrayList.class, copy.getClass() );
+            assertEquals( files, copy );
+        }
+    }
+}
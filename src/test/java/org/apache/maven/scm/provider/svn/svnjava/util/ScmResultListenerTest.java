@@ -0,0 +1,155 @@
+package org.apache.maven.scm.provider.svn.svnjava.util;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.scm.ChangeSet;
+import org.apache.maven.scm.ScmBranch;
+import org.apache.maven.scm.ScmFile;
+import org.apache.maven.scm.ScmFileSet;
+import org.apache.maven.scm.ScmFileStatus;
+import org.apache.maven.scm.ScmTestCase;
+import org.apache.maven.scm.command.blame.BlameLine;
+import org.apache.maven.scm.command.blame.BlameScmResult;
+import org.apache.maven.scm.command.changelog.ChangeLogScmResult;
+import org.apache.maven.scm.command.checkout.CheckOutScmResult;
+import org.apache.maven.scm.command.status.StatusScmResult;
+import org.apache.maven.scm.provider.svn.svnjava.SvnJavaScmProvider;
+import org.apache.maven.scm.provider.svn.svnjava.SvnJavaScmTestUtils;
+import org.apache.maven.scm.repository.ScmRepository;
+import org.codehaus.plexus.util.FileUtils;
+import org.junit.Test;
+import org.tmatesoft.svn.core.SVNException;
+import org.tmatesoft.svn.core.SVNNodeKind;
+import org.tmatesoft.svn.core.SVNRevisionProperty;
+import org.tmatesoft.svn.core.SVNURL;
+import org.tmatesoft.svn.core.internal.util.SVNDate;
+import org.tmatesoft.svn.core.io.SVNRepository;
+import org.tmatesoft.svn.core.io.SVNRepositoryFactory;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ScmResultListenerTest
+    extends ScmTestCase
+{
+    @Test
+    public void testRecordsAreStreamed()
+        throws Exception
+    {
+        File workingCopy = SvnJavaScmTestUtils.deleteDirectory( getTestFile( "target/streaming-checkout" ) );
+
+        final SvnJavaScmProvider provider = SvnJavaScmTestUtils.getProvider( getScmManager() );
+        final ScmRepository repository = SvnJavaScmTestUtils.initializeTrunk( getScmManager(), getRepositoryRoot() );
+        final ScmFileSet fileSet = new ScmFileSet( workingCopy );
+        RecordingListener listener = new RecordingListener();
+
+        // streamed
+        CheckOutScmResult checkout =
+            provider.executeStreaming( listener, () -> provider.checkOut( repository, fileSet ) );
+        assertResultIsSuccess( checkout );
+        assertTrue( checkout.getCheckedOutFiles().isEmpty() );
+        assertEquals( 4, listener.files.size() );
+        assertNull( ScmResultListeners.current() );
+
+        final Date start = getTrunkCreationDate();
+        ChangeLogScmResult changeLog = provider.executeStreaming(
+            listener, () -> provider.changeLog( repository, fileSet, start, null, 0, (ScmBranch) null ) );
+        assertResultIsSuccess( changeLog );
+        assertTrue( changeLog.getChangeLog().getChangeSets().isEmpty() );
+        assertFalse( listener.changeSets.isEmpty() );
+
+        BlameScmResult blame =
+            provider.executeStreaming( listener, () -> provider.blame( repository, fileSet, "pom.xml" ) );
+        assertTrue( blame.getLines().isEmpty() );
+
+        // collected, the results are the same
+        BlameScmResult collectedBlame = provider.blame( repository, fileSet, "pom.xml" );
+        assertEquals( collectedBlame.getLines().size(), listener.lines.size() );
+        ChangeLogScmResult collectedChangeLog =
+            provider.changeLog( repository, fileSet, start, null, 0, (ScmBranch) null );
+        assertEquals( collectedChangeLog.getChangeLog().getChangeSets().size(), listener.changeSets.size() );
+
+        // streamed through the command parameters
+        FileUtils.fileAppend( new File( workingCopy, "pom.xml" ).getPath(), "<!-- change -->" );
+        listener.files.clear();
+        SvnJavaCommandParameters parameters = new SvnJavaCommandParameters();
+        parameters.setResultListener( listener );
+        StatusScmResult status = provider.status( repository.getProviderRepository(), fileSet, parameters );
+        assertResultIsSuccess( status );
+        assertTrue( status.getChangedFiles().isEmpty() );
+        assertEquals( 1, listener.files.size() );
+        assertEquals( ScmFileStatus.MODIFIED, listener.files.get( 0 ).getStatus() );
+    }
+
+    /**
+     * the changelog cannot start before the creation of trunk.
+     */
+    private Date getTrunkCreationDate()
+        throws SVNException
+    {
+        SVNRepository repository = SVNRepositoryFactory.create( SVNURL.fromFile( getRepositoryRoot() ) );
+        try
+        {
+            long revision = 1;
+            while ( repository.checkPath( "trunk", revision ) != SVNNodeKind.DIR )
+            {
+                revision++;
+            }
+            return SVNDate.parseDate(
+                repository.getRevisionPropertyValue( revision, SVNRevisionProperty.DATE ).getString() );
+        }
+        finally
+        {
+            repository.closeSession();
+        }
+    }
+
+    private static class RecordingListener
+        implements ScmResultListener
+    {
+        private final List<ScmFile> files = new ArrayList<>();
+
+        private final List<ChangeSet> changeSets = new ArrayList<>();
+
+        private final List<BlameLine> lines = new ArrayList<>();
+
+        public void onScmFile( ScmFile file )
+        {
+            files.add( file );
+        }
+
+        public void onChangeSet( ChangeSet changeSet )
+        {
+            changeSets.add( changeSet );
+        }
+
+        public void onBlameLine( BlameLine line )
+        {
+            lines.add( line );
+        }
+    }
+}
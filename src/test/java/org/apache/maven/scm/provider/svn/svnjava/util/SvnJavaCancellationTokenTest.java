@@ -0,0 +1,152 @@
+package org.apache.maven.scm.provider.svn.svnjava.util;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.scm.ScmFileSet;
+import org.apache.maven.scm.ScmTestCase;
+import org.apache.maven.scm.command.checkout.CheckOutScmResult;
+import org.apache.maven.scm.command.update.UpdateScmResult;
+import org.apache.maven.scm.provider.svn.svnjava.SvnJavaScmProvider;
+import org.apache.maven.scm.provider.svn.svnjava.SvnJavaScmTestUtils;
+import org.apache.maven.scm.repository.ScmRepository;
+import org.codehaus.plexus.util.FileUtils;
+import org.junit.Before;
+import org.junit.Test;
+import org.tmatesoft.svn.core.SVNCancelException;
+import org.tmatesoft.svn.core.SVNErrorCode;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SvnJavaCancellationTokenTest
+    extends ScmTestCase
+{
+    private SvnJavaScmProvider provider;
+
+    private ScmRepository repository;
+
+    private File workingCopy;
+
+    @Before
+    @Override
+    public void setUp()
+        throws Exception
+    {
+        super.setUp();
+        workingCopy = SvnJavaScmTestUtils.deleteDirectory( getTestFile( "target/cancellation-checkout" ) );
+        provider = SvnJavaScmTestUtils.getProvider( getScmManager() );
+        repository = SvnJavaScmTestUtils.initializeTrunk( getScmManager(), getRepositoryRoot() );
+    }
+
+    @Test
+    public void testExpiredDeadlineCancelsCommand()
+        throws Exception
+    {
+        SvnJavaCommandParameters parameters = new SvnJavaCommandParameters();
+        parameters.setCancellationToken( new SvnJavaCancellationToken( 0, TimeUnit.MILLISECONDS ) );
+
+        CheckOutScmResult result =
+            provider.checkout( repository.getProviderRepository(), new ScmFileSet( workingCopy ), parameters );
+
+        assertFalse( result.isSuccess() );
+        assertEquals( "SVN checkout cancelled.", result.getProviderMessage() );
+        assertTrue( result.getCheckedOutFiles().isEmpty() );
+        assertNull( SvnJavaCancellationToken.current() );
+    }
+
+    @Test
+    public void testCancelledCheckoutReportsProgressAndCanBeResumed()
+        throws Exception
+    {
+        SvnJavaCommandParameters parameters = new SvnJavaCommandParameters();
+        parameters.setCancellationToken( new CancelAfterFilesToken( 2 ) );
+
+        CheckOutScmResult result =
+            provider.checkout( repository.getProviderRepository(), new ScmFileSet( workingCopy ), parameters );
+
+        assertFalse( result.isSuccess() );
+        assertEquals( 2, result.getCheckedOutFiles().size() );
+
+        // the working copy was cleaned up, an update completes the checkout
+        UpdateScmResult update = provider.update( repository, new ScmFileSet( workingCopy ) );
+        assertResultIsSuccess( update );
+        assertTrue( new File( workingCopy, "pom.xml" ).exists() );
+        assertTrue( new File( workingCopy, "src/main/java/Application.java" ).exists() );
+    }
+
+    @Test
+    public void testCancel()
+    {
+        SvnJavaCancellationToken token = new SvnJavaCancellationToken( 1, TimeUnit.HOURS );
+        assertFalse( token.isCancelled() );
+        token.cancel();
+        assertTrue( token.isCancelled() );
+        assertFalse( token.isExpired() );
+        try
+        {
+            token.checkCancelled();
+        }
+        catch ( SVNCancelException e )
+        {
+            assertEquals( SVNErrorCode.CANCELLED, e.getErrorMessage().getErrorCode() );
+            return;
+        }
+        throw new AssertionError( "token not cancelled" );
+    }
+
+    /**
+     * Cancels itself once the working copy holds the given number of files.
+     */
+    private class CancelAfterFilesToken
+        extends SvnJavaCancellationToken
+    {
+        private final int files;
+
+        CancelAfterFilesToken( int files )
+        {
+            this.files = files;
+        }
+
+        @Override
+        public void checkCancelled()
+            throws SVNCancelException
+        {
+            try
+            {
+                if ( workingCopy.isDirectory()
+                    && FileUtils.getFiles( workingCopy, "**", "**/.svn/**", false ).size() >= files )
+                {
+                    cancel();
+                }
+            }
+            catch ( IOException e )
+            {
+                throw new IllegalStateException( e );
+            }
+            super.checkCancelled();
+        }
+    }
+}
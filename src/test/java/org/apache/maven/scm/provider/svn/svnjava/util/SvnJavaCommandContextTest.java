@@ -0,0 +1,125 @@
+package org.apache.maven.scm.provider.svn.svnjava.util;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.scm.ScmFile;
+import org.apache.maven.scm.ScmFileStatus;
+import org.apache.maven.scm.provider.svn.svnjava.metrics.SvnCommandMetricsRecorder;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class SvnJavaCommandContextTest
+{
+    @Test
+    public void testContextIsCarriedToWorkers()
+        throws Exception
+    {
+        SvnCommandMetricsRecorder recorder = new SvnCommandMetricsRecorder();
+        SvnJavaCancellationToken token = new SvnJavaCancellationToken();
+        CollectingScmResultListener listener = new CollectingScmResultListener();
+
+        SvnCommandMetricsRecorder previousRecorder = recorder.bind();
+        SvnJavaCancellationToken previousToken = token.bind();
+        ScmResultListener previousListener = ScmResultListeners.bind( listener );
+        final SvnJavaCommandContext context;
+        try
+        {
+            context = SvnJavaCommandContext.capture();
+        }
+        finally
+        {
+            ScmResultListeners.restore( previousListener );
+            SvnJavaCancellationToken.restore( previousToken );
+            SvnCommandMetricsRecorder.restore( previousRecorder );
+        }
+        assertNull( SvnJavaCommandContext.capture().getRecorder() );
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try
+        {
+            Future<SvnJavaCommandContext> seen = executor.submit( () -> {
+                SvnJavaCommandContext previous = context.bind();
+                try
+                {
+                    return SvnJavaCommandContext.capture();
+                }
+                finally
+                {
+                    SvnJavaCommandContext.restore( previous );
+                }
+            } );
+            assertSame( recorder, seen.get().getRecorder() );
+            assertSame( token, seen.get().getCancellationToken() );
+            assertSame( listener, seen.get().getResultListener() );
+
+            Future<SvnJavaCommandContext> after = executor.submit( SvnJavaCommandContext::capture );
+            assertNull( after.get().getRecorder() );
+            assertNull( after.get().getCancellationToken() );
+            assertNull( after.get().getResultListener() );
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testSynchronizedListener()
+        throws Exception
+    {
+        CollectingScmResultListener collecting = new CollectingScmResultListener();
+        final ScmResultListener listener = ScmResultListeners.synchronizedListener( collecting );
+
+        ExecutorService executor = Executors.newFixedThreadPool( 4 );
+        try
+        {
+            List<Future<?>> futures = new ArrayList<>();
+            for ( int t = 0; t < 4; t++ )
+            {
+                final int thread = t;
+                futures.add( executor.submit( () -> {
+                    for ( int i = 0; i < 1000; i++ )
+                    {
+                        listener.onScmFile( new ScmFile( "dir" + thread + "/file" + i, ScmFileStatus.CHECKED_OUT ) );
+                    }
+                } ) );
+            }
+            for ( Future<?> future : futures )
+            {
+                future.get();
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        assertEquals( 4000, collecting.getFiles().size() );
+    }
+}